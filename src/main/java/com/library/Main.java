@@ -1,6 +1,11 @@
 package com.library;
 
+import com.library.api.LibraryHttpServer;
+import com.library.replication.JournalReplica;
+import com.library.replication.JournalShipper;
+import com.library.replication.MutationJournal;
 import com.library.service.LibraryService;
+import java.io.IOException;
 import java.util.Scanner;
 
 /**
@@ -12,13 +17,89 @@ public class Main {
     private static LibraryService libraryService = new LibraryService();
     private static Scanner scanner = new Scanner(System.in);
 
+    private static final int DEFAULT_HTTP_PORT = 8080;
+
     public static void main(String[] args) {
+        if (args.length > 0 && "--http".equals(args[0])) {
+            startHttpServer(args);
+            return;
+        }
+        if (args.length > 1 && "--replica".equals(args[0])) {
+            startReplica(args);
+            return;
+        }
+
         System.out.println("=== Library Management System with Design Patterns ===");
         System.out.println("✅ Strategy Pattern: Fine calculation for different media types");
         System.out.println("✅ Observer Pattern: Notification system for events");
+        libraryService.getContext().warmUpAsync();
+        libraryService.getContext().getDueDateScheduler().start();
         showMainMenu();
     }
 
+    /**
+     * Starts the HTTP API instead of the console menu: --http [port] [journalPort].
+     * With a journal port, mutations are shipped to read replicas on that loopback port.
+     */
+    private static void startHttpServer(String[] args) {
+        int port = args.length > 1 ? parsePort(args[1], DEFAULT_HTTP_PORT) : DEFAULT_HTTP_PORT;
+
+        try {
+            if (args.length > 2) {
+                MutationJournal journal = MutationJournal.attach(libraryService.getContext());
+                JournalShipper shipper = new JournalShipper(journal, parsePort(args[2], 0));
+                shipper.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(shipper::close));
+                System.out.println("=== Journal shipping on port " + shipper.getPort() + " ===");
+            }
+            LibraryHttpServer server = new LibraryHttpServer(port, libraryService.getContext());
+            server.start();
+            libraryService.getContext().warmUpAsync();
+            libraryService.getContext().getDueDateScheduler().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            System.out.println("=== Library HTTP API running on port " + server.getPort() + " ===");
+        } catch (IOException e) {
+            System.out.println("❌ Failed to start HTTP API: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a read-only replica of a primary: --replica host:journalPort [port]
+     */
+    private static void startReplica(String[] args) {
+        String[] primary = args[1].split(":");
+        if (primary.length != 2) {
+            System.out.println("❌ Error: Primary must be given as host:port");
+            return;
+        }
+        int port = args.length > 2 ? parsePort(args[2], DEFAULT_HTTP_PORT) : DEFAULT_HTTP_PORT;
+
+        try {
+            JournalReplica replica = new JournalReplica(libraryService.getContext(), primary[0],
+                    parsePort(primary[1], 0));
+            replica.start();
+            LibraryHttpServer server = new LibraryHttpServer(port, replica);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                replica.close();
+            }));
+            System.out.println("=== Library read replica running on port " + server.getPort() +
+                    " (primary " + args[1] + ") ===");
+        } catch (IOException e) {
+            System.out.println("❌ Failed to start read replica: " + e.getMessage());
+        }
+    }
+
+    private static int parsePort(String value, int defaultPort) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid port '" + value + "', using " + defaultPort);
+            return defaultPort;
+        }
+    }
+
     private static void showMainMenu() {
         while (true) {
             System.out.println("\n=== MAIN MENU ===");
@@ -0,0 +1,294 @@
+package com.library.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON writer and parser used by the HTTP API (no external dependencies)
+ * Objects are read as LinkedHashMap, arrays as ArrayList, numbers as Double.
+ * NaN and infinite numbers have no JSON form and are written as null; the parser rejects
+ * input nested deeper than {@link #MAX_DEPTH} levels.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class Json {
+    public static final int MAX_DEPTH = 64;
+
+    private Json() {
+    }
+
+    /**
+     * Serializes maps, collections, strings, numbers, booleans and null to JSON
+     * @param value the value to serialize
+     * @return the JSON text
+     */
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        writeValue(sb, value);
+        return sb.toString();
+    }
+
+    private static void writeValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String s) {
+            writeString(sb, s);
+        } else if (value instanceof Double d && !Double.isFinite(d)
+                || value instanceof Float f && !Float.isFinite(f)) {
+            sb.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                writeString(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                writeValue(sb, entry.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof Collection<?> items) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                writeValue(sb, item);
+            }
+            sb.append(']');
+        } else {
+            writeString(sb, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Parses JSON text
+     * @param text the JSON text
+     * @return the parsed value
+     * @throws IllegalArgumentException if the text is not valid JSON
+     */
+    public static Object parse(String text) {
+        Parser parser = new Parser(text);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw new IllegalArgumentException("Unexpected trailing content at position " + parser.pos);
+        }
+        return value;
+    }
+
+    /**
+     * Parses a JSON object
+     * @param text the JSON text (blank text is treated as an empty object)
+     * @return the parsed object
+     * @throws IllegalArgumentException if the text is not a JSON object
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        if (text == null || text.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        Object value = parse(text);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+        private int depth;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        Object readValue() {
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{': return readObject();
+                case '[': return readArray();
+                case '"': return readString();
+                case 't': return readLiteral("true", Boolean.TRUE);
+                case 'f': return readLiteral("false", Boolean.FALSE);
+                case 'n': return readLiteral("null", null);
+                default: return readNumber();
+            }
+        }
+
+        private Map<String, Object> readObject() {
+            enter();
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                depth--;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                map.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    depth--;
+                    return map;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or '}' at position " + (pos - 1));
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            enter();
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                depth--;
+                return list;
+            }
+            while (true) {
+                skipWhitespace();
+                list.add(readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    depth--;
+                    return list;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or ']' at position " + (pos - 1));
+                }
+            }
+        }
+
+        private void enter() {
+            if (++depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("JSON nested deeper than " + MAX_DEPTH + " levels at position " + pos);
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw new IllegalArgumentException("Invalid unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(escaped);
+                }
+            }
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (!text.startsWith(literal, pos)) {
+                throw new IllegalArgumentException("Unexpected token at position " + pos);
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        private Double readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new IllegalArgumentException("Unexpected character at position " + pos);
+            }
+            try {
+                return Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number at position " + start, e);
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            char c = next();
+            if (c != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at position " + (pos - 1));
+            }
+        }
+    }
+}
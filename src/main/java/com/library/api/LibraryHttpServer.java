@@ -0,0 +1,777 @@
+package com.library.api;
+
+import com.library.ledger.UserView;
+import com.library.model.Fine;
+import com.library.model.Hold;
+import com.library.model.Loan;
+import com.library.model.Media;
+import com.library.replication.JournalReplica;
+import com.library.repository.Page;
+import com.library.service.AutocompleteService;
+import com.library.service.BorrowingRulesService;
+import com.library.service.FineService;
+import com.library.service.HoldService;
+import com.library.service.LibraryContext;
+import com.library.service.LoanService;
+import com.library.service.MediaService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Embedded HTTP/JSON front end for circulation operations.
+ * Every request runs on its own virtual thread, so many kiosks can be served by one instance.
+ *
+ * Endpoints:
+ *   GET  /api/media?limit=&cursor=        list the catalog page by page (or ?offset=)
+ *   GET  /api/media/search?q=...          search the catalog (&available=true for available items only);
+ *                                         an empty result carries fuzzy "suggestions"
+ *   GET  /api/media/suggest?q=...         as-you-type suggestions, most borrowed first (&limit=)
+ *   GET  /api/media/browse?type=&genre=   filter by media type and CD genre (&available=true), with
+ *                                         CD counts per genre for the same availability
+ *   POST /api/loans                       borrow {"userId","mediaId","mediaType"}
+ *   POST /api/loans/{loanId}/return       return a loan
+ *   POST /api/loans/batch                 borrow several items {"userId","items":[...],"allOrNothing"}
+ *   POST /api/loans/returns               return several loans {"loanIds":[...]}
+ *   GET  /api/users/{userId}/loans        active loans for a user
+ *   GET  /api/users/{userId}/eligibility  cached borrowing eligibility for a user
+ *   GET  /api/users/{userId}/fines        fines for a user with the unpaid total
+ *   GET  /api/users/{userId}/summary      account dashboard: active loans, nearest due date, overdue count
+ *                                         and unpaid balance by media type, from the circulation ledger
+ *   POST /api/holds                       place a hold {"userId","mediaId","mediaType"}
+ *   GET  /api/users/{userId}/holds        holds for a user
+ *   POST /api/fines/{fineId}/payments     pay a fine {"amount"}
+ *   GET  /api/reports/overdue             overdue report for all users
+ *   GET  /api/health                      readiness of catalog, circulation, email and reminders
+ *   GET  /api/replication/status          applied sequence and lag (read replicas only)
+ *
+ * A server in front of a {@link JournalReplica} is read-only: POST requests are rejected and
+ * reads share the replica's lock with the journal applier.
+ *
+ * @author Library Team
+ * @version 1.0
+ */
+public class LibraryHttpServer {
+    private static final Logger logger = Logger.getLogger(LibraryHttpServer.class.getName());
+    private static final String API_PREFIX = "/api";
+    private static final String GET = "GET";
+    private static final String POST = "POST";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SUGGESTIONS = 5;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final long MAX_DISCARD_BYTES = 16L << 20;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LoanService loanService;
+    private final FineService fineService;
+    private final MediaService mediaService;
+    private final BorrowingRulesService borrowingRulesService;
+    private final LibraryContext context;
+    private final JournalReplica replica;
+
+    // The services keep their state in plain lists, so circulation calls are serialized.
+    // Loan and overdue reports evaluate overdue status without writing, so they share the read lock.
+    private final ReentrantReadWriteLock circulationLock;
+
+    /**
+     * Creates the server bound to the given port (0 picks a free port)
+     * @param port the port to listen on
+     * @param loanService the loan service
+     * @param fineService the fine service
+     * @param mediaService the media service
+     * @throws IOException if the port cannot be bound
+     */
+    public LibraryHttpServer(int port, LoanService loanService, FineService fineService,
+                             MediaService mediaService) throws IOException {
+        this(port, loanService, fineService, mediaService, new BorrowingRulesService(loanService.getLoanRepository(),
+                fineService.getFineRepository(), loanService.getUserRepository()), null, null);
+        loanService.attachObserver(borrowingRulesService.getCacheInvalidator());
+        fineService.attachObserver(borrowingRulesService.getCacheInvalidator());
+    }
+
+    /**
+     * Creates the server over the services of an application context
+     * @param port the port to listen on (0 picks a free port)
+     * @param context the application context
+     * @throws IOException if the port cannot be bound
+     */
+    public LibraryHttpServer(int port, LibraryContext context) throws IOException {
+        this(port, context.getLoanService(), context.getFineService(), context.getMediaService(),
+                context.getBorrowingRulesService(), context, null);
+    }
+
+    /**
+     * Creates a read-only server over a read replica
+     * @param port the port to listen on (0 picks a free port)
+     * @param replica the replica whose context is served
+     * @throws IOException if the port cannot be bound
+     */
+    public LibraryHttpServer(int port, JournalReplica replica) throws IOException {
+        this(port, replica.getContext().getLoanService(), replica.getContext().getFineService(),
+                replica.getContext().getMediaService(), replica.getContext().getBorrowingRulesService(),
+                replica.getContext(), replica);
+    }
+
+    private LibraryHttpServer(int port, LoanService loanService, FineService fineService, MediaService mediaService,
+                              BorrowingRulesService borrowingRulesService, LibraryContext context,
+                              JournalReplica replica) throws IOException {
+        this.loanService = loanService;
+        this.fineService = fineService;
+        this.mediaService = mediaService;
+        this.borrowingRulesService = borrowingRulesService;
+        this.context = context;
+        this.replica = replica;
+        // Share the context's lock so scheduler ticks and replica applies are serialized with requests
+        this.circulationLock = replica != null ? replica.getLock()
+                : context != null ? context.getCirculationLock() : new ReentrantReadWriteLock();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server.setExecutor(executor);
+        this.server.createContext(API_PREFIX, this::handle);
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+        logger.info("HTTP API listening on port " + getPort());
+    }
+
+    /**
+     * Stops the server and its request executor
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        logger.info("HTTP API stopped");
+    }
+
+    /**
+     * Gets the port the server is bound to
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        ApiResponse response;
+        try {
+            response = route(exchange);
+        } catch (BodyTooLargeException e) {
+            response = ApiResponse.error(413, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = ApiResponse.error(400, e.getMessage());
+        } catch (StackOverflowError e) {
+            response = ApiResponse.error(400, "Request is nested too deeply");
+        } catch (Exception e) {
+            logger.severe("Error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+            response = ApiResponse.error(500, "Internal server error");
+        }
+
+        byte[] body = Json.write(response.body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ApiResponse route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(API_PREFIX.length());
+        String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+
+        if (replica != null && !requireMethod(method, GET)) {
+            return ApiResponse.error(403, "Read-only replica: send writes to the primary");
+        }
+        if (segments.length == 2 && "replication".equals(segments[0]) && "status".equals(segments[1])) {
+            if (!requireMethod(method, GET)) {
+                return ApiResponse.methodNotAllowed();
+            }
+            return replica != null ? ApiResponse.ok(replica.getStatus().toMap())
+                    : ApiResponse.error(404, "Replication is not enabled on this server");
+        }
+
+        if (segments.length == 1 && "media".equals(segments[0])) {
+            return requireMethod(method, GET) ? listMedia(exchange) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 2 && "media".equals(segments[0]) && "search".equals(segments[1])) {
+            return requireMethod(method, GET) ? searchMedia(exchange) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 2 && "media".equals(segments[0]) && "suggest".equals(segments[1])) {
+            return requireMethod(method, GET) ? suggestMedia(exchange) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 2 && "media".equals(segments[0]) && "browse".equals(segments[1])) {
+            return requireMethod(method, GET) ? browseMedia(exchange) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 1 && "loans".equals(segments[0])) {
+            return requireMethod(method, POST) ? borrow(readBody(exchange)) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 2 && "loans".equals(segments[0]) && "batch".equals(segments[1])) {
+            return requireMethod(method, POST) ? borrowBatch(readBody(exchange)) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 2 && "loans".equals(segments[0]) && "returns".equals(segments[1])) {
+            return requireMethod(method, POST) ? returnBatch(readBody(exchange)) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 3 && "loans".equals(segments[0]) && "return".equals(segments[2])) {
+            return requireMethod(method, POST) ? returnLoan(segments[1]) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 3 && "users".equals(segments[0]) && "loans".equals(segments[2])) {
+            return requireMethod(method, GET) ? userLoans(segments[1]) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 1 && "holds".equals(segments[0])) {
+            return requireMethod(method, POST) ? placeHold(readBody(exchange)) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 3 && "users".equals(segments[0]) && "holds".equals(segments[2])) {
+            return requireMethod(method, GET) ? userHolds(segments[1]) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 3 && "users".equals(segments[0]) && "eligibility".equals(segments[2])) {
+            return requireMethod(method, GET) ? eligibility(segments[1]) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 3 && "users".equals(segments[0]) && "summary".equals(segments[2])) {
+            return requireMethod(method, GET) ? userSummary(segments[1]) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 3 && "users".equals(segments[0]) && "fines".equals(segments[2])) {
+            return requireMethod(method, GET) ? userFines(segments[1]) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 3 && "fines".equals(segments[0]) && "payments".equals(segments[2])) {
+            return requireMethod(method, POST)
+                    ? payFine(segments[1], readBody(exchange)) : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 2 && "reports".equals(segments[0]) && "overdue".equals(segments[1])) {
+            return requireMethod(method, GET) ? overdueReport() : ApiResponse.methodNotAllowed();
+        }
+        if (segments.length == 1 && "health".equals(segments[0])) {
+            return requireMethod(method, GET) ? health() : ApiResponse.methodNotAllowed();
+        }
+        return ApiResponse.error(404, "Unknown endpoint: " + exchange.getRequestURI().getPath());
+    }
+
+    private ApiResponse listMedia(HttpExchange exchange) {
+        Map<String, String> params = queryParameters(exchange);
+        int limit = Math.min(parseInt(params.get("limit"), DEFAULT_PAGE_SIZE, "limit"), MAX_PAGE_SIZE);
+        String offset = params.get("offset");
+
+        Page<Media> page = withLock(circulationLock.readLock(), () -> offset != null
+                ? mediaService.getMediaPage(parseInt(offset, 0, "offset"), limit)
+                : mediaService.getMediaAfter(params.get("cursor"), limit));
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Media media : page.getItems()) {
+            items.add(toJson(media));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("offset", page.getOffset());
+        body.put("total", page.getTotalCount());
+        body.put("count", items.size());
+        body.put("nextCursor", page.getNextCursor());
+        body.put("results", items);
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse searchMedia(HttpExchange exchange) {
+        Map<String, String> params = queryParameters(exchange);
+        String query = params.get("q");
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query parameter 'q' is required");
+        }
+        boolean availableOnly = Boolean.parseBoolean(params.get("available"));
+
+        List<Media> results = withLock(circulationLock.readLock(),
+                () -> mediaService.searchMedia(query, availableOnly));
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Media media : results) {
+            items.add(toJson(media));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        body.put("count", items.size());
+        body.put("results", items);
+        if (results.isEmpty()) {
+            // Nothing matched exactly: offer the closest titles and authors instead
+            List<Map<String, Object>> suggestions = new ArrayList<>();
+            for (Media media : mediaService.fuzzySearchMedia(query, MAX_SUGGESTIONS)) {
+                suggestions.add(toJson(media));
+            }
+            body.put("suggestions", suggestions);
+        }
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse suggestMedia(HttpExchange exchange) {
+        if (context == null) {
+            return ApiResponse.error(404, "Autocomplete is not enabled on this server");
+        }
+        Map<String, String> params = queryParameters(exchange);
+        String query = params.getOrDefault("q", "");
+        int limit = parseInt(params.get("limit"), AutocompleteService.DEFAULT_LIMIT, "limit");
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Media media : context.getAutocompleteService().suggest(query, limit)) {
+            items.add(toJson(media));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        body.put("count", items.size());
+        body.put("suggestions", items);
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse browseMedia(HttpExchange exchange) {
+        Map<String, String> params = queryParameters(exchange);
+        String type = params.get("type");
+        String genre = params.get("genre");
+        boolean availableOnly = Boolean.parseBoolean(params.get("available"));
+
+        List<Media> results = withLock(circulationLock.readLock(),
+                () -> mediaService.browseMedia(type, genre, availableOnly));
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Media media : results) {
+            items.add(toJson(media));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", type);
+        body.put("genre", genre);
+        body.put("available", availableOnly);
+        body.put("count", items.size());
+        body.put("genres", mediaService.getGenreCounts(availableOnly));
+        body.put("results", items);
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse borrow(Map<String, Object> request) {
+        String userId = requireString(request, "userId");
+        String mediaId = requireString(request, "mediaId");
+        String mediaType = requireString(request, "mediaType").toUpperCase(Locale.ROOT);
+        if (!"BOOK".equals(mediaType) && !"CD".equals(mediaType)) {
+            throw new IllegalArgumentException("mediaType must be BOOK or CD");
+        }
+
+        LocalDate today = LocalDate.now();
+        Loan loan = withLock(circulationLock.writeLock(), () -> "BOOK".equals(mediaType)
+                ? loanService.borrowBook(userId, mediaId, today)
+                : loanService.borrowCD(userId, mediaId, today));
+
+        if (loan == null) {
+            return ApiResponse.error(409, "Borrow rejected for user " + userId + " and " + mediaType + " " + mediaId);
+        }
+        return new ApiResponse(201, toJson(loan));
+    }
+
+    private ApiResponse returnLoan(String loanId) {
+        boolean returned = withLock(circulationLock.writeLock(),
+                () -> loanService.returnBook(loanId, LocalDate.now()));
+        if (!returned) {
+            return ApiResponse.error(409, "Return rejected for loan " + loanId);
+        }
+
+        Loan loan = withLock(circulationLock.readLock(),
+                () -> loanService.getLoanRepository().findLoanById(loanId));
+        return ApiResponse.ok(toJson(loan));
+    }
+
+    private ApiResponse borrowBatch(Map<String, Object> request) {
+        String userId = requireString(request, "userId");
+        boolean allOrNothing = !Boolean.FALSE.equals(request.get("allOrNothing"));
+        if (!(request.get("items") instanceof List<?> rawItems) || rawItems.isEmpty()) {
+            throw new IllegalArgumentException("Field 'items' must be a non-empty array");
+        }
+
+        List<LoanService.BatchItem> items = new ArrayList<>();
+        for (Object rawItem : rawItems) {
+            if (!(rawItem instanceof Map<?, ?> item)) {
+                throw new IllegalArgumentException("Each item must be an object");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> fields = (Map<String, Object>) item;
+            items.add(new LoanService.BatchItem(requireString(fields, "mediaId"), requireString(fields, "mediaType")));
+        }
+
+        LocalDate today = LocalDate.now();
+        LoanService.BatchResult result = withLock(circulationLock.writeLock(),
+                () -> loanService.borrowBatch(userId, items, today, allOrNothing));
+        return new ApiResponse(result.getLoans().isEmpty() ? 409 : 201, toJson(result));
+    }
+
+    private ApiResponse returnBatch(Map<String, Object> request) {
+        if (!(request.get("loanIds") instanceof List<?> rawIds) || rawIds.isEmpty()) {
+            throw new IllegalArgumentException("Field 'loanIds' must be a non-empty array");
+        }
+        List<String> loanIds = new ArrayList<>();
+        for (Object rawId : rawIds) {
+            loanIds.add(String.valueOf(rawId));
+        }
+
+        LoanService.BatchResult result = withLock(circulationLock.writeLock(),
+                () -> loanService.returnBatch(loanIds, LocalDate.now()));
+        return new ApiResponse(result.getLoans().isEmpty() ? 409 : 200, toJson(result));
+    }
+
+    private ApiResponse userLoans(String userId) {
+        List<Loan> loans = withLock(circulationLock.readLock(), () -> loanService.getUserActiveLoans(userId));
+        List<Map<String, Object>> items = new ArrayList<>();
+        int overdueCount = 0;
+        for (Loan loan : loans) {
+            items.add(toJson(loan));
+            if (loan.isOverdueAsOf(LocalDate.now())) {
+                overdueCount++;
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", userId);
+        body.put("count", items.size());
+        body.put("overdueCount", overdueCount);
+        body.put("loans", items);
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse placeHold(Map<String, Object> request) {
+        HoldService holdService = loanService.getHoldService();
+        if (holdService == null) {
+            return ApiResponse.error(503, "Holds are not enabled");
+        }
+        String userId = requireString(request, "userId");
+        String mediaId = requireString(request, "mediaId");
+        String mediaType = requireString(request, "mediaType").toUpperCase(Locale.ROOT);
+
+        Hold hold = withLock(circulationLock.writeLock(),
+                () -> holdService.placeHold(userId, mediaId, mediaType, LocalDate.now()));
+        if (hold == null) {
+            return ApiResponse.error(409, "Hold rejected for user " + userId + " and " + mediaType + " " + mediaId);
+        }
+        Map<String, Object> body = toJson(hold);
+        body.put("queueLength", holdService.getHoldRepository().getQueueLength(mediaId));
+        return new ApiResponse(201, body);
+    }
+
+    private ApiResponse userHolds(String userId) {
+        HoldService holdService = loanService.getHoldService();
+        if (holdService == null) {
+            return ApiResponse.error(503, "Holds are not enabled");
+        }
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Hold hold : holdService.getHoldRepository().findHoldsByUser(userId)) {
+            items.add(toJson(hold));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", userId);
+        body.put("count", items.size());
+        body.put("holds", items);
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse eligibility(String userId) {
+        // Cached decisions never mutate loans, so eligibility checks can share the read lock
+        BorrowingRulesService.ValidationResult result = withLock(circulationLock.readLock(),
+                () -> borrowingRulesService.canUserBorrow(userId, LocalDate.now()));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", userId);
+        body.put("canBorrow", result.isValid());
+        body.put("message", result.getMessage());
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse userSummary(String userId) {
+        if (context == null) {
+            return ApiResponse.error(404, "Account summaries are not enabled on this server");
+        }
+        // One read of the user's precomputed view: no loan or fine scans and no fine assessment
+        UserView view = context.getLedger().getView(userId);
+        if (view == null) {
+            return ApiResponse.error(404, "User not found: " + userId);
+        }
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", userId);
+        body.put("active", view.isActive());
+        body.put("activeLoanCount", view.getActiveLoanCount());
+        body.put("activeLoanIds", new ArrayList<>(view.getActiveLoanIds()));
+        body.put("nearestDueDate", view.getEarliestDueDate() != null ? view.getEarliestDueDate().toString() : null);
+        body.put("overdueCount", view.getOverdueCount(today));
+        body.put("unpaidBalance", view.getUnpaidBalance());
+        body.put("unpaidByMediaType", view.getUnpaidByMediaType());
+        body.put("canBorrow", context.getLedger().isEligible(userId, today));
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse userFines(String userId) {
+        List<Fine> fines = withLock(circulationLock.readLock(), () -> List.copyOf(fineService.getUserFines(userId)));
+        List<Map<String, Object>> items = new ArrayList<>();
+        double unpaidTotal = 0;
+        for (Fine fine : fines) {
+            items.add(toJson(fine));
+            if (!fine.isPaid()) {
+                unpaidTotal += fine.getRemainingBalance();
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", userId);
+        body.put("count", items.size());
+        body.put("unpaidTotal", unpaidTotal);
+        body.put("fines", items);
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse health() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (context != null) {
+            body.putAll(context.getReadiness());
+        } else {
+            body.put("catalog", "READY");
+            body.put("circulation", "READY");
+        }
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse payFine(String fineId, Map<String, Object> request) {
+        Object amount = request.get("amount");
+        if (!(amount instanceof Number)) {
+            throw new IllegalArgumentException("Numeric field 'amount' is required");
+        }
+        double paymentAmount = ((Number) amount).doubleValue();
+
+        boolean paid = withLock(circulationLock.writeLock(), () -> fineService.payFine(fineId, paymentAmount));
+        if (!paid) {
+            return ApiResponse.error(409, "Payment rejected for fine " + fineId);
+        }
+
+        Map<String, Object> body = withLock(circulationLock.readLock(), () -> {
+            var fine = fineService.getFineRepository().findFineById(fineId);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("fineId", fineId);
+            result.put("userId", fine.getUserId());
+            result.put("amount", fine.getAmount());
+            result.put("paidAmount", fine.getPaidAmount());
+            result.put("remainingBalance", fine.getRemainingBalance());
+            result.put("paid", fine.isPaid());
+            return result;
+        });
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse overdueReport() {
+        LocalDate today = LocalDate.now();
+        List<Loan> overdueLoans = withLock(circulationLock.readLock(), () -> loanService.getOverdueLoans(today));
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        double totalFines = 0;
+        for (Loan loan : overdueLoans) {
+            items.add(toJson(loan));
+            totalFines += loan.calculateFine(today);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("reportDate", today.toString());
+        body.put("count", items.size());
+        body.put("totalFines", totalFines);
+        body.put("loans", items);
+        return ApiResponse.ok(body);
+    }
+
+    private static Map<String, Object> toJson(Loan loan) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("loanId", loan.getLoanId());
+        json.put("userId", loan.getUserId());
+        json.put("mediaId", loan.getMediaId());
+        json.put("mediaType", loan.getMediaType());
+        json.put("copyBarcode", loan.getCopyBarcode());
+        json.put("borrowDate", String.valueOf(loan.getBorrowDate()));
+        json.put("dueDate", String.valueOf(loan.getDueDate()));
+        json.put("returnDate", loan.getReturnDate() != null ? loan.getReturnDate().toString() : null);
+        Loan.Status status = loan.getStatusAsOf(LocalDate.now());
+        json.put("overdue", status == Loan.Status.OVERDUE);
+        json.put("status", status.name());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Fine fine) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("fineId", fine.getFineId());
+        json.put("userId", fine.getUserId());
+        json.put("loanId", fine.getLoanId());
+        json.put("amount", fine.getAmount());
+        json.put("paidAmount", fine.getPaidAmount());
+        json.put("remainingBalance", fine.getRemainingBalance());
+        json.put("paid", fine.isPaid());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Hold hold) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("holdId", hold.getHoldId());
+        json.put("userId", hold.getUserId());
+        json.put("mediaId", hold.getMediaId());
+        json.put("mediaType", hold.getMediaType());
+        json.put("placedDate", String.valueOf(hold.getPlacedDate()));
+        json.put("status", hold.getStatus().name());
+        json.put("pickupDeadline", hold.getPickupDeadline() != null ? hold.getPickupDeadline().toString() : null);
+        return json;
+    }
+
+    private static Map<String, Object> toJson(LoanService.BatchResult result) {
+        List<Map<String, Object>> loans = new ArrayList<>();
+        for (Loan loan : result.getLoans()) {
+            loans.add(toJson(loan));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", loans.size());
+        json.put("loans", loans);
+        json.put("failures", new LinkedHashMap<>(result.getFailures()));
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Media media) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("identifier", media.getIdentifier());
+        json.put("mediaType", media.getMediaType());
+        json.put("title", media.getTitle());
+        json.put("author", media.getAuthor());
+        json.put("available", media.isAvailable());
+        json.put("loanPeriodDays", media.getLoanPeriodDays());
+        return json;
+    }
+
+    private static <T> T withLock(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean requireMethod(String actual, String expected) {
+        return expected.equalsIgnoreCase(actual);
+    }
+
+    private static String requireString(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (!(value instanceof String) || ((String) value).isBlank()) {
+            throw new IllegalArgumentException("Field '" + field + "' is required");
+        }
+        return ((String) value).trim();
+    }
+
+    /**
+     * Reads the request body as a JSON object, refusing bodies over {@link #MAX_BODY_BYTES}
+     */
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                discard(in, MAX_DISCARD_BYTES);
+                throw new BodyTooLargeException();
+            }
+            return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Drops up to a limit of what is left of an oversized body, so the client gets the 413
+     * instead of seeing the connection reset while it is still sending
+     */
+    private static void discard(InputStream in, long limit) throws IOException {
+        byte[] buffer = new byte[8_192];
+        long discarded = 0;
+        int read;
+        while (discarded < limit && (read = in.read(buffer)) >= 0) {
+            discarded += read;
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue, String name) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Query parameter '" + name + "' must be an integer");
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Thrown when a request body exceeds {@link #MAX_BODY_BYTES}; answered with 413
+     */
+    private static class BodyTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLargeException() {
+            super("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+    }
+
+    /**
+     * Status code and JSON body of a handled request
+     */
+    private static class ApiResponse {
+        private final int status;
+        private final Object body;
+
+        ApiResponse(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static ApiResponse ok(Object body) {
+            return new ApiResponse(200, body);
+        }
+
+        static ApiResponse error(int status, String message) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("error", message);
+            return new ApiResponse(status, body);
+        }
+
+        static ApiResponse methodNotAllowed() {
+            return error(405, "Method not allowed");
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.library.ledger;
+
+import com.library.model.BorrowingRules;
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.repository.ChangeListener;
+import com.library.repository.FineRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.UserRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Append-only circulation ledger with per-user materialized views.
+ *
+ * The ledger listens to the user, loan and fine repositories and turns each changed record into
+ * events (LoanCreated, LoanReturned, FineAssessed, FinePaid, UserDeactivated, UserReactivated) by
+ * comparing it with the last state it saw. Each event is folded into the owning user's immutable
+ * {@link UserView}, so active loans, the nearest due date, unpaid balance (also by media type) and
+ * eligibility are read in constant time without scanning the repositories or re-assessing fines.
+ * The views can be rebuilt from the log.
+ *
+ * The log is bounded: once it holds more than the configured number of events, its oldest half is
+ * folded into a baseline of views and dropped, and rebuilds start from that baseline. A rebuild
+ * partitions the log by user and folds the partitions on a dedicated fork-join pool. The ledger only
+ * reads the repositories; it never writes to the records it observes.
+ * @author Library Team
+ * @version 1.0
+ */
+public class CirculationLedger implements ChangeListener {
+    public static final int DEFAULT_MAX_EVENTS = 100_000;
+    // Logs shorter than this are folded on the calling thread
+    private static final int PARALLEL_REBUILD_THRESHOLD = 2_048;
+
+    private final int maxLoans;
+    private final int maxEvents;
+    private final List<LedgerEvent> events = new ArrayList<>();
+    private final Map<String, UserView> views = new ConcurrentHashMap<>();
+    // Views as of the last compacted event; the log holds everything after it
+    private final Map<String, UserView> baseline = new HashMap<>();
+    private long nextSequence = 1;
+
+    // Last state seen per record, used to derive events from changed records
+    private final Map<String, Boolean> loanReturned = new HashMap<>();
+    private final Map<String, String> loanMediaTypes = new HashMap<>();
+    private final Map<String, double[]> fineAmounts = new HashMap<>();
+
+    /**
+     * Creates an empty ledger
+     * @param maxLoans the loan limit used for eligibility
+     * @param maxEvents the number of events kept in the log before the oldest half is compacted
+     */
+    public CirculationLedger(int maxLoans, int maxEvents) {
+        if (maxEvents < 2) {
+            throw new IllegalArgumentException("maxEvents must be at least 2");
+        }
+        this.maxLoans = maxLoans;
+        this.maxEvents = maxEvents;
+    }
+
+    public CirculationLedger(int maxLoans) {
+        this(maxLoans, DEFAULT_MAX_EVENTS);
+    }
+
+    /**
+     * Creates a ledger seeded with the repositories' current contents and subscribes it to
+     * their changes
+     * @param userRepository the users
+     * @param loanRepository the loans
+     * @param fineRepository the fines
+     * @return the ledger
+     */
+    public static CirculationLedger attach(UserRepository userRepository, LoanRepository loanRepository,
+                                           FineRepository fineRepository) {
+        CirculationLedger ledger = new CirculationLedger(new BorrowingRules().getMaxBooksPerUser());
+        for (User user : userRepository.getAllUsers()) {
+            ledger.recordChanged(user);
+        }
+        for (Loan loan : loanRepository.getAllLoans()) {
+            ledger.recordChanged(loan);
+        }
+        for (Fine fine : fineRepository.getAllFines()) {
+            ledger.recordChanged(fine);
+        }
+        userRepository.setChangeListener(userRepository.getChangeListener().andThen(ledger));
+        loanRepository.setChangeListener(loanRepository.getChangeListener().andThen(ledger));
+        fineRepository.setChangeListener(fineRepository.getChangeListener().andThen(ledger));
+        return ledger;
+    }
+
+    /**
+     * Derives events from a changed user, loan or fine and applies them
+     * @param record the changed record
+     */
+    @Override
+    public synchronized void recordChanged(Object record) {
+        if (record instanceof Loan loan) {
+            onLoan(loan);
+        } else if (record instanceof Fine fine) {
+            onFine(fine);
+        } else if (record instanceof User user) {
+            onUser(user);
+        }
+    }
+
+    private void onLoan(Loan loan) {
+        boolean returned = loan.getReturnDate() != null;
+        Boolean previous = loanReturned.put(loan.getLoanId(), returned);
+        loanMediaTypes.put(loan.getLoanId(), loan.getMediaType());
+        if (previous == null) {
+            append(LedgerEvent.Type.LOAN_CREATED, loan.getUserId(), loan.getLoanId(), loan.getDueDate(), 0,
+                    loan.getMediaType());
+        }
+        if (returned && !Boolean.TRUE.equals(previous)) {
+            append(LedgerEvent.Type.LOAN_RETURNED, loan.getUserId(), loan.getLoanId(), loan.getReturnDate(), 0,
+                    loan.getMediaType());
+        }
+    }
+
+    private void onFine(Fine fine) {
+        double[] seen = fineAmounts.computeIfAbsent(fine.getFineId(), id -> new double[2]);
+        double assessed = fine.getAmount() - seen[0];
+        double paid = fine.getPaidAmount() - seen[1];
+        seen[0] = fine.getAmount();
+        seen[1] = fine.getPaidAmount();
+        String mediaType = fine.getLoanId() != null ? loanMediaTypes.get(fine.getLoanId()) : null;
+        if (assessed != 0) {
+            append(LedgerEvent.Type.FINE_ASSESSED, fine.getUserId(), fine.getFineId(), null, assessed, mediaType);
+        }
+        if (paid != 0) {
+            append(LedgerEvent.Type.FINE_PAID, fine.getUserId(), fine.getFineId(), null, paid, mediaType);
+        }
+    }
+
+    private void onUser(User user) {
+        boolean wasActive = views.computeIfAbsent(user.getUserId(), UserView::empty).isActive();
+        if (wasActive && !user.isActive()) {
+            append(LedgerEvent.Type.USER_DEACTIVATED, user.getUserId(), null, null, 0, null);
+        } else if (!wasActive && user.isActive()) {
+            append(LedgerEvent.Type.USER_REACTIVATED, user.getUserId(), null, null, 0, null);
+        }
+    }
+
+    private void append(LedgerEvent.Type type, String userId, String recordId, LocalDate date, double amount,
+                        String mediaType) {
+        LedgerEvent event = new LedgerEvent(nextSequence++, type, userId, recordId, date, amount, mediaType);
+        events.add(event);
+        apply(views, event);
+        if (events.size() > maxEvents) {
+            compact();
+        }
+    }
+
+    /**
+     * Folds the oldest half of the log into the baseline and drops it
+     */
+    private void compact() {
+        List<LedgerEvent> oldest = events.subList(0, events.size() / 2);
+        for (LedgerEvent event : oldest) {
+            apply(baseline, event);
+        }
+        oldest.clear();
+    }
+
+    /**
+     * Gets a user's view
+     * @param userId the user ID
+     * @return the view, or null if the ledger has never seen the user
+     */
+    public UserView getView(String userId) {
+        return userId == null ? null : views.get(userId);
+    }
+
+    public int getActiveLoanCount(String userId) {
+        UserView view = getView(userId);
+        return view != null ? view.getActiveLoanCount() : 0;
+    }
+
+    public double getUnpaidBalance(String userId) {
+        UserView view = getView(userId);
+        return view != null ? view.getUnpaidBalance() : 0.0;
+    }
+
+    /**
+     * Checks eligibility from the user's view
+     * @param userId the user ID
+     * @param currentDate the date to check overdue loans against
+     * @return true if the user is known and may borrow
+     */
+    public boolean isEligible(String userId, LocalDate currentDate) {
+        UserView view = getView(userId);
+        return view != null && view.isEligible(currentDate, maxLoans);
+    }
+
+    /**
+     * Gets a copy of the event log since the last compaction
+     * @return the events, in order
+     */
+    public synchronized List<LedgerEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized int getEventCount() {
+        return events.size();
+    }
+
+    /**
+     * Gets all views
+     * @return the views keyed by user ID
+     */
+    public Map<String, UserView> getViews() {
+        return Map.copyOf(views);
+    }
+
+    /**
+     * Rebuilds every view from the event log and replaces the current views
+     * @return the number of views rebuilt
+     */
+    public synchronized int rebuildViews() {
+        Map<String, UserView> rebuilt = rebuildViews(baseline, events, views.keySet());
+        views.putAll(rebuilt);
+        return rebuilt.size();
+    }
+
+    /**
+     * Folds an event log into per-user views
+     * @param log the events, in sequence order
+     * @param knownUsers users that get a view even without events
+     * @return the views keyed by user ID
+     */
+    public static Map<String, UserView> rebuildViews(List<LedgerEvent> log, Collection<String> knownUsers) {
+        return rebuildViews(Map.of(), log, knownUsers);
+    }
+
+    /**
+     * Folds an event log into per-user views, starting from a baseline. A user's events only
+     * touch that user's view, so the log is partitioned by user ID (keeping sequence order within
+     * each partition) and the partitions are folded in parallel on the rebuild pool.
+     * @param baseline the views as of the event before the log's first event
+     * @param log the events, in sequence order
+     * @param knownUsers users that get a view even without events
+     * @return the views keyed by user ID
+     */
+    public static Map<String, UserView> rebuildViews(Map<String, UserView> baseline, List<LedgerEvent> log,
+                                                     Collection<String> knownUsers) {
+        Map<String, UserView> rebuilt = new HashMap<>(baseline);
+        for (String userId : knownUsers) {
+            rebuilt.putIfAbsent(userId, UserView.empty(userId));
+        }
+        if (log.size() < PARALLEL_REBUILD_THRESHOLD) {
+            for (LedgerEvent event : log) {
+                apply(rebuilt, event);
+            }
+            return rebuilt;
+        }
+
+        ForkJoinPool pool = RebuildPool.POOL;
+        List<List<LedgerEvent>> partitions = new ArrayList<>();
+        int partitionCount = pool.getParallelism() * 4;
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (LedgerEvent event : log) {
+            partitions.get(Math.floorMod(event.getUserId().hashCode(), partitionCount)).add(event);
+        }
+
+        List<ForkJoinTask<Map<String, UserView>>> folds = new ArrayList<>(partitionCount);
+        for (List<LedgerEvent> partition : partitions) {
+            if (!partition.isEmpty()) {
+                folds.add(pool.submit(() -> fold(rebuilt, partition)));
+            }
+        }
+        // The folds read the starting views, so nothing is written until every fold is done
+        List<Map<String, UserView>> folded = new ArrayList<>(folds.size());
+        for (ForkJoinTask<Map<String, UserView>> fold : folds) {
+            folded.add(fold.join());
+        }
+        // Partitions hold disjoint users, so their views never overlap
+        for (Map<String, UserView> views : folded) {
+            rebuilt.putAll(views);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Folds one partition's events onto the starting views, which are only read
+     */
+    private static Map<String, UserView> fold(Map<String, UserView> start, List<LedgerEvent> partition) {
+        Map<String, UserView> folded = new HashMap<>();
+        for (LedgerEvent event : partition) {
+            folded.compute(event.getUserId(), (id, view) -> {
+                UserView current = view != null ? view : start.get(id);
+                return (current != null ? current : UserView.empty(id)).apply(event);
+            });
+        }
+        return folded;
+    }
+
+    private static void apply(Map<String, UserView> views, LedgerEvent event) {
+        views.compute(event.getUserId(), (id, view) -> (view != null ? view : UserView.empty(id)).apply(event));
+    }
+
+    /**
+     * Daemon fork-join pool for rebuilds, created on first use so rebuilds do not compete with
+     * parallel streams on the common pool
+     */
+    private static final class RebuildPool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                forkJoinPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                    thread.setName("library-ledger-rebuild-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                }, null, false);
+    }
+}
@@ -0,0 +1,81 @@
+package com.library.ledger;
+
+import java.time.LocalDate;
+
+/**
+ * One immutable entry of the circulation ledger.
+ * Every event belongs to exactly one user, so per-user views can be folded independently.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class LedgerEvent {
+
+    public enum Type {
+        /** A loan was created; date is the due date */
+        LOAN_CREATED,
+        /** A loan was returned; date is the return date */
+        LOAN_RETURNED,
+        /** A fine was assessed or its amount corrected; amount is the change to the fine */
+        FINE_ASSESSED,
+        /** A payment was made on a fine; amount is the payment */
+        FINE_PAID,
+        USER_DEACTIVATED,
+        USER_REACTIVATED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final String userId;
+    private final String recordId;
+    private final LocalDate date;
+    private final double amount;
+    private final String mediaType;
+
+    /**
+     * Creates an event without a media type
+     * @param sequence position in the ledger, starting at 1
+     * @param type the event type
+     * @param userId the user the event belongs to
+     * @param recordId the loan or fine ID (null for user events)
+     * @param date the due or return date for loan events
+     * @param amount the fine change or payment for fine events
+     */
+    public LedgerEvent(long sequence, Type type, String userId, String recordId, LocalDate date, double amount) {
+        this(sequence, type, userId, recordId, date, amount, null);
+    }
+
+    /**
+     * Creates an event
+     * @param sequence position in the ledger, starting at 1
+     * @param type the event type
+     * @param userId the user the event belongs to
+     * @param recordId the loan or fine ID (null for user events)
+     * @param date the due or return date for loan events
+     * @param amount the fine change or payment for fine events
+     * @param mediaType the media type of the loan, or of the loan a fine was assessed for (null if unknown)
+     */
+    public LedgerEvent(long sequence, Type type, String userId, String recordId, LocalDate date, double amount,
+                       String mediaType) {
+        this.sequence = sequence;
+        this.type = type;
+        this.userId = userId;
+        this.recordId = recordId;
+        this.date = date;
+        this.amount = amount;
+        this.mediaType = mediaType;
+    }
+
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public String getUserId() { return userId; }
+    public String getRecordId() { return recordId; }
+    public LocalDate getDate() { return date; }
+    public double getAmount() { return amount; }
+    public String getMediaType() { return mediaType; }
+
+    @Override
+    public String toString() {
+        return String.format("LedgerEvent[#%d %s user=%s record=%s date=%s amount=%.2f type=%s]",
+                sequence, type, userId, recordId, date, amount, mediaType);
+    }
+}
@@ -0,0 +1,180 @@
+package com.library.ledger;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable materialized view of one user's circulation state: active loans with their due dates,
+ * unpaid balance in total and by media type, and account status. Applying an event returns a new
+ * view, so readers never see a half-applied event, and the patron dashboard is a single read.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class UserView {
+    private static final double BALANCE_EPSILON = 0.005;
+    /** Media type under which fines without a known loan are counted */
+    public static final String OTHER_MEDIA_TYPE = "OTHER";
+
+    private final String userId;
+    private final boolean active;
+    private final double unpaidBalance;
+    private final Map<String, LocalDate> activeLoanDueDates;
+    private final LocalDate earliestDueDate;
+    private final Map<String, Double> unpaidByMediaType;
+
+    private UserView(String userId, boolean active, double unpaidBalance, Map<String, LocalDate> activeLoanDueDates,
+                     Map<String, Double> unpaidByMediaType) {
+        this.userId = userId;
+        this.active = active;
+        this.unpaidBalance = Math.abs(unpaidBalance) < BALANCE_EPSILON ? 0.0 : unpaidBalance;
+        this.activeLoanDueDates = activeLoanDueDates;
+        this.earliestDueDate = activeLoanDueDates.values().stream().min(LocalDate::compareTo).orElse(null);
+        this.unpaidByMediaType = unpaidByMediaType;
+    }
+
+    /**
+     * Creates the view of an active user with no loans or fines
+     * @param userId the user ID
+     * @return the empty view
+     */
+    public static UserView empty(String userId) {
+        return new UserView(userId, true, 0.0, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * Folds one event into the view
+     * @param event an event of this user
+     * @return the new view
+     */
+    public UserView apply(LedgerEvent event) {
+        switch (event.getType()) {
+            case LOAN_CREATED: {
+                Map<String, LocalDate> loans = new LinkedHashMap<>(activeLoanDueDates);
+                loans.put(event.getRecordId(), event.getDate());
+                return new UserView(userId, active, unpaidBalance, Collections.unmodifiableMap(loans), unpaidByMediaType);
+            }
+            case LOAN_RETURNED: {
+                if (!activeLoanDueDates.containsKey(event.getRecordId())) {
+                    return this;
+                }
+                Map<String, LocalDate> loans = new LinkedHashMap<>(activeLoanDueDates);
+                loans.remove(event.getRecordId());
+                return new UserView(userId, active, unpaidBalance, Collections.unmodifiableMap(loans), unpaidByMediaType);
+            }
+            case FINE_ASSESSED:
+                return new UserView(userId, active, unpaidBalance + event.getAmount(), activeLoanDueDates,
+                        addUnpaid(event.getMediaType(), event.getAmount()));
+            case FINE_PAID:
+                return new UserView(userId, active, unpaidBalance - event.getAmount(), activeLoanDueDates,
+                        addUnpaid(event.getMediaType(), -event.getAmount()));
+            case USER_DEACTIVATED:
+                return new UserView(userId, false, unpaidBalance, activeLoanDueDates, unpaidByMediaType);
+            case USER_REACTIVATED:
+                return new UserView(userId, true, unpaidBalance, activeLoanDueDates, unpaidByMediaType);
+            default:
+                return this;
+        }
+    }
+
+    private Map<String, Double> addUnpaid(String mediaType, double change) {
+        String key = mediaType != null ? mediaType : OTHER_MEDIA_TYPE;
+        Map<String, Double> balances = new LinkedHashMap<>(unpaidByMediaType);
+        double balance = balances.getOrDefault(key, 0.0) + change;
+        if (Math.abs(balance) < BALANCE_EPSILON) {
+            balances.remove(key);
+        } else {
+            balances.put(key, balance);
+        }
+        return Collections.unmodifiableMap(balances);
+    }
+
+    /**
+     * Checks whether the user may borrow: active, no unpaid balance, below the loan limit
+     * and nothing overdue
+     * @param currentDate the date to check overdue status against
+     * @param maxLoans the loan limit
+     * @return true if the user may borrow
+     */
+    public boolean isEligible(LocalDate currentDate, int maxLoans) {
+        return active && unpaidBalance <= 0 && activeLoanDueDates.size() < maxLoans
+                && (earliestDueDate == null || !earliestDueDate.isBefore(currentDate));
+    }
+
+    /**
+     * Checks whether any active loan is past its due date
+     * @param currentDate the date to check against
+     * @return true if an active loan is overdue
+     */
+    public boolean hasOverdueLoans(LocalDate currentDate) {
+        return earliestDueDate != null && earliestDueDate.isBefore(currentDate);
+    }
+
+    /**
+     * Counts the active loans past their due date. Returns at once when the earliest due date has
+     * not passed; otherwise it checks each active loan, so the cost grows with the user's active
+     * loans (nothing caps how many a user holds).
+     * @param currentDate the date to check against
+     * @return the number of overdue loans
+     */
+    public int getOverdueCount(LocalDate currentDate) {
+        if (!hasOverdueLoans(currentDate)) {
+            return 0;
+        }
+        int count = 0;
+        for (LocalDate dueDate : activeLoanDueDates.values()) {
+            if (dueDate.isBefore(currentDate)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the unpaid balance split by the media type of the loans the fines were assessed for
+     * @return the balances keyed by media type (BOOK, CD, or {@link #OTHER_MEDIA_TYPE}), without zero balances
+     */
+    public Map<String, Double> getUnpaidByMediaType() { return unpaidByMediaType; }
+
+    public String getUserId() { return userId; }
+    public boolean isActive() { return active; }
+    public double getUnpaidBalance() { return unpaidBalance; }
+    public int getActiveLoanCount() { return activeLoanDueDates.size(); }
+    public Set<String> getActiveLoanIds() { return activeLoanDueDates.keySet(); }
+    public Map<String, LocalDate> getActiveLoanDueDates() { return activeLoanDueDates; }
+    public LocalDate getEarliestDueDate() { return earliestDueDate; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserView other)) return false;
+        return active == other.active && Math.abs(unpaidBalance - other.unpaidBalance) < BALANCE_EPSILON
+                && userId.equals(other.userId) && activeLoanDueDates.equals(other.activeLoanDueDates)
+                && sameBalances(unpaidByMediaType, other.unpaidByMediaType);
+    }
+
+    private static boolean sameBalances(Map<String, Double> first, Map<String, Double> second) {
+        if (!first.keySet().equals(second.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, Double> entry : first.entrySet()) {
+            if (Math.abs(entry.getValue() - second.get(entry.getKey())) >= BALANCE_EPSILON) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return userId.hashCode() * 31 + activeLoanDueDates.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UserView[%s active=%s loans=%d unpaid=$%.2f]",
+                userId, active, activeLoanDueDates.size(), unpaidBalance);
+    }
+}
@@ -0,0 +1,14 @@
+package com.library.model;
+
+/**
+ * External storage for the availability flags of media items.
+ *
+ * A repository that owns this state binds each item to a slot, so checkouts and returns
+ * flip a bit in the store instead of writing to the catalog object.
+ * @author Library Team
+ * @version 1.0
+ */
+public interface AvailabilityStore {
+    boolean isAvailable(int slot);
+    void setAvailable(int slot, boolean available);
+}
@@ -9,7 +9,9 @@ public abstract class BaseMedia implements Media {
     private String title;
     private String author;
     private String identifier;
-    private boolean available;
+    private boolean available; // used until the item is bound to an availability store
+    private volatile AvailabilityStore availabilityStore;
+    private int availabilitySlot;
     private final String mediaType;
     private final int loanPeriodDays;
 
@@ -33,10 +35,33 @@ public abstract class BaseMedia implements Media {
     public String getIdentifier() { return identifier; }
 
     @Override
-    public boolean isAvailable() { return available; }
+    public boolean isAvailable() {
+        AvailabilityStore store = availabilityStore;
+        return store != null ? store.isAvailable(availabilitySlot) : available;
+    }
 
     @Override
-    public void setAvailable(boolean available) { this.available = available; }
+    public void setAvailable(boolean available) {
+        AvailabilityStore store = availabilityStore;
+        if (store != null) {
+            store.setAvailable(availabilitySlot, available);
+        } else {
+            this.available = available;
+        }
+    }
+
+    /**
+     * Moves this item's availability into a store slot, carrying over the current value.
+     * An item belongs to one store at a time; binding again moves it to the new store.
+     * @param store the availability store
+     * @param slot the item's slot in the store
+     */
+    public void bindAvailability(AvailabilityStore store, int slot) {
+        boolean current = isAvailable();
+        store.setAvailable(slot, current);
+        this.availabilitySlot = slot;
+        this.availabilityStore = store;
+    }
 
     @Override
     public String getMediaType() { return mediaType; }
@@ -56,6 +81,6 @@ public abstract class BaseMedia implements Media {
     @Override
     public String toString() {
         return String.format("[%s] Title: %-30s | Author: %-20s | ID: %-15s | Available: %s",
-                mediaType, title, author, identifier, available ? "Yes" : "No");
+                mediaType, title, author, identifier, isAvailable() ? "Yes" : "No");
     }
 }
@@ -0,0 +1,66 @@
+package com.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * A patron's place in the queue for a title that is currently unavailable
+ * @author Library Team
+ * @version 1.0
+ */
+public class Hold {
+    private final String holdId;
+    private final String userId;
+    private final String mediaId;
+    private final String mediaType;
+    private final LocalDate placedDate;
+    private volatile Status status;
+    private LocalDate pickupDeadline;
+    private String copyBarcode; // reserved copy of a multi-copy title
+
+    public Hold(String holdId, String userId, String mediaId, String mediaType, LocalDate placedDate) {
+        this.holdId = holdId;
+        this.userId = userId;
+        this.mediaId = mediaId;
+        this.mediaType = mediaType;
+        this.placedDate = placedDate;
+        this.status = Status.WAITING;
+    }
+
+    // Getters and setters
+    public String getHoldId() { return holdId; }
+
+    public String getUserId() { return userId; }
+
+    public String getMediaId() { return mediaId; }
+
+    public String getMediaType() { return mediaType; }
+
+    public LocalDate getPlacedDate() { return placedDate; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public LocalDate getPickupDeadline() { return pickupDeadline; }
+    public void setPickupDeadline(LocalDate pickupDeadline) { this.pickupDeadline = pickupDeadline; }
+
+    public String getCopyBarcode() { return copyBarcode; }
+    public void setCopyBarcode(String copyBarcode) { this.copyBarcode = copyBarcode; }
+
+    /**
+     * Hold lifecycle: WAITING in the queue, READY for pickup, then FULFILLED, EXPIRED or CANCELLED
+     */
+    public enum Status {
+        WAITING,
+        READY,
+        FULFILLED,
+        EXPIRED,
+        CANCELLED
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Hold ID: %-8s | User: %-6s | Media: %-15s | Type: %-4s | Placed: %s | Status: %s%s",
+                holdId, userId, mediaId, mediaType, placedDate, status,
+                status == Status.READY ? " (pick up by " + pickupDeadline + ")" : "");
+    }
+}
@@ -16,6 +16,7 @@ public class Loan {
     private LocalDate dueDate;
     private LocalDate returnDate;
     private boolean isOverdue;
+    private String copyBarcode; // null for single-copy titles
 
     public Loan(String loanId, String userId, String mediaId, String mediaType,
                 LocalDate borrowDate, LocalDate dueDate) {
@@ -51,6 +52,9 @@ public class Loan {
     public LocalDate getReturnDate() { return returnDate; }
     public void setReturnDate(LocalDate returnDate) { this.returnDate = returnDate; }
 
+    public String getCopyBarcode() { return copyBarcode; }
+    public void setCopyBarcode(String copyBarcode) { this.copyBarcode = copyBarcode; }
+
     public boolean isOverdue() { return isOverdue; }
     public void setOverdue(boolean overdue) { isOverdue = overdue; }
 
@@ -62,7 +66,19 @@ public class Loan {
         if (returnDate != null || !isOverdue) {
             return 0.0;
         }
+        return flatFineForMediaType();
+    }
 
+    /**
+     * Calculates the flat fine owed on the given date without changing the loan
+     * @param currentDate the date to evaluate
+     * @return calculated fine amount
+     */
+    public double calculateFine(LocalDate currentDate) {
+        return isOverdueAsOf(currentDate) ? flatFineForMediaType() : 0.0;
+    }
+
+    private double flatFineForMediaType() {
         // Use flat fines based on media type
         if ("BOOK".equals(mediaType)) {
             return 10.00;
@@ -73,22 +89,50 @@ public class Loan {
     }
 
     /**
-     * Calculates fine - for backward compatibility (calls calculateFlatFine)
-     * @param currentDate the current date (unused - kept for compatibility)
-     * @return calculated fine amount
+     * Updates the stored overdue flag for the given date.
+     * Read-only callers should use {@link #isOverdueAsOf(LocalDate)} instead.
+     * @param currentDate the current date
+     * @return true if the loan is overdue
      */
-    public double calculateFine(LocalDate currentDate) {
-        return calculateFlatFine(); // Always returns flat fine, ignores days overdue
-    }
-
     public boolean checkOverdue(LocalDate currentDate) {
-        this.isOverdue = currentDate.isAfter(dueDate) && returnDate == null;
+        this.isOverdue = isOverdueAsOf(currentDate);
         return this.isOverdue;
     }
 
+    /**
+     * Checks whether the loan is overdue on the given date without changing the loan.
+     * Safe to call concurrently from report and eligibility reads.
+     * @param date the date to evaluate
+     * @return true if the loan is active and the date is after its due date
+     */
+    public boolean isOverdueAsOf(LocalDate date) {
+        return returnDate == null && date.isAfter(dueDate);
+    }
+
+    /**
+     * Derives the loan status on the given date without changing the loan
+     * @param date the date to evaluate
+     * @return RETURNED, OVERDUE or ACTIVE
+     */
+    public Status getStatusAsOf(LocalDate date) {
+        if (returnDate != null) {
+            return Status.RETURNED;
+        }
+        return isOverdueAsOf(date) ? Status.OVERDUE : Status.ACTIVE;
+    }
+
+    /**
+     * Loan status derived from the due and return dates
+     */
+    public enum Status {
+        ACTIVE,
+        OVERDUE,
+        RETURNED
+    }
+
     @Override
     public String toString() {
         return String.format("Loan ID: %-8s | User: %-6s | Media: %-15s | Type: %-4s | Due: %s | Overdue: %s",
-                loanId, userId, mediaId, mediaType, dueDate, isOverdue ? "Yes" : "No");
+                loanId, userId, mediaId, mediaType, dueDate, isOverdueAsOf(LocalDate.now()) ? "Yes" : "No");
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.library.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One physical copy of a title, identified by its barcode
+ * @author Library Team
+ * @version 1.0
+ */
+public class MediaCopy {
+    private final String barcode;
+    private final String mediaId;
+    private final AtomicBoolean onLoan = new AtomicBoolean();
+
+    public MediaCopy(String barcode, String mediaId) {
+        this.barcode = barcode;
+        this.mediaId = mediaId;
+    }
+
+    public String getBarcode() { return barcode; }
+
+    public String getMediaId() { return mediaId; }
+
+    public boolean isOnLoan() { return onLoan.get(); }
+
+    /**
+     * Marks the copy as checked out
+     * @return true if the copy was on the shelf
+     */
+    public boolean markOnLoan() {
+        return onLoan.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the copy as back on the shelf
+     * @return true if the copy was on loan
+     */
+    public boolean markReturned() {
+        return onLoan.compareAndSet(true, false);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Copy: %-20s | Media: %-15s | On loan: %s",
+                barcode, mediaId, isOnLoan() ? "Yes" : "No");
+    }
+}
@@ -0,0 +1,295 @@
+package com.library.replication;
+
+import com.library.api.Json;
+import com.library.model.Loan;
+import com.library.model.Media;
+import com.library.repository.LoanRepository;
+import com.library.service.LibraryContext;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Read replica that follows a primary's mutation journal.
+ *
+ * The replica keeps its own context (seeded like the primary's), applies every shipped row under
+ * a write lock and serves report and search queries under the read lock, so heavy reports never
+ * touch the primary's repositories. If the connection drops it reconnects and resumes after the
+ * last applied sequence, or loads a full snapshot if the primary has dropped those entries.
+ * It acknowledges what it has applied on every heartbeat, so the primary
+ * can drop those entries, and releases its position when closed.
+ * @author Library Team
+ * @version 1.0
+ */
+public class JournalReplica implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(JournalReplica.class.getName());
+    private static final long RECONNECT_MILLIS = 500;
+
+    private final LibraryContext context;
+    private final String host;
+    private final int port;
+    private final ReentrantReadWriteLock lock;
+    private final String replicaId = "replica-" + UUID.randomUUID();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile long appliedSequence;
+    private volatile long primarySequence;
+    private volatile long lastAppliedTimestamp;
+    private volatile long acknowledgedSequence;
+    private volatile Socket socket;
+    private volatile BufferedWriter writer;
+    private Thread follower;
+
+    /**
+     * Creates a replica of the primary shipping its journal at host:port
+     * @param context the replica's own context
+     * @param host the primary's host
+     * @param port the primary's journal port
+     */
+    public JournalReplica(LibraryContext context, String host, int port) {
+        this.context = context;
+        this.lock = context.getCirculationLock();
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Starts following the primary in the background
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        follower = new Thread(this::follow, "journal-replica");
+        follower.setDaemon(true);
+        follower.start();
+    }
+
+    private void follow() {
+        while (running) {
+            try (Socket connection = new Socket(host, port);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+                socket = connection;
+                writer = out;
+                acknowledgedSequence = appliedSequence;
+                send("FROM " + appliedSequence + " " + replicaId);
+                connected = true;
+                lastAppliedTimestamp = System.currentTimeMillis();
+                logger.info("Replica following " + host + ":" + port + " from " + appliedSequence);
+
+                String line;
+                while (running && (line = in.readLine()) != null) {
+                    Map<String, Object> parsed = Json.parseObject(line);
+                    handle(parsed);
+                    if (parsed.containsKey("head") && acknowledgedSequence < appliedSequence) {
+                        acknowledgedSequence = appliedSequence;
+                        send("ACK " + acknowledgedSequence);
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.info("Replica lost primary " + host + ":" + port + ": " + e.getMessage());
+                }
+            } finally {
+                connected = false;
+                socket = null;
+                writer = null;
+            }
+            pauseBeforeReconnect();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handle(Map<String, Object> line) {
+        if (line.get("snapshot") instanceof Number && line.get("record") instanceof Map<?, ?> record) {
+            // Rows of a full-state snapshot carry no sequence; the closing line does
+            withLock(lock.writeLock(), () -> {
+                RecordCodec.apply((Map<String, Object>) record, context);
+                return null;
+            });
+        } else if (line.get("snapshotEnd") instanceof Number end) {
+            appliedSequence = end.longValue();
+            lastAppliedTimestamp = ((Number) line.get("ts")).longValue();
+            primarySequence = Math.max(primarySequence, appliedSequence);
+            logger.info("Replica loaded a snapshot of " + host + ":" + port + " as of " + appliedSequence);
+        } else if (line.get("record") instanceof Map<?, ?> record) {
+            long sequence = ((Number) line.get("seq")).longValue();
+            if (sequence <= appliedSequence) {
+                return;
+            }
+            withLock(lock.writeLock(), () -> {
+                RecordCodec.apply((Map<String, Object>) record, context);
+                return null;
+            });
+            appliedSequence = sequence;
+            lastAppliedTimestamp = ((Number) line.get("ts")).longValue();
+            primarySequence = Math.max(primarySequence, sequence);
+        } else if (line.get("head") instanceof Number head) {
+            primarySequence = Math.max(primarySequence, head.longValue());
+        }
+    }
+
+    private void send(String line) throws IOException {
+        BufferedWriter out = writer;
+        if (out == null) {
+            return;
+        }
+        synchronized (out) {
+            out.write(line);
+            out.newLine();
+            out.flush();
+        }
+    }
+
+    private void pauseBeforeReconnect() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(RECONNECT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Runs a read-only query against the replica's repositories
+     * @param query the query
+     * @return the query result
+     */
+    public <T> T read(Supplier<T> query) {
+        return withLock(lock.readLock(), query);
+    }
+
+    public List<Loan> getOverdueLoans(LocalDate currentDate) {
+        return read(() -> List.copyOf(context.getLoanService().getOverdueLoans(currentDate)));
+    }
+
+    public LoanRepository.IntegratedOverdueReport getIntegratedOverdueReport(String userId, LocalDate currentDate) {
+        return read(() -> context.getLoanRepository().getIntegratedOverdueReport(userId, currentDate));
+    }
+
+    public String getFineBreakdownByMediaType(String userId) {
+        return read(() -> context.getFineService().getFineBreakdownByMediaType(userId));
+    }
+
+    public List<Media> searchMedia(String query, boolean availableOnly) {
+        return read(() -> context.getMediaService().searchMedia(query, availableOnly));
+    }
+
+    /**
+     * Gets the replication status
+     * @return applied and primary sequence numbers and the lag
+     */
+    public ReplicaStatus getStatus() {
+        long applied = appliedSequence;
+        long primary = Math.max(primarySequence, applied);
+        long lagMillis = primary > applied ? Math.max(0, System.currentTimeMillis() - lastAppliedTimestamp) : 0;
+        return new ReplicaStatus(connected, applied, primary, lagMillis);
+    }
+
+    /**
+     * Gets the lock that guards the replica's repositories; readers take the read lock
+     * @return the lock
+     */
+    public ReentrantReadWriteLock getLock() {
+        return lock;
+    }
+
+    public LibraryContext getContext() {
+        return context;
+    }
+
+    /**
+     * Stops following the primary
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        try {
+            send("BYE");
+        } catch (IOException ignored) {
+            // The primary keeps the position until it is released there
+        }
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+        if (follower != null) {
+            follower.interrupt();
+        }
+    }
+
+    private static <T> T withLock(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Point-in-time replication status of a replica
+     */
+    public static class ReplicaStatus {
+        private final boolean connected;
+        private final long appliedSequence;
+        private final long primarySequence;
+        private final long lagMillis;
+
+        public ReplicaStatus(boolean connected, long appliedSequence, long primarySequence, long lagMillis) {
+            this.connected = connected;
+            this.appliedSequence = appliedSequence;
+            this.primarySequence = primarySequence;
+            this.lagMillis = lagMillis;
+        }
+
+        public boolean isConnected() { return connected; }
+        public long getAppliedSequence() { return appliedSequence; }
+        public long getPrimarySequence() { return primarySequence; }
+        public long getLagEntries() { return primarySequence - appliedSequence; }
+        public long getLagMillis() { return lagMillis; }
+
+        /**
+         * Gets the status as a JSON-ready map
+         * @return the status fields
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("connected", connected);
+            map.put("appliedSequence", appliedSequence);
+            map.put("primarySequence", primarySequence);
+            map.put("lagEntries", getLagEntries());
+            map.put("lagMillis", lagMillis);
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ReplicaStatus[connected=%s, applied=%d, primary=%d, lag=%d entries / %d ms]",
+                    connected, appliedSequence, primarySequence, getLagEntries(), lagMillis);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.library.replication;
+
+import com.library.api.Json;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Streams the primary's mutation journal to replicas over a loopback socket.
+ *
+ * A replica connects and sends {@code FROM <sequence> <replicaId>}; the shipper then sends every
+ * entry after that sequence, one JSON line each, and keeps tailing the journal. Whenever it is
+ * idle, and after each batch, it sends a heartbeat line with the journal head so replicas can
+ * report their lag. Replicas answer with {@code ACK <sequence>} lines, which let the journal drop
+ * entries every replica has applied, and send {@code BYE} when they stop for good. A replica that
+ * asks for entries the journal has already dropped is sent a snapshot of the full state instead,
+ * one {@code snapshot} line per record and a closing {@code snapshotEnd} line with its sequence,
+ * and is then followed from that sequence.
+ * @author Library Team
+ * @version 1.0
+ */
+public class JournalShipper implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(JournalShipper.class.getName());
+    static final long HEARTBEAT_MILLIS = 250;
+    private static final int BATCH_SIZE = 512;
+
+    private final MutationJournal journal;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> replicas = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    /**
+     * Binds the shipper to a loopback port
+     * @param journal the journal to ship
+     * @param port the port (0 picks a free port)
+     * @throws IOException if the port cannot be bound
+     */
+    public JournalShipper(MutationJournal journal, int port) throws IOException {
+        this.journal = journal;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Starts accepting replicas
+     */
+    public void start() {
+        running = true;
+        executor.submit(this::acceptReplicas);
+        logger.info("Journal shipping on port " + getPort());
+    }
+
+    private void acceptReplicas() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                replicas.add(socket);
+                executor.submit(() -> ship(socket));
+            } catch (IOException e) {
+                if (running) {
+                    logger.warning("Failed to accept replica: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void ship(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String hello = in.readLine();
+            if (hello == null || !hello.startsWith("FROM ")) {
+                logger.warning("Replica sent an invalid handshake: " + hello);
+                return;
+            }
+            String[] parts = hello.substring(5).trim().split("\\s+");
+            long position = Long.parseLong(parts[0]);
+            String replicaId = parts.length > 1 ? parts[1] : null;
+            if (position < journal.getTruncatedSequence() || (replicaId != null && !journal.register(replicaId, position))) {
+                MutationJournal.Snapshot snapshot = journal.snapshot(replicaId);
+                for (String row : snapshot.getRows()) {
+                    out.write(row);
+                    out.newLine();
+                }
+                position = snapshot.getSequence();
+                out.write(snapshotEnd(position));
+                out.newLine();
+                out.flush();
+                logger.info("Replica " + replicaId + " was behind the journal's first entry; sent a snapshot as of " + position);
+            }
+            if (replicaId != null) {
+                executor.submit(() -> readAcknowledgements(in, replicaId));
+            }
+            logger.info("Replica " + socket.getRemoteSocketAddress() + " following from " + position);
+
+            while (running) {
+                List<String> batch = journal.readAfter(position, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    journal.awaitAfter(position, HEARTBEAT_MILLIS);
+                    if (journal.getHeadSequence() > position) {
+                        continue;
+                    }
+                } else {
+                    for (String entry : batch) {
+                        out.write(entry);
+                        out.newLine();
+                    }
+                    position += batch.size();
+                }
+                out.write(heartbeat());
+                out.newLine();
+                out.flush();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            logger.info("Replica " + socket.getRemoteSocketAddress() + " disconnected: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            replicas.remove(socket);
+        }
+    }
+
+    private void readAcknowledgements(BufferedReader in, String replicaId) {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("ACK ")) {
+                    journal.acknowledge(replicaId, Long.parseLong(line.substring(4).trim()));
+                } else if (line.equals("BYE")) {
+                    journal.release(replicaId);
+                    logger.info("Replica " + replicaId + " released its journal position");
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The shipping loop notices the broken connection too
+        }
+    }
+
+    private static String snapshotEnd(long sequence) {
+        Map<String, Object> end = new LinkedHashMap<>();
+        end.put("snapshotEnd", sequence);
+        end.put("ts", System.currentTimeMillis());
+        return Json.write(end);
+    }
+
+    private String heartbeat() {
+        Map<String, Object> beat = new LinkedHashMap<>();
+        beat.put("head", journal.getHeadSequence());
+        beat.put("ts", System.currentTimeMillis());
+        return Json.write(beat);
+    }
+
+    /**
+     * Gets the port replicas connect to
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the number of connected replicas
+     * @return the replica count
+     */
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * Stops shipping and disconnects every replica
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close journal socket: " + e.getMessage());
+        }
+        for (Socket socket : replicas) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already gone
+            }
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,247 @@
+package com.library.replication;
+
+import com.library.api.Json;
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.Media;
+import com.library.model.User;
+import com.library.repository.ChangeListener;
+import com.library.repository.Holdings;
+import com.library.service.LibraryContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Append-only log of repository mutations on the primary.
+ *
+ * Every created or changed loan, fine, user and media record is appended as a full row image
+ * with a sequence number and the primary's timestamp, encoded as one JSON line. A replica that
+ * starts from the same seeded data and applies the rows in order ends up with the same state.
+ * The log lives in memory, like the repositories it records.
+ *
+ * Replicas register under a name and acknowledge the sequence they have applied. Entries every
+ * registered replica has acknowledged are dropped from the front of the log. A reader that needs
+ * dropped entries, such as a new or restarted replica, gets a {@link Snapshot} of the full state
+ * instead and follows the log from the snapshot's sequence. A replica that is gone for good must
+ * be released, or it holds the log at its last position.
+ * @author Library Team
+ * @version 1.0
+ */
+public class MutationJournal implements ChangeListener {
+    private final List<String> entries = new ArrayList<>();
+    // Sequence of the last entry dropped from the front of the log
+    private long truncatedSequence;
+    // Highest sequence each registered replica has applied
+    private final Map<String, Long> acknowledged = new HashMap<>();
+    private final LibraryContext context;
+
+    private MutationJournal(LibraryContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Creates a journal and attaches it to every repository of a context. Attach it before
+     * the first mutation, so the journal covers everything that differs from the seeded data.
+     * @param context the primary's context
+     * @return the journal
+     */
+    public static MutationJournal attach(LibraryContext context) {
+        MutationJournal journal = new MutationJournal(context);
+        context.getUserRepository().setChangeListener(context.getUserRepository().getChangeListener().andThen(journal));
+        context.getMediaRepository().setChangeListener(context.getMediaRepository().getChangeListener().andThen(journal));
+        context.getLoanRepository().setChangeListener(context.getLoanRepository().getChangeListener().andThen(journal));
+        context.getFineRepository().setChangeListener(context.getFineRepository().getChangeListener().andThen(journal));
+        return journal;
+    }
+
+    /**
+     * Appends the record's current state. The row is encoded under the journal lock, so a
+     * later sequence number never carries an older state of the same record.
+     * @param record the changed record
+     */
+    @Override
+    public synchronized void recordChanged(Object record) {
+        Map<String, Object> row = RecordCodec.encode(record);
+        if (row == null) {
+            return;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("seq", getHeadSequence() + 1);
+        entry.put("ts", System.currentTimeMillis());
+        entry.put("record", row);
+        entries.add(Json.write(entry));
+        notifyAll();
+    }
+
+    /**
+     * Gets the sequence number of the latest entry (0 when empty)
+     * @return the head sequence
+     */
+    public synchronized long getHeadSequence() {
+        return truncatedSequence + entries.size();
+    }
+
+    /**
+     * Gets the sequence number of the last entry dropped from the log; readers must be past it
+     * @return the truncated sequence (0 when nothing was dropped)
+     */
+    public synchronized long getTruncatedSequence() {
+        return truncatedSequence;
+    }
+
+    /**
+     * Gets the number of entries held in memory
+     * @return the retained entry count
+     */
+    public synchronized int getRetainedCount() {
+        return entries.size();
+    }
+
+    /**
+     * Reads entries after a sequence number
+     * @param sequence the last sequence the reader has
+     * @param max the maximum number of entries
+     * @return the encoded entries, in order
+     * @throws IllegalArgumentException if entries after the sequence were already dropped
+     */
+    public synchronized List<String> readAfter(long sequence, int max) {
+        if (sequence < truncatedSequence) {
+            throw new IllegalArgumentException("Journal entries up to " + truncatedSequence + " were truncated");
+        }
+        int from = (int) Math.min(sequence - truncatedSequence, entries.size());
+        int to = Math.min(entries.size(), from + max);
+        return new ArrayList<>(entries.subList(from, to));
+    }
+
+    /**
+     * Registers a replica that will read after a sequence number. The log is kept from that
+     * sequence on until the replica acknowledges more or is released.
+     * @param replicaId the replica's name
+     * @param sequence the last sequence the replica has
+     * @return false if entries after the sequence were already dropped
+     */
+    public synchronized boolean register(String replicaId, long sequence) {
+        if (sequence < truncatedSequence) {
+            return false;
+        }
+        acknowledged.put(replicaId, sequence);
+        return true;
+    }
+
+    /**
+     * Captures the full state of the primary's repositories as of the head sequence, and
+     * registers the replica (if named) at that sequence. The circulation read lock is held while
+     * the rows are encoded. A record changed while the snapshot is taken is journaled after it,
+     * and applying its full row image again is harmless.
+     * @param replicaId the replica's name, or null for an anonymous reader
+     * @return the snapshot
+     */
+    public Snapshot snapshot(String replicaId) {
+        Lock lock = context.getCirculationLock().readLock();
+        lock.lock();
+        try {
+            synchronized (this) {
+                long sequence = getHeadSequence();
+                List<String> rows = new ArrayList<>();
+                for (User user : context.getUserRepository().getAllUsers()) {
+                    rows.add(snapshotRow(sequence, user));
+                }
+                for (Media media : context.getMediaRepository().getSnapshot().getMedia()) {
+                    rows.add(snapshotRow(sequence, media));
+                }
+                for (Holdings holdings : context.getMediaRepository().getAllHoldings()) {
+                    rows.add(snapshotRow(sequence, holdings));
+                }
+                for (Loan loan : context.getLoanRepository().getAllLoans()) {
+                    rows.add(snapshotRow(sequence, loan));
+                }
+                for (Fine fine : context.getFineRepository().getAllFines()) {
+                    rows.add(snapshotRow(sequence, fine));
+                }
+                if (replicaId != null) {
+                    acknowledged.put(replicaId, sequence);
+                }
+                return new Snapshot(sequence, rows);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String snapshotRow(long sequence, Object record) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("snapshot", sequence);
+        entry.put("record", RecordCodec.encode(record));
+        return Json.write(entry);
+    }
+
+    /**
+     * Records that a replica has applied every entry up to a sequence number and drops the
+     * entries all registered replicas have applied
+     * @param replicaId the replica's name
+     * @param sequence the last sequence the replica applied
+     */
+    public synchronized void acknowledge(String replicaId, long sequence) {
+        acknowledged.merge(replicaId, Math.min(sequence, getHeadSequence()), Math::max);
+        truncate();
+    }
+
+    /**
+     * Stops keeping the log for a replica
+     * @param replicaId the replica's name
+     */
+    public synchronized void release(String replicaId) {
+        if (acknowledged.remove(replicaId) != null) {
+            truncate();
+        }
+    }
+
+    private void truncate() {
+        if (acknowledged.isEmpty()) {
+            return;
+        }
+        long slowest = Collections.min(acknowledged.values());
+        if (slowest > truncatedSequence) {
+            entries.subList(0, (int) (slowest - truncatedSequence)).clear();
+            truncatedSequence = slowest;
+        }
+    }
+
+    /**
+     * Waits until the journal grows past a sequence number or the timeout elapses
+     * @param sequence the last sequence the reader has
+     * @param timeoutMillis the maximum time to wait
+     * @return the head sequence
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized long awaitAfter(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (getHeadSequence() <= sequence && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+        return getHeadSequence();
+    }
+
+    /**
+     * Full state of the primary as encoded rows, consistent with the journal up to a sequence
+     */
+    public static class Snapshot {
+        private final long sequence;
+        private final List<String> rows;
+
+        public Snapshot(long sequence, List<String> rows) {
+            this.sequence = sequence;
+            this.rows = rows;
+        }
+
+        public long getSequence() { return sequence; }
+        public List<String> getRows() { return rows; }
+    }
+}
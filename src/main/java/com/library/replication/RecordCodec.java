@@ -0,0 +1,187 @@
+package com.library.replication;
+
+import com.library.model.Book;
+import com.library.model.CD;
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.Media;
+import com.library.model.MediaCopy;
+import com.library.model.User;
+import com.library.repository.Holdings;
+import com.library.service.LibraryContext;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts changed records to journal rows (full row images) and applies rows to repositories.
+ * Applying a row replaces the record with the same ID, so replaying a row twice is harmless.
+ * A user's unpaid balance is not shipped: replicas derive it from the fine rows.
+ * @author Library Team
+ * @version 1.0
+ */
+final class RecordCodec {
+    static final String KIND = "kind";
+
+    private RecordCodec() {
+    }
+
+    /**
+     * Encodes a record's current state
+     * @param record a Loan, Fine, User, Media or Holdings
+     * @return the row, or null for unsupported records
+     */
+    static Map<String, Object> encode(Object record) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        if (record instanceof Loan loan) {
+            row.put(KIND, "loan");
+            row.put("loanId", loan.getLoanId());
+            row.put("userId", loan.getUserId());
+            row.put("mediaId", loan.getMediaId());
+            row.put("mediaType", loan.getMediaType());
+            row.put("borrowDate", String.valueOf(loan.getBorrowDate()));
+            row.put("dueDate", String.valueOf(loan.getDueDate()));
+            row.put("returnDate", loan.getReturnDate() != null ? loan.getReturnDate().toString() : null);
+            row.put("copyBarcode", loan.getCopyBarcode());
+        } else if (record instanceof Fine fine) {
+            row.put(KIND, "fine");
+            row.put("fineId", fine.getFineId());
+            row.put("userId", fine.getUserId());
+            row.put("loanId", fine.getLoanId());
+            row.put("amount", fine.getAmount());
+            row.put("paidAmount", fine.getPaidAmount());
+            row.put("paid", fine.isPaid());
+        } else if (record instanceof User user) {
+            row.put(KIND, "user");
+            row.put("userId", user.getUserId());
+            row.put("name", user.getName());
+            row.put("email", user.getEmail());
+            row.put("active", user.isActive());
+            row.put("canBorrow", user.canBorrow());
+            row.put("currentLoans", new ArrayList<>(user.getCurrentLoans()));
+        } else if (record instanceof Media media) {
+            row.put(KIND, "media");
+            row.put("mediaType", media.getMediaType());
+            row.put("identifier", media.getIdentifier());
+            row.put("title", media.getTitle());
+            row.put("author", media.getAuthor());
+            if (media instanceof CD cd) {
+                row.put("genre", cd.getGenre());
+                row.put("trackCount", cd.getTrackCount());
+            }
+            row.put("available", media.isAvailable());
+        } else if (record instanceof Holdings holdings) {
+            row.put(KIND, "holdings");
+            row.put("mediaId", holdings.getMediaId());
+            List<Map<String, Object>> copies = new ArrayList<>();
+            for (MediaCopy copy : holdings.getCopies()) {
+                Map<String, Object> copyRow = new LinkedHashMap<>();
+                copyRow.put("barcode", copy.getBarcode());
+                copyRow.put("onLoan", copy.isOnLoan());
+                copies.add(copyRow);
+            }
+            row.put("copies", copies);
+        } else {
+            return null;
+        }
+        return row;
+    }
+
+    /**
+     * Applies a row to the context's repositories. The caller must hold the replica's write lock.
+     * @param row the row
+     * @param context the replica's context
+     */
+    static void apply(Map<String, Object> row, LibraryContext context) {
+        String kind = String.valueOf(row.get(KIND));
+        switch (kind) {
+            case "loan" -> context.getLoanRepository().saveLoan(toLoan(row));
+            case "fine" -> context.getFineRepository().saveFine(toFine(row));
+            case "user" -> applyUser(row, context);
+            case "media" -> applyMedia(row, context);
+            case "holdings" -> applyHoldings(row, context);
+            default -> throw new IllegalArgumentException("Unknown record kind: " + kind);
+        }
+        // The replica's services publish no events for applied rows, so drop the cached decision here
+        if (row.get("userId") != null) {
+            context.getBorrowingRulesService().invalidate(string(row, "userId"));
+        }
+    }
+
+    private static Loan toLoan(Map<String, Object> row) {
+        Loan loan = new Loan(string(row, "loanId"), string(row, "userId"), string(row, "mediaId"),
+                string(row, "mediaType"), LocalDate.parse(string(row, "borrowDate")),
+                LocalDate.parse(string(row, "dueDate")));
+        String returnDate = string(row, "returnDate");
+        loan.setReturnDate(returnDate != null ? LocalDate.parse(returnDate) : null);
+        loan.setCopyBarcode(string(row, "copyBarcode"));
+        return loan;
+    }
+
+    private static Fine toFine(Map<String, Object> row) {
+        Fine fine = new Fine(string(row, "fineId"), string(row, "userId"), number(row, "amount"), string(row, "loanId"));
+        fine.setPaidAmount(number(row, "paidAmount"));
+        fine.setPaid(Boolean.TRUE.equals(row.get("paid")));
+        return fine;
+    }
+
+    private static void applyUser(Map<String, Object> row, LibraryContext context) {
+        String userId = string(row, "userId");
+        User user = context.getUserRepository().findUserById(userId);
+        if (user == null) {
+            user = new User(userId, string(row, "name"), string(row, "email"));
+        }
+        user.setName(string(row, "name"));
+        user.setEmail(string(row, "email"));
+        user.setActive(Boolean.TRUE.equals(row.get("active")));
+        user.setCanBorrow(Boolean.TRUE.equals(row.get("canBorrow")));
+        List<String> currentLoans = new ArrayList<>();
+        if (row.get("currentLoans") instanceof List<?> ids) {
+            for (Object id : ids) {
+                currentLoans.add(String.valueOf(id));
+            }
+        }
+        user.setCurrentLoans(currentLoans);
+        context.getUserRepository().saveUser(user);
+    }
+
+    private static void applyMedia(Map<String, Object> row, LibraryContext context) {
+        String identifier = string(row, "identifier");
+        boolean available = Boolean.TRUE.equals(row.get("available"));
+        Media media = context.getMediaRepository().findMediaById(identifier);
+        if (media == null) {
+            media = "CD".equals(row.get("mediaType"))
+                    ? new CD(string(row, "title"), string(row, "author"), identifier, string(row, "genre"),
+                            (int) number(row, "trackCount"))
+                    : new Book(string(row, "title"), string(row, "author"), identifier);
+            media.setAvailable(available);
+            context.getMediaRepository().addMedia(media);
+        } else {
+            media.setAvailable(available);
+        }
+    }
+
+    private static void applyHoldings(Map<String, Object> row, LibraryContext context) {
+        Map<String, Boolean> onLoanByBarcode = new LinkedHashMap<>();
+        if (row.get("copies") instanceof List<?> copies) {
+            for (Object copy : copies) {
+                if (copy instanceof Map<?, ?> copyRow) {
+                    onLoanByBarcode.put(String.valueOf(copyRow.get("barcode")), Boolean.TRUE.equals(copyRow.get("onLoan")));
+                }
+            }
+        }
+        context.getMediaRepository().restoreHoldings(string(row, "mediaId"), onLoanByBarcode);
+    }
+
+    private static String string(Map<String, Object> row, String field) {
+        Object value = row.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private static double number(Map<String, Object> row, String field) {
+        Object value = row.get(field);
+        return value instanceof Number n ? n.doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,142 @@
+package com.library.repository;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Growable bit set whose bits can be read and flipped from any thread without locking.
+ *
+ * Bits live in fixed-size pages of atomic words. Growing only adds pages, so bits flipped
+ * while the set grows are never lost. Indexes past the current capacity read as false.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class AtomicBitSet {
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_BITS = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_BITS - 1;
+
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+
+    /**
+     * Gets a bit
+     * @param index the bit index
+     * @return the bit value
+     */
+    public boolean get(int index) {
+        AtomicLongArray[] current = pages;
+        int page = index >>> PAGE_SHIFT;
+        if (page >= current.length) {
+            return false;
+        }
+        return (current[page].get((index & PAGE_MASK) >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets or clears a bit, growing the set if needed
+     * @param index the bit index
+     * @param value the new value
+     */
+    public void set(int index, boolean value) {
+        getAndSet(index, value);
+    }
+
+    /**
+     * Sets or clears a bit, growing the set if needed, and returns the bit it replaced
+     * @param index the bit index
+     * @param value the new value
+     * @return the previous value
+     */
+    public boolean getAndSet(int index, boolean value) {
+        AtomicLongArray words = page(index);
+        int word = (index & PAGE_MASK) >>> 6;
+        long bit = 1L << index;
+        long previous;
+        if (value) {
+            previous = words.getAndAccumulate(word, bit, (current, mask) -> current | mask);
+        } else {
+            previous = words.getAndAccumulate(word, ~bit, (current, mask) -> current & mask);
+        }
+        return (previous & bit) != 0;
+    }
+
+    /**
+     * Atomically changes a bit if it has the expected value
+     * @param index the bit index
+     * @param expected the expected value
+     * @param value the new value
+     * @return true if the bit had the expected value and was changed
+     */
+    public boolean compareAndSet(int index, boolean expected, boolean value) {
+        AtomicLongArray words = page(index);
+        int word = (index & PAGE_MASK) >>> 6;
+        long bit = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if (((current & bit) != 0) != expected) {
+                return false;
+            }
+            long updated = value ? current | bit : current & ~bit;
+            if (current == updated || words.compareAndSet(word, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Copies the first {@code size} bits into a plain word array, e.g. to AND it with other sets.
+     * Each word is read atomically; the copy as a whole is not a single atomic snapshot.
+     * @param size the number of bits to copy
+     * @return the words, with bits at or past {@code size} cleared
+     */
+    public long[] toWords(int size) {
+        long[] words = new long[(size + 63) >>> 6];
+        AtomicLongArray[] current = pages;
+        for (int i = 0; i < words.length; i++) {
+            int page = i >>> (PAGE_SHIFT - 6);
+            if (page >= current.length) {
+                break;
+            }
+            words[i] = current[page].get(i & (PAGE_MASK >>> 6));
+        }
+        if ((size & 63) != 0) {
+            words[words.length - 1] &= (1L << size) - 1;
+        }
+        return words;
+    }
+
+    private AtomicLongArray page(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Negative bit index: " + index);
+        }
+        int page = index >>> PAGE_SHIFT;
+        AtomicLongArray[] current = pages;
+        return page < current.length ? current[page] : grow(page);
+    }
+
+    private synchronized AtomicLongArray grow(int page) {
+        AtomicLongArray[] current = pages;
+        if (page >= current.length) {
+            AtomicLongArray[] grown = Arrays.copyOf(current, page + 1);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = new AtomicLongArray(PAGE_BITS >>> 6);
+            }
+            pages = grown;
+            current = grown;
+        }
+        return current[page];
+    }
+
+    /**
+     * ANDs {@code other} into {@code target}, word by word
+     * @param target the words to update
+     * @param other the mask
+     */
+    static void and(long[] target, long[] other) {
+        int common = Math.min(target.length, other.length);
+        for (int i = 0; i < common; i++) {
+            target[i] &= other[i];
+        }
+        Arrays.fill(target, common, target.length, 0L);
+    }
+}
@@ -6,31 +6,29 @@ import java.util.List;
 
 /**
  * Repository for managing book data
+ *
+ * A typed view over the books of a {@link MediaRepository}: it holds no books of its own, so a
+ * title is the same object, with the same availability, whether it is reached here or through
+ * the media catalog. Book queries are answered from the catalog's book index.
  * @author Library Team
- * @version 1.0
+ * @version 1.1
  */
 public class BookRepository {
-    private List<Book> books;
+    private final MediaRepository mediaRepository;
 
     /**
-     * Constructor that initializes with sample books
+     * Constructor that initializes with sample books, over a catalog of its own
      */
     public BookRepository() {
-        this.books = new ArrayList<>();
-        initializeSampleBooks();
+        this(new MediaRepository());
     }
 
     /**
-     * Adds sample books to the repository
+     * Creates a view over the books of an existing catalog
+     * @param mediaRepository the catalog
      */
-    private void initializeSampleBooks() {
-        books.add(new Book("The Great Gatsby", "F. Scott Fitzgerald", "978-0743273565"));
-        books.add(new Book("To Kill a Mockingbird", "Harper Lee", "978-0061120084"));
-        books.add(new Book("1984", "George Orwell", "978-0451524935"));
-        books.add(new Book("Pride and Prejudice", "Jane Austen", "978-0141439518"));
-        books.add(new Book("The Catcher in the Rye", "J.D. Salinger", "978-0316769174"));
-        books.add(new Book("The Hobbit", "J.R.R. Tolkien", "978-0547928227"));
-        books.add(new Book("Harry Potter and the Sorcerer's Stone", "J.K. Rowling", "978-0590353427"));
+    public BookRepository(MediaRepository mediaRepository) {
+        this.mediaRepository = mediaRepository;
     }
 
     /**
@@ -38,7 +36,7 @@ public class BookRepository {
      * @param book the book to add
      */
     public void addBook(Book book) {
-        books.add(book);
+        mediaRepository.addMedia(book);
     }
 
     /**
@@ -46,17 +44,11 @@ public class BookRepository {
      * @param query the search query
      * @return list of matching books
      */
-public List<Book> searchBooks(String query) {
+    public List<Book> searchBooks(String query) {
         if (query == null) {
             return new ArrayList<>(); // Return empty list for null query
         }
-
-        String lowerQuery = query.toLowerCase();
-        return books.stream()
-                .filter(book -> book.getTitle().toLowerCase().contains(lowerQuery) ||
-                        book.getAuthor().toLowerCase().contains(lowerQuery) ||
-                        book.getIsbn().toLowerCase().contains(lowerQuery))
-                .toList();
+        return mediaRepository.searchBooks(query);
     }
 
     /**
@@ -64,19 +56,16 @@ public List<Book> searchBooks(String query) {
      * @return list of all books
      */
     public List<Book> getAllBooks() {
-        return new ArrayList<>(books);
+        return new ArrayList<>(mediaRepository.getAllBooks());
     }
 
     /**
      * Finds a book by ISBN
-     * @param isbn the book ISBN
+     * @param isbn the book ISBN, exactly as catalogued
      * @return the book, or null if not found
      */
     public Book findBookByIsbn(String isbn) {
-        return books.stream()
-                .filter(book -> book.getIsbn().equals(isbn))
-                .findFirst()
-                .orElse(null);
+        return mediaRepository.findMediaByIdAndType(isbn, "BOOK") instanceof Book book ? book : null;
     }
 
     /**
@@ -93,4 +82,8 @@ public List<Book> searchBooks(String query) {
         }
         return false;
     }
+
+    public MediaRepository getMediaRepository() {
+        return mediaRepository;
+    }
 }
@@ -0,0 +1,207 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import com.library.model.CD;
+import com.library.model.Media;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, point-in-time view of the media catalog.
+ *
+ * The catalog is append-only, so a new snapshot shares the backing arrays of the previous one and
+ * only adds entries past the previous snapshot's size; an older snapshot never sees them because
+ * it is bounded by its own size. Arrays are copied only when they run out of capacity. The
+ * identifier index maps to array positions and is checked against the snapshot's size, so a
+ * lookup never returns an item the snapshot does not contain.
+ *
+ * Snapshots are published by {@link MediaRepository} through a volatile field, which makes the
+ * array writes visible to every reader of the new snapshot. Reads need no locking.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class CatalogSnapshot {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Media[] media;
+    private final int size;
+    private final Book[] books;
+    private final int bookCount;
+    private final CD[] cds;
+    private final int cdCount;
+    private final Map<String, Integer> positionById;
+
+    private CatalogSnapshot(Media[] media, int size, Book[] books, int bookCount, CD[] cds, int cdCount,
+                            Map<String, Integer> positionById) {
+        this.media = media;
+        this.size = size;
+        this.books = books;
+        this.bookCount = bookCount;
+        this.cds = cds;
+        this.cdCount = cdCount;
+        this.positionById = positionById;
+    }
+
+    /**
+     * Creates an empty catalog
+     * @return the empty snapshot
+     */
+    static CatalogSnapshot empty() {
+        return new CatalogSnapshot(new Media[INITIAL_CAPACITY], 0, new Book[INITIAL_CAPACITY], 0,
+                new CD[INITIAL_CAPACITY], 0, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Builds the snapshot that follows this one with the given items appended.
+     * Must only be called by the single writer, on the latest snapshot.
+     * @param items the media to append, in order
+     * @return the new snapshot
+     */
+    CatalogSnapshot append(Collection<? extends Media> items) {
+        Media[] newMedia = ensureCapacity(media, size + items.size());
+        int newSize = size;
+        Book[] newBooks = books;
+        int newBookCount = bookCount;
+        CD[] newCds = cds;
+        int newCdCount = cdCount;
+
+        for (Media item : items) {
+            newMedia[newSize] = item;
+            if (item instanceof Book book) {
+                newBooks = ensureCapacity(newBooks, newBookCount + 1);
+                newBooks[newBookCount++] = book;
+            } else if (item instanceof CD cd) {
+                newCds = ensureCapacity(newCds, newCdCount + 1);
+                newCds[newCdCount++] = cd;
+            }
+            if (item != null) {
+                positionById.putIfAbsent(item.getIdentifier(), newSize);
+            }
+            newSize++;
+        }
+        return new CatalogSnapshot(newMedia, newSize, newBooks, newBookCount, newCds, newCdCount, positionById);
+    }
+
+    private static <T> T[] ensureCapacity(T[] array, int required) {
+        if (required <= array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(required, array.length + (array.length >> 1)));
+    }
+
+    /**
+     * Gets the number of media items
+     * @return the catalog size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets all media items, in insertion order
+     * @return read-only list backed by the snapshot
+     */
+    public List<Media> getMedia() {
+        return new ArrayView<>(media, size);
+    }
+
+    /**
+     * Gets all books, in insertion order
+     * @return read-only list backed by the snapshot
+     */
+    public List<Book> getBooks() {
+        return new ArrayView<>(books, bookCount);
+    }
+
+    /**
+     * Gets all CDs, in insertion order
+     * @return read-only list backed by the snapshot
+     */
+    public List<CD> getCDs() {
+        return new ArrayView<>(cds, cdCount);
+    }
+
+    /**
+     * Gets the item at a catalog position without creating a list view
+     * @param position the position
+     * @return the media, or null if the position is outside this snapshot
+     */
+    Media mediaAt(int position) {
+        return position >= 0 && position < size ? media[position] : null;
+    }
+
+    /**
+     * Finds the first media item with the given identifier
+     * @param identifier the media identifier
+     * @return the media, or null if not in this snapshot
+     */
+    public Media findById(String identifier) {
+        Integer position = identifier == null ? null : positionById.get(identifier);
+        return position != null && position < size ? media[position] : null;
+    }
+
+    /**
+     * Searches title, author and identifier, case-insensitively
+     * @param query the search query
+     * @return matching media, in insertion order
+     */
+    public List<Media> search(String query) {
+        return search(query, null);
+    }
+
+    /**
+     * Searches title, author and identifier among the positions set in a mask
+     * @param query the search query
+     * @param mask bit words selecting catalog positions, or null for all positions
+     * @return matching media, in insertion order
+     */
+    List<Media> search(String query, long[] mask) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Media> results = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (mask != null && (i >>> 6 >= mask.length || (mask[i >>> 6] & (1L << i)) == 0)) {
+                continue;
+            }
+            Media item = media[i];
+            if (item.getTitle().toLowerCase(Locale.ROOT).contains(needle) ||
+                    item.getAuthor().toLowerCase(Locale.ROOT).contains(needle) ||
+                    item.getIdentifier().toLowerCase(Locale.ROOT).contains(needle)) {
+                results.add(item);
+            }
+        }
+        return List.copyOf(results);
+    }
+
+    /**
+     * Read-only list over the first {@code size} slots of a shared array
+     */
+    private static final class ArrayView<T> extends AbstractList<T> implements RandomAccess {
+        private final T[] array;
+        private final int size;
+
+        ArrayView(T[] array, int size) {
+            this.array = array;
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return array[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.library.repository;
+
+/**
+ * Receives a record (Loan, Fine, User, Media or Holdings) after a repository has created or changed it.
+ * Used to journal mutations so they can be shipped to read replicas.
+ * @author Library Team
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * Listener that ignores every change
+     */
+    ChangeListener NONE = record -> { };
+
+    /**
+     * Called after the record was written; the record holds its new state
+     * @param record the changed record
+     */
+    void recordChanged(Object record);
+
+    /**
+     * Combines this listener with another one, called after it
+     * @param next the listener to call second
+     * @return the combined listener
+     */
+    default ChangeListener andThen(ChangeListener next) {
+        if (next == null || next == NONE) {
+            return this;
+        }
+        if (this == NONE) {
+            return next;
+        }
+        return record -> {
+            recordChanged(record);
+            next.recordChanged(record);
+        };
+    }
+}
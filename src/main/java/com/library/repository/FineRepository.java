@@ -2,7 +2,9 @@ package com.library.repository;
 
 import com.library.model.Fine;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Repository for managing fine data
@@ -12,6 +14,7 @@ import java.util.List;
 public class FineRepository {
     private List<Fine> fines;
     private int fineCounter;
+    private ChangeListener changeListener = ChangeListener.NONE;
 
     public FineRepository() {
         this.fines = new ArrayList<>();
@@ -33,6 +36,7 @@ public class FineRepository {
         String fineId = "F" + String.format("%04d", fineCounter++);
         Fine newFine = new Fine(fineId, userId, amount, loanId);
         fines.add(newFine);
+        changeListener.recordChanged(newFine);
         return newFine;
     }
 
@@ -62,11 +66,62 @@ public class FineRepository {
     public Fine.PaymentResult makePayment(String fineId, double paymentAmount) {
         Fine fine = findFineById(fineId);
         if (fine != null && !fine.isPaid()) {
-            return fine.makePayment(paymentAmount);
+            Fine.PaymentResult result = fine.makePayment(paymentAmount);
+            changeListener.recordChanged(fine);
+            return result;
         }
         return new Fine.PaymentResult(false, 0, "Fine not found or already paid.");
     }
 
+    /**
+     * Records a change made to a fine in place (e.g. a corrected amount)
+     * @param fine the changed fine
+     */
+    public void updateFine(Fine fine) {
+        changeListener.recordChanged(fine);
+    }
+
+    /**
+     * Stores a fine record as-is, replacing the fine with the same ID or adding it.
+     * Used by read replicas to apply shipped changes.
+     * @param fine the fine record
+     */
+    public void saveFine(Fine fine) {
+        for (int i = 0; i < fines.size(); i++) {
+            if (fines.get(i).getFineId().equals(fine.getFineId())) {
+                fines.set(i, fine);
+                changeListener.recordChanged(fine);
+                return;
+            }
+        }
+        fines.add(fine);
+        changeListener.recordChanged(fine);
+    }
+
+    /**
+     * Drops the fines of every user that is not kept, e.g. on a shard that owns only some users.
+     * The change listener is not told about removed fines.
+     * @param keepUser tells whether a user ID's fines stay
+     * @return the number of fines removed
+     */
+    public int retainUsers(Predicate<String> keepUser) {
+        int before = fines.size();
+        fines.removeIf(fine -> !keepUser.test(fine.getUserId()));
+        return before - fines.size();
+    }
+
+    /**
+     * Sets the listener told about every fine this repository creates or changes
+     * @param changeListener the listener, or null for none
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener != null ? changeListener : ChangeListener.NONE;
+    }
+
+    public ChangeListener getChangeListener() {
+        return changeListener;
+    }
+
     public Fine findFineById(String fineId) {
         return fines.stream()
                 .filter(fine -> fine.getFineId().equals(fineId))
@@ -87,4 +142,32 @@ public class FineRepository {
     public List<Fine> getAllFines() {
         return new ArrayList<>(fines);
     }
+
+    /**
+     * Gets one page of fines, in insertion order, without copying the whole list
+     * @param offset the index of the first fine
+     * @param limit the maximum number of fines
+     * @return the page
+     */
+    public Page<Fine> getFinesPage(int offset, int limit) {
+        return Page.of(fines, offset, limit, Fine::getFineId);
+    }
+
+    /**
+     * Gets the page of fines that follows a continuation cursor
+     * @param cursor the cursor from the previous page, or null for the first page
+     * @param limit the maximum number of fines
+     * @return the page
+     */
+    public Page<Fine> getFinesAfter(String cursor, int limit) {
+        return Page.after(fines, cursor, limit, Fine::getFineId);
+    }
+
+    /**
+     * Gets a read-only live view of all fines (no copy)
+     * @return unmodifiable view of the fines
+     */
+    public List<Fine> getFinesView() {
+        return Collections.unmodifiableList(fines);
+    }
 }
@@ -0,0 +1,157 @@
+package com.library.repository;
+
+import com.library.model.Hold;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repository for per-title FIFO hold queues.
+ *
+ * Each title has its own lock-free deque, so placing and taking holds is O(1) and titles never
+ * contend with each other. Cancelled holds are left in the deque and skipped when they reach
+ * the front.
+ * @author Library Team
+ * @version 1.0
+ */
+public class HoldRepository {
+    private final Map<String, ConcurrentLinkedDeque<Hold>> queuesByMediaId = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> waitingCountByMediaId = new ConcurrentHashMap<>();
+    private final Map<String, Hold> holdsById = new ConcurrentHashMap<>();
+    // One open (waiting or ready) hold per patron and title
+    private final Map<String, Hold> openHoldsByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger holdCounter = new AtomicInteger(1);
+
+    /**
+     * Places a hold at the back of the title's queue
+     * @return the hold, or null if the patron already has an open hold on the title
+     */
+    public Hold placeHold(String userId, String mediaId, String mediaType, LocalDate placedDate) {
+        String holdId = "H" + String.format("%04d", holdCounter.getAndIncrement());
+        Hold hold = new Hold(holdId, userId, mediaId, mediaType, placedDate);
+        if (openHoldsByKey.putIfAbsent(key(userId, mediaId), hold) != null) {
+            return null;
+        }
+        holdsById.put(holdId, hold);
+        queue(mediaId).offerLast(hold);
+        waitingCount(mediaId).incrementAndGet();
+        return hold;
+    }
+
+    /**
+     * Takes the next waiting hold from the front of the title's queue
+     * @param mediaId the media identifier
+     * @return the hold, or null if nobody is waiting
+     */
+    public Hold pollNext(String mediaId) {
+        ConcurrentLinkedDeque<Hold> queue = queuesByMediaId.get(mediaId);
+        if (queue == null) {
+            return null;
+        }
+        Hold hold;
+        while ((hold = queue.pollFirst()) != null) {
+            if (hold.getStatus() == Hold.Status.WAITING) {
+                waitingCount(mediaId).decrementAndGet();
+                return hold;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts holds that were taken but could not be served back at the front, keeping their order
+     * @param mediaId the media identifier
+     * @param holds the holds, in queue order
+     */
+    public void requeueAtFront(String mediaId, List<Hold> holds) {
+        ConcurrentLinkedDeque<Hold> queue = queue(mediaId);
+        for (int i = holds.size() - 1; i >= 0; i--) {
+            queue.offerFirst(holds.get(i));
+            waitingCount(mediaId).incrementAndGet();
+        }
+    }
+
+    /**
+     * Closes a hold (fulfilled, expired or cancelled) so the patron can place a new one
+     * @param hold the hold
+     * @param status the final status
+     */
+    public void close(Hold hold, Hold.Status status) {
+        Hold.Status previous = hold.getStatus();
+        hold.setStatus(status);
+        openHoldsByKey.remove(key(hold.getUserId(), hold.getMediaId()), hold);
+        if (previous == Hold.Status.WAITING) {
+            // Still in the deque; it is skipped when it reaches the front
+            waitingCount(hold.getMediaId()).decrementAndGet();
+        }
+    }
+
+    public Hold findHoldById(String holdId) {
+        return holdId == null ? null : holdsById.get(holdId);
+    }
+
+    /**
+     * Finds a patron's open hold on a title
+     * @return the waiting or ready hold, or null
+     */
+    public Hold findOpenHold(String userId, String mediaId) {
+        return openHoldsByKey.get(key(userId, mediaId));
+    }
+
+    /**
+     * Gets the number of patrons waiting for a title
+     * @param mediaId the media identifier
+     * @return the queue length
+     */
+    public int getQueueLength(String mediaId) {
+        AtomicInteger count = waitingCountByMediaId.get(mediaId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Gets the waiting holds for a title, in queue order
+     * @param mediaId the media identifier
+     * @return the waiting holds
+     */
+    public List<Hold> getQueue(String mediaId) {
+        List<Hold> waiting = new ArrayList<>();
+        ConcurrentLinkedDeque<Hold> queue = queuesByMediaId.get(mediaId);
+        if (queue != null) {
+            for (Hold hold : queue) {
+                if (hold.getStatus() == Hold.Status.WAITING) {
+                    waiting.add(hold);
+                }
+            }
+        }
+        return waiting;
+    }
+
+    public List<Hold> findHoldsByUser(String userId) {
+        return holdsById.values().stream()
+                .filter(hold -> hold.getUserId().equals(userId))
+                .sorted((a, b) -> a.getHoldId().compareTo(b.getHoldId()))
+                .toList();
+    }
+
+    public List<Hold> getAllHolds() {
+        return holdsById.values().stream()
+                .sorted((a, b) -> a.getHoldId().compareTo(b.getHoldId()))
+                .toList();
+    }
+
+    private ConcurrentLinkedDeque<Hold> queue(String mediaId) {
+        return queuesByMediaId.computeIfAbsent(mediaId, id -> new ConcurrentLinkedDeque<>());
+    }
+
+    private AtomicInteger waitingCount(String mediaId) {
+        return waitingCountByMediaId.computeIfAbsent(mediaId, id -> new AtomicInteger());
+    }
+
+    private static String key(String userId, String mediaId) {
+        return userId + "|" + mediaId;
+    }
+}
@@ -0,0 +1,142 @@
+package com.library.repository;
+
+import com.library.model.MediaCopy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The physical copies of one title and the pool of copies currently on the shelf.
+ *
+ * Checkout first reserves a shelf copy by decrementing the free count, then takes any copy from
+ * a lock-free queue. Check-in puts the copy back before incrementing the count, so the count
+ * never exceeds the queue size and a successful reservation always finds a copy.
+ * Both operations are O(1) and never block, however many desks check out the same title.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class Holdings {
+    private final String mediaId;
+    private final List<MediaCopy> copies = new CopyOnWriteArrayList<>();
+    private final Map<String, MediaCopy> copiesByBarcode = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<MediaCopy> shelf = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private int nextSequence = 1;
+
+    Holdings(String mediaId) {
+        this.mediaId = mediaId;
+    }
+
+    /**
+     * Adds new copies, numbered after the existing ones
+     * @param count the number of copies
+     * @param onLoan true if the copies are already checked out
+     * @return the new copies
+     */
+    synchronized List<MediaCopy> addCopies(int count, boolean onLoan) {
+        List<MediaCopy> added = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MediaCopy copy = new MediaCopy(mediaId + "-C" + String.format("%03d", nextSequence++), mediaId);
+            copies.add(copy);
+            copiesByBarcode.put(copy.getBarcode(), copy);
+            if (onLoan) {
+                copy.markOnLoan();
+            } else {
+                shelf.offer(copy);
+                freeCount.incrementAndGet();
+            }
+            added.add(copy);
+        }
+        return Collections.unmodifiableList(added);
+    }
+
+    /**
+     * Takes a copy off the shelf
+     * @return the copy, or null if every copy is on loan
+     */
+    MediaCopy checkout() {
+        int free;
+        do {
+            free = freeCount.get();
+            if (free == 0) {
+                return null;
+            }
+        } while (!freeCount.compareAndSet(free, free - 1));
+
+        MediaCopy copy = shelf.poll();
+        copy.markOnLoan();
+        return copy;
+    }
+
+    /**
+     * Puts a copy back on the shelf
+     * @param barcode the copy barcode; null means the title's first copy, the one that existed
+     *                before copies were registered
+     * @return true if the copy was on loan and is now back
+     */
+    boolean checkin(String barcode) {
+        MediaCopy copy = barcode == null ? copies.get(0) : copiesByBarcode.get(barcode);
+        if (copy == null || !copy.markReturned()) {
+            return false;
+        }
+        shelf.offer(copy);
+        freeCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Puts a copy in a given state, adding it under its barcode if it is new.
+     * Used to apply a replicated state; copies added this way keep the numbering of the source.
+     * @param barcode the copy barcode
+     * @param onLoan true if the copy is checked out
+     */
+    synchronized void restore(String barcode, boolean onLoan) {
+        MediaCopy copy = copiesByBarcode.get(barcode);
+        if (copy == null) {
+            copy = new MediaCopy(barcode, mediaId);
+            copies.add(copy);
+            copiesByBarcode.put(barcode, copy);
+            nextSequence = Math.max(nextSequence, copies.size() + 1);
+            if (onLoan) {
+                copy.markOnLoan();
+            } else {
+                shelf.offer(copy);
+                freeCount.incrementAndGet();
+            }
+        } else if (onLoan && copy.markOnLoan()) {
+            shelf.remove(copy);
+            freeCount.decrementAndGet();
+        } else if (!onLoan && copy.markReturned()) {
+            shelf.offer(copy);
+            freeCount.incrementAndGet();
+        }
+    }
+
+    public String getMediaId() { return mediaId; }
+
+    /**
+     * Gets all copies, in the order they were added
+     * @return read-only list of copies
+     */
+    public List<MediaCopy> getCopies() {
+        return Collections.unmodifiableList(copies);
+    }
+
+    /**
+     * Finds a copy by barcode
+     * @param barcode the barcode
+     * @return the copy, or null if not found
+     */
+    public MediaCopy findCopy(String barcode) {
+        return barcode == null ? null : copiesByBarcode.get(barcode);
+    }
+
+    public int getCopyCount() { return copies.size(); }
+
+    public int getAvailableCount() { return freeCount.get(); }
+}
@@ -0,0 +1,102 @@
+package com.library.repository;
+
+/**
+ * ISBN normalization to a packed 64-bit key.
+ *
+ * Scanned or typed ISBNs come as ISBN-13 or ISBN-10, with or without hyphens or spaces. Both forms
+ * are checksum-validated and mapped to the 13-digit number of the ISBN-13 (an ISBN-10 gets the 978
+ * prefix and a recomputed check digit), so every spelling of the same book yields the same key.
+ * Parsing walks the characters once and allocates nothing.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class Isbn {
+    /** Key returned for text that is not a valid ISBN */
+    public static final long INVALID = -1L;
+
+    private static final long PREFIX_978 = 978_000_000_000L;
+
+    private Isbn() {
+    }
+
+    /**
+     * Converts an ISBN-10 or ISBN-13 to its key
+     * @param text the ISBN, hyphens and spaces allowed; an ISBN-10 may end in X
+     * @return the 13-digit ISBN as a number, or {@link #INVALID}
+     */
+    public static long toKey(CharSequence text) {
+        if (text == null) {
+            return INVALID;
+        }
+        long value = 0;
+        int count = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        boolean endsWithX = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (endsWithX || count >= 13) {
+                return INVALID;
+            }
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                value = value * 10 + digit;
+                sum10 += (10 - count) * digit;
+                sum13 += (count % 2 == 0 ? 1 : 3) * digit;
+                count++;
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                sum10 += 10;
+                endsWithX = true;
+                count++;
+            } else {
+                return INVALID;
+            }
+        }
+
+        if (count == 13 && !endsWithX) {
+            long prefix = value / 10_000_000_000L;
+            return sum13 % 10 == 0 && (prefix == 978 || prefix == 979) ? value : INVALID;
+        }
+        if (count == 10 && sum10 % 11 == 0) {
+            long core = endsWithX ? value : value / 10;
+            long body = PREFIX_978 + core;
+            return body * 10 + checkDigit13(body);
+        }
+        return INVALID;
+    }
+
+    /**
+     * Checks whether text is a valid ISBN-10 or ISBN-13
+     * @param text the text
+     * @return true if it has a valid checksum
+     */
+    public static boolean isValid(CharSequence text) {
+        return toKey(text) != INVALID;
+    }
+
+    /**
+     * Formats a key as the plain 13-digit ISBN
+     * @param key the key
+     * @return the ISBN-13 digits
+     */
+    public static String toIsbn13(long key) {
+        if (key == INVALID) {
+            throw new IllegalArgumentException("Not a valid ISBN key");
+        }
+        return Long.toString(key);
+    }
+
+    private static int checkDigit13(long body) {
+        // Digits of the 12-digit body, from the last one (weight 3) to the first (weight 1)
+        int sum = 0;
+        for (int position = 11; position >= 0; position--) {
+            int digit = (int) (body % 10);
+            sum += (position % 2 == 0 ? 1 : 3) * digit;
+            body /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
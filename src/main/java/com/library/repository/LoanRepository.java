@@ -1,10 +1,19 @@
 package com.library.repository;
 
 import com.library.model.Loan;
+import com.library.model.MediaCopy;
+import com.library.scheduler.DueDateScheduler;
 import com.library.model.Media;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -16,6 +25,8 @@ public class LoanRepository {
     private List<Loan> loans;
     private int loanCounter;
     private MediaRepository mediaRepository;
+    private DueDateScheduler dueDateScheduler;
+    private ChangeListener changeListener = ChangeListener.NONE;
 
     public LoanRepository(MediaRepository mediaRepository) {
         this.loans = new ArrayList<>();
@@ -63,17 +74,88 @@ public class LoanRepository {
 
     public Loan createLoan(String userId, String mediaId, String mediaType,
                            LocalDate borrowDate) {
+        String copyBarcode = null;
+        if (mediaRepository.hasHoldings(mediaId)) {
+            MediaCopy copy = mediaRepository.checkoutCopy(mediaId);
+            if (copy == null) {
+                System.out.println("❌ Error: No copy of " + mediaId + " is available.");
+                return null;
+            }
+            copyBarcode = copy.getBarcode();
+        }
+
         int loanPeriod = getLoanPeriodForMediaType(mediaType);
         LocalDate dueDate = borrowDate.plusDays(loanPeriod);
         String loanId = "L" + String.format("%04d", loanCounter++);
 
         Loan newLoan = new Loan(loanId, userId, mediaId, mediaType, borrowDate, dueDate);
+        newLoan.setCopyBarcode(copyBarcode);
         loans.add(newLoan);
-        mediaRepository.updateMediaAvailability(mediaId, false);
+        changeListener.recordChanged(newLoan);
+        if (copyBarcode == null) {
+            mediaRepository.updateMediaAvailability(mediaId, false);
+        }
+        if (dueDateScheduler != null) {
+            dueDateScheduler.register(newLoan);
+        }
 
         return newLoan;
     }
 
+    /**
+     * Creates several loans for one user in a single repository operation
+     * @param userId the user ID
+     * @param mediaTypesById media identifiers mapped to their media type, in checkout order
+     * @param borrowDate the borrow date
+     * @return the created loans, in the same order (multi-copy titles with no copy left are skipped)
+     */
+    public List<Loan> createLoans(String userId, Map<String, String> mediaTypesById, LocalDate borrowDate) {
+        return createLoans(userId, mediaTypesById, borrowDate, Map.of());
+    }
+
+    /**
+     * Creates several loans for one user in a single repository operation, lending copies the
+     * caller has already checked out where given
+     * @param userId the user ID
+     * @param mediaTypesById media identifiers mapped to their media type, in checkout order
+     * @param borrowDate the borrow date
+     * @param reservedCopies barcodes of copies already taken off the shelf, by media identifier
+     * @return the created loans, in the same order (multi-copy titles with no copy left are skipped)
+     */
+    public List<Loan> createLoans(String userId, Map<String, String> mediaTypesById, LocalDate borrowDate,
+                                  Map<String, String> reservedCopies) {
+        List<Loan> created = new ArrayList<>(mediaTypesById.size());
+        for (Map.Entry<String, String> entry : mediaTypesById.entrySet()) {
+            String mediaId = entry.getKey();
+            String copyBarcode = reservedCopies.get(mediaId);
+            if (copyBarcode == null && mediaRepository.hasHoldings(mediaId)) {
+                MediaCopy copy = mediaRepository.checkoutCopy(mediaId);
+                if (copy == null) {
+                    continue;
+                }
+                copyBarcode = copy.getBarcode();
+            }
+            String mediaType = entry.getValue();
+            LocalDate dueDate = borrowDate.plusDays(getLoanPeriodForMediaType(mediaType));
+            String loanId = "L" + String.format("%04d", loanCounter++);
+            Loan loan = new Loan(loanId, userId, mediaId, mediaType, borrowDate, dueDate);
+            loan.setCopyBarcode(copyBarcode);
+            created.add(loan);
+        }
+
+        loans.addAll(created);
+        for (Loan loan : created) {
+            changeListener.recordChanged(loan);
+            if (loan.getCopyBarcode() == null) {
+                mediaRepository.updateMediaAvailability(loan.getMediaId(), false);
+            }
+            if (dueDateScheduler != null) {
+                dueDateScheduler.register(loan);
+            }
+        }
+        return created;
+    }
+
     private int getLoanPeriodForMediaType(String mediaType) {
         switch (mediaType.toUpperCase()) {
             case "BOOK": return 28;
@@ -110,20 +192,14 @@ public class LoanRepository {
 
     public List<Loan> getOverdueLoans(LocalDate currentDate) {
         return loans.stream()
-                .filter(loan -> {
-                    loan.checkOverdue(currentDate);
-                    return loan.isOverdue() && loan.getReturnDate() == null;
-                })
+                .filter(loan -> loan.isOverdueAsOf(currentDate))
                 .toList();
     }
 
     public List<Loan> getOverdueLoansForUser(String userId, LocalDate currentDate) {
         return loans.stream()
                 .filter(loan -> loan.getUserId().equals(userId))
-                .filter(loan -> {
-                    loan.checkOverdue(currentDate);
-                    return loan.isOverdue() && loan.getReturnDate() == null;
-                })
+                .filter(loan -> loan.isOverdueAsOf(currentDate))
                 .toList();
     }
 
@@ -132,12 +208,108 @@ public class LoanRepository {
         if (loan != null && loan.getReturnDate() == null) {
             loan.setReturnDate(returnDate);
             loan.setOverdue(false);
-            mediaRepository.updateMediaAvailability(loan.getMediaId(), true);
+            changeListener.recordChanged(loan);
+            releaseMedia(loan);
+            if (dueDateScheduler != null) {
+                dueDateScheduler.cancel(loanId);
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Puts the returned item back: the loan's copy for multi-copy titles, the title otherwise
+     */
+    private void releaseMedia(Loan loan) {
+        if (loan.getCopyBarcode() != null || mediaRepository.hasHoldings(loan.getMediaId())) {
+            mediaRepository.returnCopy(loan.getMediaId(), loan.getCopyBarcode());
+        } else {
+            mediaRepository.updateMediaAvailability(loan.getMediaId(), true);
+        }
+    }
+
+    /**
+     * Returns several loans in a single repository operation.
+     * Loans that are already returned are skipped.
+     * @param loansToReturn the loans to return
+     * @param returnDate the return date
+     * @return the loans that were returned
+     */
+    public List<Loan> returnLoans(Collection<Loan> loansToReturn, LocalDate returnDate) {
+        List<Loan> returned = new ArrayList<>(loansToReturn.size());
+        for (Loan loan : loansToReturn) {
+            if (loan.getReturnDate() == null) {
+                loan.setReturnDate(returnDate);
+                loan.setOverdue(false);
+                changeListener.recordChanged(loan);
+                releaseMedia(loan);
+                if (dueDateScheduler != null) {
+                    dueDateScheduler.cancel(loan.getLoanId());
+                }
+                returned.add(loan);
+            }
+        }
+        return returned;
+    }
+
+    /**
+     * Finds several loans with one pass over the loan table
+     * @param loanIds the loan IDs
+     * @return the loans found, keyed by loan ID
+     */
+    public Map<String, Loan> findLoansByIds(Collection<String> loanIds) {
+        Set<String> wanted = new HashSet<>(loanIds);
+        Map<String, Loan> found = new HashMap<>();
+        for (Loan loan : loans) {
+            if (wanted.contains(loan.getLoanId())) {
+                found.putIfAbsent(loan.getLoanId(), loan);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores a loan record as-is, replacing the loan with the same ID or adding it.
+     * Media availability is not touched. Used by read replicas to apply shipped changes.
+     * @param loan the loan record
+     */
+    public void saveLoan(Loan loan) {
+        for (int i = 0; i < loans.size(); i++) {
+            if (loans.get(i).getLoanId().equals(loan.getLoanId())) {
+                loans.set(i, loan);
+                changeListener.recordChanged(loan);
+                return;
+            }
+        }
+        loans.add(loan);
+        changeListener.recordChanged(loan);
+    }
+
+    /**
+     * Drops the loans of every user that is not kept, e.g. on a shard that owns only some users.
+     * Media availability is not touched and the change listener is not told.
+     * @param keepUser tells whether a user ID's loans stay
+     * @return the number of loans removed
+     */
+    public int retainUsers(Predicate<String> keepUser) {
+        int before = loans.size();
+        loans.removeIf(loan -> !keepUser.test(loan.getUserId()));
+        return before - loans.size();
+    }
+
+    /**
+     * Sets the listener told about every loan this repository creates or changes
+     * @param changeListener the listener, or null for none
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener != null ? changeListener : ChangeListener.NONE;
+    }
+
+    public ChangeListener getChangeListener() {
+        return changeListener;
+    }
+
     public Loan findLoanById(String loanId) {
         return loans.stream()
                 .filter(loan -> loan.getLoanId().equals(loanId))
@@ -149,15 +321,59 @@ public class LoanRepository {
         return new ArrayList<>(loans);
     }
 
+    /**
+     * Gets one page of loans, in insertion order, without copying the whole list
+     * @param offset the index of the first loan
+     * @param limit the maximum number of loans
+     * @return the page
+     */
+    public Page<Loan> getLoansPage(int offset, int limit) {
+        return Page.of(loans, offset, limit, Loan::getLoanId);
+    }
+
+    /**
+     * Gets the page of loans that follows a continuation cursor
+     * @param cursor the cursor from the previous page, or null for the first page
+     * @param limit the maximum number of loans
+     * @return the page
+     */
+    public Page<Loan> getLoansAfter(String cursor, int limit) {
+        return Page.after(loans, cursor, limit, Loan::getLoanId);
+    }
+
+    /**
+     * Gets a read-only live view of all loans (no copy)
+     * @return unmodifiable view of the loans
+     */
+    public List<Loan> getLoansView() {
+        return Collections.unmodifiableList(loans);
+    }
+
     public MediaRepository getMediaRepository() {
         return mediaRepository;
     }
 
+    /**
+     * Sets the scheduler that tracks due dates; all active loans are registered with it.
+     * New loans are registered on creation and cancelled on return.
+     * @param dueDateScheduler the scheduler, or null to stop tracking
+     */
+    public void setDueDateScheduler(DueDateScheduler dueDateScheduler) {
+        this.dueDateScheduler = dueDateScheduler;
+        if (dueDateScheduler != null) {
+            getActiveLoans().forEach(dueDateScheduler::register);
+        }
+    }
+
+    public DueDateScheduler getDueDateScheduler() {
+        return dueDateScheduler;
+    }
+
     public double calculateTotalFinesForUser(String userId, LocalDate currentDate) {
         return loans.stream()
                 .filter(loan -> loan.getUserId().equals(userId))
                 .filter(loan -> loan.getReturnDate() == null)
-                .mapToDouble(loan -> loan.calculateFlatFine())
+                .mapToDouble(loan -> loan.calculateFine(currentDate))
                 .sum();
     }
 
@@ -205,8 +421,7 @@ public class LoanRepository {
                     .toList());
 
             for (Loan loan : allActiveLoans) {
-                loan.checkOverdue(reportDate);
-                if (loan.isOverdue()) {
+                if (loan.isOverdueAsOf(reportDate)) {
                     overdueActiveLoans.add(loan);
                     double fine = calculateFlatFine(loan);
                     activeFinesTotal += fine;
@@ -282,7 +497,7 @@ public class LoanRepository {
         }
 
         private void appendActiveLoanDetails(StringBuilder sb, Loan loan) {
-            String status = loan.isOverdue() ? "⏰ OVERDUE" : "✅ On Time";
+            String status = loan.isOverdueAsOf(reportDate) ? "⏰ OVERDUE" : "✅ On Time";
             String mediaType = "BOOK".equals(loan.getMediaType()) ? "📚 BOOK" : "💿 CD";
             sb.append(String.format("%n   • %s: %-15s | Due: %s | Status: %s",
                     mediaType, loan.getMediaId(), loan.getDueDate(), status));
@@ -347,12 +562,9 @@ public class LoanRepository {
 
         loans.stream()
                 .filter(loan -> loan.getUserId().equals(userId))
-                .filter(loan -> {
-                    loan.checkOverdue(currentDate);
-                    return loan.isOverdue() && loan.getReturnDate() == null;
-                })
+                .filter(loan -> loan.isOverdueAsOf(currentDate))
                 .forEach(loan -> {
-                    double fine = loan.calculateFlatFine();
+                    double fine = loan.calculateFine(currentDate);
                     summary.addOverdueItem(loan.getMediaType(), loan.getMediaId(), fine, loan.getLoanId());
                 });
 
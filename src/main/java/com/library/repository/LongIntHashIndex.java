@@ -0,0 +1,104 @@
+package com.library.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open-addressing hash index from positive long keys to int values, with linear probing.
+ *
+ * Keys and values live in primitive arrays, so a lookup allocates nothing. There is one writer at
+ * a time (the catalog writer); readers never lock. A value is written before its key, and keys are
+ * published through an atomic array, so a reader that sees a key also sees its value. The table is
+ * rebuilt at half load and the new table is published through a volatile field once it is
+ * complete. Entries are never removed.
+ * @author Library Team
+ * @version 1.0
+ */
+final class LongIntHashIndex {
+    static final int MISSING = -1;
+    private static final long EMPTY = 0L;
+
+    private volatile Table table = new Table(16);
+    private int size;
+
+    /**
+     * Gets the value of a key
+     * @param key the key (must be positive)
+     * @return the value, or {@link #MISSING}
+     */
+    int get(long key) {
+        Table current = table;
+        int mask = current.values.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long stored = current.keys.get(slot);
+            if (stored == key) {
+                return current.values[slot];
+            }
+            if (stored == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Adds a key unless it is already present. Only the single writer may call this.
+     * @param key the key (must be positive)
+     * @param value the value
+     * @return true if the key was added
+     */
+    boolean putIfAbsent(long key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        if (get(key) != MISSING) {
+            return false;
+        }
+        Table current = table;
+        if ((size + 1) * 2 > current.values.length) {
+            current = resize(current);
+        }
+        insert(current, key, value);
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Table resize(Table old) {
+        Table grown = new Table(old.values.length * 2);
+        for (int slot = 0; slot < old.values.length; slot++) {
+            long key = old.keys.get(slot);
+            if (key != EMPTY) {
+                insert(grown, key, old.values[slot]);
+            }
+        }
+        table = grown;
+        return grown;
+    }
+
+    private static void insert(Table target, long key, int value) {
+        int mask = target.values.length - 1;
+        int slot = mix(key) & mask;
+        while (target.keys.get(slot) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        target.values[slot] = value;
+        target.keys.set(slot, key);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        private final AtomicLongArray keys;
+        private final int[] values;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new int[capacity];
+        }
+    }
+}
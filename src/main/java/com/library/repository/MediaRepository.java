@@ -1,24 +1,77 @@
 package com.library.repository;
 
+import com.library.model.AvailabilityStore;
+import com.library.model.BaseMedia;
 import com.library.model.Book;
 import com.library.model.CD;
 import com.library.model.Media;
+import com.library.model.MediaCopy;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Repository for managing all media items (books, CDs, etc.)
+ *
+ * Reads go to an immutable {@link CatalogSnapshot} published through a volatile field, so search
+ * and browse run lock-free against a consistent view. Writes are serialized and publish a new
+ * snapshot that extends the previous one.
+ *
+ * Availability is kept out of the catalog objects, in an atomic bit set indexed by catalog
+ * position: checkouts and returns flip one bit, and "available only" listings are a word-wise
+ * AND of the availability bits with the media-type bits.
+ *
+ * A title can have several physical copies ({@link Holdings}). Such a title is available while
+ * at least one copy is on the shelf, and loans check out and return individual copies.
+ *
+ * Title and author words are also kept in a {@link TrigramIndex} for typo-tolerant search, and
+ * books are indexed by normalized {@link Isbn} key for format-insensitive barcode lookups.
+ *
+ * Browsing by facet uses the same bit sets: CDs also get a bit set per genre, so a filter such as
+ * "available rock CDs" and its count are the AND of the genre, type and availability bits. Type
+ * and genre bits are set when an item is added and availability bits flip on checkout and return,
+ * so the facets never need rebuilding. A CD is filed under the genre it had when it was added.
  * @author Library Team
- * @version 1.0
+ * @version 1.1
  */
 public class MediaRepository {
-    private List<Media> mediaItems;
+    private volatile CatalogSnapshot catalog = CatalogSnapshot.empty();
+    private final AtomicBitSet availability = new AtomicBitSet();
+    private final AtomicBitSet bookPositions = new AtomicBitSet();
+    private final AtomicBitSet cdPositions = new AtomicBitSet();
+    private final Map<String, GenreFacet> genres = new ConcurrentHashMap<>();
+    private final Map<String, Holdings> holdingsByMediaId = new ConcurrentHashMap<>();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final LongIntHashIndex bookPositionByIsbn = new LongIntHashIndex();
+    private volatile ChangeListener changeListener = ChangeListener.NONE;
+    private final AvailabilityStore availabilityStore = new AvailabilityStore() {
+        @Override
+        public boolean isAvailable(int slot) {
+            return availability.get(slot);
+        }
+
+        @Override
+        public void setAvailable(int slot, boolean available) {
+            // Only the thread whose write actually flipped the bit reports the change
+            boolean changed = availability.getAndSet(slot, available) != available;
+            // Items being bound during publish are reported with the publish itself
+            CatalogSnapshot current = catalog;
+            if (changed && slot < current.size()) {
+                changeListener.recordChanged(current.getMedia().get(slot));
+            }
+        }
+    };
 
     /**
      * Constructor that initializes with sample media
      */
     public MediaRepository() {
-        this.mediaItems = new ArrayList<>();
         initializeSampleMedia();
     }
 
@@ -26,29 +79,108 @@ public class MediaRepository {
      * Adds sample media to the repository
      */
     private void initializeSampleMedia() {
-        // Sample books
-        mediaItems.add(new Book("The Great Gatsby", "F. Scott Fitzgerald", "978-0743273565"));
-        mediaItems.add(new Book("To Kill a Mockingbird", "Harper Lee", "978-0061120084"));
-        mediaItems.add(new Book("1984", "George Orwell", "978-0451524935"));
-        mediaItems.add(new Book("Pride and Prejudice", "Jane Austen", "978-0141439518"));
-        mediaItems.add(new Book("The Catcher in the Rye", "J.D. Salinger", "978-0316769174"));
-        mediaItems.add(new Book("The Hobbit", "J.R.R. Tolkien", "978-0547928227"));
-        mediaItems.add(new Book("Harry Potter and the Sorcerer's Stone", "J.K. Rowling", "978-0590353427"));
+        // Seeded through the private publish, so no overridable method runs during construction
+        publish(List.of(
+                // Sample books
+                new Book("The Great Gatsby", "F. Scott Fitzgerald", "978-0743273565"),
+                new Book("To Kill a Mockingbird", "Harper Lee", "978-0061120084"),
+                new Book("1984", "George Orwell", "978-0451524935"),
+                new Book("Pride and Prejudice", "Jane Austen", "978-0141439518"),
+                new Book("The Catcher in the Rye", "J.D. Salinger", "978-0316769174"),
+                new Book("The Hobbit", "J.R.R. Tolkien", "978-0547928227"),
+                new Book("Harry Potter and the Sorcerer's Stone", "J.K. Rowling", "978-0590353427"),
 
-        // Sample CDs
-        mediaItems.add(new CD("Thriller", "Michael Jackson", "CD-001", "Pop", 9));
-        mediaItems.add(new CD("The Dark Side of the Moon", "Pink Floyd", "CD-002", "Progressive Rock", 10));
-        mediaItems.add(new CD("Back in Black", "AC/DC", "CD-003", "Hard Rock", 10));
-        mediaItems.add(new CD("The Beatles", "The Beatles", "CD-004", "Rock", 17));
-        mediaItems.add(new CD("Rumours", "Fleetwood Mac", "CD-005", "Soft Rock", 11));
+                // Sample CDs
+                new CD("Thriller", "Michael Jackson", "CD-001", "Pop", 9),
+                new CD("The Dark Side of the Moon", "Pink Floyd", "CD-002", "Progressive Rock", 10),
+                new CD("Back in Black", "AC/DC", "CD-003", "Hard Rock", 10),
+                new CD("The Beatles", "The Beatles", "CD-004", "Rock", 17),
+                new CD("Rumours", "Fleetwood Mac", "CD-005", "Soft Rock", 11)));
     }
 
     /**
      * Adds new media to the repository
      * @param media the media to add
      */
-    public void addMedia(Media media) {
-        mediaItems.add(media);
+    public synchronized void addMedia(Media media) {
+        publish(Collections.singletonList(media));
+    }
+
+    /**
+     * Adds a batch of media to the repository in one step
+     * @param media the media to add, in order
+     */
+    public synchronized void addMediaBatch(Collection<? extends Media> media) {
+        publish(media);
+    }
+
+    /**
+     * Appends items to the catalog, binds their availability bits and then publishes the snapshot
+     */
+    private void publish(Collection<? extends Media> media) {
+        CatalogSnapshot current = catalog;
+        int position = current.size();
+        for (Media item : media) {
+            if (item instanceof Book) {
+                bookPositions.set(position, true);
+                long isbn = Isbn.toKey(item.getIdentifier());
+                if (isbn != Isbn.INVALID) {
+                    bookPositionByIsbn.putIfAbsent(isbn, position);
+                }
+            } else if (item instanceof CD cd) {
+                cdPositions.set(position, true);
+                String genre = genreKey(cd.getGenre());
+                if (genre != null) {
+                    genres.computeIfAbsent(genre, key -> new GenreFacet(cd.getGenre().trim()))
+                            .positions.set(position, true);
+                }
+            }
+            if (item instanceof BaseMedia base) {
+                base.bindAvailability(availabilityStore, position);
+            } else if (item != null) {
+                availability.set(position, item.isAvailable());
+            }
+            position++;
+        }
+        trigramIndex.addAll(current.size(), new ArrayList<>(media));
+        catalog = current.append(media);
+        for (Media item : media) {
+            if (item != null) {
+                changeListener.recordChanged(item);
+            }
+        }
+    }
+
+    /**
+     * Sets the listener told about media added to the catalog, availability changes and
+     * changes to a title's copies (reported as its {@link Holdings})
+     * @param changeListener the listener, or null for none
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener != null ? changeListener : ChangeListener.NONE;
+    }
+
+    public ChangeListener getChangeListener() {
+        return changeListener;
+    }
+
+    /**
+     * Gets the current catalog snapshot. It never changes, so callers can read it as often
+     * as they like without seeing a partially applied write.
+     * @return the current snapshot
+     */
+    public CatalogSnapshot getSnapshot() {
+        return catalog;
+    }
+
+    /**
+     * Checks whether a media item with the given identifier exists. An ISBN matches a book
+     * under any spelling of it (ISBN-10 or ISBN-13, with or without hyphens).
+     * @param identifier the media identifier
+     * @return true if the identifier is already in the catalog
+     */
+    public boolean containsMediaId(String identifier) {
+        return catalog.findById(identifier) != null || findBookByIsbn(identifier) != null;
     }
 
     /**
@@ -57,11 +189,212 @@ public class MediaRepository {
      * @return list of matching media
      */
     public List<Media> searchMedia(String query) {
-        return mediaItems.stream()
-                .filter(media -> media.getTitle().toLowerCase().contains(query.toLowerCase()) ||
-                        media.getAuthor().toLowerCase().contains(query.toLowerCase()) ||
-                        media.getIdentifier().toLowerCase().contains(query.toLowerCase()))
-                .toList();
+        return catalog.search(query);
+    }
+
+    /**
+     * Searches media by title, author, or identifier
+     * @param query the search query
+     * @param availableOnly true to return only media that are currently available
+     * @return list of matching media
+     */
+    public List<Media> searchMedia(String query, boolean availableOnly) {
+        CatalogSnapshot snapshot = catalog;
+        return snapshot.search(query, availableOnly ? availability.toWords(snapshot.size()) : null);
+    }
+
+    /**
+     * Searches books by title, author, or ISBN, using the book index to skip other media
+     * @param query the search query
+     * @return list of matching books
+     */
+    public List<Book> searchBooks(String query) {
+        CatalogSnapshot snapshot = catalog;
+        List<Book> books = new ArrayList<>();
+        for (Media media : snapshot.search(query, bookPositions.toWords(snapshot.size()))) {
+            books.add((Book) media);
+        }
+        return books;
+    }
+
+    /**
+     * Finds the media whose title or author words best match a possibly misspelled query,
+     * e.g. "Tolkein" or "Gatsbey"
+     * @param query the search query
+     * @param limit the maximum number of results
+     * @return matching media, best match first
+     */
+    public List<Media> fuzzySearch(String query, int limit) {
+        CatalogSnapshot snapshot = catalog;
+        List<Media> all = snapshot.getMedia();
+        List<Media> results = new ArrayList<>();
+        for (int position : trigramIndex.search(query, snapshot.size(), limit)) {
+            results.add(all.get(position));
+        }
+        return results;
+    }
+
+    /**
+     * Gets all media that are currently available
+     * @return list of available media
+     */
+    public List<Media> getAvailableMedia() {
+        CatalogSnapshot snapshot = catalog;
+        return select(snapshot, availability.toWords(snapshot.size()), Media.class);
+    }
+
+    /**
+     * Gets all books that are currently available
+     * @return list of available books
+     */
+    public List<Book> getAvailableBooks() {
+        CatalogSnapshot snapshot = catalog;
+        long[] words = availability.toWords(snapshot.size());
+        AtomicBitSet.and(words, bookPositions.toWords(snapshot.size()));
+        return select(snapshot, words, Book.class);
+    }
+
+    /**
+     * Gets all CDs that are currently available
+     * @return list of available CDs
+     */
+    public List<CD> getAvailableCDs() {
+        CatalogSnapshot snapshot = catalog;
+        long[] words = availability.toWords(snapshot.size());
+        AtomicBitSet.and(words, cdPositions.toWords(snapshot.size()));
+        return select(snapshot, words, CD.class);
+    }
+
+    /**
+     * Counts the media that are currently available
+     * @return the number of available media
+     */
+    public int countAvailableMedia() {
+        return bitCount(availability.toWords(catalog.size()));
+    }
+
+    /**
+     * Gets the media matching a combination of facets, in catalog order
+     * @param mediaType "BOOK", "CD", or null for any type
+     * @param genre the CD genre (case-insensitive), or null or blank for any genre; a genre implies CDs
+     * @param availableOnly true to return only media that are currently available
+     * @return list of matching media
+     */
+    public List<Media> browse(String mediaType, String genre, boolean availableOnly) {
+        CatalogSnapshot snapshot = catalog;
+        return select(snapshot, facetWords(snapshot.size(), mediaType, genre, availableOnly), Media.class);
+    }
+
+    /**
+     * Counts the media matching a combination of facets without listing them,
+     * e.g. the rock CDs available now
+     * @param mediaType "BOOK", "CD", or null for any type
+     * @param genre the CD genre (case-insensitive), or null or blank for any genre; a genre implies CDs
+     * @param availableOnly true to count only media that are currently available
+     * @return the number of matching media
+     */
+    public int countMatching(String mediaType, String genre, boolean availableOnly) {
+        return bitCount(facetWords(catalog.size(), mediaType, genre, availableOnly));
+    }
+
+    /**
+     * Counts the CDs of every genre
+     * @param availableOnly true to count only CDs that are currently available
+     * @return the count per genre, largest first and then by name; genres with no match are left out
+     */
+    public Map<String, Integer> getGenreCounts(boolean availableOnly) {
+        int size = catalog.size();
+        long[] available = availableOnly ? availability.toWords(size) : null;
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (GenreFacet facet : genres.values()) {
+            long[] words = facet.positions.toWords(size);
+            if (available != null) {
+                AtomicBitSet.and(words, available);
+            }
+            int count = bitCount(words);
+            if (count > 0) {
+                counts.add(Map.entry(facet.name, count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER)));
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : counts) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Intersects the bit sets of the requested facets over the first {@code size} positions
+     */
+    private long[] facetWords(int size, String mediaType, String genre, boolean availableOnly) {
+        long[] words = null;
+        if (mediaType != null) {
+            AtomicBitSet type = switch (mediaType.toUpperCase(Locale.ROOT)) {
+                case "BOOK" -> bookPositions;
+                case "CD" -> cdPositions;
+                default -> throw new IllegalArgumentException("Unknown media type: " + mediaType);
+            };
+            words = type.toWords(size);
+        }
+        String key = genreKey(genre);
+        if (key != null) {
+            GenreFacet facet = genres.get(key);
+            if (facet == null) {
+                return new long[0];
+            }
+            words = intersect(words, facet.positions.toWords(size));
+        }
+        if (availableOnly) {
+            words = intersect(words, availability.toWords(size));
+        }
+        if (words == null) {
+            words = new long[(size + 63) >>> 6];
+            Arrays.fill(words, -1L);
+            if ((size & 63) != 0) {
+                words[words.length - 1] = (1L << size) - 1;
+            }
+        }
+        return words;
+    }
+
+    private static long[] intersect(long[] words, long[] other) {
+        if (words == null) {
+            return other;
+        }
+        AtomicBitSet.and(words, other);
+        return words;
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static String genreKey(String genre) {
+        if (genre == null || genre.isBlank()) {
+            return null;
+        }
+        return genre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <T extends Media> List<T> select(CatalogSnapshot snapshot, long[] words, Class<T> type) {
+        List<Media> media = snapshot.getMedia();
+        List<T> selected = new ArrayList<>();
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int position = (w << 6) + Long.numberOfTrailingZeros(word);
+                selected.add(type.cast(media.get(position)));
+                word &= word - 1;
+            }
+        }
+        return selected;
     }
 
     /**
@@ -69,7 +402,35 @@ public class MediaRepository {
      * @return list of all media
      */
     public List<Media> getAllMedia() {
-        return new ArrayList<>(mediaItems);
+        return new ArrayList<>(catalog.getMedia());
+    }
+
+    /**
+     * Gets one page of media items, in insertion order, without copying the whole list
+     * @param offset the index of the first media item
+     * @param limit the maximum number of media items
+     * @return the page
+     */
+    public Page<Media> getMediaPage(int offset, int limit) {
+        return Page.of(catalog.getMedia(), offset, limit, Media::getIdentifier);
+    }
+
+    /**
+     * Gets the page of media items that follows a continuation cursor
+     * @param cursor the cursor from the previous page, or null for the first page
+     * @param limit the maximum number of media items
+     * @return the page
+     */
+    public Page<Media> getMediaAfter(String cursor, int limit) {
+        return Page.after(catalog.getMedia(), cursor, limit, Media::getIdentifier);
+    }
+
+    /**
+     * Gets a read-only view of all media items in the current snapshot (no copy)
+     * @return unmodifiable view of the media items
+     */
+    public List<Media> getMediaView() {
+        return catalog.getMedia();
     }
 
     /**
@@ -78,10 +439,22 @@ public class MediaRepository {
      * @return the media, or null if not found
      */
     public Media findMediaById(String identifier) {
-        return mediaItems.stream()
-                .filter(media -> media.getIdentifier().equals(identifier))
-                .findFirst()
-                .orElse(null);
+        return catalog.findById(identifier);
+    }
+
+    /**
+     * Finds a book by a scanned or typed ISBN. ISBN-10 and ISBN-13, with or without hyphens,
+     * find the same book; the lookup allocates nothing.
+     * @param isbn the ISBN
+     * @return the book, or null if the ISBN is invalid or not in the catalog
+     */
+    public Book findBookByIsbn(CharSequence isbn) {
+        long key = Isbn.toKey(isbn);
+        if (key == Isbn.INVALID) {
+            return null;
+        }
+        int position = bookPositionByIsbn.get(key);
+        return position != LongIntHashIndex.MISSING && catalog.mediaAt(position) instanceof Book book ? book : null;
     }
 
     /**
@@ -91,7 +464,13 @@ public class MediaRepository {
      * @return the media, or null if not found
      */
     public Media findMediaByIdAndType(String identifier, String mediaType) {
-        return mediaItems.stream()
+        CatalogSnapshot snapshot = catalog;
+        Media indexed = snapshot.findById(identifier);
+        if (indexed == null || indexed.getMediaType().equals(mediaType)) {
+            return indexed;
+        }
+        // Same identifier under another media type: fall back to a scan
+        return snapshot.getMedia().stream()
                 .filter(media -> media.getIdentifier().equals(identifier) &&
                         media.getMediaType().equals(mediaType))
                 .findFirst()
@@ -113,15 +492,137 @@ public class MediaRepository {
         return false;
     }
 
+    /**
+     * Registers additional physical copies of a title.
+     * The first call turns the title into a multi-copy title; the existing item becomes its first
+     * copy and keeps its current availability.
+     * @param mediaId the media identifier
+     * @param count the number of copies to add
+     * @return the new copies, or an empty list if the media does not exist or count is not positive
+     */
+    public List<MediaCopy> addCopies(String mediaId, int count) {
+        Media media = findMediaById(mediaId);
+        if (media == null) {
+            System.out.println("❌ Error: Media not found with ID: " + mediaId);
+            return List.of();
+        }
+        if (count <= 0) {
+            System.out.println("❌ Error: Number of copies must be positive.");
+            return List.of();
+        }
+
+        Holdings holdings = holdingsByMediaId.computeIfAbsent(mediaId, id -> {
+            Holdings created = new Holdings(id);
+            created.addCopies(1, !media.isAvailable());
+            return created;
+        });
+        List<MediaCopy> added = holdings.addCopies(count, false);
+        refreshAvailability(media, holdings);
+        changeListener.recordChanged(holdings);
+        return added;
+    }
+
+    /**
+     * Puts a title's copies in a replicated state: copies not seen yet are added under their
+     * barcodes, and every listed copy is taken off or put back on the shelf as given.
+     * Read replicas call this while holding their write lock.
+     * @param mediaId the media identifier
+     * @param onLoanByBarcode each copy's barcode mapped to whether it is on loan, in copy order
+     * @return true if the media exists
+     */
+    public boolean restoreHoldings(String mediaId, Map<String, Boolean> onLoanByBarcode) {
+        Media media = findMediaById(mediaId);
+        if (media == null) {
+            System.out.println("❌ Error: Media not found with ID: " + mediaId);
+            return false;
+        }
+        Holdings holdings = holdingsByMediaId.computeIfAbsent(mediaId, Holdings::new);
+        onLoanByBarcode.forEach(holdings::restore);
+        refreshAvailability(media, holdings);
+        return true;
+    }
+
+    /**
+     * Gets the copies of a multi-copy title
+     * @param mediaId the media identifier
+     * @return the holdings, or null if the title has a single copy
+     */
+    public Holdings getHoldings(String mediaId) {
+        return mediaId == null ? null : holdingsByMediaId.get(mediaId);
+    }
+
+    /**
+     * Gets the copies of every multi-copy title
+     * @return the holdings, in no particular order
+     */
+    public List<Holdings> getAllHoldings() {
+        return new ArrayList<>(holdingsByMediaId.values());
+    }
+
+    /**
+     * Checks whether a title has registered copies
+     * @param mediaId the media identifier
+     * @return true for multi-copy titles
+     */
+    public boolean hasHoldings(String mediaId) {
+        return getHoldings(mediaId) != null;
+    }
+
+    /**
+     * Checks out any copy of a multi-copy title that is on the shelf
+     * @param mediaId the media identifier
+     * @return the copy, or null if the title has no registered copies or all are on loan
+     */
+    public MediaCopy checkoutCopy(String mediaId) {
+        Holdings holdings = getHoldings(mediaId);
+        if (holdings == null) {
+            return null;
+        }
+        MediaCopy copy = holdings.checkout();
+        if (copy != null) {
+            refreshAvailability(findMediaById(mediaId), holdings);
+            changeListener.recordChanged(holdings);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a copy of a multi-copy title to the shelf
+     * @param mediaId the media identifier
+     * @param barcode the copy barcode (null for the title's original copy)
+     * @return true if the copy was on loan
+     */
+    public boolean returnCopy(String mediaId, String barcode) {
+        Holdings holdings = getHoldings(mediaId);
+        if (holdings == null || !holdings.checkin(barcode)) {
+            return false;
+        }
+        refreshAvailability(findMediaById(mediaId), holdings);
+        changeListener.recordChanged(holdings);
+        return true;
+    }
+
+    /**
+     * Makes the title's availability bit follow its shelf count. Re-checks after writing so a
+     * concurrent checkout or return cannot leave a stale value behind.
+     */
+    private static void refreshAvailability(Media media, Holdings holdings) {
+        if (media == null) {
+            return;
+        }
+        boolean available;
+        do {
+            available = holdings.getAvailableCount() > 0;
+            media.setAvailable(available);
+        } while (available != holdings.getAvailableCount() > 0);
+    }
+
     /**
      * Gets all books
      * @return list of books
      */
     public List<Book> getAllBooks() {
-        return mediaItems.stream()
-                .filter(media -> media instanceof Book)
-                .map(media -> (Book) media)
-                .toList();
+        return catalog.getBooks();
     }
 
     /**
@@ -129,10 +630,7 @@ public class MediaRepository {
      * @return list of CDs
      */
     public List<CD> getAllCDs() {
-        return mediaItems.stream()
-                .filter(media -> media instanceof CD)
-                .map(media -> (CD) media)
-                .toList();
+        return catalog.getCDs();
     }
 
     /**
@@ -148,4 +646,16 @@ public class MediaRepository {
     public void addCD(String title, String artist, String catalogNumber, String genre, int trackCount) {
         addMedia(new CD(title, artist, catalogNumber, genre, trackCount));
     }
+
+    /**
+     * The CDs of one genre, under the spelling the genre was first added with
+     */
+    private static final class GenreFacet {
+        private final String name;
+        private final AtomicBitSet positions = new AtomicBitSet();
+
+        GenreFacet(String name) {
+            this.name = name;
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package com.library.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a repository listing, in insertion order.
+ *
+ * Pages can be requested by offset/limit or by continuation cursor. The cursor encodes the
+ * position and identifier of the last item returned, so a listing resumes in O(1) and still
+ * resumes at the right item if earlier entries were removed in the meantime.
+ * Only the items of the page are copied; the backing list is never copied.
+ *
+ * @param <T> the item type
+ * @author Library Team
+ * @version 1.0
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final int totalCount;
+    private final String nextCursor;
+
+    private Page(List<T> items, int offset, int totalCount, String nextCursor) {
+        this.items = items;
+        this.offset = offset;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds the page starting at an offset
+     * @param source the backing list
+     * @param offset the index of the first item
+     * @param limit the maximum number of items
+     * @param idOf extracts the stable identifier used in cursors
+     * @return the page
+     * @throws IllegalArgumentException if offset is negative or limit is not positive
+     */
+    static <T> Page<T> of(List<T> source, int offset, int limit, Function<T, String> idOf) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative: " + offset);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+
+        int size = source.size();
+        int start = Math.min(offset, size);
+        int end = (int) Math.min((long) start + limit, size);
+        List<T> items = List.copyOf(source.subList(start, end));
+        String next = end < size && end > start ? encodeCursor(end, idOf.apply(items.get(items.size() - 1))) : null;
+        return new Page<>(items, start, size, next);
+    }
+
+    /**
+     * Builds the page that follows a continuation cursor
+     * @param source the backing list
+     * @param cursor the cursor from a previous page, or null/blank for the first page
+     * @param limit the maximum number of items
+     * @param idOf extracts the stable identifier used in cursors
+     * @return the page
+     * @throws IllegalArgumentException if the cursor is malformed or its item no longer exists
+     */
+    static <T> Page<T> after(List<T> source, String cursor, int limit, Function<T, String> idOf) {
+        if (cursor == null || cursor.isBlank()) {
+            return of(source, 0, limit, idOf);
+        }
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        int separator = decoded.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        int position;
+        try {
+            position = Integer.parseInt(decoded.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        String lastId = decoded.substring(separator + 1);
+
+        // Fast path: the last item is still where it was
+        if (position > 0 && position <= source.size() && lastId.equals(idOf.apply(source.get(position - 1)))) {
+            return of(source, position, limit, idOf);
+        }
+        // Earlier items were removed: find the last item again
+        for (int i = Math.min(position, source.size()) - 1; i >= 0; i--) {
+            if (lastId.equals(idOf.apply(source.get(i)))) {
+                return of(source, i + 1, limit, idOf);
+            }
+        }
+        throw new IllegalArgumentException("Cursor refers to an item that no longer exists: " + lastId);
+    }
+
+    private static String encodeCursor(int position, String lastId) {
+        String raw = position + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<T> getItems() { return items; }
+    public int getOffset() { return offset; }
+    public int getTotalCount() { return totalCount; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+
+    @Override
+    public String toString() {
+        return String.format("Page[offset=%d, items=%d, total=%d, hasMore=%s]",
+                offset, items.size(), totalCount, hasMore());
+    }
+}
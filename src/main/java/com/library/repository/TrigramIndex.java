@@ -0,0 +1,403 @@
+package com.library.repository;
+
+import com.library.model.Media;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Typo-tolerant index over the words of media titles and authors.
+ *
+ * Every word is padded with a boundary marker and cut into trigrams; each trigram maps to the
+ * ascending list of catalog positions whose title or author contains it. A query word with up to
+ * k edits shares all but at most 4k of its trigrams with the word it was meant to be, so only
+ * positions found in enough of the query's posting lists are candidates. The shortest lists are
+ * merged to collect candidates and the longest lists are only probed by binary search. Candidates
+ * are then verified with a bounded edit distance that counts adjacent transpositions as one edit
+ * ("Tolkein" to "Tolkien"), and the best matches are ranked by matched words, then total distance,
+ * then catalog order.
+ *
+ * The index is append-only like the catalog. Posting lists share their backing arrays between
+ * versions and readers stop at the catalog size of their snapshot, so searches need no locking
+ * while the single writer appends. Large batches are cut into chunks that are indexed in parallel
+ * and merged in catalog order.
+ * @author Library Team
+ * @version 1.0
+ */
+public final class TrigramIndex {
+    private static final int PARALLEL_CHUNK_SIZE = 8_192;
+    private static final char BOUNDARY = '$';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final String[] NO_WORDS = new String[0];
+
+    private final Map<Long, Postings> postingsByGram = new ConcurrentHashMap<>();
+    private volatile String[][] wordsByPosition = new String[16][];
+
+    /**
+     * Indexes items appended to the catalog. Must be called by the single catalog writer,
+     * before the snapshot containing the items is published.
+     * @param firstPosition the catalog position of the first item
+     * @param items the items, in catalog order
+     */
+    void addAll(int firstPosition, List<? extends Media> items) {
+        int chunks = (items.size() + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        IntStream chunkIds = IntStream.range(0, chunks);
+        List<ChunkIndex> built = (chunks > 1 ? chunkIds.parallel() : chunkIds)
+                .mapToObj(chunk -> {
+                    int from = chunk * PARALLEL_CHUNK_SIZE;
+                    return new ChunkIndex(firstPosition + from,
+                            items.subList(from, Math.min(items.size(), from + PARALLEL_CHUNK_SIZE)));
+                })
+                .toList();
+
+        String[][] words = wordsByPosition;
+        int required = firstPosition + items.size();
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length + (words.length >> 1)));
+        }
+        for (ChunkIndex chunk : built) {
+            System.arraycopy(chunk.words, 0, words, chunk.firstPosition, chunk.words.length);
+            chunk.positionsByGram.forEach((gram, positions) ->
+                    postingsByGram.merge(gram, Postings.of(positions), Postings::append));
+        }
+        wordsByPosition = words;
+    }
+
+    /**
+     * Finds the best fuzzy matches for a query
+     * @param query the query, e.g. a misspelled title or author
+     * @param catalogSize the size of the snapshot being searched; later positions are ignored
+     * @param limit the maximum number of results
+     * @return matching catalog positions, best first
+     */
+    int[] search(String query, int catalogSize, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(tokenize(query))));
+        if (tokens.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+
+        int[] candidates = new int[0];
+        for (String token : tokens) {
+            candidates = union(candidates, candidatesFor(token, catalogSize));
+        }
+
+        String[][] words = wordsByPosition;
+        Comparator<Match> order = Comparator.comparingInt((Match match) -> -match.matchedTokens)
+                .thenComparingInt(match -> match.distance)
+                .thenComparingInt(match -> match.position);
+        PriorityQueue<Match> best = new PriorityQueue<>(order.reversed());
+        for (int position : candidates) {
+            Match match = score(tokens, words[position], position);
+            if (match != null) {
+                best.add(match);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        int[] positions = new int[best.size()];
+        for (int i = positions.length - 1; i >= 0; i--) {
+            positions[i] = best.poll().position;
+        }
+        return positions;
+    }
+
+    /**
+     * Collects the positions that share enough trigrams with a query word to be within its
+     * edit bound
+     */
+    private int[] candidatesFor(String token, int catalogSize) {
+        long[] grams = grams(token);
+        int maxEdits = maxEdits(token);
+        int required = Math.max(1, grams.length - 4 * maxEdits);
+
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postingsByGram.getOrDefault(grams[i], Postings.EMPTY);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+
+        // A position in none of the (n - required + 1) shortest lists can share at most required - 1 grams
+        int merged = grams.length - required + 1;
+        int total = 0;
+        for (int i = 0; i < merged; i++) {
+            total += lists[i].size;
+        }
+        int[] collected = new int[total];
+        int offset = 0;
+        for (int i = 0; i < merged; i++) {
+            System.arraycopy(lists[i].positions, 0, collected, offset, lists[i].size);
+            offset += lists[i].size;
+        }
+        Arrays.sort(collected);
+
+        int[] result = new int[collected.length];
+        int count = 0;
+        for (int i = 0; i < collected.length; ) {
+            int position = collected[i];
+            int shared = 0;
+            while (i < collected.length && collected[i] == position) {
+                shared++;
+                i++;
+            }
+            if (position >= catalogSize) {
+                continue;
+            }
+            for (int j = merged; j < lists.length && shared < required && shared + lists.length - j >= required; j++) {
+                if (Arrays.binarySearch(lists[j].positions, 0, lists[j].size, position) >= 0) {
+                    shared++;
+                }
+            }
+            if (shared >= required) {
+                result[count++] = position;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            result[count++] = next;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Match score(List<String> tokens, String[] words, int position) {
+        if (words == null) {
+            return null;
+        }
+        int matched = 0;
+        int distance = 0;
+        for (String token : tokens) {
+            int maxEdits = maxEdits(token);
+            int bestDistance = maxEdits + 1;
+            for (String word : words) {
+                bestDistance = Math.min(bestDistance, boundedDistance(token, word, maxEdits));
+                if (bestDistance == 0) {
+                    break;
+                }
+            }
+            if (bestDistance <= maxEdits) {
+                matched++;
+                distance += bestDistance;
+            }
+        }
+        return matched == 0 ? null : new Match(position, matched, distance);
+    }
+
+    /**
+     * Gets the number of edits tolerated for a query word: none for very short words,
+     * one up to eight characters and two beyond
+     * @param token the query word
+     * @return the edit bound
+     */
+    static int maxEdits(String token) {
+        if (token.length() <= 3) {
+            return 0;
+        }
+        return token.length() <= 8 ? 1 : 2;
+    }
+
+    /**
+     * Computes the optimal string alignment distance (insertions, deletions, substitutions and
+     * adjacent transpositions) between a query word and an indexed word, giving up once it
+     * exceeds the bound. A query word of three or more characters that is a prefix of the
+     * indexed word matches with distance 0, so partially typed words are found too.
+     * @param query the query word
+     * @param word the indexed word
+     * @param maxEdits the bound
+     * @return the distance, or maxEdits + 1 if it is larger than the bound
+     */
+    static int boundedDistance(String query, String word, int maxEdits) {
+        if (query.length() >= 3 && word.startsWith(query)) {
+            return 0;
+        }
+        int n = query.length();
+        int m = word.length();
+        if (Math.abs(n - m) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char q = query.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char w = word.charAt(j - 1);
+                int cost = q == w ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && q == word.charAt(j - 2) && query.charAt(i - 2) == w) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], maxEdits + 1);
+    }
+
+    /**
+     * Splits text into lowercase words without accents or punctuation; apostrophes are dropped
+     * so "Sorcerer's" becomes "sorcerers"
+     * @param text the text
+     * @return the words
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return NO_WORDS;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("'", "");
+        String[] parts = folded.split("[^\\p{L}\\p{N}]+");
+        int count = 0;
+        for (String part : parts) {
+            if (!part.isEmpty()) {
+                parts[count++] = part;
+            }
+        }
+        return Arrays.copyOf(parts, count);
+    }
+
+    /**
+     * Gets the distinct trigrams of a word padded with boundary markers, each packed into a long
+     * @param word the word
+     * @return the packed trigrams
+     */
+    static long[] grams(String word) {
+        String padded = BOUNDARY + word + BOUNDARY;
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Words and trigram postings of one chunk of consecutive catalog positions
+     */
+    private static final class ChunkIndex {
+        private final int firstPosition;
+        private final String[][] words;
+        private final Map<Long, IntList> positionsByGram = new HashMap<>();
+
+        ChunkIndex(int firstPosition, List<? extends Media> items) {
+            this.firstPosition = firstPosition;
+            this.words = new String[items.size()][];
+            for (int i = 0; i < items.size(); i++) {
+                Media item = items.get(i);
+                if (item == null) {
+                    words[i] = NO_WORDS;
+                    continue;
+                }
+                Set<String> itemWords = new LinkedHashSet<>();
+                itemWords.addAll(Arrays.asList(tokenize(item.getTitle())));
+                itemWords.addAll(Arrays.asList(tokenize(item.getAuthor())));
+                words[i] = itemWords.toArray(NO_WORDS);
+                int position = firstPosition + i;
+                for (String word : words[i]) {
+                    for (long gram : grams(word)) {
+                        positionsByGram.computeIfAbsent(gram, key -> new IntList()).addIfLast(position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable int array used while indexing a chunk
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addIfLast(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Ascending positions of one trigram. Appending shares the backing array when it has room,
+     * so older versions keep seeing exactly their own prefix.
+     */
+    private static final class Postings {
+        static final Postings EMPTY = new Postings(new int[0], 0);
+
+        private final int[] positions;
+        private final int size;
+
+        private Postings(int[] positions, int size) {
+            this.positions = positions;
+            this.size = size;
+        }
+
+        static Postings of(IntList list) {
+            return new Postings(list.values, list.size);
+        }
+
+        Postings append(Postings tail) {
+            int[] target = positions;
+            int required = size + tail.size;
+            if (required > target.length) {
+                target = Arrays.copyOf(target, Math.max(required, target.length + (target.length >> 1)));
+            }
+            System.arraycopy(tail.positions, 0, target, size, tail.size);
+            return new Postings(target, required);
+        }
+    }
+
+    private static final class Match {
+        private final int position;
+        private final int matchedTokens;
+        private final int distance;
+
+        Match(int position, int matchedTokens, int distance) {
+            this.position = position;
+            this.matchedTokens = matchedTokens;
+            this.distance = distance;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.library.repository;
 
 import com.library.model.User;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Repository for managing user data
@@ -12,6 +14,7 @@ import java.util.List;
 public class UserRepository {
     private List<User> users;
     private boolean initialized = false;
+    private ChangeListener changeListener = ChangeListener.NONE;
 
     /**
      * Constructor that initializes with sample users
@@ -66,12 +69,63 @@ public class UserRepository {
         for (int i = 0; i < users.size(); i++) {
             if (users.get(i).getUserId().equals(updatedUser.getUserId())) {
                 users.set(i, updatedUser);
+                changeListener.recordChanged(updatedUser);
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Stores a user record as-is, replacing the user with the same ID or adding it.
+     * Used by read replicas to apply shipped changes.
+     * @param user the user record
+     */
+    public void saveUser(User user) {
+        if (!updateUser(user)) {
+            users.add(user);
+            changeListener.recordChanged(user);
+        }
+    }
+
+    /**
+     * Adds a new user
+     * @param user the user
+     * @return true if added, false if a user with the same ID already exists
+     */
+    public boolean addUser(User user) {
+        if (findUserById(user.getUserId()) != null) {
+            return false;
+        }
+        users.add(user);
+        changeListener.recordChanged(user);
+        return true;
+    }
+
+    /**
+     * Drops every user that is not kept, e.g. on a shard that owns only some users.
+     * The change listener is not told about removed users.
+     * @param keepUser tells whether a user ID stays
+     * @return the number of users removed
+     */
+    public int retainUsers(Predicate<String> keepUser) {
+        int before = users.size();
+        users.removeIf(user -> !keepUser.test(user.getUserId()));
+        return before - users.size();
+    }
+
+    /**
+     * Sets the listener told about every user this repository creates or changes
+     * @param changeListener the listener, or null for none
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener != null ? changeListener : ChangeListener.NONE;
+    }
+
+    public ChangeListener getChangeListener() {
+        return changeListener;
+    }
+
     /**
      * Gets all users in the repository
      * @return list of all users
@@ -79,4 +133,32 @@ public class UserRepository {
     public List<User> getAllUsers() {
         return new ArrayList<>(users);
     }
+
+    /**
+     * Gets one page of users, in insertion order, without copying the whole list
+     * @param offset the index of the first user
+     * @param limit the maximum number of users
+     * @return the page
+     */
+    public Page<User> getUsersPage(int offset, int limit) {
+        return Page.of(users, offset, limit, User::getUserId);
+    }
+
+    /**
+     * Gets the page of users that follows a continuation cursor
+     * @param cursor the cursor from the previous page, or null for the first page
+     * @param limit the maximum number of users
+     * @return the page
+     */
+    public Page<User> getUsersAfter(String cursor, int limit) {
+        return Page.after(users, cursor, limit, User::getUserId);
+    }
+
+    /**
+     * Gets a read-only live view of all users (no copy)
+     * @return unmodifiable view of the users
+     */
+    public List<User> getUsersView() {
+        return Collections.unmodifiableList(users);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,251 @@
+package com.library.scheduler;
+
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.observer.LoanSubject;
+import com.library.observer.NotificationEvent;
+import com.library.observer.Observer;
+import com.library.repository.UserRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Schedules due-date reminders and overdue transitions for loans on a day-granularity timing wheel.
+ *
+ * Each registered loan gets a DUE_SOON timer for every configured offset (days before the due date)
+ * and an OVERDUE_DETECTED timer for the day after its due date. Returning a loan cancels its timers.
+ * Events are published through a {@link LoanSubject}, so the usual console, file and email
+ * observers can be attached. Events only notify: overdue status is derived from the due date, so a
+ * tick never changes a loan.
+ *
+ * Daily tasks such as hold expiry do change circulation state, so a tick runs under the write lock
+ * set with {@link #setWriteLock(Lock)}. Notifications go out after the lock is released.
+ * @author Library Team
+ * @version 1.0
+ */
+public class DueDateScheduler {
+    private static final Logger logger = Logger.getLogger(DueDateScheduler.class.getName());
+
+    public static final String DUE_SOON = "DUE_SOON";
+    public static final String OVERDUE_DETECTED = "OVERDUE_DETECTED";
+
+    private final TimingWheel<DueEvent> wheel;
+    private final Map<String, List<TimingWheel.Timer<DueEvent>>> timersByLoan = new ConcurrentHashMap<>();
+    private final LoanSubject notificationSubject = new LoanSubject(null);
+    private final List<Consumer<LocalDate>> dailyTasks = new CopyOnWriteArrayList<>();
+    private final UserRepository userRepository;
+    private final int[] dueSoonOffsets;
+    private volatile Lock writeLock;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Creates a scheduler positioned at the given date
+     * @param today the current date
+     * @param userRepository used to attach the borrower to events (may be null)
+     * @param dueSoonOffsets days before the due date at which DUE_SOON fires
+     */
+    public DueDateScheduler(LocalDate today, UserRepository userRepository, int... dueSoonOffsets) {
+        this.wheel = new TimingWheel<>(today.toEpochDay());
+        this.userRepository = userRepository;
+        this.dueSoonOffsets = dueSoonOffsets.clone();
+    }
+
+    /**
+     * Registers the timers for an active loan.
+     * Loans that are already past due at registration are left to the existing overdue checks.
+     * @param loan the loan
+     */
+    public void register(Loan loan) {
+        if (loan == null || loan.getReturnDate() != null) {
+            return;
+        }
+
+        long dueDay = loan.getDueDate().toEpochDay();
+        long today = wheel.getCurrentTick();
+        if (dueDay + 1 <= today) {
+            return;
+        }
+
+        List<TimingWheel.Timer<DueEvent>> timers = new ArrayList<>(dueSoonOffsets.length + 1);
+        for (int offset : dueSoonOffsets) {
+            if (dueDay - offset > today) {
+                timers.add(wheel.schedule(dueDay - offset, new DueEvent(loan, DUE_SOON, offset)));
+            }
+        }
+        timers.add(wheel.schedule(dueDay + 1, new DueEvent(loan, OVERDUE_DETECTED, 0)));
+
+        List<TimingWheel.Timer<DueEvent>> previous = timersByLoan.put(loan.getLoanId(), timers);
+        cancelAll(previous);
+    }
+
+    /**
+     * Cancels all pending timers of a loan
+     * @param loanId the loan ID
+     * @return true if the loan had pending timers
+     */
+    public boolean cancel(String loanId) {
+        List<TimingWheel.Timer<DueEvent>> timers = loanId == null ? null : timersByLoan.remove(loanId);
+        cancelAll(timers);
+        return timers != null;
+    }
+
+    private void cancelAll(List<TimingWheel.Timer<DueEvent>> timers) {
+        if (timers != null) {
+            timers.forEach(wheel::cancel);
+        }
+    }
+
+    /**
+     * Sets the lock held while a tick advances the wheel and runs the daily tasks,
+     * e.g. the circulation write lock
+     * @param writeLock the lock, or null for none
+     */
+    public void setWriteLock(Lock writeLock) {
+        this.writeLock = writeLock;
+    }
+
+    /**
+     * Advances the scheduler to the given date and publishes the events that became due
+     * @param date the new current date
+     * @return the number of events published
+     */
+    public int advanceTo(LocalDate date) {
+        Lock lock = writeLock;
+        List<DueEvent> due;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            due = wheel.advanceTo(date.toEpochDay());
+            due.removeIf(event -> event.loan.getReturnDate() != null);
+            for (DueEvent event : due) {
+                if (OVERDUE_DETECTED.equals(event.type)) {
+                    timersByLoan.remove(event.loan.getLoanId());
+                }
+            }
+            for (Consumer<LocalDate> task : dailyTasks) {
+                task.accept(date);
+            }
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+        for (DueEvent event : due) {
+            publish(event, date);
+        }
+        return due.size();
+    }
+
+    /**
+     * Adds a task that runs with the current date every time the scheduler advances,
+     * e.g. to expire other date-based deadlines on the same ticker
+     * @param task the task
+     */
+    public void addDailyTask(Consumer<LocalDate> task) {
+        dailyTasks.add(task);
+    }
+
+    private void publish(DueEvent dueEvent, LocalDate date) {
+        Loan loan = dueEvent.loan;
+        String message;
+        if (OVERDUE_DETECTED.equals(dueEvent.type)) {
+            message = loan.getMediaType() + " " + loan.getMediaId() + " (Loan: " + loan.getLoanId() +
+                    ") was due on " + loan.getDueDate() + " and is now overdue.";
+        } else {
+            message = loan.getMediaType() + " " + loan.getMediaId() + " (Loan: " + loan.getLoanId() +
+                    ") is due in " + dueEvent.daysBefore + " day(s), on " + loan.getDueDate() + ".";
+        }
+
+        User user = userRepository != null ? userRepository.findUserById(loan.getUserId()) : null;
+        notificationSubject.notifyObservers(new NotificationEvent(user, dueEvent.type, message, loan));
+        logger.fine(dueEvent.type + " for loan " + loan.getLoanId() + " on " + date);
+    }
+
+    /**
+     * Starts advancing the scheduler to the system date once per hour on a daemon thread
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "due-date-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> advanceTo(LocalDate.now()), 0, 1, TimeUnit.HOURS);
+        logger.info("Due date scheduler started");
+    }
+
+    /**
+     * Stops the background ticker
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Attach observer for DUE_SOON and OVERDUE_DETECTED events
+     * @param observer the observer to attach
+     */
+    public void attachObserver(Observer observer) {
+        if (observer == null) {
+            System.out.println("❌ Error: Cannot attach null observer.");
+            return;
+        }
+        notificationSubject.attach(observer);
+    }
+
+    /**
+     * Detach observer
+     * @param observer the observer to detach
+     */
+    public void detachObserver(Observer observer) {
+        notificationSubject.detach(observer);
+    }
+
+    /**
+     * Gets the number of pending timers
+     * @return the number of pending timers
+     */
+    public int getPendingTimerCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Gets the date the scheduler has advanced to
+     * @return the current date
+     */
+    public LocalDate getCurrentDate() {
+        return LocalDate.ofEpochDay(wheel.getCurrentTick());
+    }
+
+    /**
+     * Timer payload: which loan and which notification
+     */
+    private static final class DueEvent {
+        private final Loan loan;
+        private final String type;
+        private final int daysBefore;
+
+        DueEvent(Loan loan, String type, int daysBefore) {
+            this.loan = loan;
+            this.type = type;
+            this.daysBefore = daysBefore;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.library.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel with integer ticks (the library uses one tick per day).
+ *
+ * Four levels of 64 slots each cover 64^4 ticks ahead; later deadlines are parked in the top
+ * level and moved down as the wheel turns. Each slot is an intrusive doubly linked list, so
+ * scheduling and cancelling are O(1) and memory is one small node per pending timer plus a
+ * fixed number of slots.
+ *
+ * @param <T> the payload carried by each timer
+ * @author Library Team
+ * @version 1.0
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a wheel positioned at the given tick
+     * @param startTick the current tick
+     */
+    public TimingWheel(long startTick) {
+        this.slots = newSlots();
+        this.currentTick = startTick;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Timer<T>[][] newSlots() {
+        return (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+    }
+
+    /**
+     * Schedules a payload. Deadlines at or before the current tick fire on the next advance.
+     * @param deadlineTick the tick at which the timer fires
+     * @param payload the payload to return when the timer fires
+     * @return a handle that can be passed to {@link #cancel(Timer)}
+     */
+    public synchronized Timer<T> schedule(long deadlineTick, T payload) {
+        Timer<T> timer = new Timer<>(deadlineTick, payload);
+        insert(timer, currentTick + 1);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a pending timer
+     * @param timer the handle returned by schedule
+     * @return true if the timer was pending, false if it already fired or was cancelled
+     */
+    public synchronized boolean cancel(Timer<T> timer) {
+        if (timer == null || timer.owner != this) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel tick by tick up to the given tick
+     * @param tick the new current tick
+     * @return payloads of the timers that fired, in tick order
+     */
+    public synchronized List<T> advanceTo(long tick) {
+        List<T> fired = new ArrayList<>();
+        while (currentTick < tick) {
+            currentTick++;
+            cascade();
+            Timer<T> timer = slots[0][(int) (currentTick & SLOT_MASK)];
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                unlink(timer);
+                size--;
+                fired.add(timer.payload);
+                timer = next;
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Gets the number of pending timers
+     * @return the number of pending timers
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the current tick
+     * @return the current tick
+     */
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Moves timers from higher levels down when the lower level wraps around
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            long lowerBits = currentTick & ((1L << (SLOT_BITS * level)) - 1);
+            if (lowerBits != 0) {
+                return;
+            }
+            int index = (int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK);
+            Timer<T> timer = slots[level][index];
+            slots[level][index] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.owner = null;
+                timer.prev = null;
+                timer.next = null;
+                // timers due on this very tick land in the level 0 slot processed next
+                insert(timer, currentTick);
+                timer = next;
+            }
+        }
+    }
+
+    private void insert(Timer<T> timer, long earliestTick) {
+        long deadline = Math.max(timer.deadline, earliestTick);
+        long delta = deadline - currentTick;
+        if (delta >= MAX_SPAN) {
+            deadline = currentTick + MAX_SPAN - 1;
+            delta = MAX_SPAN - 1;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((deadline >> (SLOT_BITS * level)) & SLOT_MASK);
+
+        Timer<T> head = slots[level][index];
+        timer.next = head;
+        timer.prev = null;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][index] = timer;
+        timer.owner = this;
+        timer.level = level;
+        timer.index = index;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.index] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.owner = null;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    /**
+     * Handle for a scheduled payload
+     * @param <T> the payload type
+     */
+    public static final class Timer<T> {
+        private final long deadline;
+        private final T payload;
+        private TimingWheel<T> owner;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int level;
+        private int index;
+
+        private Timer(long deadline, T payload) {
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        public long getDeadline() { return deadline; }
+        public T getPayload() { return payload; }
+    }
+}
@@ -0,0 +1,333 @@
+package com.library.service;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.repository.FineRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.UserRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Parallel aggregation of admin-wide figures over the loan, fine and user tables.
+ *
+ * Each table is split into spliterator chunks that are folded on a dedicated fork-join pool, so
+ * large reports do not compete with parallel streams on the common pool. Every chunk builds a
+ * partial result with per-user totals; partials are merged pairwise as the tasks join. The three
+ * tables are aggregated concurrently and combined into one {@link AdminSummary}.
+ * @author Library Team
+ * @version 1.0
+ */
+public class AggregationService {
+    private static final Logger logger = Logger.getLogger(AggregationService.class.getName());
+
+    public static final int DEFAULT_CHUNK_SIZE = 2_048;
+
+    private final LoanRepository loanRepository;
+    private final FineRepository fineRepository;
+    private final UserRepository userRepository;
+    private final ForkJoinPool pool;
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Constructor with one worker per available processor
+     * @param loanRepository the loans
+     * @param fineRepository the fines
+     * @param userRepository the users
+     */
+    public AggregationService(LoanRepository loanRepository, FineRepository fineRepository,
+                              UserRepository userRepository) {
+        this(loanRepository, fineRepository, userRepository, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor with a fixed number of workers
+     * @param loanRepository the loans
+     * @param fineRepository the fines
+     * @param userRepository the users
+     * @param parallelism the number of pool workers (must be positive)
+     */
+    public AggregationService(LoanRepository loanRepository, FineRepository fineRepository,
+                              UserRepository userRepository, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.loanRepository = loanRepository;
+        this.fineRepository = fineRepository;
+        this.userRepository = userRepository;
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("library-aggregate-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Sets the number of rows a task folds without splitting further
+     * @param chunkSize the chunk size (must be positive)
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Aggregates the current contents of the repositories
+     * @param currentDate the date overdue status and projected fines are evaluated on
+     * @return the summary
+     */
+    public AdminSummary summarize(LocalDate currentDate) {
+        return summarize(loanRepository.getAllLoans(), fineRepository.getAllFines(),
+                userRepository.getAllUsers(), currentDate);
+    }
+
+    /**
+     * Aggregates the given rows. The lists must not change while the aggregation runs.
+     * @param loans the loans
+     * @param fines the fines
+     * @param users the users
+     * @param currentDate the date overdue status and projected fines are evaluated on
+     * @return the summary
+     */
+    public AdminSummary summarize(List<Loan> loans, List<Fine> fines, List<User> users, LocalDate currentDate) {
+        long startNanos = System.nanoTime();
+        ForkJoinTask<Partial> loanTotals = pool.submit(
+                new ChunkTask<>(loans.spliterator(), (partial, loan) -> partial.addLoan(loan, currentDate), chunkSize));
+        ForkJoinTask<Partial> fineTotals = pool.submit(
+                new ChunkTask<>(fines.spliterator(), Partial::addFine, chunkSize));
+        ForkJoinTask<Partial> userTotals = pool.submit(
+                new ChunkTask<>(users.spliterator(), Partial::addUser, chunkSize));
+
+        Partial total = loanTotals.join().merge(fineTotals.join()).merge(userTotals.join());
+        AdminSummary summary = new AdminSummary(currentDate, total);
+        logger.info(String.format("Aggregated %d loans, %d fines and %d users in %.1f ms",
+                loans.size(), fines.size(), users.size(), (System.nanoTime() - startNanos) / 1e6));
+        return summary;
+    }
+
+    /**
+     * Stops the pool workers
+     */
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Splits its spliterator until the remainder fits in one chunk, folds that chunk locally and
+     * merges the results of the forked halves
+     */
+    private static final class ChunkTask<T> extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only run inside the pool and are never serialized
+        private final transient Spliterator<T> spliterator;
+        private final transient BiConsumer<Partial, T> accumulator;
+        private final int chunkSize;
+
+        ChunkTask(Spliterator<T> spliterator, BiConsumer<Partial, T> accumulator, int chunkSize) {
+            this.spliterator = spliterator;
+            this.accumulator = accumulator;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Partial compute() {
+            List<ChunkTask<T>> forked = new ArrayList<>();
+            Spliterator<T> prefix;
+            while (spliterator.estimateSize() > chunkSize && (prefix = spliterator.trySplit()) != null) {
+                ChunkTask<T> task = new ChunkTask<>(prefix, accumulator, chunkSize);
+                task.fork();
+                forked.add(task);
+            }
+            Partial partial = new Partial();
+            spliterator.forEachRemaining(item -> accumulator.accept(partial, item));
+            // Join the most recently forked task first; it is the one most likely still local
+            Partial result = partial;
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                result = result.merge(forked.get(i).join());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Mutable result of one chunk; merged into the larger of the two partials
+     */
+    private static final class Partial {
+        private final Map<String, UserTotals> users = new HashMap<>();
+        private final Map<String, Integer> overdueByMediaType = new TreeMap<>();
+        private final Map<String, Double> overdueFinesByMediaType = new TreeMap<>();
+        private int activeUserCount;
+
+        void addLoan(Loan loan, LocalDate currentDate) {
+            if (loan.getReturnDate() != null) {
+                return;
+            }
+            UserTotals totals = totalsFor(loan.getUserId());
+            totals.activeLoans++;
+            if (loan.isOverdueAsOf(currentDate)) {
+                double fine = loan.calculateFine(currentDate);
+                totals.overdueLoans++;
+                totals.overdueFines += fine;
+                overdueByMediaType.merge(loan.getMediaType(), 1, Integer::sum);
+                overdueFinesByMediaType.merge(loan.getMediaType(), fine, Double::sum);
+            }
+        }
+
+        void addFine(Fine fine) {
+            if (!fine.isPaid()) {
+                totalsFor(fine.getUserId()).unpaidFines += fine.getRemainingBalance();
+            }
+        }
+
+        void addUser(User user) {
+            if (user.isActive()) {
+                activeUserCount++;
+            }
+        }
+
+        private UserTotals totalsFor(String userId) {
+            return users.computeIfAbsent(userId, UserTotals::new);
+        }
+
+        Partial merge(Partial other) {
+            Partial into = users.size() >= other.users.size() ? this : other;
+            Partial from = into == this ? other : this;
+            from.users.forEach((userId, totals) -> into.users.merge(userId, totals, UserTotals::add));
+            from.overdueByMediaType.forEach((type, count) -> into.overdueByMediaType.merge(type, count, Integer::sum));
+            from.overdueFinesByMediaType.forEach((type, fine) -> into.overdueFinesByMediaType.merge(type, fine, Double::sum));
+            into.activeUserCount += from.activeUserCount;
+            return into;
+        }
+    }
+
+    /**
+     * Per-user totals: active and overdue loans, projected overdue fines and unpaid fine balance
+     */
+    public static final class UserTotals {
+        private final String userId;
+        private int activeLoans;
+        private int overdueLoans;
+        private double overdueFines;
+        private double unpaidFines;
+
+        UserTotals(String userId) {
+            this.userId = userId;
+        }
+
+        private UserTotals add(UserTotals other) {
+            activeLoans += other.activeLoans;
+            overdueLoans += other.overdueLoans;
+            overdueFines += other.overdueFines;
+            unpaidFines += other.unpaidFines;
+            return this;
+        }
+
+        public String getUserId() { return userId; }
+        public int getActiveLoans() { return activeLoans; }
+        public int getOverdueLoans() { return overdueLoans; }
+        public double getOverdueFines() { return overdueFines; }
+        public double getUnpaidFines() { return unpaidFines; }
+
+        /**
+         * Gets the amount the user owes or will owe: unpaid fines plus fines on overdue loans
+         * @return the delinquency amount
+         */
+        public double getAmountOwed() { return unpaidFines + overdueFines; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d active, %d overdue, unpaid $%.2f, overdue fines $%.2f",
+                    userId, activeLoans, overdueLoans, unpaidFines, overdueFines);
+        }
+    }
+
+    /**
+     * Admin-wide figures for one date
+     */
+    public static final class AdminSummary {
+        private static final Comparator<UserTotals> MOST_DELINQUENT = Comparator
+                .comparingDouble(UserTotals::getAmountOwed).reversed()
+                .thenComparing(Comparator.comparingInt(UserTotals::getOverdueLoans).reversed())
+                .thenComparing(UserTotals::getUserId);
+
+        private final LocalDate reportDate;
+        private final Map<String, UserTotals> userTotals;
+        private final Map<String, Integer> overdueCountByMediaType;
+        private final Map<String, Double> overdueFinesByMediaType;
+        private final int activeUserCount;
+        private final int overdueCount;
+        private final double totalOutstandingFines;
+        private final double totalOverdueFines;
+
+        private AdminSummary(LocalDate reportDate, Partial total) {
+            this.reportDate = reportDate;
+            this.userTotals = Collections.unmodifiableMap(total.users);
+            this.overdueCountByMediaType = Collections.unmodifiableMap(total.overdueByMediaType);
+            this.overdueFinesByMediaType = Collections.unmodifiableMap(total.overdueFinesByMediaType);
+            this.activeUserCount = total.activeUserCount;
+            this.overdueCount = total.overdueByMediaType.values().stream().mapToInt(Integer::intValue).sum();
+            this.totalOutstandingFines = total.users.values().stream().mapToDouble(UserTotals::getUnpaidFines).sum();
+            this.totalOverdueFines = total.overdueFinesByMediaType.values().stream().mapToDouble(Double::doubleValue).sum();
+        }
+
+        /**
+         * Gets the users who owe the most, by unpaid plus overdue fines
+         * @param limit the maximum number of users
+         * @return the users, most delinquent first
+         */
+        public List<UserTotals> getTopDelinquentUsers(int limit) {
+            return userTotals.values().stream()
+                    .filter(totals -> totals.getAmountOwed() > 0)
+                    .sorted(MOST_DELINQUENT)
+                    .limit(Math.max(0, limit))
+                    .toList();
+        }
+
+        /**
+         * Gets one user's totals
+         * @param userId the user ID
+         * @return the totals, or null if the user has no loans or fines
+         */
+        public UserTotals getUserTotals(String userId) {
+            return userTotals.get(userId);
+        }
+
+        public LocalDate getReportDate() { return reportDate; }
+        public Map<String, UserTotals> getAllUserTotals() { return userTotals; }
+        public Map<String, Integer> getOverdueCountByMediaType() { return overdueCountByMediaType; }
+        public Map<String, Double> getOverdueFinesByMediaType() { return overdueFinesByMediaType; }
+        public int getActiveUserCount() { return activeUserCount; }
+        public int getOverdueCount() { return overdueCount; }
+        public double getTotalOutstandingFines() { return totalOutstandingFines; }
+        public double getTotalOverdueFines() { return totalOverdueFines; }
+
+        @Override
+        public String toString() {
+            return String.format("AdminSummary[%s overdue=%d %s outstanding=$%.2f overdueFines=$%.2f activeUsers=%d]",
+                    reportDate, overdueCount, overdueCountByMediaType, totalOutstandingFines, totalOverdueFines,
+                    activeUserCount);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.library.service;
+
+import com.library.model.Loan;
+import com.library.model.Media;
+import com.library.repository.ChangeListener;
+import com.library.repository.LoanRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.SuggestionTrie;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * As-you-type title and author suggestions for the kiosks.
+ *
+ * Titles and authors are kept in a {@link SuggestionTrie} ranked by how often each item has been
+ * borrowed. The service listens to the media and loan repositories: new media is added to the
+ * trie when it is published and every new loan raises its item's popularity, so suggestions never
+ * scan the catalog or the loan table. Only open loans are remembered (to count each loan once);
+ * a loan's ID is dropped when its return is seen, so the set stays as small as the active loans.
+ * @author Library Team
+ * @version 1.0
+ */
+public class AutocompleteService implements ChangeListener {
+    public static final int DEFAULT_LIMIT = 5;
+
+    private final SuggestionTrie<Media> trie;
+    private final Map<String, Integer> entryByMediaId = new HashMap<>();
+    private final Map<String, Long> pendingLoanCounts = new HashMap<>();
+    // Open loans already counted; returned loans are never counted again, so their IDs are dropped
+    private final Set<String> countedLoanIds = new HashSet<>();
+
+    /**
+     * Creates an empty service
+     * @param trie the trie that holds the suggestions
+     */
+    public AutocompleteService(SuggestionTrie<Media> trie) {
+        this.trie = trie;
+    }
+
+    /**
+     * Creates a service seeded with the current catalog and loan history and subscribes it to
+     * both repositories
+     * @param mediaRepository the catalog
+     * @param loanRepository the loans that make items popular
+     * @return the service
+     */
+    public static AutocompleteService attach(MediaRepository mediaRepository, LoanRepository loanRepository) {
+        AutocompleteService service = new AutocompleteService(new SuggestionTrie<>());
+        for (Loan loan : loanRepository.getLoansView()) {
+            if (loan.getReturnDate() != null) {
+                // Loan history is only seen once, while seeding
+                service.countLoan(loan.getMediaId());
+            } else {
+                service.recordChanged(loan);
+            }
+        }
+        for (Media media : mediaRepository.getSnapshot().getMedia()) {
+            service.recordChanged(media);
+        }
+        mediaRepository.setChangeListener(mediaRepository.getChangeListener().andThen(service));
+        loanRepository.setChangeListener(loanRepository.getChangeListener().andThen(service));
+        return service;
+    }
+
+    /**
+     * Adds new media to the trie and counts new loans towards their item's popularity.
+     * A loan counts when it is first seen open; seeing it returned forgets it.
+     * @param record the changed media or loan
+     */
+    @Override
+    public synchronized void recordChanged(Object record) {
+        if (record instanceof Media media) {
+            if (!entryByMediaId.containsKey(media.getIdentifier())) {
+                long loans = pendingLoanCounts.getOrDefault(media.getIdentifier(), 0L);
+                pendingLoanCounts.remove(media.getIdentifier());
+                entryByMediaId.put(media.getIdentifier(),
+                        trie.add(media, List.of(media.getTitle(), media.getAuthor()), loans));
+            }
+        } else if (record instanceof Loan loan) {
+            if (loan.getReturnDate() != null) {
+                countedLoanIds.remove(loan.getLoanId());
+            } else if (countedLoanIds.add(loan.getLoanId())) {
+                countLoan(loan.getMediaId());
+            }
+        }
+    }
+
+    private synchronized void countLoan(String mediaId) {
+        Integer entry = entryByMediaId.get(mediaId);
+        if (entry != null) {
+            trie.increment(entry, 1);
+        } else {
+            pendingLoanCounts.merge(mediaId, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Suggests media whose title or author has a word starting with the typed text
+     * @param prefix the typed text
+     * @param limit the maximum number of suggestions
+     * @return the suggestions, most borrowed first
+     */
+    public List<Media> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, limit);
+    }
+
+    public List<Media> suggest(String prefix) {
+        return suggest(prefix, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Gets the number of loans counted for an item
+     * @param mediaId the media identifier
+     * @return the loan count, or 0 if the item is unknown
+     */
+    public synchronized long getLoanCount(String mediaId) {
+        Integer entry = entryByMediaId.get(mediaId);
+        return entry != null ? trie.getPopularity(entry) : 0L;
+    }
+
+    /**
+     * Gets the number of open loans remembered to avoid counting them twice
+     * @return the number of loan IDs held
+     */
+    public synchronized int getTrackedLoanCount() {
+        return countedLoanIds.size();
+    }
+
+    public SuggestionTrie<Media> getTrie() {
+        return trie;
+    }
+}
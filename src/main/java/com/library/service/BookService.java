@@ -2,10 +2,14 @@ package com.library.service;
 
 import com.library.model.Book;
 import com.library.repository.BookRepository;
+import com.library.repository.MediaRepository;
 import java.util.List;
 
 /**
  * Service for handling book-related operations
+ *
+ * Works on a {@link BookRepository} view, so books added or borrowed through the media catalog
+ * are the same objects seen here.
  * @author Library Team
  * @version 1.0
  */
@@ -22,6 +26,14 @@ public class BookService {
     public BookService() {
         this(new BookRepository());
     }
+
+    /**
+     * Creates a service over the books of an existing media catalog
+     */
+    public BookService(MediaRepository mediaRepository) {
+        this(new BookRepository(mediaRepository));
+    }
+
     /**
      * Adds a new book to the library (admin only)
      * @param title the book title
@@ -4,22 +4,31 @@ import com.library.model.BorrowingRules;
 import com.library.model.Fine;
 import com.library.model.Loan;
 import com.library.model.User;
+import com.library.observer.NotificationEvent;
+import com.library.observer.Observer;
 import com.library.repository.FineRepository;
 import com.library.repository.LoanRepository;
 import com.library.repository.UserRepository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Service for handling borrowing rules and validations
+ * Service for handling borrowing rules and validations.
+ * Eligibility inputs are cached per user and invalidated by loan, fine and user events
+ * (attach {@link #getCacheInvalidator()} to the services that publish them).
  * @author Library Team
- * @version 1.0
+ * @version 1.1
  */
 public class BorrowingRulesService {
     private BorrowingRules borrowingRules;
     private LoanRepository loanRepository;
     private FineRepository fineRepository;
     private UserRepository userRepository;
+    private final Map<String, EligibilityEntry> eligibilityCache = new ConcurrentHashMap<>();
+    private final Observer cacheInvalidator = new EligibilityCacheInvalidator();
+    private volatile boolean cacheEnabled = true;
 
     public BorrowingRulesService(LoanRepository loanRepository, FineRepository fineRepository,
                                  UserRepository userRepository) {
@@ -42,6 +51,43 @@ public class BorrowingRulesService {
      * @return ValidationResult with status and message
      */
     public ValidationResult canUserBorrow(String userId) {
+        return canUserBorrow(userId, LocalDate.now());
+    }
+
+    /**
+     * Checks if a user can borrow a new book on the given date, using the eligibility cache.
+     * A cache hit reads the user's flags and the remaining balance of their cached unpaid fines,
+     * and compares the date with the earliest due date of their active loans, so overdue
+     * transitions at date rollover need no invalidation.
+     * @param userId the user ID
+     * @param currentDate the date to evaluate overdue loans against
+     * @return ValidationResult with status and message
+     */
+    public ValidationResult canUserBorrow(String userId, LocalDate currentDate) {
+        if (!cacheEnabled || userId == null) {
+            return canUserBorrowUncached(userId, currentDate);
+        }
+
+        EligibilityEntry entry = eligibilityCache.get(userId);
+        if (entry == null) {
+            User user = userRepository.findUserById(userId);
+            if (user == null) {
+                return canUserBorrowUncached(userId, currentDate);
+            }
+            // computeIfAbsent serializes with invalidate() on the same key, so an event
+            // published after a mutation always removes an entry built before it
+            entry = eligibilityCache.computeIfAbsent(userId, id -> buildEntry(user));
+        }
+        return evaluate(entry, currentDate);
+    }
+
+    /**
+     * Checks if a user can borrow without consulting the eligibility cache
+     * @param userId the user ID
+     * @param currentDate the date to evaluate overdue loans against
+     * @return ValidationResult with status and message
+     */
+    public ValidationResult canUserBorrowUncached(String userId, LocalDate currentDate) {
         ValidationResult result = new ValidationResult();
 
         // Check if user exists and is active
@@ -73,7 +119,7 @@ public class BorrowingRulesService {
         // Check for overdue books (if restriction is enabled)
         if (borrowingRules.isRestrictBorrowingForOverdue()) {
             boolean hasOverdue = activeLoans.stream()
-                    .anyMatch(loan -> loan.checkOverdue(LocalDate.now()));
+                    .anyMatch(loan -> loan.isOverdueAsOf(currentDate));
 
             if (hasOverdue) {
                 result.setValid(false);
@@ -109,6 +155,110 @@ public class BorrowingRulesService {
         return result;
     }
 
+    /**
+     * Builds the cached eligibility inputs for a user with one scan of loans and fines
+     */
+    private EligibilityEntry buildEntry(User user) {
+        String userId = user.getUserId();
+        List<Loan> activeLoans = loanRepository.getActiveLoans().stream()
+                .filter(loan -> loan.getUserId().equals(userId))
+                .toList();
+
+        LocalDate earliestDueDate = null;
+        for (Loan loan : activeLoans) {
+            if (earliestDueDate == null || loan.getDueDate().isBefore(earliestDueDate)) {
+                earliestDueDate = loan.getDueDate();
+            }
+        }
+
+        List<Fine> unpaidFines = fineRepository.getUnpaidFinesByUser(userId);
+        return new EligibilityEntry(user, activeLoans.size(), earliestDueDate, unpaidFines);
+    }
+
+    /**
+     * Applies the current borrowing rules to cached eligibility inputs.
+     * Checks run in the same order as {@link #canUserBorrowUncached(String, LocalDate)}.
+     */
+    private ValidationResult evaluate(EligibilityEntry entry, LocalDate currentDate) {
+        if (!entry.user.isActive()) {
+            return new ValidationResult(false, "❌ Error: User account is not active.");
+        }
+
+        if (entry.activeLoanCount >= borrowingRules.getMaxBooksPerUser()) {
+            return new ValidationResult(false, "❌ Error: User has reached the maximum limit of " +
+                    borrowingRules.getMaxBooksPerUser() + " books.");
+        }
+
+        if (borrowingRules.isRestrictBorrowingForOverdue()
+                && entry.earliestDueDate != null && currentDate.isAfter(entry.earliestDueDate)) {
+            return new ValidationResult(false, "❌ Error: User has overdue books that must be returned first.");
+        }
+
+        if (borrowingRules.isRestrictBorrowingForUnpaidFines()) {
+            double unpaidFines = entry.unpaidFines.stream()
+                    .filter(fine -> !fine.isPaid())
+                    .mapToDouble(Fine::getRemainingBalance)
+                    .sum();
+
+            if (unpaidFines > 0) {
+                return new ValidationResult(false, "❌ Error: User has unpaid fines of $" +
+                        String.format("%.2f", unpaidFines) +
+                        ". Please pay all fines before borrowing.");
+            }
+        }
+
+        if (!entry.user.canBorrow()) {
+            return new ValidationResult(false, "❌ Error: User account has borrowing restrictions.");
+        }
+
+        return new ValidationResult(true, "✅ User can borrow books.");
+    }
+
+    /**
+     * Drops the cached eligibility of one user
+     * @param userId the user ID
+     */
+    public void invalidate(String userId) {
+        if (userId != null) {
+            eligibilityCache.remove(userId);
+        }
+    }
+
+    /**
+     * Drops all cached eligibility decisions
+     */
+    public void invalidateAll() {
+        eligibilityCache.clear();
+    }
+
+    /**
+     * Enables or disables the eligibility cache
+     * @param enabled true to use the cache
+     */
+    public void setCacheEnabled(boolean enabled) {
+        this.cacheEnabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Gets the number of users with cached eligibility
+     * @return the cache size
+     */
+    public int getCachedUserCount() {
+        return eligibilityCache.size();
+    }
+
+    /**
+     * Gets the observer that invalidates cached eligibility on loan, fine and user events.
+     * Attach it to LoanService, FineService and UserManagementService.
+     * @return the invalidating observer
+     */
+    public Observer getCacheInvalidator() {
+        return cacheInvalidator;
+    }
+
     /**
      * Gets the current borrowing rules
      * @return BorrowingRules object
@@ -146,6 +296,41 @@ public class BorrowingRulesService {
         System.out.println("=".repeat(100));
     }
 
+    /**
+     * Cached eligibility inputs for one user
+     */
+    private static final class EligibilityEntry {
+        private final User user;
+        private final int activeLoanCount;
+        private final LocalDate earliestDueDate;
+        private final List<Fine> unpaidFines;
+
+        EligibilityEntry(User user, int activeLoanCount, LocalDate earliestDueDate, List<Fine> unpaidFines) {
+            this.user = user;
+            this.activeLoanCount = activeLoanCount;
+            this.earliestDueDate = earliestDueDate;
+            this.unpaidFines = unpaidFines;
+        }
+    }
+
+    /**
+     * Observer that drops the cached eligibility of the user an event is about
+     */
+    private class EligibilityCacheInvalidator implements Observer {
+        @Override
+        public void update(NotificationEvent event) {
+            if (event.getUser() != null) {
+                invalidate(event.getUser().getUserId());
+            } else if (event.getData() instanceof Loan loan) {
+                invalidate(loan.getUserId());
+            } else if (event.getData() instanceof Fine fine) {
+                invalidate(fine.getUserId());
+            } else {
+                invalidateAll();
+            }
+        }
+    }
+
     /**
      * Inner class to represent validation result
      */
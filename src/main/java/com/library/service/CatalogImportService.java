@@ -0,0 +1,521 @@
+package com.library.service;
+
+import com.library.api.Json;
+import com.library.model.Book;
+import com.library.model.CD;
+import com.library.model.Media;
+import com.library.repository.Isbn;
+import com.library.repository.MediaRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Streaming bulk import of books and CDs from CSV or JSON Lines files.
+ *
+ * The file is read line by line through a buffered NIO channel, so only a bounded number of
+ * chunks is held in memory at any time. Chunks are parsed and validated in parallel and then
+ * committed to the {@link MediaRepository} in file order, one batch per chunk. Identifiers that
+ * are already in the catalog, or that appear earlier in the same file, are skipped as duplicates.
+ *
+ * CSV files need a header row naming the columns: type, identifier, title, author (or artist),
+ * genre and trackCount. JSONL files hold one object per line with the same keys. The type is
+ * BOOK or CD; genre and trackCount are only used for CDs.
+ * @author Library Team
+ * @version 1.0
+ */
+public class CatalogImportService {
+    private static final Logger logger = Logger.getLogger(CatalogImportService.class.getName());
+
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final MediaRepository mediaRepository;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Constructor with dependency injection
+     * @param mediaRepository the repository that receives the imported media
+     */
+    public CatalogImportService(MediaRepository mediaRepository) {
+        this.mediaRepository = mediaRepository;
+    }
+
+    /**
+     * Sets the number of rows per parsed and committed batch
+     * @param chunkSize the chunk size (must be positive)
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets the number of parser threads
+     * @param parallelism the number of threads (must be positive)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Imports a catalog file, choosing the format from its extension (.csv, .jsonl or .ndjson)
+     * @param file the file to import
+     * @param progressListener receives progress after every committed batch (may be null)
+     * @return the import result
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the extension is not supported
+     */
+    public ImportResult importFile(Path file, Consumer<ImportProgress> progressListener) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return importCsv(file, progressListener);
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return importJsonLines(file, progressListener);
+        }
+        throw new IllegalArgumentException("Unsupported catalog file type: " + file.getFileName());
+    }
+
+    /**
+     * Imports a CSV catalog file with a header row
+     * @param file the file to import
+     * @param progressListener receives progress after every committed batch (may be null)
+     * @return the import result
+     * @throws IOException if the file cannot be read
+     */
+    public ImportResult importCsv(Path file, Consumer<ImportProgress> progressListener) throws IOException {
+        try (BufferedReader reader = openReader(file)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return run(reader, null, progressListener, 1);
+            }
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = parseCsvLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("type") || !columns.containsKey("identifier") || !columns.containsKey("title")) {
+                throw new IllegalArgumentException("CSV header must name the type, identifier and title columns");
+            }
+            return run(reader, new CsvRowParser(columns), progressListener, 2);
+        }
+    }
+
+    /**
+     * Imports a JSON Lines catalog file
+     * @param file the file to import
+     * @param progressListener receives progress after every committed batch (may be null)
+     * @return the import result
+     * @throws IOException if the file cannot be read
+     */
+    public ImportResult importJsonLines(Path file, Consumer<ImportProgress> progressListener) throws IOException {
+        try (BufferedReader reader = openReader(file)) {
+            return run(reader, CatalogImportService::parseJsonRow, progressListener, 1);
+        }
+    }
+
+    private static BufferedReader openReader(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads chunks, parses them on the worker pool and commits them in file order.
+     * At most two chunks per worker are in flight, which bounds memory for any file size.
+     */
+    private ImportResult run(BufferedReader reader, RowParser parser, Consumer<ImportProgress> progressListener,
+                             long firstLineNumber) throws IOException {
+        long startNanos = System.nanoTime();
+        ImportTally tally = new ImportTally();
+        if (parser == null) {
+            return tally.toResult(System.nanoTime() - startNanos);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parallelism * 2;
+        try {
+            long lineNumber = firstLineNumber;
+            List<String> lines = new ArrayList<>(chunkSize);
+            long chunkStart = lineNumber;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                lineNumber++;
+                if (lines.size() == chunkSize) {
+                    submit(workers, inFlight, parser, lines, chunkStart);
+                    lines = new ArrayList<>(chunkSize);
+                    chunkStart = lineNumber;
+                    while (inFlight.size() >= maxInFlight) {
+                        commit(await(inFlight.poll()), tally, progressListener, startNanos);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(workers, inFlight, parser, lines, chunkStart);
+            }
+            while (!inFlight.isEmpty()) {
+                commit(await(inFlight.poll()), tally, progressListener, startNanos);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            workers.shutdownNow();
+        }
+
+        ImportResult result = tally.toResult(System.nanoTime() - startNanos);
+        logger.info("Catalog import finished: " + result);
+        return result;
+    }
+
+    private static void submit(ExecutorService workers, Deque<Future<ParsedChunk>> inFlight, RowParser parser,
+                               List<String> lines, long firstLineNumber) {
+        inFlight.add(workers.submit(() -> parseChunk(parser, lines, firstLineNumber)));
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Catalog import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Catalog import failed", e.getCause());
+        }
+    }
+
+    private static ParsedChunk parseChunk(RowParser parser, List<String> lines, long firstLineNumber) {
+        ParsedChunk chunk = new ParsedChunk(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.rows++;
+            try {
+                chunk.media.add(parser.parse(line));
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add("Line " + (firstLineNumber + i) + ": " + e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    private void commit(ParsedChunk chunk, ImportTally tally,
+                        Consumer<ImportProgress> progressListener, long startNanos) {
+        // Earlier batches are already in the repository index, so only this batch needs its own set
+        List<Media> batch = new ArrayList<>(chunk.media.size());
+        Set<String> batchIds = new HashSet<>();
+        for (Media media : chunk.media) {
+            String identifier = media.getIdentifier();
+            if (mediaRepository.containsMediaId(identifier) || !batchIds.add(dedupeKey(media))) {
+                tally.duplicates++;
+            } else {
+                batch.add(media);
+            }
+        }
+        mediaRepository.addMediaBatch(batch);
+
+        tally.rows += chunk.rows;
+        tally.imported += batch.size();
+        tally.invalid += chunk.errors.size();
+        for (String error : chunk.errors) {
+            if (tally.errors.size() >= MAX_REPORTED_ERRORS) {
+                break;
+            }
+            tally.errors.add(error);
+        }
+
+        if (progressListener != null) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            progressListener.accept(new ImportProgress(tally.rows, tally.imported, tally.duplicates,
+                    tally.invalid, elapsedNanos));
+        }
+    }
+
+    /**
+     * Books with a valid ISBN are deduplicated by the ISBN itself, so every spelling of it
+     * counts as the same book
+     */
+    private static String dedupeKey(Media media) {
+        if (media instanceof Book) {
+            long isbn = Isbn.toKey(media.getIdentifier());
+            if (isbn != Isbn.INVALID) {
+                return "isbn:" + isbn;
+            }
+        }
+        return media.getIdentifier();
+    }
+
+    // ---------------------------------------------------------------- row parsing
+
+    private interface RowParser {
+        Media parse(String line);
+    }
+
+    private static final class CsvRowParser implements RowParser {
+        private final int type;
+        private final int identifier;
+        private final int title;
+        private final int author;
+        private final int genre;
+        private final int trackCount;
+
+        CsvRowParser(Map<String, Integer> columns) {
+            this.type = columns.get("type");
+            this.identifier = columns.get("identifier");
+            this.title = columns.get("title");
+            this.author = columns.getOrDefault("author", columns.getOrDefault("artist", -1));
+            this.genre = columns.getOrDefault("genre", -1);
+            this.trackCount = columns.getOrDefault("trackcount", -1);
+        }
+
+        @Override
+        public Media parse(String line) {
+            List<String> fields = parseCsvLine(line);
+            return buildMedia(field(fields, type), field(fields, identifier), field(fields, title),
+                    field(fields, author), field(fields, genre), field(fields, trackCount));
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    private static Media parseJsonRow(String line) {
+        Map<String, Object> row = Json.parseObject(line);
+        Object author = row.containsKey("author") ? row.get("author") : row.get("artist");
+        return buildMedia(text(row.get("type")), text(row.get("identifier")), text(row.get("title")),
+                text(author), text(row.get("genre")), text(row.get("trackCount")));
+    }
+
+    private static String text(Object value) {
+        if (value instanceof Double number && number == Math.rint(number)) {
+            return String.valueOf(number.longValue());
+        }
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Validates one row and builds the Book or CD it describes
+     * @throws IllegalArgumentException if the row is invalid
+     */
+    private static Media buildMedia(String type, String identifier, String title,
+                                    String author, String genre, String trackCount) {
+        identifier = trimToNull(identifier);
+        title = trimToNull(title);
+        author = trimToNull(author);
+        if (identifier == null) {
+            throw new IllegalArgumentException("Missing identifier");
+        }
+        if (title == null) {
+            throw new IllegalArgumentException("Missing title for " + identifier);
+        }
+
+        String mediaType = type == null ? "" : type.trim().toUpperCase(Locale.ROOT);
+        switch (mediaType) {
+            case "BOOK":
+                return new Book(title, author == null ? "Unknown" : author, identifier);
+            case "CD":
+                int tracks = 0;
+                String count = trimToNull(trackCount);
+                if (count != null) {
+                    try {
+                        tracks = Integer.parseInt(count);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid track count for " + identifier + ": " + count);
+                    }
+                    if (tracks < 0) {
+                        throw new IllegalArgumentException("Invalid track count for " + identifier + ": " + count);
+                    }
+                }
+                String cdGenre = trimToNull(genre);
+                return new CD(title, author == null ? "Unknown" : author, identifier,
+                        cdGenre == null ? "Unknown" : cdGenre, tracks);
+            default:
+                throw new IllegalArgumentException("Unknown media type for " + identifier + ": " + type);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Splits one CSV record. Fields may be quoted; a doubled quote inside quotes is a literal quote.
+     * Records cannot span lines.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // ---------------------------------------------------------------- results
+
+    private static final class ParsedChunk {
+        private final List<Media> media;
+        private final List<String> errors = new ArrayList<>();
+        private int rows;
+
+        ParsedChunk(int capacity) {
+            this.media = new ArrayList<>(capacity);
+        }
+    }
+
+    private static final class ImportTally {
+        private long rows;
+        private long imported;
+        private long duplicates;
+        private long invalid;
+        private final List<String> errors = new ArrayList<>();
+
+        ImportResult toResult(long elapsedNanos) {
+            return new ImportResult(rows, imported, duplicates, invalid, errors, elapsedNanos);
+        }
+    }
+
+    /**
+     * Progress snapshot, published after each committed batch
+     */
+    public static final class ImportProgress {
+        private final long rowsRead;
+        private final long imported;
+        private final long duplicates;
+        private final long invalid;
+        private final long elapsedNanos;
+
+        ImportProgress(long rowsRead, long imported, long duplicates, long invalid, long elapsedNanos) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.invalid = invalid;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRowsRead() { return rowsRead; }
+        public long getImported() { return imported; }
+        public long getDuplicates() { return duplicates; }
+        public long getInvalid() { return invalid; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        /**
+         * Gets the average throughput so far
+         * @return rows read per second
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d imported, %d duplicates, %d invalid (%.0f rows/s)",
+                    rowsRead, imported, duplicates, invalid, getRowsPerSecond());
+        }
+    }
+
+    /**
+     * Outcome of an import
+     */
+    public static final class ImportResult {
+        private final long rowsRead;
+        private final long imported;
+        private final long duplicates;
+        private final long invalid;
+        private final List<String> errors;
+        private final long elapsedNanos;
+
+        ImportResult(long rowsRead, long imported, long duplicates, long invalid,
+                     List<String> errors, long elapsedNanos) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.invalid = invalid;
+            this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRowsRead() { return rowsRead; }
+        public long getImported() { return imported; }
+        public long getDuplicates() { return duplicates; }
+        public long getInvalid() { return invalid; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        /**
+         * Gets the first validation errors (at most 20)
+         * @return the error messages, with line numbers
+         */
+        public List<String> getErrors() { return errors; }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d imported, %d duplicates, %d invalid in %d ms",
+                    rowsRead, imported, duplicates, invalid, getElapsedMillis());
+        }
+    }
+}
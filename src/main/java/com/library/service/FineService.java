@@ -142,7 +142,12 @@ public class FineService {
 
     // Constructor without LoanService - for backward compatibility
     public FineService(UserRepository userRepository) {
-        this.fineRepository = new FineRepository();
+        this(userRepository, new FineRepository());
+    }
+
+    // Constructor with a shared fine repository (see LibraryContext)
+    public FineService(UserRepository userRepository, FineRepository fineRepository) {
+        this.fineRepository = fineRepository;
         this.userRepository = userRepository;
         this.loanService = null; // Will be set later via setter
         this.fineContext = new FineContext();
@@ -232,6 +237,7 @@ public class FineService {
                 // Continue to create new fine
             } else if (Math.abs(existingFine.getAmount() - fineAmount) > 0.01) {
                 existingFine.setAmount(fineAmount);
+                fineRepository.updateFine(existingFine);
                 System.out.println("⚠ Updated fine amount to $" + fineAmount);
                 return existingFine;
             } else {
@@ -0,0 +1,314 @@
+package com.library.service;
+
+import com.library.model.Hold;
+import com.library.model.Media;
+import com.library.model.MediaCopy;
+import com.library.model.User;
+import com.library.observer.LoanSubject;
+import com.library.observer.NotificationEvent;
+import com.library.observer.Observer;
+import com.library.repository.HoldRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import com.library.scheduler.TimingWheel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Service for holds on unavailable media.
+ *
+ * When an item comes back and patrons are waiting, it is reserved for the first eligible patron
+ * in the title's queue and a HOLD_READY notification is sent. The patron then has a fixed number
+ * of days to borrow it; after that the hold expires (HOLD_EXPIRED) and the item moves on to the
+ * next patron. Pickup deadlines are kept on a day-granularity timing wheel.
+ * @author Library Team
+ * @version 1.0
+ */
+public class HoldService {
+    private static final Logger logger = Logger.getLogger(HoldService.class.getName());
+
+    public static final int DEFAULT_PICKUP_DAYS = 3;
+    public static final String HOLD_READY = "HOLD_READY";
+    public static final String HOLD_EXPIRED = "HOLD_EXPIRED";
+
+    private final HoldRepository holdRepository;
+    private final MediaRepository mediaRepository;
+    private final UserRepository userRepository;
+    private final int pickupDays;
+    private final TimingWheel<Hold> pickupWheel;
+    private final Map<String, TimingWheel.Timer<Hold>> pickupTimers = new ConcurrentHashMap<>();
+    private final LoanSubject notificationSubject = new LoanSubject(null);
+    private volatile BorrowingRulesService borrowingRulesService;
+
+    /**
+     * Constructor with dependency injection
+     * @param holdRepository the hold queues
+     * @param mediaRepository the catalog, used to reserve and release items
+     * @param userRepository used to look up patrons
+     * @param today the current date
+     * @param pickupDays days a patron has to pick up a ready hold
+     */
+    public HoldService(HoldRepository holdRepository, MediaRepository mediaRepository,
+                       UserRepository userRepository, LocalDate today, int pickupDays) {
+        this.holdRepository = holdRepository;
+        this.mediaRepository = mediaRepository;
+        this.userRepository = userRepository;
+        this.pickupDays = pickupDays;
+        this.pickupWheel = new TimingWheel<>(today.toEpochDay());
+    }
+
+    public HoldService(HoldRepository holdRepository, MediaRepository mediaRepository, UserRepository userRepository) {
+        this(holdRepository, mediaRepository, userRepository, LocalDate.now(), DEFAULT_PICKUP_DAYS);
+    }
+
+    /**
+     * Places a hold on a title that is currently unavailable
+     * @return the hold, or null if the hold cannot be placed
+     */
+    public Hold placeHold(String userId, String mediaId, String mediaType, LocalDate date) {
+        User user = userRepository.findUserById(userId);
+        if (user == null) {
+            System.out.println("❌ Error: User not found.");
+            return null;
+        }
+        if (!user.isActive()) {
+            System.out.println("❌ Error: User account is deactivated.");
+            return null;
+        }
+
+        Media media = mediaRepository.findMediaByIdAndType(mediaId, mediaType);
+        if (media == null) {
+            System.out.println("❌ Error: " + mediaType + " not found with ID: " + mediaId);
+            return null;
+        }
+        if (media.isAvailable()) {
+            System.out.println("❌ Error: " + mediaType + " is available. Borrow it instead of placing a hold.");
+            return null;
+        }
+
+        Hold hold = holdRepository.placeHold(userId, mediaId, mediaType, date);
+        if (hold == null) {
+            System.out.println("❌ Error: User already has a hold on " + mediaId + ".");
+            return null;
+        }
+        System.out.println("✅ Hold placed. Position in queue: " + holdRepository.getQueueLength(mediaId));
+        return hold;
+    }
+
+    /**
+     * Cancels a hold. A ready hold releases its item to the next patron.
+     * @param holdId the hold ID
+     * @param date the current date
+     * @return true if the hold was open
+     */
+    public boolean cancelHold(String holdId, LocalDate date) {
+        Hold hold = holdRepository.findHoldById(holdId);
+        if (hold == null || (hold.getStatus() != Hold.Status.WAITING && hold.getStatus() != Hold.Status.READY)) {
+            System.out.println("❌ Error: No open hold with ID: " + holdId);
+            return false;
+        }
+
+        boolean wasReady = hold.getStatus() == Hold.Status.READY;
+        holdRepository.close(hold, Hold.Status.CANCELLED);
+        if (wasReady) {
+            cancelTimer(hold);
+            releaseReservation(hold);
+            onItemReturned(hold.getMediaId(), date);
+        }
+        return true;
+    }
+
+    /**
+     * Reserves a returned item for the next eligible patron in the title's queue.
+     * Patrons who cannot borrow right now keep their place.
+     * @param mediaId the returned media
+     * @param date the return date
+     * @return the hold that became ready, or null if nobody eligible is waiting
+     */
+    public Hold onItemReturned(String mediaId, LocalDate date) {
+        List<Hold> skipped = new ArrayList<>();
+        Hold ready = null;
+        Hold candidate;
+        while ((candidate = holdRepository.pollNext(mediaId)) != null) {
+            if (isEligible(candidate.getUserId(), date)) {
+                ready = candidate;
+                break;
+            }
+            skipped.add(candidate);
+        }
+        if (!skipped.isEmpty()) {
+            holdRepository.requeueAtFront(mediaId, skipped);
+        }
+        if (ready == null) {
+            return null;
+        }
+
+        if (!reserve(ready)) {
+            // Nothing left to reserve (e.g. another desk took the copy): keep the patron's place
+            holdRepository.requeueAtFront(mediaId, List.of(ready));
+            return null;
+        }
+        ready.setStatus(Hold.Status.READY);
+        ready.setPickupDeadline(date.plusDays(pickupDays));
+        pickupTimers.put(ready.getHoldId(),
+                pickupWheel.schedule(ready.getPickupDeadline().toEpochDay() + 1, ready));
+
+        User user = userRepository.findUserById(ready.getUserId());
+        notificationSubject.notifyObservers(new NotificationEvent(user, HOLD_READY,
+                ready.getMediaType() + " " + mediaId + " is ready for pickup until " + ready.getPickupDeadline() + ".",
+                ready));
+        logger.info("Hold " + ready.getHoldId() + " ready for " + ready.getUserId());
+        return ready;
+    }
+
+    /**
+     * Checks whether an item is waiting on the shelf for a patron
+     * @param userId the patron
+     * @param mediaId the media
+     * @return true if the patron has a ready hold on the title
+     */
+    public boolean hasReadyHold(String userId, String mediaId) {
+        Hold hold = holdRepository.findOpenHold(userId, mediaId);
+        return hold != null && hold.getStatus() == Hold.Status.READY;
+    }
+
+    /**
+     * Releases the item reserved for a patron's ready hold so it can be borrowed, and closes the hold
+     * @param userId the patron
+     * @param mediaId the media
+     * @return the fulfilled hold, or null if the patron has no ready hold on the title
+     */
+    public Hold claimReadyHold(String userId, String mediaId) {
+        Hold hold = holdRepository.findOpenHold(userId, mediaId);
+        if (hold == null || hold.getStatus() != Hold.Status.READY) {
+            return null;
+        }
+        cancelTimer(hold);
+        releaseReservation(hold);
+        holdRepository.close(hold, Hold.Status.FULFILLED);
+        return hold;
+    }
+
+    /**
+     * Closes a patron's ready hold and hands its reserved item straight to the patron's loan,
+     * without putting it back on the shelf first
+     * @param userId the patron
+     * @param mediaId the media
+     * @return the fulfilled hold, whose copy barcode (if any) is the copy to lend, or null if the
+     *         patron has no ready hold on the title
+     */
+    public Hold takeReadyHold(String userId, String mediaId) {
+        Hold hold = holdRepository.findOpenHold(userId, mediaId);
+        if (hold == null || hold.getStatus() != Hold.Status.READY) {
+            return null;
+        }
+        cancelTimer(hold);
+        holdRepository.close(hold, Hold.Status.FULFILLED);
+        return hold;
+    }
+
+    /**
+     * Expires ready holds whose pickup deadline has passed and passes their items on
+     * @param date the current date
+     * @return the number of holds that expired
+     */
+    public int advanceTo(LocalDate date) {
+        int expired = 0;
+        for (Hold hold : pickupWheel.advanceTo(date.toEpochDay())) {
+            pickupTimers.remove(hold.getHoldId());
+            if (hold.getStatus() != Hold.Status.READY) {
+                continue;
+            }
+            holdRepository.close(hold, Hold.Status.EXPIRED);
+            releaseReservation(hold);
+            expired++;
+
+            User user = userRepository.findUserById(hold.getUserId());
+            notificationSubject.notifyObservers(new NotificationEvent(user, HOLD_EXPIRED,
+                    "Hold " + hold.getHoldId() + " on " + hold.getMediaId() + " expired on " + hold.getPickupDeadline() + ".",
+                    hold));
+            onItemReturned(hold.getMediaId(), date);
+        }
+        return expired;
+    }
+
+    private boolean isEligible(String userId, LocalDate date) {
+        BorrowingRulesService rules = borrowingRulesService;
+        if (rules != null) {
+            return rules.canUserBorrow(userId, date).isValid();
+        }
+        // Without borrowing rules only the account itself can be checked
+        User user = userRepository.findUserById(userId);
+        return user != null && user.isActive() && user.canBorrow();
+    }
+
+    private boolean reserve(Hold hold) {
+        if (mediaRepository.hasHoldings(hold.getMediaId())) {
+            MediaCopy copy = mediaRepository.checkoutCopy(hold.getMediaId());
+            if (copy == null) {
+                return false;
+            }
+            hold.setCopyBarcode(copy.getBarcode());
+            return true;
+        }
+        Media media = mediaRepository.findMediaById(hold.getMediaId());
+        if (media == null || !media.isAvailable()) {
+            return false;
+        }
+        media.setAvailable(false);
+        return true;
+    }
+
+    private void releaseReservation(Hold hold) {
+        if (hold.getCopyBarcode() != null) {
+            mediaRepository.returnCopy(hold.getMediaId(), hold.getCopyBarcode());
+            hold.setCopyBarcode(null);
+        } else {
+            mediaRepository.updateMediaAvailability(hold.getMediaId(), true);
+        }
+    }
+
+    private void cancelTimer(Hold hold) {
+        TimingWheel.Timer<Hold> timer = pickupTimers.remove(hold.getHoldId());
+        if (timer != null) {
+            pickupWheel.cancel(timer);
+        }
+    }
+
+    /**
+     * Attach observer for HOLD_READY and HOLD_EXPIRED events
+     * @param observer the observer to attach
+     */
+    public void attachObserver(Observer observer) {
+        if (observer == null) {
+            System.out.println("❌ Error: Cannot attach null observer.");
+            return;
+        }
+        notificationSubject.attach(observer);
+    }
+
+    /**
+     * Detach observer
+     * @param observer the observer to detach
+     */
+    public void detachObserver(Observer observer) {
+        notificationSubject.detach(observer);
+    }
+
+    public HoldRepository getHoldRepository() { return holdRepository; }
+
+    /**
+     * Sets the rules used to decide whether a waiting patron may be given a returned item:
+     * loan limit, overdue loans as of the return date, and unpaid fines
+     * @param borrowingRulesService the rules
+     */
+    public void setBorrowingRulesService(BorrowingRulesService borrowingRulesService) {
+        this.borrowingRulesService = borrowingRulesService;
+    }
+
+    public BorrowingRulesService getBorrowingRulesService() { return borrowingRulesService; }
+}
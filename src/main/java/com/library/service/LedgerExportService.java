@@ -0,0 +1,466 @@
+package com.library.service;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.repository.FineRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.UserRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming export of the loan, fine and user tables to CSV or JSON Lines files.
+ *
+ * Rows are read from the repositories' live views (no list copies) and written through one
+ * reusable encoder and byte buffer straight to a file channel, optionally gzip-compressed, so heap
+ * use does not grow with the table size. Callers that share the repositories with writers should
+ * hold the library read lock for the duration of an export, as the HTTP server does for reads.
+ * @author Library Team
+ * @version 1.0
+ */
+public class LedgerExportService {
+    private static final Logger logger = Logger.getLogger(LedgerExportService.class.getName());
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String[] LOAN_COLUMNS =
+            {"loanId", "userId", "mediaId", "mediaType", "borrowDate", "dueDate", "returnDate", "status"};
+    private static final String[] FINE_COLUMNS =
+            {"fineId", "userId", "loanId", "amount", "paidAmount", "remaining", "paid"};
+    private static final String[] USER_COLUMNS =
+            {"userId", "name", "email", "active", "canBorrow", "currentLoans", "unpaidFines"};
+
+    /**
+     * Output file format
+     */
+    public enum Format { CSV, JSONL }
+
+    private final UserRepository userRepository;
+    private final LoanRepository loanRepository;
+    private final FineRepository fineRepository;
+
+    /**
+     * Constructor with dependency injection
+     */
+    public LedgerExportService(UserRepository userRepository, LoanRepository loanRepository,
+                               FineRepository fineRepository) {
+        this.userRepository = userRepository;
+        this.loanRepository = loanRepository;
+        this.fineRepository = fineRepository;
+    }
+
+    /**
+     * Exports loans. The date range applies to the borrow date.
+     * @param file the output file (created or truncated)
+     * @param format the output format
+     * @param filter the row filter
+     * @param gzip true to gzip-compress the output
+     * @return the export result
+     * @throws IOException if the file cannot be written
+     */
+    public ExportResult exportLoans(Path file, Format format, ExportFilter filter, boolean gzip) throws IOException {
+        LocalDate today = LocalDate.now();
+        long start = System.nanoTime();
+        long rows = 0;
+        try (RowEncoder encoder = new RowEncoder(file, format, gzip, LOAN_COLUMNS)) {
+            for (Loan loan : loanRepository.getLoansView()) {
+                if (!filter.matchesUser(loan.getUserId()) || !filter.matchesDate(loan.getBorrowDate())) {
+                    continue;
+                }
+                encoder.beginRow();
+                encoder.text(loan.getLoanId());
+                encoder.text(loan.getUserId());
+                encoder.text(loan.getMediaId());
+                encoder.text(loan.getMediaType());
+                encoder.date(loan.getBorrowDate());
+                encoder.date(loan.getDueDate());
+                encoder.date(loan.getReturnDate());
+                encoder.text(loan.getStatusAsOf(today).name());
+                encoder.endRow();
+                rows++;
+            }
+            return finish("loans", file, encoder, rows, start);
+        }
+    }
+
+    /**
+     * Exports fines. Fines carry no date of their own, so the date range applies to the return date
+     * of the loan that caused the fine; fines without a returned loan are excluded when a range is set.
+     * @param file the output file (created or truncated)
+     * @param format the output format
+     * @param filter the row filter
+     * @param gzip true to gzip-compress the output
+     * @return the export result
+     * @throws IOException if the file cannot be written
+     */
+    public ExportResult exportFines(Path file, Format format, ExportFilter filter, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        // Only needed for date ranges, and only holds the IDs of loans inside the range
+        Set<String> loanIdsInRange = null;
+        if (filter.hasDateRange()) {
+            loanIdsInRange = new HashSet<>();
+            for (Loan loan : loanRepository.getLoansView()) {
+                if (loan.getReturnDate() != null && filter.matchesUser(loan.getUserId())
+                        && filter.matchesDate(loan.getReturnDate())) {
+                    loanIdsInRange.add(loan.getLoanId());
+                }
+            }
+        }
+
+        long rows = 0;
+        try (RowEncoder encoder = new RowEncoder(file, format, gzip, FINE_COLUMNS)) {
+            for (Fine fine : fineRepository.getFinesView()) {
+                if (!filter.matchesUser(fine.getUserId())
+                        || (loanIdsInRange != null && !loanIdsInRange.contains(fine.getLoanId()))) {
+                    continue;
+                }
+                encoder.beginRow();
+                encoder.text(fine.getFineId());
+                encoder.text(fine.getUserId());
+                encoder.text(fine.getLoanId());
+                encoder.amount(fine.getAmount());
+                encoder.amount(fine.getPaidAmount());
+                encoder.amount(fine.getRemainingBalance());
+                encoder.bool(fine.isPaid());
+                encoder.endRow();
+                rows++;
+            }
+            return finish("fines", file, encoder, rows, start);
+        }
+    }
+
+    /**
+     * Exports users. Users carry no date, so only the user filter applies.
+     * @param file the output file (created or truncated)
+     * @param format the output format
+     * @param filter the row filter
+     * @param gzip true to gzip-compress the output
+     * @return the export result
+     * @throws IOException if the file cannot be written
+     */
+    public ExportResult exportUsers(Path file, Format format, ExportFilter filter, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        try (RowEncoder encoder = new RowEncoder(file, format, gzip, USER_COLUMNS)) {
+            for (User user : userRepository.getUsersView()) {
+                if (!filter.matchesUser(user.getUserId())) {
+                    continue;
+                }
+                encoder.beginRow();
+                encoder.text(user.getUserId());
+                encoder.text(user.getName());
+                encoder.text(user.getEmail());
+                encoder.bool(user.isActive());
+                encoder.bool(user.canBorrow());
+                encoder.number(user.getCurrentLoans().size());
+                encoder.amount(fineRepository.getTotalUnpaidAmount(user.getUserId()));
+                encoder.endRow();
+                rows++;
+            }
+            return finish("users", file, encoder, rows, start);
+        }
+    }
+
+    private static ExportResult finish(String table, Path file, RowEncoder encoder, long rows, long start)
+            throws IOException {
+        encoder.close();
+        ExportResult result = new ExportResult(table, file, rows, encoder.bytesWritten, System.nanoTime() - start);
+        logger.info("Export finished: " + result);
+        return result;
+    }
+
+    /**
+     * Selects the rows to export. Both bounds of the date range are inclusive and optional.
+     */
+    public static final class ExportFilter {
+        private static final ExportFilter ALL = new ExportFilter(null, null, null);
+
+        private final String userId;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        private ExportFilter(String userId, LocalDate from, LocalDate to) {
+            this.userId = userId;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Gets the filter that exports every row
+         * @return the filter
+         */
+        public static ExportFilter all() {
+            return ALL;
+        }
+
+        /**
+         * Restricts the export to one user
+         * @param userId the user ID
+         * @return a new filter
+         */
+        public ExportFilter forUser(String userId) {
+            return new ExportFilter(userId, from, to);
+        }
+
+        /**
+         * Restricts the export to a date range
+         * @param from the first date, or null for no lower bound
+         * @param to the last date, or null for no upper bound
+         * @return a new filter
+         */
+        public ExportFilter between(LocalDate from, LocalDate to) {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("Date range starts after it ends: " + from + " > " + to);
+            }
+            return new ExportFilter(userId, from, to);
+        }
+
+        boolean hasDateRange() {
+            return from != null || to != null;
+        }
+
+        boolean matchesUser(String candidate) {
+            return userId == null || userId.equals(candidate);
+        }
+
+        boolean matchesDate(LocalDate date) {
+            if (!hasDateRange()) {
+                return true;
+            }
+            return date != null && (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+        }
+    }
+
+    /**
+     * Outcome of an export
+     */
+    public static final class ExportResult {
+        private final String table;
+        private final Path file;
+        private final long rowsWritten;
+        private final long bytesWritten;
+        private final long elapsedNanos;
+
+        ExportResult(String table, Path file, long rowsWritten, long bytesWritten, long elapsedNanos) {
+            this.table = table;
+            this.file = file;
+            this.rowsWritten = rowsWritten;
+            this.bytesWritten = bytesWritten;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getTable() { return table; }
+        public Path getFile() { return file; }
+        public long getRowsWritten() { return rowsWritten; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        /**
+         * Gets the number of bytes written to the file (after compression)
+         * @return the file size in bytes
+         */
+        public long getBytesWritten() { return bytesWritten; }
+
+        /**
+         * Gets the export throughput
+         * @return rows written per second
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsWritten * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d %s rows to %s (%d bytes) in %d ms, %.0f rows/s",
+                    rowsWritten, table, file.getFileName(), bytesWritten, getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+
+    /**
+     * Encodes rows into one reusable char and byte buffer and writes full buffers to the channel.
+     * In CSV mode the column names become the header row; in JSONL mode they become the object keys.
+     */
+    private static final class RowEncoder implements AutoCloseable {
+        private final Format format;
+        private final String[] columns;
+        private final FileChannel file;
+        private final GZIPOutputStream gzip;
+        private final WritableByteChannel out;
+        private final CharsetEncoder charsetEncoder = StandardCharsets.UTF_8.newEncoder();
+        private final StringBuilder row = new StringBuilder(256);
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private int column;
+        private long bytesWritten;
+        private boolean closed;
+
+        RowEncoder(Path path, Format format, boolean compress, String[] columns) throws IOException {
+            this.format = format;
+            this.columns = columns;
+            this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            if (compress) {
+                OutputStream stream = Channels.newOutputStream(file);
+                this.gzip = new GZIPOutputStream(stream, BUFFER_SIZE);
+                this.out = Channels.newChannel(gzip);
+            } else {
+                this.gzip = null;
+                this.out = file;
+            }
+            if (format == Format.CSV) {
+                row.append(String.join(",", columns)).append('\n');
+                flushRow();
+            }
+        }
+
+        void beginRow() {
+            row.setLength(0);
+            column = 0;
+            row.append(format == Format.JSONL ? "{" : "");
+        }
+
+        void text(String value) {
+            nextColumn();
+            if (value == null) {
+                row.append(format == Format.JSONL ? "null" : "");
+            } else if (format == Format.JSONL) {
+                appendJsonString(value);
+            } else {
+                appendCsvField(value);
+            }
+        }
+
+        void date(LocalDate value) {
+            text(value == null ? null : value.toString());
+        }
+
+        void amount(double value) {
+            nextColumn();
+            row.append(String.format(Locale.ROOT, "%.2f", value));
+        }
+
+        void number(long value) {
+            nextColumn();
+            row.append(value);
+        }
+
+        void bool(boolean value) {
+            nextColumn();
+            row.append(value);
+        }
+
+        void endRow() throws IOException {
+            row.append(format == Format.JSONL ? "}\n" : "\n");
+            flushRow();
+        }
+
+        private void nextColumn() {
+            if (format == Format.JSONL) {
+                if (column > 0) {
+                    row.append(',');
+                }
+                row.append('"').append(columns[column]).append("\":");
+            } else if (column > 0) {
+                row.append(',');
+            }
+            column++;
+        }
+
+        private void appendCsvField(String value) {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                row.append(value);
+                return;
+            }
+            row.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    row.append('"');
+                }
+                row.append(c);
+            }
+            row.append('"');
+        }
+
+        private void appendJsonString(String value) {
+            row.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': row.append("\\\""); break;
+                    case '\\': row.append("\\\\"); break;
+                    case '\n': row.append("\\n"); break;
+                    case '\r': row.append("\\r"); break;
+                    case '\t': row.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            row.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            row.append(c);
+                        }
+                }
+            }
+            row.append('"');
+        }
+
+        private void flushRow() throws IOException {
+            CharBuffer chars = CharBuffer.wrap(row);
+            while (true) {
+                CoderResult result = charsetEncoder.encode(chars, bytes, true);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            charsetEncoder.reset();
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            bytes.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                drain();
+                if (gzip != null) {
+                    gzip.finish();
+                    gzip.flush();
+                }
+                bytesWritten = file.size();
+            } finally {
+                if (gzip != null) {
+                    gzip.close();
+                }
+                file.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.library.service;
+
+import com.library.ledger.CirculationLedger;
+import com.library.repository.FineRepository;
+import com.library.repository.HoldRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import com.library.scheduler.DueDateScheduler;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Application context that wires exactly one instance of each repository into all services.
+ * LibraryService, the HTTP API and the reminder and unregistration services all see the same
+ * loan and fine tables, so loans created at the desk are visible everywhere.
+ *
+ * Email (Dotenv file I/O and credential checks) and the reminder service with its observers are
+ * created on first use, or ahead of time by {@link #warmUpAsync()}, so catalog search and
+ * checkout are available as soon as the constructor returns. A missing or broken email
+ * configuration is reported through {@link #getReadiness()} instead of failing startup.
+ * @author Library Team
+ * @version 1.1
+ */
+public class LibraryContext {
+    private static final Logger logger = Logger.getLogger(LibraryContext.class.getName());
+    private static final int[] DUE_SOON_DAYS = {3, 1};
+
+    private final UserRepository userRepository;
+    private final MediaRepository mediaRepository;
+    private final LoanRepository loanRepository;
+    private final FineRepository fineRepository;
+
+    private final MediaService mediaService;
+    private final BookService bookService;
+    private final FineService fineService;
+    private final LoanService loanService;
+    private final UserManagementService userManagementService;
+    private final BorrowingRulesService borrowingRulesService;
+    private final DueDateScheduler dueDateScheduler;
+    private final HoldRepository holdRepository;
+    private final HoldService holdService;
+    private final CirculationLedger ledger;
+    private final AggregationService aggregationService;
+    private final AutocompleteService autocompleteService;
+    private final LazyComponent<EmailService> emailService;
+    private final LazyComponent<ReminderService> reminderService;
+    private final ReentrantReadWriteLock circulationLock = new ReentrantReadWriteLock();
+
+    public LibraryContext() {
+        this(new UserRepository());
+    }
+
+    public LibraryContext(UserRepository userRepository) {
+        this(userRepository, EmailService::new);
+    }
+
+    /**
+     * Creates the context with a custom email service factory
+     * @param userRepository the user repository
+     * @param emailServiceFactory creates the email service on first use
+     */
+    public LibraryContext(UserRepository userRepository, Supplier<EmailService> emailServiceFactory) {
+        this.userRepository = userRepository;
+        this.mediaRepository = new MediaRepository();
+        this.loanRepository = new LoanRepository(mediaRepository);
+        this.fineRepository = new FineRepository();
+
+        this.mediaService = new MediaService(mediaRepository);
+        this.bookService = new BookService(mediaRepository);
+        this.fineService = new FineService(userRepository, fineRepository);
+        this.loanService = new LoanService(fineService, userRepository, mediaRepository, loanRepository);
+        this.fineService.setLoanService(loanService);
+        this.userManagementService = new UserManagementService(userRepository, loanRepository, fineRepository);
+
+        this.borrowingRulesService = new BorrowingRulesService(loanRepository, fineRepository, userRepository);
+        loanService.attachObserver(borrowingRulesService.getCacheInvalidator());
+        fineService.attachObserver(borrowingRulesService.getCacheInvalidator());
+        userManagementService.attachObserver(borrowingRulesService.getCacheInvalidator());
+
+        this.emailService = new LazyComponent<>("email", emailServiceFactory);
+        this.reminderService = new LazyComponent<>("reminders", () -> {
+            EmailService email = emailService.get();
+            return email == null ? null : new ReminderService(email, loanRepository, userRepository, true);
+        });
+
+        // Due-date events go out through the reminder observers once email is ready
+        this.dueDateScheduler = new DueDateScheduler(LocalDate.now(), userRepository, DUE_SOON_DAYS);
+        // Ticks expire holds and release reservations, so they take the same lock as circulation writes
+        dueDateScheduler.setWriteLock(circulationLock.writeLock());
+        dueDateScheduler.attachObserver(event -> {
+            ReminderService reminders = reminderService.get();
+            if (reminders != null) {
+                reminders.getLoanSubject().notifyObservers(event);
+            }
+        });
+        loanRepository.setDueDateScheduler(dueDateScheduler);
+
+        // Hold pickups expire on the scheduler's daily tick; hold events use the same observers
+        this.holdRepository = new HoldRepository();
+        this.holdService = new HoldService(holdRepository, mediaRepository, userRepository);
+        holdService.setBorrowingRulesService(borrowingRulesService);
+        loanService.setHoldService(holdService);
+        holdService.attachObserver(event -> {
+            ReminderService reminders = reminderService.get();
+            if (reminders != null) {
+                reminders.getLoanSubject().notifyObservers(event);
+            }
+        });
+        dueDateScheduler.addDailyTask(holdService::advanceTo);
+
+        // Per-user views (active loans, unpaid balance, eligibility) maintained from repository changes
+        this.ledger = CirculationLedger.attach(userRepository, loanRepository, fineRepository);
+        this.aggregationService = new AggregationService(loanRepository, fineRepository, userRepository);
+        this.autocompleteService = AutocompleteService.attach(mediaRepository, loanRepository);
+
+        logger.info("LibraryContext initialized with shared repositories");
+    }
+
+    // Getters
+    public UserRepository getUserRepository() { return userRepository; }
+    public MediaRepository getMediaRepository() { return mediaRepository; }
+    public LoanRepository getLoanRepository() { return loanRepository; }
+    public FineRepository getFineRepository() { return fineRepository; }
+    public MediaService getMediaService() { return mediaService; }
+
+    /**
+     * Gets the lock that serializes circulation writes (HTTP requests, replica applies and
+     * scheduler ticks); readers take the read lock
+     * @return the lock
+     */
+    public ReentrantReadWriteLock getCirculationLock() { return circulationLock; }
+    public BookService getBookService() { return bookService; }
+    public FineService getFineService() { return fineService; }
+    public LoanService getLoanService() { return loanService; }
+    public UserManagementService getUserManagementService() { return userManagementService; }
+    public BorrowingRulesService getBorrowingRulesService() { return borrowingRulesService; }
+    public DueDateScheduler getDueDateScheduler() { return dueDateScheduler; }
+    public HoldRepository getHoldRepository() { return holdRepository; }
+    public HoldService getHoldService() { return holdService; }
+    public CirculationLedger getLedger() { return ledger; }
+    public AggregationService getAggregationService() { return aggregationService; }
+    public AutocompleteService getAutocompleteService() { return autocompleteService; }
+
+    /**
+     * Gets the email service, creating it on first use
+     * @return the email service, or null if email is not configured
+     */
+    public EmailService getEmailService() {
+        return emailService.get();
+    }
+
+    /**
+     * Gets the reminder service, creating it and its observers on first use
+     * @return the reminder service, or null if email is not configured
+     */
+    public ReminderService getReminderService() {
+        return reminderService.get();
+    }
+
+    /**
+     * Initializes the lazy components on a background virtual thread
+     * @return a future that completes when warm-up has finished
+     */
+    public CompletableFuture<Void> warmUpAsync() {
+        return CompletableFuture.runAsync(this::getReminderService,
+                command -> Thread.ofVirtual().name("library-warmup").start(command));
+    }
+
+    /**
+     * Reports the state of each component (READY, PENDING or UNAVAILABLE).
+     * Repositories and circulation services are ready once the constructor returns.
+     * @return component name to state
+     */
+    public Map<String, String> getReadiness() {
+        Map<String, String> readiness = new LinkedHashMap<>();
+        readiness.put("catalog", LazyComponent.READY);
+        readiness.put("circulation", LazyComponent.READY);
+        readiness.put(emailService.name, emailService.state);
+        readiness.put(reminderService.name, reminderService.state);
+        return readiness;
+    }
+
+    /**
+     * Memoizing holder that builds its value once, on first request.
+     * A failed or empty initialization is remembered and not retried.
+     */
+    private static final class LazyComponent<T> {
+        static final String PENDING = "PENDING";
+        static final String READY = "READY";
+        static final String UNAVAILABLE = "UNAVAILABLE";
+
+        private final String name;
+        private final Supplier<T> factory;
+        private volatile String state = PENDING;
+        private volatile T value;
+
+        LazyComponent(String name, Supplier<T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        T get() {
+            if (PENDING.equals(state)) {
+                synchronized (this) {
+                    if (PENDING.equals(state)) {
+                        initialize();
+                    }
+                }
+            }
+            return value;
+        }
+
+        private void initialize() {
+            try {
+                value = factory.get();
+            } catch (RuntimeException e) {
+                logger.warning("Component '" + name + "' is unavailable: " + e.getMessage());
+            }
+            state = value != null ? READY : UNAVAILABLE;
+            logger.info("Component '" + name + "' is " + state);
+        }
+    }
+}
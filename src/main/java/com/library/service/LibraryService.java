@@ -1,11 +1,11 @@
 package com.library.service;
 
+import com.library.ledger.UserView;
 import com.library.model.*;
-import com.library.repository.LoanRepository;
-import com.library.repository.MediaRepository;
 import com.library.repository.UserRepository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.logging.Logger;
 
@@ -23,6 +23,7 @@ public class LibraryService {
     private ReminderService reminderService;
     private UserManagementService userManagementService;
     private Scanner scanner;
+    private LibraryContext context;
     private static final Logger logger = Logger.getLogger(LibraryService.class.getName());
 
     // ✅ Constants for error messages - No duplication!
@@ -31,6 +32,10 @@ public class LibraryService {
     private static final String ERROR_EMPTY_ISBN = "❌ Error: ISBN cannot be empty.";
     private static final String ERROR_EMPTY_CATALOG = "❌ Error: Catalog number cannot be empty.";
     private static final String ERROR_EMPTY_LOAN_ID = "❌ Error: Loan ID cannot be empty.";
+    private static final String ERROR_EMAIL_UNAVAILABLE = "❌ Error: Email service is unavailable. Check the .env configuration.";
+
+    private static final int TOP_DELINQUENT_USERS = 5;
+    private static final int MAX_SUGGESTIONS = 5;
 
     // Constructors remain the same...
     public LibraryService() {
@@ -38,22 +43,20 @@ public class LibraryService {
     }
 
     LibraryService(AuthService authService, UserRepository userRepository, Scanner scanner) {
+        this(authService, new LibraryContext(userRepository), scanner);
+    }
+
+    LibraryService(AuthService authService, LibraryContext context, Scanner scanner) {
         this.authService = authService;
-        this.userRepository = userRepository;
+        this.context = context;
+        this.userRepository = context.getUserRepository();
         this.scanner = scanner;
 
-        MediaRepository sharedMediaRepository = new MediaRepository();
-        this.mediaService = new MediaService(sharedMediaRepository);
-        this.fineService = new FineService(userRepository);
-        this.loanService = new LoanService(fineService, userRepository, sharedMediaRepository);
-        this.fineService.setLoanService(loanService);
-
-        LoanRepository loanRepository = new LoanRepository(sharedMediaRepository);
-        this.userManagementService = new UserManagementService(userRepository, loanRepository,
-                fineService.getFineRepository());
-
-        EmailService emailService = new EmailService();
-        this.reminderService = new ReminderService(emailService, loanRepository, userRepository, true);
+        this.mediaService = context.getMediaService();
+        this.fineService = context.getFineService();
+        this.loanService = context.getLoanService();
+        this.userManagementService = context.getUserManagementService();
+        // reminderService is resolved on first use so that email setup stays off the startup path
 
         logger.info("LibraryService initialized successfully");
     }
@@ -183,10 +186,21 @@ public class LibraryService {
             return;
         }
 
-        // Generate and display the simple report
+        // Generate and display the simple report from the user's ledger view
         try {
-            String report = loanService.getSimpleMixedMediaReport(userId, LocalDate.now());
-            System.out.println(report);
+            LocalDate today = LocalDate.now();
+            User user = userRepository.findUserById(userId);
+            UserView view = context.getLedger().getView(userId);
+            if (user == null || view == null) {
+                System.out.println("❌ Error: User not found.");
+                return;
+            }
+            // Loans still out past their due date have no fine yet; assess them before reading the balance
+            if (view.hasOverdueLoans(today)) {
+                loanService.checkAndApplyOverdueFines(userId, today);
+                view = context.getLedger().getView(userId);
+            }
+            System.out.println(formatMixedMediaReport(user, view, today));
             logger.info("Mixed media report generated for user: " + userId);
         } catch (Exception e) {
             System.out.println("❌ Error generating report: " + e.getMessage());
@@ -194,6 +208,39 @@ public class LibraryService {
         }
     }
 
+    private static String formatMixedMediaReport(User user, UserView view, LocalDate today) {
+        StringBuilder report = new StringBuilder();
+        report.append("\n=== MIXED MEDIA OVERDUE REPORT ===");
+        report.append("\nUser: ").append(user.getName()).append(" (").append(user.getUserId()).append(")");
+        report.append("\nReport Date: ").append(today);
+        report.append("\n").append("-".repeat(60));
+
+        if (view.getUnpaidBalance() <= 0) {
+            report.append("\n✅ No unpaid fines found.");
+        } else {
+            Map<String, Double> byMediaType = view.getUnpaidByMediaType();
+            report.append("\n📊 UNPAID FINES BY MEDIA TYPE:");
+            report.append("\n").append("-".repeat(60));
+            if (byMediaType.containsKey("BOOK")) {
+                report.append(String.format("\n📚 BOOKS: $%.2f", byMediaType.get("BOOK")));
+            }
+            if (byMediaType.containsKey("CD")) {
+                report.append(String.format("\n💿 CDs: $%.2f", byMediaType.get("CD")));
+            }
+            if (byMediaType.containsKey(UserView.OTHER_MEDIA_TYPE)) {
+                report.append(String.format("\n📄 Other: $%.2f", byMediaType.get(UserView.OTHER_MEDIA_TYPE)));
+            }
+            report.append("\n").append("-".repeat(60));
+            report.append(String.format("\n💰 TOTAL UNPAID FINES: $%.2f", view.getUnpaidBalance()));
+        }
+        int overdueCount = view.getOverdueCount(today);
+        if (overdueCount > 0) {
+            report.append("\n⚠ Overdue items still on loan: ").append(overdueCount);
+        }
+        report.append("\n").append("-".repeat(60));
+        return report.toString();
+    }
+
     public void payFine() {
         System.out.println("\n=== PAY FINE ===");
         String userId = getStringInput("Enter User ID: ", false);
@@ -238,20 +285,23 @@ public class LibraryService {
             return;
         }
 
-        List<Loan> userLoans = loanService.getUserActiveLoans(userId);
+        // The user's ledger view holds the active loans and their due dates
+        UserView view = context.getLedger().getView(userId);
         System.out.println("\n" + "=".repeat(100));
         System.out.println("ACTIVE LOANS FOR USER: " + userId);
         System.out.println("=".repeat(100));
 
-        if (userLoans.isEmpty()) {
+        if (view == null || view.getActiveLoanCount() == 0) {
             System.out.println("No active loans found.");
             logger.info("No active loans found for user: " + userId);
         } else {
-            for (Loan loan : userLoans) {
-                System.out.println(loan);
-            }
+            LocalDate today = LocalDate.now();
+            view.getActiveLoanDueDates().entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .forEach(entry -> System.out.println(String.format("Loan ID: %-8s | Due: %s | Overdue: %s",
+                            entry.getKey(), entry.getValue(), entry.getValue().isBefore(today) ? "Yes" : "No")));
 
-            long overdueCount = userLoans.stream().filter(Loan::isOverdue).count();
+            int overdueCount = view.getOverdueCount(today);
             if (overdueCount > 0) {
                 System.out.println("\n⚠ User has " + overdueCount + " overdue item(s) that must be returned:");
                 System.out.println("1. Return all overdue items first");
@@ -313,7 +363,12 @@ public class LibraryService {
             case 2:
                 boolean confirmed = getConfirmation("Send reminders to ALL users with overdue items?", false);
                 if (confirmed) {
-                    reminderService.sendOverdueRemindersToAllUsers();
+                    ReminderService reminders = getReminderService();
+                    if (reminders == null) {
+                        System.out.println(ERROR_EMAIL_UNAVAILABLE);
+                        return;
+                    }
+                    reminders.sendOverdueRemindersToAllUsers();
                     System.out.println("Reminders sent to all users with overdue items.");
                     logger.info("Reminders sent to all users with overdue items");
                 } else {
@@ -340,7 +395,7 @@ public class LibraryService {
 
         List<Loan> userActiveLoans = loanService.getUserActiveLoans(userId);
         long overdueCount = userActiveLoans.stream()
-                .filter(Loan::isOverdue)
+                .filter(loan -> loan.isOverdueAsOf(LocalDate.now()))
                 .count();
 
         if (overdueCount == 0) {
@@ -352,7 +407,12 @@ public class LibraryService {
         System.out.println("User " + userId + " has " + overdueCount + " overdue item(s).");
 
         if (getConfirmation("Send reminder to user " + userId + "?", false)) {
-            reminderService.sendOverdueReminderToUser(userId, (int) overdueCount);
+            ReminderService reminders = getReminderService();
+            if (reminders == null) {
+                System.out.println(ERROR_EMAIL_UNAVAILABLE);
+                return;
+            }
+            reminders.sendOverdueReminderToUser(userId, (int) overdueCount);
             System.out.println("Reminder sent successfully!");
             logger.info("Reminder sent to user " + userId + " for " + overdueCount + " overdue items");
         } else {
@@ -777,6 +837,13 @@ public class LibraryService {
         if (results.isEmpty()) {
             System.out.println("No media found matching your search.");
             logger.info("No search results for query: " + query);
+            List<Media> suggestions = mediaService.fuzzySearchMedia(query, MAX_SUGGESTIONS);
+            if (!suggestions.isEmpty()) {
+                System.out.println("Did you mean:");
+                for (int i = 0; i < suggestions.size(); i++) {
+                    System.out.println((i + 1) + ". " + suggestions.get(i));
+                }
+            }
         } else {
             System.out.println("Found " + results.size() + " result(s):");
             for (int i = 0; i < results.size(); i++) {
@@ -870,7 +937,8 @@ public class LibraryService {
         }
 
         try {
-            List<Loan> overdueLoans = loanService.getOverdueLoans(LocalDate.now());
+            LocalDate today = LocalDate.now();
+            List<Loan> overdueLoans = loanService.getOverdueLoans(today);
             System.out.println("\n" + "=".repeat(120));
             System.out.println("OVERDUE ITEMS (ALL USERS)");
             System.out.println("=".repeat(120));
@@ -879,13 +947,21 @@ public class LibraryService {
                 System.out.println("No overdue items found.");
                 logger.info("No overdue items found");
             } else {
-                double totalFines = 0;
                 for (Loan loan : overdueLoans) {
                     System.out.println(loan);
-                    totalFines += loan.calculateFine(LocalDate.now());
                 }
+                AggregationService.AdminSummary summary = context.getAggregationService().summarize(today);
+                double totalFines = summary.getTotalOverdueFines();
                 System.out.println("-".repeat(120));
+                summary.getOverdueCountByMediaType().forEach((mediaType, count) ->
+                        System.out.println(String.format("%s: %d overdue, $%.2f", mediaType, count,
+                                summary.getOverdueFinesByMediaType().get(mediaType))));
                 System.out.println(String.format("TOTAL OVERDUE FINES: $%.2f", totalFines));
+                System.out.println(String.format("TOTAL OUTSTANDING FINES: $%.2f", summary.getTotalOutstandingFines()));
+                System.out.println("Top delinquent users:");
+                for (AggregationService.UserTotals totals : summary.getTopDelinquentUsers(TOP_DELINQUENT_USERS)) {
+                    System.out.println("  " + totals);
+                }
                 System.out.println("Found " + overdueLoans.size() + " overdue item(s)");
                 logger.info("Displayed " + overdueLoans.size() + " overdue items with total fines: $" + totalFines);
             }
@@ -902,8 +978,14 @@ public class LibraryService {
     public UserRepository getUserRepository() { return userRepository; }
     public LoanService getLoanService() { return loanService; }
     public FineService getFineService() { return fineService; }
-    public ReminderService getReminderService() { return reminderService; }
+    public ReminderService getReminderService() {
+        if (reminderService == null && context != null) {
+            reminderService = context.getReminderService();
+        }
+        return reminderService;
+    }
     public UserManagementService getUserManagementService() { return userManagementService; }
+    public LibraryContext getContext() { return context; }
     public Scanner getScanner() { return scanner; }
 
     // Package-private setters for testing
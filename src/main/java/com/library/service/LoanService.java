@@ -1,11 +1,18 @@
 package com.library.service;
 
 import com.library.model.*;
+import com.library.observer.LoanSubject;
+import com.library.observer.NotificationEvent;
+import com.library.observer.Observer;
 import com.library.repository.LoanRepository;
 import com.library.repository.MediaRepository;
 import com.library.repository.UserRepository;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for handling loan-related operations
@@ -17,13 +24,22 @@ public class LoanService {
     private MediaRepository mediaRepository;
     private UserRepository userRepository;
     private FineService fineService;
+    private LoanSubject notificationSubject; // Observer Pattern subject for loan events
+    private HoldService holdService; // optional hold queues (see LibraryContext)
 
     // Constructor with all dependencies
     public LoanService(FineService fineService, UserRepository userRepository, MediaRepository mediaRepository) {
+        this(fineService, userRepository, mediaRepository, new LoanRepository(mediaRepository));
+    }
+
+    // Constructor with a shared loan repository (see LibraryContext)
+    public LoanService(FineService fineService, UserRepository userRepository, MediaRepository mediaRepository,
+                       LoanRepository loanRepository) {
         this.mediaRepository = mediaRepository;
         this.userRepository = userRepository;
         this.fineService = fineService;
-        this.loanRepository = new LoanRepository(mediaRepository);
+        this.loanRepository = loanRepository;
+        this.notificationSubject = new LoanSubject(null);
     }
 
     /**
@@ -231,6 +247,7 @@ public class LoanService {
     private void updateExistingFine(Loan loan, Fine existingFine, double expectedFine) {
         if (existingFine.getAmount() != expectedFine) {
             existingFine.setAmount(expectedFine);
+            fineService.getFineRepository().updateFine(existingFine);
             System.out.println("⚠️ Updated fine for loan " + loan.getLoanId() +
                     " to $" + String.format("%.2f", expectedFine));
         }
@@ -240,7 +257,16 @@ public class LoanService {
      * Borrow a book
      */
     public Loan borrowBook(String userId, String bookIsbn, LocalDate borrowDate) {
-        return borrowMedia(userId, bookIsbn, "BOOK", borrowDate);
+        return borrowMedia(userId, resolveScannedIsbn(bookIsbn), "BOOK", borrowDate);
+    }
+
+    /**
+     * Resolves a scanned ISBN in another format (no hyphens, ISBN-10) to the catalog's identifier
+     * @return the catalog identifier, or the ISBN unchanged if it is one already or matches no book
+     */
+    private String resolveScannedIsbn(String bookIsbn) {
+        Book scanned = mediaRepository.findMediaById(bookIsbn) == null ? mediaRepository.findBookByIsbn(bookIsbn) : null;
+        return scanned != null ? scanned.getIdentifier() : bookIsbn;
     }
 
     /**
@@ -276,7 +302,8 @@ public class LoanService {
         }
 
         List<Loan> userActiveLoans = getUserActiveLoans(userId);
-        boolean hasOverdue = userActiveLoans.stream().anyMatch(Loan::isOverdue);
+        LocalDate today = LocalDate.now();
+        boolean hasOverdue = userActiveLoans.stream().anyMatch(loan -> loan.isOverdueAsOf(today));
 
         if (hasOverdue) {
             System.out.println("❌ Error: User cannot borrow. There are overdue items that need to be returned first.");
@@ -290,8 +317,16 @@ public class LoanService {
             return null;
         }
 
+        // A patron picking up a ready hold gets the item reserved for them
+        if (holdService != null) {
+            holdService.claimReadyHold(userId, mediaId);
+        }
+
         if (!media.isAvailable()) {
             System.out.println("Error: " + mediaType + " is already borrowed.");
+            if (holdService != null) {
+                System.out.println("Place a hold to be notified when it is returned.");
+            }
             return null;
         }
 
@@ -309,11 +344,240 @@ public class LoanService {
             String mediaDescription = mediaType.equals("BOOK") ? "Book" : "CD";
             System.out.println("✅ " + mediaDescription + " borrowed successfully. Due date: " + loan.getDueDate());
             System.out.println("Loan period: " + media.getLoanPeriodDays() + " days");
+            notificationSubject.notifyObservers(new NotificationEvent(
+                    user, "LOAN_CREATED", mediaDescription + " " + mediaId + " borrowed by " + userId + ".", loan));
         }
 
         return loan;
     }
 
+    /**
+     * Borrow several items for one user in a single checkout.
+     * The patron is validated once (user lookup, overdue fine scan, unpaid fines, overdue loans)
+     * and all accepted loans are written with one repository operation.
+     * @param userId the user ID
+     * @param items the items to borrow
+     * @param borrowDate the borrow date
+     * @param allOrNothing if true, no loan is created unless every item can be borrowed;
+     *                     if false, every valid item is borrowed and the rest are reported as failures
+     * @return the batch result with created loans and per-item failures
+     */
+    public BatchResult borrowBatch(String userId, List<BatchItem> items, LocalDate borrowDate, boolean allOrNothing) {
+        BatchResult result = new BatchResult();
+        if (items == null || items.isEmpty()) {
+            result.setMessage("❌ Error: No items to borrow.");
+            return result;
+        }
+
+        User user = userRepository.findUserById(userId);
+        String patronError = validatePatronForBatch(user, userId, borrowDate);
+        if (patronError != null) {
+            for (BatchItem item : items) {
+                result.addFailure(item.getMediaId(), patronError);
+            }
+            result.setMessage(patronError);
+            System.out.println(patronError);
+            return result;
+        }
+
+        Map<String, String> accepted = new LinkedHashMap<>();
+        for (BatchItem item : items) {
+            String mediaId = "BOOK".equals(item.getMediaType()) ? resolveScannedIsbn(item.getMediaId()) : item.getMediaId();
+            String failure = validateBatchItem(userId, mediaId, item.getMediaType(), accepted);
+            if (failure != null) {
+                result.addFailure(item.getMediaId(), failure);
+            } else {
+                accepted.put(mediaId, item.getMediaType());
+            }
+        }
+
+        if (accepted.isEmpty() || (allOrNothing && !result.getFailures().isEmpty())) {
+            result.setMessage("❌ Error: Checkout rejected. " + result.getFailures().size() + " item(s) cannot be borrowed.");
+            System.out.println(result.getMessage());
+            return result;
+        }
+
+        // Take a copy of every multi-copy title before anything is committed. Items on a ready
+        // hold already have one set aside for the patron, so only the others can come up short.
+        Map<String, String> reservedCopies = new HashMap<>();
+        List<String> readyHoldItems = new ArrayList<>();
+        for (String mediaId : new ArrayList<>(accepted.keySet())) {
+            if (holdService != null && holdService.hasReadyHold(userId, mediaId)) {
+                readyHoldItems.add(mediaId);
+            } else if (mediaRepository.hasHoldings(mediaId)) {
+                MediaCopy copy = mediaRepository.checkoutCopy(mediaId);
+                if (copy != null) {
+                    reservedCopies.put(mediaId, copy.getBarcode());
+                } else {
+                    // The last copy was taken by another desk after validation
+                    result.addFailure(mediaId, "No copy is available.");
+                    accepted.remove(mediaId);
+                }
+            }
+        }
+        if (accepted.isEmpty() || (allOrNothing && !result.getFailures().isEmpty())) {
+            reservedCopies.forEach(mediaRepository::returnCopy);
+            result.setMessage("❌ Error: Checkout rejected. " + result.getFailures().size() + " item(s) cannot be borrowed.");
+            System.out.println(result.getMessage());
+            return result;
+        }
+
+        // Items collected from ready holds go out on the copy reserved for the patron
+        for (String mediaId : readyHoldItems) {
+            Hold hold = holdService.takeReadyHold(userId, mediaId);
+            if (hold != null && hold.getCopyBarcode() != null) {
+                reservedCopies.put(mediaId, hold.getCopyBarcode());
+            }
+        }
+
+        List<Loan> loans = loanRepository.createLoans(userId, accepted, borrowDate, reservedCopies);
+        for (Loan loan : loans) {
+            user.addLoan(loan.getLoanId());
+        }
+        userRepository.updateUser(user);
+        result.getLoans().addAll(loans);
+
+        result.setMessage("✅ " + loans.size() + " item(s) borrowed successfully.");
+        System.out.println(result.getMessage());
+        notificationSubject.notifyObservers(new NotificationEvent(
+                user,
+                "LOANS_BORROWED",
+                String.format("%d item(s) borrowed by %s.", loans.size(), userId),
+                loans
+        ));
+        return result;
+    }
+
+    /**
+     * Validates the patron once for a batch checkout
+     * @return the error message, or null if the patron can borrow
+     */
+    private String validatePatronForBatch(User user, String userId, LocalDate borrowDate) {
+        if (user == null) {
+            return "❌ Error: User not found.";
+        }
+        if (!user.isActive()) {
+            return "❌ Error: User account is not active.";
+        }
+
+        checkAndApplyOverdueFines(userId, borrowDate);
+
+        double unpaidFines = fineService.getTotalUnpaidAmount(userId);
+        if (unpaidFines > 0) {
+            return "❌ Error: User cannot borrow. Unpaid fines: $" + unpaidFines;
+        }
+
+        LocalDate today = LocalDate.now();
+        boolean hasOverdue = getUserActiveLoans(userId).stream().anyMatch(loan -> loan.isOverdueAsOf(today));
+        if (hasOverdue) {
+            return "❌ Error: User cannot borrow. There are overdue items that need to be returned first.";
+        }
+        return null;
+    }
+
+    /**
+     * Validates a single item of a batch checkout
+     * @return the error message, or null if the item can be borrowed
+     */
+    private String validateBatchItem(String userId, String mediaId, String mediaType, Map<String, String> accepted) {
+        if (mediaId == null || mediaId.trim().isEmpty()) {
+            return "Media ID cannot be empty.";
+        }
+        if (accepted.containsKey(mediaId)) {
+            return "Duplicate item in checkout.";
+        }
+
+        Media media = mediaRepository.findMediaByIdAndType(mediaId, mediaType);
+        if (media == null) {
+            return mediaType + " not found with ID: " + mediaId;
+        }
+        // An item reserved for this patron's ready hold is released to them at checkout
+        boolean readyForPatron = holdService != null && holdService.hasReadyHold(userId, mediaId);
+        if (!media.isAvailable() && !readyForPatron) {
+            return mediaType + " is already borrowed.";
+        }
+        return null;
+    }
+
+    /**
+     * Return several loans in a single operation.
+     * Loans are looked up with one pass, returned with one repository operation,
+     * and each patron's record is updated once.
+     * @param loanIds the loan IDs to return
+     * @param returnDate the return date
+     * @return the batch result with returned loans and per-loan failures
+     */
+    public BatchResult returnBatch(List<String> loanIds, LocalDate returnDate) {
+        BatchResult result = new BatchResult();
+        if (loanIds == null || loanIds.isEmpty()) {
+            result.setMessage("❌ Error: No loans to return.");
+            return result;
+        }
+
+        Map<String, Loan> found = loanRepository.findLoansByIds(loanIds);
+        Map<String, Loan> toReturn = new LinkedHashMap<>();
+        for (String loanId : loanIds) {
+            Loan loan = found.get(loanId);
+            if (loan == null) {
+                result.addFailure(loanId, "Loan not found.");
+            } else if (loan.getReturnDate() != null || toReturn.containsKey(loanId)) {
+                result.addFailure(loanId, "Media already returned.");
+            } else {
+                toReturn.put(loanId, loan);
+            }
+        }
+
+        List<Loan> returned = loanRepository.returnLoans(toReturn.values(), returnDate);
+        result.getLoans().addAll(returned);
+        if (holdService != null) {
+            for (Loan loan : returned) {
+                holdService.onItemReturned(loan.getMediaId(), returnDate);
+            }
+        }
+
+        Map<String, List<Loan>> returnedByUser = new LinkedHashMap<>();
+        for (Loan loan : returned) {
+            returnedByUser.computeIfAbsent(loan.getUserId(), id -> new ArrayList<>()).add(loan);
+        }
+
+        for (Map.Entry<String, List<Loan>> entry : returnedByUser.entrySet()) {
+            completeBatchReturn(entry.getKey(), entry.getValue(), returnDate);
+        }
+
+        result.setMessage("✅ " + returned.size() + " item(s) returned successfully.");
+        System.out.println(result.getMessage());
+        return result;
+    }
+
+    /**
+     * Updates one patron after a batch return: loan list, overdue fines and one notification
+     */
+    private void completeBatchReturn(String userId, List<Loan> userLoans, LocalDate returnDate) {
+        User user = userRepository.findUserById(userId);
+        if (user != null) {
+            for (Loan loan : userLoans) {
+                user.removeLoan(loan.getLoanId());
+            }
+            userRepository.updateUser(user);
+        }
+
+        for (Loan loan : userLoans) {
+            if (returnDate.isAfter(loan.getDueDate())) {
+                long overdueDays = java.time.temporal.ChronoUnit.DAYS.between(loan.getDueDate(), returnDate);
+                String fineReason = "Overdue " + loan.getMediaType() + " (Loan: " + loan.getLoanId() + ") - "
+                        + overdueDays + " days overdue";
+                fineService.applyFine(userId, fineReason, loan.getLoanId());
+            }
+        }
+
+        notificationSubject.notifyObservers(new NotificationEvent(
+                user,
+                "LOANS_RETURNED",
+                String.format("%d item(s) returned by %s.", userLoans.size(), userId),
+                userLoans
+        ));
+    }
+
     /**
      * Return media
      */
@@ -338,6 +602,8 @@ public class LoanService {
             }
 
             System.out.println("✅ Media returned successfully!");
+            notificationSubject.notifyObservers(new NotificationEvent(
+                    user, "LOAN_RETURNED", "Loan " + loanId + " returned.", loan));
 
             if (returnDate.isAfter(loan.getDueDate())) {
                 long overdueDays = java.time.temporal.ChronoUnit.DAYS.between(loan.getDueDate(), returnDate);
@@ -351,6 +617,10 @@ public class LoanService {
                     System.out.println("Fine amount: $" + String.format("%.2f", fineAmount));
                 }
             }
+
+            if (holdService != null) {
+                holdService.onItemReturned(loan.getMediaId(), returnDate);
+            }
         }
 
         return returnSuccess;
@@ -368,16 +638,9 @@ public class LoanService {
      * Gets all active loans for a user
      */
     public List<Loan> getUserActiveLoans(String userId) {
-        List<Loan> userLoans = loanRepository.findLoansByUser(userId).stream()
+        return loanRepository.findLoansByUser(userId).stream()
                 .filter(loan -> loan.getReturnDate() == null)
                 .toList();
-
-        LocalDate currentDate = LocalDate.now();
-        for (Loan loan : userLoans) {
-            loan.checkOverdue(currentDate);
-        }
-
-        return userLoans;
     }
 
     /**
@@ -385,16 +648,106 @@ public class LoanService {
      */
     public boolean hasOverdueBooks(String userId) {
         List<Loan> activeLoans = getUserActiveLoans(userId);
-        return activeLoans.stream().anyMatch(Loan::isOverdue);
+        LocalDate today = LocalDate.now();
+        return activeLoans.stream().anyMatch(loan -> loan.isOverdueAsOf(today));
     }
 
     public List<Loan> getOverdueLoans(LocalDate currentDate) {
         return loanRepository.getOverdueLoans(currentDate);
     }
 
+    /**
+     * Attach an observer for loan events
+     * @param observer the observer to attach
+     */
+    public void attachObserver(Observer observer) {
+        if (observer == null) {
+            System.out.println("❌ Error: Observer cannot be null.");
+            return;
+        }
+
+        notificationSubject.attach(observer);
+    }
+
+    /**
+     * Detach an observer from loan events
+     * @param observer the observer to detach
+     */
+    public void detachObserver(Observer observer) {
+        notificationSubject.detach(observer);
+    }
+
+    /**
+     * Item requested in a batch checkout
+     */
+    public static class BatchItem {
+        private final String mediaId;
+        private final String mediaType;
+
+        public BatchItem(String mediaId, String mediaType) {
+            this.mediaId = mediaId;
+            this.mediaType = mediaType != null ? mediaType.toUpperCase() : "BOOK";
+        }
+
+        public String getMediaId() { return mediaId; }
+        public String getMediaType() { return mediaType; }
+    }
+
+    /**
+     * Result of a batch checkout or batch return
+     */
+    public static class BatchResult {
+        private final List<Loan> loans;
+        private final Map<String, String> failures;
+        private String message;
+
+        public BatchResult() {
+            this.loans = new ArrayList<>();
+            this.failures = new LinkedHashMap<>();
+            this.message = "";
+        }
+
+        public void addFailure(String id, String reason) {
+            failures.put(id, reason);
+        }
+
+        public List<Loan> getLoans() { return loans; }
+        public Map<String, String> getFailures() { return failures; }
+        public boolean isSuccess() { return !loans.isEmpty() && failures.isEmpty(); }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        @Override
+        public String toString() {
+            return String.format("Loans: %d | Failures: %d | Message: %s", loans.size(), failures.size(), message);
+        }
+    }
+
     // Getters
     public LoanRepository getLoanRepository() { return loanRepository; }
     public UserRepository getUserRepository() { return userRepository; }
     public FineService getFineService() { return fineService; }
     public MediaRepository getMediaRepository() { return mediaRepository; }
+    public LoanSubject getNotificationSubject() { return notificationSubject; } // Observer Pattern subject
+    public HoldService getHoldService() { return holdService; }
+
+    /**
+     * Enables hold queues: returned items go to waiting patrons, who can then pick them up.
+     * A hold service without borrowing rules gets rules over this service's loans and fines,
+     * so waiting patrons are judged as at checkout. Those rules do not cache eligibility, since
+     * user events are not visible here; loan and fine events still reach their invalidator.
+     * @param holdService the hold service
+     */
+    public void setHoldService(HoldService holdService) {
+        this.holdService = holdService;
+        if (holdService != null && holdService.getBorrowingRulesService() == null) {
+            BorrowingRulesService rules = new BorrowingRulesService(loanRepository,
+                    fineService.getFineRepository(), userRepository);
+            rules.setCacheEnabled(false);
+            attachObserver(rules.getCacheInvalidator());
+            fineService.attachObserver(rules.getCacheInvalidator());
+            holdService.setBorrowingRulesService(rules);
+        }
+    }
 }
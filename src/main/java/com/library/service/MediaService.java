@@ -3,8 +3,15 @@ package com.library.service;
 import com.library.model.Book;
 import com.library.model.CD;
 import com.library.model.Media;
+import com.library.model.MediaCopy;
+import com.library.repository.CatalogSnapshot;
 import com.library.repository.MediaRepository;
+import com.library.repository.Page;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.Locale;
 
 /**
  * Service for handling media-related operations
@@ -12,13 +19,25 @@ import java.util.List;
  * @version 1.0
  */
 public class MediaService {
+    private static final int DISPLAY_PAGE_SIZE = 100;
     private MediaRepository mediaRepository;
+    private final SearchResultCache searchCache;
 
     /**
      * Constructor that initializes the media repository
      */
     public MediaService(MediaRepository mediaRepository) {
+        this(mediaRepository, new SearchResultCache());
+    }
+
+    /**
+     * Constructor with a custom search result cache
+     * @param mediaRepository the media repository
+     * @param searchCache the cache for search results
+     */
+    public MediaService(MediaRepository mediaRepository, SearchResultCache searchCache) {
         this.mediaRepository = mediaRepository;
+        this.searchCache = searchCache;
     }
 
     public MediaService() {
@@ -55,10 +74,92 @@ public class MediaService {
     }
 
     /**
-     * Searches for media by query
+     * Registers additional physical copies of a title (admin only)
+     */
+    public List<MediaCopy> addCopies(String mediaId, int count, AuthService authService) {
+        if (!authService.isLoggedIn()) {
+            System.out.println("Error: Admin login required to add copies.");
+            return List.of();
+        }
+
+        List<MediaCopy> added = mediaRepository.addCopies(mediaId, count);
+        if (!added.isEmpty()) {
+            System.out.println(added.size() + " copies added to " + mediaId + ".");
+        }
+        return added;
+    }
+
+    /**
+     * Bulk-imports books and CDs from a CSV or JSONL file (admin only).
+     * The login check is made once for the whole file.
+     * @param file the catalog file (.csv, .jsonl or .ndjson)
+     * @param authService the authentication service
+     * @return the import result, or null if not logged in or the file could not be read
+     */
+    public CatalogImportService.ImportResult importCatalog(Path file, AuthService authService) {
+        if (!authService.isLoggedIn()) {
+            System.out.println("Error: Admin login required to import media.");
+            return null;
+        }
+
+        try {
+            CatalogImportService.ImportResult result = new CatalogImportService(mediaRepository)
+                    .importFile(file, progress -> System.out.println("Importing... " + progress));
+            System.out.println("Import complete: " + result);
+            return result;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error: Could not import " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Searches for media by query. Results are served from the search cache when the
+     * catalog has not grown since they were computed.
      */
     public List<Media> searchMedia(String query) {
-        return mediaRepository.searchMedia(query);
+        String key = query.toLowerCase(Locale.ROOT);
+        CatalogSnapshot snapshot = mediaRepository.getSnapshot();
+        List<Media> results = searchCache.get(key, snapshot.size());
+        if (results == null) {
+            results = snapshot.search(key);
+            searchCache.put(key, snapshot.size(), results);
+        }
+        return results;
+    }
+
+    /**
+     * Searches for media by query, optionally only among available items.
+     * Availability is checked on every call, so cached results never list a checked-out item.
+     */
+    public List<Media> searchMedia(String query, boolean availableOnly) {
+        List<Media> results = searchMedia(query);
+        return availableOnly ? results.stream().filter(Media::isAvailable).toList() : results;
+    }
+
+    /**
+     * Finds the best matches for a possibly misspelled title or author
+     * @param query the search query
+     * @param limit the maximum number of results
+     * @return matching media, best match first
+     */
+    public List<Media> fuzzySearchMedia(String query, int limit) {
+        return mediaRepository.fuzzySearch(query, limit);
+    }
+
+    /**
+     * Gets the search cache metrics (hits, misses, evictions and hit ratio)
+     * @return the statistics
+     */
+    public SearchResultCache.CacheStats getSearchCacheStats() {
+        return searchCache.getStats();
+    }
+
+    /**
+     * Gets all media that are currently available
+     */
+    public List<Media> getAvailableMedia() {
+        return mediaRepository.getAvailableMedia();
     }
 
     /**
@@ -82,6 +183,35 @@ public class MediaService {
         return mediaRepository.getAllCDs();
     }
 
+    /**
+     * Gets the media matching a combination of facets
+     * @param mediaType "BOOK", "CD", or null for any type
+     * @param genre the CD genre, or null for any genre
+     * @param availableOnly true to return only available media
+     * @return list of matching media
+     */
+    public List<Media> browseMedia(String mediaType, String genre, boolean availableOnly) {
+        return mediaRepository.browse(mediaType, genre, availableOnly);
+    }
+
+    /**
+     * Counts the media matching a combination of facets
+     * @param mediaType "BOOK", "CD", or null for any type
+     * @param genre the CD genre, or null for any genre
+     * @param availableOnly true to count only available media
+     * @return the number of matching media
+     */
+    public int countMedia(String mediaType, String genre, boolean availableOnly) {
+        return mediaRepository.countMatching(mediaType, genre, availableOnly);
+    }
+
+    /**
+     * Counts the CDs of every genre, largest first
+     */
+    public Map<String, Integer> getGenreCounts(boolean availableOnly) {
+        return mediaRepository.getGenreCounts(availableOnly);
+    }
+
     /**
      * Finds media by identifier
      */
@@ -89,6 +219,13 @@ public class MediaService {
         return mediaRepository.findMediaById(identifier);
     }
 
+    /**
+     * Finds a book by ISBN in any format (ISBN-10 or ISBN-13, with or without hyphens)
+     */
+    public Book findBookByIsbn(String isbn) {
+        return mediaRepository.findBookByIsbn(isbn);
+    }
+
     public MediaRepository getMediaRepository() {
         return mediaRepository;
     }
@@ -97,21 +234,47 @@ public class MediaService {
      * Displays all media
      */
     public void displayAllMedia() {
-        List<Media> media = getAllMedia();
         System.out.println("\n" + "=".repeat(120));
         System.out.println("LIBRARY MEDIA COLLECTION");
         System.out.println("=".repeat(120));
 
-        if (media.isEmpty()) {
-            System.out.println("No media available in the library.");
-        } else {
-            for (int i = 0; i < media.size(); i++) {
-                System.out.println((i + 1) + ". " + media.get(i));
+        // Walk the catalog page by page so large collections are never copied in full
+        int count = 0;
+        String cursor = null;
+        do {
+            Page<Media> page = mediaRepository.getMediaAfter(cursor, DISPLAY_PAGE_SIZE);
+            for (Media media : page.getItems()) {
+                System.out.println((++count) + ". " + media);
             }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        if (count == 0) {
+            System.out.println("No media available in the library.");
         }
         System.out.println("=".repeat(120));
     }
 
+    /**
+     * Gets one page of media in catalog order
+     * @param offset the index of the first item
+     * @param limit the maximum number of items
+     * @return the page
+     */
+    public Page<Media> getMediaPage(int offset, int limit) {
+        return mediaRepository.getMediaPage(offset, limit);
+    }
+
+    /**
+     * Gets the page of media that follows a continuation cursor
+     * @param cursor the cursor from the previous page, or null for the first page
+     * @param limit the maximum number of items
+     * @return the page
+     */
+    public Page<Media> getMediaAfter(String cursor, int limit) {
+        return mediaRepository.getMediaAfter(cursor, limit);
+    }
+
     /**
      * Displays all books
      */
@@ -137,4 +137,12 @@ public class ReminderService {
 
         loanSubject.notifyObservers(event);
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the subject that delivers reminders to the email, console and file observers
+     * @return the reminder subject
+     */
+    public LoanSubject getLoanSubject() {
+        return loanSubject;
+    }
+}
@@ -0,0 +1,200 @@
+package com.library.service;
+
+import com.library.model.Media;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of catalog search results, keyed by the lowercased query.
+ *
+ * Entries are evicted least-recently-used first once the estimated size of the cached results
+ * exceeds the byte budget or the entry limit, and expire after a time to live. Each entry records
+ * the catalog size it was computed against; the catalog is append-only, so an entry computed
+ * before media was added is stale and is recomputed on its next lookup. Entries hold every match
+ * regardless of availability, and "available only" results are filtered from them on each read,
+ * so checkouts and returns never make a cached result wrong.
+ *
+ * Lookups and updates take the cache lock only briefly; searches run outside it.
+ * @author Library Team
+ * @version 1.0
+ */
+public class SearchResultCache {
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // Rough per-entry overhead (map node, entry object, list header) and per-result reference cost
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final int BYTES_PER_RESULT = 8;
+
+    private final long maxBytes;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a cache with the default limits
+     */
+    public SearchResultCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache with custom limits
+     * @param maxBytes the budget for the estimated size of all entries (must be positive)
+     * @param maxEntries the maximum number of entries (must be positive)
+     * @param ttlMillis how long an entry stays valid (must be positive)
+     * @param clock the nanosecond clock used for expiry
+     */
+    public SearchResultCache(long maxBytes, int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxBytes <= 0 || maxEntries <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the cached results for a query
+     * @param query the lowercased query
+     * @param catalogSize the current catalog size
+     * @return the results, or null if not cached, expired or computed against a smaller catalog
+     */
+    public List<Media> get(String query, int catalogSize) {
+        synchronized (this) {
+            Entry entry = entries.get(query);
+            if (entry != null) {
+                if (entry.catalogSize == catalogSize && clock.getAsLong() - entry.createdNanos < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.results;
+                }
+                remove(query, entry);
+                invalidations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the results for a query, evicting least recently used entries to stay within limits
+     * @param query the lowercased query
+     * @param catalogSize the catalog size the results were computed against
+     * @param results the results
+     */
+    public synchronized void put(String query, int catalogSize, List<Media> results) {
+        Entry entry = new Entry(results, catalogSize, clock.getAsLong(),
+                ENTRY_OVERHEAD_BYTES + 2L * query.length() + (long) BYTES_PER_RESULT * results.size());
+        if (entry.bytes > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(query, entry);
+        if (previous != null) {
+            currentBytes -= previous.bytes;
+        }
+        currentBytes += entry.bytes;
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((currentBytes > maxBytes || entries.size() > maxEntries) && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String query, Entry entry) {
+        entries.remove(query);
+        currentBytes -= entry.bytes;
+    }
+
+    /**
+     * Drops every entry
+     */
+    public synchronized void clear() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * Gets a snapshot of the cache metrics
+     * @return the statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), invalidations.get(),
+                entries.size(), currentBytes);
+    }
+
+    private static final class Entry {
+        private final List<Media> results;
+        private final int catalogSize;
+        private final long createdNanos;
+        private final long bytes;
+
+        Entry(List<Media> results, int catalogSize, long createdNanos, long bytes) {
+            this.results = results;
+            this.catalogSize = catalogSize;
+            this.createdNanos = createdNanos;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Cache metrics at one point in time
+     */
+    public static final class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int entryCount;
+        private final long estimatedBytes;
+
+        public CacheStats(long hits, long misses, long evictions, long invalidations, int entryCount,
+                          long estimatedBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entryCount = entryCount;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public int getEntryCount() { return entryCount; }
+        public long getEstimatedBytes() { return estimatedBytes; }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        public double getMissRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) misses / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats[hits=%d misses=%d hitRatio=%.2f evictions=%d invalidations=%d entries=%d bytes=%d]",
+                    hits, misses, getHitRatio(), evictions, invalidations, entryCount, estimatedBytes);
+        }
+    }
+}
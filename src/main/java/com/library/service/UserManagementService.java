@@ -1,6 +1,9 @@
 package com.library.service;
 
 import com.library.model.User;
+import com.library.observer.LoanSubject;
+import com.library.observer.NotificationEvent;
+import com.library.observer.Observer;
 import com.library.repository.FineRepository;
 import com.library.repository.LoanRepository;
 import com.library.repository.UserRepository;
@@ -16,6 +19,7 @@ public class UserManagementService {
     private UserRepository userRepository;
     private LoanRepository loanRepository;
     private FineRepository fineRepository;
+    private LoanSubject notificationSubject = new LoanSubject(null); // Observer Pattern subject for account events
     private static final Logger logger = Logger.getLogger(UserManagementService.class.getName());
 
     public UserManagementService(UserRepository userRepository, LoanRepository loanRepository,
@@ -31,6 +35,32 @@ public class UserManagementService {
         this.fineRepository = new FineRepository();
     }
 
+    /**
+     * Registers a new user (admin only)
+     * @param user the user to register
+     * @param authService authentication service to verify admin access
+     * @return true if successful, false otherwise
+     */
+    public boolean registerUser(User user, AuthService authService) {
+        if (!authService.isLoggedIn()) {
+            System.out.println("❌ Error: Admin login required to register users.");
+            logger.warning("Attempt to register user without admin access");
+            return false;
+        }
+        if (user == null || user.getUserId() == null || user.getUserId().isBlank()) {
+            System.out.println("❌ Error: A user ID is required.");
+            return false;
+        }
+        if (!userRepository.addUser(user)) {
+            System.out.println("❌ Error: User " + user.getUserId() + " already exists.");
+            logger.warning("Attempt to register existing user: " + user.getUserId());
+            return false;
+        }
+        System.out.println("✅ User " + user.getUserId() + " (" + user.getName() + ") has been registered.");
+        logger.info("User " + user.getUserId() + " successfully registered.");
+        return true;
+    }
+
     /**
      * Unregisters a user (admin only)
      * @param userId the user ID to unregister
@@ -101,6 +131,8 @@ public class UserManagementService {
             result.setMessage("✅ User " + userId + " (" + user.getName() +
                     ") has been successfully unregistered.");
             logger.info("User " + userId + " successfully unregistered.");
+            notificationSubject.notifyObservers(new NotificationEvent(
+                    user, "USER_DEACTIVATED", "User " + userId + " has been unregistered."));
         } else {
             result.setSuccess(false);
             result.setMessage("❌ Error: Failed to update user record.");
@@ -115,7 +147,7 @@ public class UserManagementService {
      * @return list of active users
      */
     public List<User> getActiveUsers() {
-        List<User> activeUsers = userRepository.getAllUsers().stream()
+        List<User> activeUsers = userRepository.getUsersView().stream()
                 .filter(User::isActive)
                 .toList();
         logger.info("Retrieved " + activeUsers.size() + " active users");
@@ -127,7 +159,7 @@ public class UserManagementService {
      * @return list of inactive users
      */
     public List<User> getInactiveUsers() {
-        List<User> inactiveUsers = userRepository.getAllUsers().stream()
+        List<User> inactiveUsers = userRepository.getUsersView().stream()
                 .filter(user -> !user.isActive())
                 .toList();
         logger.info("Retrieved " + inactiveUsers.size() + " inactive users");
@@ -187,6 +219,8 @@ public class UserManagementService {
             System.out.println("✅ User " + userId + " (" + user.getName() +
                     ") has been reactivated.");
             logger.info("User " + userId + " successfully reactivated.");
+            notificationSubject.notifyObservers(new NotificationEvent(
+                    user, "USER_REACTIVATED", "User " + userId + " has been reactivated."));
 
             if (unpaidFines > 0) {
                 System.out.println("⚠️ Note: User still has unpaid fines of $" +
@@ -313,6 +347,26 @@ public class UserManagementService {
     }
 
     // Getters for testing
+    /**
+     * Attach observer for account events (USER_DEACTIVATED, USER_REACTIVATED)
+     * @param observer the observer to attach
+     */
+    public void attachObserver(Observer observer) {
+        if (observer == null) {
+            System.out.println("❌ Error: Cannot attach null observer.");
+            return;
+        }
+        notificationSubject.attach(observer);
+    }
+
+    /**
+     * Detach observer from account events
+     * @param observer the observer to detach
+     */
+    public void detachObserver(Observer observer) {
+        notificationSubject.detach(observer);
+    }
+
     public UserRepository getUserRepository() { return userRepository; }
     public LoanRepository getLoanRepository() { return loanRepository; }
     public FineRepository getFineRepository() { return fineRepository; }
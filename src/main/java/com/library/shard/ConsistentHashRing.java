@@ -0,0 +1,130 @@
+package com.library.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring that maps keys (user IDs) to nodes (shards).
+ *
+ * Every node is placed on the ring at a number of virtual positions, so keys spread evenly and
+ * adding or removing a node only moves the keys between that node and its neighbours. The ring is
+ * copied on write and published through a volatile field: lookups take no lock.
+ * @author Library Team
+ * @version 1.0
+ * @param <N> the node type
+ */
+public class ConsistentHashRing<N> {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+    private final Map<String, N> nodes = new LinkedHashMap<>();
+    private volatile NavigableMap<Long, N> ring = new TreeMap<>();
+
+    /**
+     * Creates an empty ring
+     * @param virtualNodes positions per node on the ring
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    public ConsistentHashRing() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Adds a node to the ring
+     * @param name the unique node name; its positions are derived from it
+     * @param node the node
+     */
+    public synchronized void addNode(String name, N node) {
+        if (name == null || node == null) {
+            throw new IllegalArgumentException("Node name and node are required");
+        }
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate node: " + name);
+        }
+        NavigableMap<Long, N> next = new TreeMap<>(ring);
+        for (int i = 0; i < virtualNodes; i++) {
+            next.putIfAbsent(hash(name + "#" + i), node);
+        }
+        nodes.put(name, node);
+        ring = next;
+    }
+
+    /**
+     * Removes a node; its keys move to the next nodes on the ring
+     * @param name the node name
+     * @return true if the node was on the ring
+     */
+    public synchronized boolean removeNode(String name) {
+        N node = nodes.remove(name);
+        if (node == null) {
+            return false;
+        }
+        NavigableMap<Long, N> next = new TreeMap<>(ring);
+        for (int i = 0; i < virtualNodes; i++) {
+            next.remove(hash(name + "#" + i), node);
+        }
+        ring = next;
+        return true;
+    }
+
+    /**
+     * Finds the node that owns a key
+     * @param key the key
+     * @return the owning node
+     * @throws IllegalStateException if the ring is empty
+     */
+    public N nodeFor(String key) {
+        NavigableMap<Long, N> current = ring;
+        if (current.isEmpty()) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        Map.Entry<Long, N> entry = current.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : current.firstEntry().getValue();
+    }
+
+    /**
+     * Gets the nodes in the order they were added
+     * @return the nodes
+     */
+    public synchronized List<N> getNodes() {
+        return Collections.unmodifiableList(new ArrayList<>(nodes.values()));
+    }
+
+    /**
+     * Gets the number of nodes
+     * @return the node count
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so that
+     * similar keys (U001, U002, ...) land far apart on the ring
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,155 @@
+package com.library.shard;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.repository.FineRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import com.library.service.AuthService;
+import com.library.service.FineService;
+import com.library.service.LoanService;
+import com.library.service.UserManagementService;
+import com.library.service.UserManagementService.UnregistrationResult;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * In-process shard backed by its own user, loan and fine repositories, holding only the users
+ * the ring assigns to it.
+ * The services keep their state in plain lists, so calls on one shard are serialized;
+ * different shards run in parallel.
+ * @author Library Team
+ * @version 1.0
+ */
+public class LocalShard implements UserShard {
+    private final String shardId;
+    private final LoanService loanService;
+    private final FineService fineService;
+    private final UserManagementService userManagementService;
+
+    /**
+     * Creates a shard over existing services
+     * @param shardId the shard name
+     * @param loanService the shard's loan service (its fine service is used for fines)
+     */
+    public LocalShard(String shardId, LoanService loanService) {
+        this.shardId = shardId;
+        this.loanService = loanService;
+        this.fineService = loanService.getFineService();
+        this.userManagementService = new UserManagementService(loanService.getUserRepository(),
+                loanService.getLoanRepository(), fineService.getFineRepository());
+    }
+
+    /**
+     * Creates one shard per ID over a shared catalog, each seeded with only the sample users
+     * (and their loans and fines) that a ring of these IDs assigns to it.
+     * Route them through a {@link ShardedLibrary} with the same number of virtual nodes.
+     * @param shardIds the shard names
+     * @param catalog the shared media repository
+     * @param virtualNodes ring positions per shard
+     * @return the shards, in the given order
+     */
+    public static List<LocalShard> createAll(List<String> shardIds, MediaRepository catalog, int virtualNodes) {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(virtualNodes);
+        for (String shardId : shardIds) {
+            ring.addNode(shardId, shardId);
+        }
+        List<LocalShard> shards = new ArrayList<>(shardIds.size());
+        for (String shardId : shardIds) {
+            shards.add(create(shardId, catalog, userId -> shardId.equals(ring.nodeFor(userId))));
+        }
+        return shards;
+    }
+
+    public static List<LocalShard> createAll(List<String> shardIds, MediaRepository catalog) {
+        return createAll(shardIds, catalog, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a shard with fresh repositories over a shared catalog, keeping only the sample
+     * users, loans and fines of the users it owns.
+     * The catalog is not user-owned, so all in-process shards see the same availability.
+     * @param shardId the shard name
+     * @param catalog the shared media repository
+     * @param ownsUser tells whether a user ID belongs to this shard
+     * @return the shard
+     */
+    public static LocalShard create(String shardId, MediaRepository catalog, Predicate<String> ownsUser) {
+        UserRepository userRepository = new UserRepository();
+        FineRepository fineRepository = new FineRepository();
+        LoanRepository loanRepository = new LoanRepository(catalog);
+        userRepository.retainUsers(ownsUser);
+        fineRepository.retainUsers(ownsUser);
+        loanRepository.retainUsers(ownsUser);
+
+        FineService fineService = new FineService(userRepository, fineRepository);
+        LoanService loanService = new LoanService(fineService, userRepository, catalog, loanRepository);
+        fineService.setLoanService(loanService);
+        return new LocalShard(shardId, loanService);
+    }
+
+    @Override
+    public String getShardId() {
+        return shardId;
+    }
+
+    @Override
+    public synchronized boolean registerUser(User user, AuthService authService) {
+        return userManagementService.registerUser(user, authService);
+    }
+
+    @Override
+    public synchronized UnregistrationResult unregisterUser(String userId, AuthService authService) {
+        return userManagementService.unregisterUser(userId, authService);
+    }
+
+    @Override
+    public synchronized boolean reactivateUser(String userId, AuthService authService) {
+        return userManagementService.reactivateUser(userId, authService);
+    }
+
+    @Override
+    public synchronized Loan borrow(String userId, String mediaId, String mediaType, LocalDate borrowDate) {
+        return "CD".equalsIgnoreCase(mediaType)
+                ? loanService.borrowCD(userId, mediaId, borrowDate)
+                : loanService.borrowBook(userId, mediaId, borrowDate);
+    }
+
+    @Override
+    public synchronized boolean returnLoan(String loanId, LocalDate returnDate) {
+        return loanService.returnBook(loanId, returnDate);
+    }
+
+    @Override
+    public synchronized List<Loan> getActiveLoans(String userId) {
+        return List.copyOf(loanService.getUserActiveLoans(userId));
+    }
+
+    @Override
+    public synchronized List<Fine> getUnpaidFines(String userId) {
+        return List.copyOf(fineService.getUserUnpaidFines(userId));
+    }
+
+    @Override
+    public synchronized boolean payFine(String fineId, double amount) {
+        return fineService.payFine(fineId, amount);
+    }
+
+    @Override
+    public synchronized List<Loan> getOverdueLoans(LocalDate currentDate) {
+        return List.copyOf(loanService.getOverdueLoans(currentDate));
+    }
+
+    public LoanService getLoanService() { return loanService; }
+    public FineService getFineService() { return fineService; }
+    public UserManagementService getUserManagementService() { return userManagementService; }
+
+    @Override
+    public String toString() {
+        return "LocalShard{" + shardId + "}";
+    }
+}
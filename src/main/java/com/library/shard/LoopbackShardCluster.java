@@ -0,0 +1,134 @@
+package com.library.shard;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local multi-process cluster: starts every shard as its own JVM running the HTTP API
+ * ({@code Main --http 0}) on a free loopback port, and connects a {@link RemoteShard} to each.
+ *
+ * Each process has its own catalog, so availability is only coordinated within a process; the
+ * cluster is meant for testing routing and scatter-gather across real process boundaries.
+ * @author Library Team
+ * @version 1.0
+ */
+public class LoopbackShardCluster implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(LoopbackShardCluster.class.getName());
+    private static final Pattern READY_LINE = Pattern.compile("Library HTTP API running on port (\\d+)");
+    private static final String LOOPBACK = "127.0.0.1";
+
+    private final List<Process> processes = new ArrayList<>();
+    private final List<RemoteShard> shards = new ArrayList<>();
+
+    private LoopbackShardCluster() {
+    }
+
+    /**
+     * Starts a cluster using the current JVM and class path
+     * @param shardCount number of shard processes
+     * @param startupTimeout how long to wait for each shard to report its port
+     * @return the running cluster
+     * @throws IOException if a shard process cannot be started or does not come up in time
+     */
+    public static LoopbackShardCluster start(int shardCount, Duration startupTimeout) throws IOException {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+
+        LoopbackShardCluster cluster = new LoopbackShardCluster();
+        try {
+            List<CompletableFuture<Integer>> ports = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                Process process = new ProcessBuilder(java, "-cp", classPath, "com.library.Main", "--http", "0")
+                        .redirectErrorStream(true)
+                        .start();
+                cluster.processes.add(process);
+                ports.add(watchForPort(process, "shard-" + i));
+            }
+            for (int i = 0; i < shardCount; i++) {
+                int port = ports.get(i).get(startupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                cluster.shards.add(new RemoteShard("shard-" + i, LOOPBACK, port));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cluster.close();
+            throw new IOException("Interrupted while starting shards", e);
+        } catch (ExecutionException | TimeoutException e) {
+            cluster.close();
+            throw new IOException("Shard process did not start: " + e.getMessage(), e);
+        }
+        logger.info("Started " + shardCount + " loopback shards");
+        return cluster;
+    }
+
+    /**
+     * Reads a shard's console output until it reports its port, then keeps draining it
+     * so the process never blocks on a full pipe
+     */
+    private static CompletableFuture<Integer> watchForPort(Process process, String name) {
+        CompletableFuture<Integer> port = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    Matcher matcher = READY_LINE.matcher(line);
+                    if (!port.isDone() && matcher.find()) {
+                        port.complete(Integer.parseInt(matcher.group(1)));
+                    }
+                }
+            } catch (IOException e) {
+                port.completeExceptionally(e);
+            }
+            port.completeExceptionally(new IOException(name + " exited before reporting its port"));
+        }, name + "-output");
+        reader.setDaemon(true);
+        reader.start();
+        return port;
+    }
+
+    /**
+     * Gets clients for the running shards
+     * @return the shards, in start order
+     */
+    public List<RemoteShard> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    /**
+     * Stops every shard process
+     */
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+        processes.clear();
+    }
+}
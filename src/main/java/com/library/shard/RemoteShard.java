@@ -0,0 +1,205 @@
+package com.library.shard;
+
+import com.library.api.Json;
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.service.AuthService;
+import com.library.service.UserManagementService.UnregistrationResult;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shard running in another process, reached through its HTTP API.
+ *
+ * The remote API stamps borrows, returns and reports with the server's own date, so the
+ * date arguments are not sent. Business rejections (409) come back as null or false like the
+ * local services; a shard that cannot be reached raises IllegalStateException so the router
+ * never reports a partial answer as complete. The HTTP API has no admin login, so account
+ * management is not available on remote shards.
+ * @author Library Team
+ * @version 1.0
+ */
+public class RemoteShard implements UserShard {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final String shardId;
+    private final URI baseUri;
+    private final HttpClient client;
+
+    /**
+     * Creates a client for a shard's HTTP API
+     * @param shardId the shard name
+     * @param host the host (loopback for local clusters)
+     * @param port the HTTP port
+     */
+    public RemoteShard(String shardId, String host, int port) {
+        this.shardId = shardId;
+        this.baseUri = URI.create("http://" + host + ":" + port);
+        this.client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    @Override
+    public String getShardId() {
+        return shardId;
+    }
+
+    @Override
+    public boolean registerUser(User user, AuthService authService) {
+        throw accountManagementUnsupported();
+    }
+
+    @Override
+    public UnregistrationResult unregisterUser(String userId, AuthService authService) {
+        throw accountManagementUnsupported();
+    }
+
+    @Override
+    public boolean reactivateUser(String userId, AuthService authService) {
+        throw accountManagementUnsupported();
+    }
+
+    private UnsupportedOperationException accountManagementUnsupported() {
+        return new UnsupportedOperationException("Shard " + shardId + " does not expose account management");
+    }
+
+    @Override
+    public Loan borrow(String userId, String mediaId, String mediaType, LocalDate borrowDate) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("userId", userId);
+        request.put("mediaId", mediaId);
+        request.put("mediaType", mediaType);
+        HttpResponse<String> response = send("POST", "/api/loans", Json.write(request));
+        if (response.statusCode() != 201) {
+            System.out.println("❌ Error: Shard " + shardId + " rejected borrow: " + response.body());
+            return null;
+        }
+        return toLoan(Json.parseObject(response.body()));
+    }
+
+    @Override
+    public boolean returnLoan(String loanId, LocalDate returnDate) {
+        HttpResponse<String> response = send("POST", "/api/loans/" + encode(loanId) + "/return", "{}");
+        if (response.statusCode() != 200) {
+            System.out.println("❌ Error: Shard " + shardId + " rejected return: " + response.body());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Loan> getActiveLoans(String userId) {
+        return toLoans(getObject("/api/users/" + encode(userId) + "/loans").get("loans"));
+    }
+
+    @Override
+    public List<Fine> getUnpaidFines(String userId) {
+        List<Fine> unpaid = new ArrayList<>();
+        for (Object item : asList(getObject("/api/users/" + encode(userId) + "/fines").get("fines"))) {
+            Fine fine = toFine(asMap(item));
+            if (!fine.isPaid()) {
+                unpaid.add(fine);
+            }
+        }
+        return unpaid;
+    }
+
+    @Override
+    public boolean payFine(String fineId, double amount) {
+        HttpResponse<String> response = send("POST", "/api/fines/" + encode(fineId) + "/payments",
+                Json.write(Map.of("amount", amount)));
+        if (response.statusCode() != 200) {
+            System.out.println("❌ Error: Shard " + shardId + " rejected payment: " + response.body());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Loan> getOverdueLoans(LocalDate currentDate) {
+        return toLoans(getObject("/api/reports/overdue").get("loans"));
+    }
+
+    private Map<String, Object> getObject(String path) {
+        HttpResponse<String> response = send("GET", path, null);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Shard " + shardId + " returned " + response.statusCode() + " for " + path);
+        }
+        return Json.parseObject(response.body());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT);
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+            builder.method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Shard " + shardId + " is unreachable: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling shard " + shardId, e);
+        }
+    }
+
+    private static List<Loan> toLoans(Object items) {
+        List<Loan> loans = new ArrayList<>();
+        for (Object item : asList(items)) {
+            loans.add(toLoan(asMap(item)));
+        }
+        return loans;
+    }
+
+    private static Loan toLoan(Map<String, Object> json) {
+        Loan loan = new Loan((String) json.get("loanId"), (String) json.get("userId"), (String) json.get("mediaId"),
+                (String) json.get("mediaType"), LocalDate.parse((String) json.get("borrowDate")),
+                LocalDate.parse((String) json.get("dueDate")));
+        if (json.get("returnDate") instanceof String returnDate) {
+            loan.setReturnDate(LocalDate.parse(returnDate));
+        }
+        loan.setCopyBarcode((String) json.get("copyBarcode"));
+        loan.setOverdue(Boolean.TRUE.equals(json.get("overdue")));
+        return loan;
+    }
+
+    private static Fine toFine(Map<String, Object> json) {
+        Fine fine = new Fine((String) json.get("fineId"), (String) json.get("userId"),
+                ((Number) json.get("amount")).doubleValue(), (String) json.get("loanId"));
+        fine.setPaidAmount(((Number) json.get("paidAmount")).doubleValue());
+        fine.setPaid(Boolean.TRUE.equals(json.get("paid")));
+        return fine;
+    }
+
+    private static List<?> asList(Object value) {
+        return value instanceof List<?> list ? list : List.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteShard{" + shardId + " @ " + baseUri + "}";
+    }
+}
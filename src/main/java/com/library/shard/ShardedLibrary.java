@@ -0,0 +1,197 @@
+package com.library.shard;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.service.AuthService;
+import com.library.service.UserManagementService.UnregistrationResult;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Router in front of the loan and fine services of several shards.
+ *
+ * User-owned data is partitioned by a consistent hash of the user ID, so every per-user call goes
+ * to exactly one shard. Admin-wide queries are scattered to all shards in parallel and the answers
+ * gathered. Local shards only hold the users the ring assigns to them; remote shards are whole
+ * library processes, so each shard's rows are still kept only for the users it owns and records
+ * a process holds for other users (such as its sample data) never show up twice.
+ *
+ * Borrows of the same media item are serialized through lock stripes, because in-process shards
+ * share one catalog and availability is checked before it is claimed.
+ * @author Library Team
+ * @version 1.0
+ */
+public class ShardedLibrary implements AutoCloseable {
+    private static final int MEDIA_LOCK_STRIPES = 64;
+
+    private final ConsistentHashRing<UserShard> ring;
+    private final ExecutorService executor;
+    private final Object[] mediaLocks = new Object[MEDIA_LOCK_STRIPES];
+
+    public ShardedLibrary(List<? extends UserShard> shards) {
+        this(shards, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a router over the given shards
+     * @param shards the shards; their IDs must be unique
+     * @param virtualNodes ring positions per shard
+     */
+    public ShardedLibrary(List<? extends UserShard> shards, int virtualNodes) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.ring = new ConsistentHashRing<>(virtualNodes);
+        for (UserShard shard : shards) {
+            ring.addNode(shard.getShardId(), shard);
+        }
+        for (int i = 0; i < mediaLocks.length; i++) {
+            mediaLocks[i] = new Object();
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Finds the shard that owns a user's data
+     * @param userId the user ID
+     * @return the owning shard
+     */
+    public UserShard shardFor(String userId) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        return ring.nodeFor(userId);
+    }
+
+    /**
+     * Registers a user on the shard that will own them
+     * @param user the new user
+     * @param authService authentication service to verify admin access
+     * @return true if the user was registered
+     */
+    public boolean registerUser(User user, AuthService authService) {
+        if (user == null) {
+            throw new IllegalArgumentException("user is required");
+        }
+        return shardFor(user.getUserId()).registerUser(user, authService);
+    }
+
+    public UnregistrationResult unregisterUser(String userId, AuthService authService) {
+        return shardFor(userId).unregisterUser(userId, authService);
+    }
+
+    public boolean reactivateUser(String userId, AuthService authService) {
+        return shardFor(userId).reactivateUser(userId, authService);
+    }
+
+    public Loan borrowBook(String userId, String bookIsbn, LocalDate borrowDate) {
+        return borrow(userId, bookIsbn, "BOOK", borrowDate);
+    }
+
+    public Loan borrowCD(String userId, String cdCatalogNumber, LocalDate borrowDate) {
+        return borrow(userId, cdCatalogNumber, "CD", borrowDate);
+    }
+
+    private Loan borrow(String userId, String mediaId, String mediaType, LocalDate borrowDate) {
+        UserShard shard = shardFor(userId);
+        synchronized (mediaLocks[Math.floorMod(mediaId.hashCode(), MEDIA_LOCK_STRIPES)]) {
+            return shard.borrow(userId, mediaId, mediaType, borrowDate);
+        }
+    }
+
+    /**
+     * Returns a loan. Loan IDs are only unique within a shard, so the owner routes the call.
+     * @param userId the borrower
+     * @param loanId the loan ID
+     * @param returnDate the return date
+     * @return true if the loan was returned
+     */
+    public boolean returnLoan(String userId, String loanId, LocalDate returnDate) {
+        return shardFor(userId).returnLoan(loanId, returnDate);
+    }
+
+    public List<Loan> getUserActiveLoans(String userId) {
+        return shardFor(userId).getActiveLoans(userId);
+    }
+
+    public List<Fine> getUserUnpaidFines(String userId) {
+        return shardFor(userId).getUnpaidFines(userId);
+    }
+
+    public double getTotalUnpaidAmount(String userId) {
+        return getUserUnpaidFines(userId).stream().mapToDouble(Fine::getRemainingBalance).sum();
+    }
+
+    /**
+     * Pays a fine. Fine IDs are only unique within a shard, so the owner routes the call.
+     * @param userId the user who owes the fine
+     * @param fineId the fine ID
+     * @param amount the payment amount
+     * @return true if the payment was accepted
+     */
+    public boolean payFine(String userId, String fineId, double amount) {
+        return shardFor(userId).payFine(fineId, amount);
+    }
+
+    /**
+     * Gets overdue loans across all shards
+     * @param currentDate the date to evaluate against
+     * @return overdue loans ordered by due date, then user
+     */
+    public List<Loan> getOverdueLoans(LocalDate currentDate) {
+        List<Loan> overdue = scatterGather(shard -> shard.getOverdueLoans(currentDate), Loan::getUserId);
+        overdue.sort(Comparator.comparing(Loan::getDueDate).thenComparing(Loan::getUserId)
+                .thenComparing(Loan::getLoanId));
+        return overdue;
+    }
+
+    /**
+     * Runs a query on every shard in parallel and keeps each shard's rows for the users it owns
+     * @throws IllegalStateException if any shard fails, so a partial answer is never returned
+     */
+    private <T> List<T> scatterGather(Function<UserShard, List<T>> query, Function<T, String> owner) {
+        List<UserShard> shards = ring.getNodes();
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards.size());
+        for (UserShard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard).stream()
+                    .filter(row -> ring.nodeFor(owner.apply(row)) == shard)
+                    .toList(), executor));
+        }
+
+        List<T> gathered = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                gathered.addAll(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new IllegalStateException("Shard " + shards.get(i).getShardId() + " failed: "
+                        + cause.getMessage(), cause);
+            }
+        }
+        return gathered;
+    }
+
+    /**
+     * Gets the shards in the order they were added
+     * @return the shards
+     */
+    public List<UserShard> getShards() {
+        return ring.getNodes();
+    }
+
+    /**
+     * Stops the scatter-gather executor
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
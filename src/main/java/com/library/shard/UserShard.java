@@ -0,0 +1,95 @@
+package com.library.shard;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.service.AuthService;
+import com.library.service.UserManagementService.UnregistrationResult;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One partition of the user-owned data (user records, loans and fines).
+ * A shard only answers for the users the router assigns to it.
+ * @author Library Team
+ * @version 1.0
+ */
+public interface UserShard {
+
+    /**
+     * Gets the shard name, which also places the shard on the hash ring
+     * @return the shard ID
+     */
+    String getShardId();
+
+    /**
+     * Registers a user owned by this shard (admin only)
+     * @param user the new user
+     * @param authService authentication service to verify admin access
+     * @return true if the user was registered
+     */
+    boolean registerUser(User user, AuthService authService);
+
+    /**
+     * Deactivates a user owned by this shard (admin only)
+     * @param userId the user
+     * @param authService authentication service to verify admin access
+     * @return the outcome and its message
+     */
+    UnregistrationResult unregisterUser(String userId, AuthService authService);
+
+    /**
+     * Reactivates a user owned by this shard (admin only)
+     * @param userId the user
+     * @param authService authentication service to verify admin access
+     * @return true if the user was reactivated
+     */
+    boolean reactivateUser(String userId, AuthService authService);
+
+    /**
+     * Borrows a book or CD for a user owned by this shard
+     * @param userId the user
+     * @param mediaId the media identifier
+     * @param mediaType BOOK or CD
+     * @param borrowDate the borrow date
+     * @return the loan, or null if the borrow was rejected
+     */
+    Loan borrow(String userId, String mediaId, String mediaType, LocalDate borrowDate);
+
+    /**
+     * Returns a loan held on this shard
+     * @param loanId the loan ID
+     * @param returnDate the return date
+     * @return true if the loan was returned
+     */
+    boolean returnLoan(String loanId, LocalDate returnDate);
+
+    /**
+     * Gets the active loans of a user
+     * @param userId the user
+     * @return the active loans
+     */
+    List<Loan> getActiveLoans(String userId);
+
+    /**
+     * Gets the unpaid fines of a user
+     * @param userId the user
+     * @return the unpaid fines
+     */
+    List<Fine> getUnpaidFines(String userId);
+
+    /**
+     * Pays a fine held on this shard
+     * @param fineId the fine ID
+     * @param amount the payment amount
+     * @return true if the payment was accepted
+     */
+    boolean payFine(String fineId, double amount);
+
+    /**
+     * Gets every overdue loan on this shard
+     * @param currentDate the date to evaluate against
+     * @return the overdue loans
+     */
+    List<Loan> getOverdueLoans(LocalDate currentDate);
+}
@@ -0,0 +1,79 @@
+package com.library.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Json
+ * @author Library Team
+ * @version 1.0
+ */
+class JsonTest {
+
+    @Test
+    void testWriteAndParseRoundTrip() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "Quote \" and \\ slash\n");
+        value.put("count", 3);
+        value.put("active", true);
+        value.put("missing", null);
+        value.put("items", List.of("a", "b"));
+
+        Map<String, Object> parsed = Json.parseObject(Json.write(value));
+
+        assertEquals("Quote \" and \\ slash\n", parsed.get("name"));
+        assertEquals(3.0, parsed.get("count"));
+        assertEquals(Boolean.TRUE, parsed.get("active"));
+        assertTrue(parsed.containsKey("missing"));
+        assertNull(parsed.get("missing"));
+        assertEquals(List.of("a", "b"), parsed.get("items"));
+    }
+
+    @Test
+    void testParseBlankIsEmptyObject() {
+        assertTrue(Json.parseObject("  ").isEmpty());
+        assertTrue(Json.parseObject(null).isEmpty());
+    }
+
+    @Test
+    void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[1,2"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[1]"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{} extra"));
+    }
+
+    @Test
+    void testNonFiniteNumbersAreWrittenAsNull() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("nan", Double.NaN);
+        value.put("infinite", Double.POSITIVE_INFINITY);
+        value.put("floatNan", Float.NaN);
+        value.put("amount", 2.5);
+
+        String json = Json.write(value);
+
+        assertEquals("{\"nan\":null,\"infinite\":null,\"floatNan\":null,\"amount\":2.5}", json);
+        assertEquals(4, Json.parseObject(json).size());
+    }
+
+    @Test
+    void testNestingDepthIsLimited() {
+        String allowed = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        assertInstanceOf(List.class, Json.parse(allowed));
+        String tooDeep = "[".repeat(Json.MAX_DEPTH + 1) + "]".repeat(Json.MAX_DEPTH + 1);
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(tooDeep));
+        // Far deeper than any stack allows, and unterminated
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":".repeat(100_000)));
+    }
+
+    @Test
+    void testUnicodeEscape() {
+        assertEquals("é", Json.parse("\"\\u00e9\""));
+    }
+}
@@ -0,0 +1,297 @@
+package com.library.api;
+
+import com.library.repository.HoldRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import com.library.service.FineService;
+import com.library.service.HoldService;
+import com.library.service.LibraryContext;
+import com.library.service.LoanService;
+import com.library.service.MediaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LibraryHttpServer
+ * @author Library Team
+ * @version 1.0
+ */
+class LibraryHttpServerTest {
+    private LibraryHttpServer server;
+    private HttpClient client;
+    private String baseUrl;
+    private FineService fineService;
+    private LoanService loanService;
+    private UserRepository userRepository;
+    private MediaRepository mediaRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userRepository = new UserRepository();
+        mediaRepository = new MediaRepository();
+        fineService = new FineService(userRepository);
+        loanService = new LoanService(fineService, userRepository, mediaRepository);
+        fineService.setLoanService(loanService);
+
+        server = new LibraryHttpServer(0, loanService, fineService, new MediaService(mediaRepository));
+        server.start();
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + server.getPort() + "/api";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private List<String> fineIdsFor(String userId) {
+        List<String> fineIds = new ArrayList<>();
+        fineService.getUserUnpaidFines(userId).forEach(fine -> fineIds.add(fine.getFineId()));
+        return fineIds;
+    }
+
+    @Test
+    void testSearchMedia() throws Exception {
+        HttpResponse<String> response = get("/media/search?q=gatsby");
+
+        assertEquals(200, response.statusCode());
+        Map<String, Object> body = Json.parseObject(response.body());
+        assertEquals(1.0, body.get("count"));
+        List<?> results = (List<?>) body.get("results");
+        assertEquals("The Great Gatsby", ((Map<?, ?>) results.get(0)).get("title"));
+    }
+
+    @Test
+    void testPlaceAndListHolds() throws Exception {
+        String gatsbyHold = "{\"userId\":\"U005\",\"mediaId\":\"978-0743273565\",\"mediaType\":\"BOOK\"}";
+        assertEquals(503, post("/holds", gatsbyHold).statusCode());
+
+        loanService.setHoldService(new HoldService(new HoldRepository(), mediaRepository, userRepository));
+        HttpResponse<String> placed = post("/holds", gatsbyHold);
+        assertEquals(201, placed.statusCode());
+        assertEquals("WAITING", Json.parseObject(placed.body()).get("status"));
+        assertEquals(1.0, Json.parseObject(placed.body()).get("queueLength"));
+        assertEquals(409, post("/holds", gatsbyHold).statusCode());
+        assertEquals(409, post("/holds",
+                "{\"userId\":\"U005\",\"mediaId\":\"978-0547928227\",\"mediaType\":\"BOOK\"}").statusCode());
+
+        Map<String, Object> holds = Json.parseObject(get("/users/U005/holds").body());
+        assertEquals(1.0, holds.get("count"));
+    }
+
+    @Test
+    void testSearchAvailableOnly() throws Exception {
+        // The Great Gatsby is on loan in the sample data
+        assertEquals(0.0, Json.parseObject(get("/media/search?q=gatsby&available=true").body()).get("count"));
+        assertEquals(1.0, Json.parseObject(get("/media/search?q=hobbit&available=true").body()).get("count"));
+    }
+
+    @Test
+    void testBrowseByFacets() throws Exception {
+        Map<String, Object> body = Json.parseObject(get("/media/browse?type=CD&genre=rock").body());
+        assertEquals(1.0, body.get("count"));
+        assertEquals("The Beatles", ((Map<?, ?>) ((List<?>) body.get("results")).get(0)).get("title"));
+        assertEquals(5, ((Map<?, ?>) body.get("genres")).size());
+
+        // Thriller is on loan in the sample data
+        Map<String, Object> available = Json.parseObject(get("/media/browse?type=CD&available=true").body());
+        assertEquals(4.0, available.get("count"));
+        assertFalse(((Map<?, ?>) available.get("genres")).containsKey("Pop"));
+        assertEquals(400, get("/media/browse?type=DVD").statusCode());
+    }
+
+    @Test
+    void testUserSummaryFromLedger() throws Exception {
+        assertEquals(404, get("/users/U002/summary").statusCode());
+
+        LibraryHttpServer contextServer = new LibraryHttpServer(0, new LibraryContext());
+        contextServer.start();
+        try {
+            String url = "http://localhost:" + contextServer.getPort() + "/api/users/";
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(url + "U002/summary")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            Map<String, Object> body = Json.parseObject(response.body());
+            assertEquals(List.of("L0001", "L0004"), body.get("activeLoanIds"));
+            assertEquals(40.0, body.get("unpaidBalance"));
+            assertEquals(Map.of("BOOK", 40.0), body.get("unpaidByMediaType"));
+            assertEquals(false, body.get("canBorrow"));
+
+            HttpResponse<String> missing = client.send(
+                    HttpRequest.newBuilder(URI.create(url + "NOPE/summary")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, missing.statusCode());
+        } finally {
+            contextServer.stop();
+        }
+    }
+
+    @Test
+    void testListMediaWithCursor() throws Exception {
+        List<Object> titles = new ArrayList<>();
+        String cursor = "";
+        int total;
+        do {
+            Map<String, Object> body = Json.parseObject(get("/media?limit=4&cursor=" + cursor).body());
+            total = ((Double) body.get("total")).intValue();
+            for (Object item : (List<?>) body.get("results")) {
+                titles.add(((Map<?, ?>) item).get("title"));
+            }
+            cursor = (String) body.get("nextCursor");
+        } while (cursor != null);
+
+        assertEquals(total, titles.size());
+        assertEquals(2.0, Json.parseObject(get("/media?offset=1&limit=2").body()).get("count"));
+        assertEquals(400, get("/media?limit=abc").statusCode());
+        assertEquals(400, get("/media?cursor=bogus").statusCode());
+    }
+
+    @Test
+    void testSearchWithoutQueryIsBadRequest() throws Exception {
+        assertEquals(400, get("/media/search").statusCode());
+    }
+
+    @Test
+    void testBorrowAndReturn() throws Exception {
+        HttpResponse<String> borrow = post("/loans",
+                "{\"userId\":\"U003\",\"mediaId\":\"978-0451524935\",\"mediaType\":\"BOOK\"}");
+        assertEquals(201, borrow.statusCode());
+        String loanId = (String) Json.parseObject(borrow.body()).get("loanId");
+        assertNotNull(loanId);
+
+        HttpResponse<String> loans = get("/users/U003/loans");
+        assertEquals(200, loans.statusCode());
+        assertEquals(1.0, Json.parseObject(loans.body()).get("count"));
+
+        HttpResponse<String> returned = post("/loans/" + loanId + "/return", "");
+        assertEquals(200, returned.statusCode());
+        assertNotNull(Json.parseObject(returned.body()).get("returnDate"));
+
+        assertEquals(409, post("/loans/" + loanId + "/return", "").statusCode());
+    }
+
+    @Test
+    void testBorrowRejectedForUserWithFines() throws Exception {
+        HttpResponse<String> response = post("/loans",
+                "{\"userId\":\"U002\",\"mediaId\":\"978-0451524935\",\"mediaType\":\"BOOK\"}");
+
+        assertEquals(409, response.statusCode());
+        assertTrue(Json.parseObject(response.body()).containsKey("error"));
+    }
+
+    @Test
+    void testBorrowWithInvalidBody() throws Exception {
+        assertEquals(400, post("/loans", "{\"userId\":\"U003\"}").statusCode());
+        assertEquals(400, post("/loans", "not json").statusCode());
+        assertEquals(400, post("/loans",
+                "{\"userId\":\"U003\",\"mediaId\":\"X\",\"mediaType\":\"DVD\"}").statusCode());
+    }
+
+    @Test
+    void testOversizedAndDeeplyNestedBodiesAreRejected() throws Exception {
+        HttpResponse<String> tooLarge = post("/loans", "{\"userId\":\"" + "x".repeat(2 << 20) + "\"}");
+        assertEquals(413, tooLarge.statusCode());
+        assertTrue(Json.parseObject(tooLarge.body()).containsKey("error"));
+
+        HttpResponse<String> tooDeep = post("/loans", "[".repeat(50_000) + "]".repeat(50_000));
+        assertEquals(400, tooDeep.statusCode());
+        assertEquals(200, get("/health").statusCode());
+    }
+
+    @Test
+    void testEligibilityFollowsCirculation() throws Exception {
+        assertEquals(Boolean.TRUE, Json.parseObject(get("/users/U003/eligibility").body()).get("canBorrow"));
+        assertEquals(Boolean.FALSE, Json.parseObject(get("/users/U002/eligibility").body()).get("canBorrow"));
+
+        // U002 becomes eligible once both overdue loans are returned and their fines paid
+        post("/loans/returns", "{\"loanIds\":[\"L0001\",\"L0004\"]}");
+        assertEquals(Boolean.FALSE, Json.parseObject(get("/users/U002/eligibility").body()).get("canBorrow"));
+
+        for (String fineId : fineIdsFor("U002")) {
+            assertEquals(200, post("/fines/" + fineId + "/payments", "{\"amount\":1000}").statusCode());
+        }
+        Map<String, Object> body = Json.parseObject(get("/users/U002/eligibility").body());
+        assertEquals(Boolean.TRUE, body.get("canBorrow"), String.valueOf(body.get("message")));
+    }
+
+    @Test
+    void testPayFineAfterReturn() throws Exception {
+        // Fine F0001 belongs to the overdue sample loan L0001, which must be returned first
+        assertEquals(409, post("/fines/F0001/payments", "{\"amount\":10}").statusCode());
+
+        assertEquals(200, post("/loans/L0001/return", "").statusCode());
+
+        HttpResponse<String> payment = post("/fines/F0001/payments", "{\"amount\":100}");
+        assertEquals(200, payment.statusCode());
+        assertEquals(Boolean.TRUE, Json.parseObject(payment.body()).get("paid"));
+    }
+
+    @Test
+    void testOverdueReport() throws Exception {
+        HttpResponse<String> response = get("/reports/overdue");
+
+        assertEquals(200, response.statusCode());
+        Map<String, Object> body = Json.parseObject(response.body());
+        assertEquals(4.0, body.get("count"));
+        assertTrue((Double) body.get("totalFines") > 0);
+    }
+
+    @Test
+    void testUnknownEndpointAndWrongMethod() throws Exception {
+        assertEquals(404, get("/unknown").statusCode());
+        assertEquals(405, get("/loans").statusCode());
+    }
+
+    @Test
+    void testConcurrentBorrowOfSameItemSucceedsOnce() throws Exception {
+        String[] users = {"U003", "U005"};
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try (ExecutorService kiosks = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                String userId = users[i % users.length];
+                results.add(kiosks.submit(() -> post("/loans",
+                        "{\"userId\":\"" + userId + "\",\"mediaId\":\"978-0547928227\",\"mediaType\":\"BOOK\"}")
+                        .statusCode()));
+            }
+
+            int created = 0;
+            for (Future<Integer> result : results) {
+                int status = result.get();
+                assertTrue(status == 201 || status == 409);
+                if (status == 201) {
+                    created++;
+                }
+            }
+            assertEquals(1, created);
+        }
+    }
+}
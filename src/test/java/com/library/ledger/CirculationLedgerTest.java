@@ -0,0 +1,195 @@
+package com.library.ledger;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.service.AuthService;
+import com.library.service.LibraryContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the event-sourced circulation ledger and its per-user views
+ * @author Library Team
+ * @version 1.0
+ */
+class CirculationLedgerTest {
+    private static final String HOBBIT = "978-0547928227";
+
+    private LocalDate today;
+    private LibraryContext context;
+    private CirculationLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        context = new LibraryContext();
+        ledger = context.getLedger();
+    }
+
+    @Test
+    void testSeededViewsMatchRepositories() {
+        for (User user : context.getUserRepository().getAllUsers()) {
+            String userId = user.getUserId();
+            double unpaid = context.getFineRepository().getTotalUnpaidAmount(userId);
+            assertEquals(unpaid, ledger.getUnpaidBalance(userId), 0.001);
+            assertEquals(context.getLoanService().getUserActiveLoans(userId).size(), ledger.getActiveLoanCount(userId));
+            assertEquals(context.getBorrowingRulesService().canUserBorrow(userId, today).isValid(),
+                    ledger.isEligible(userId, today), userId);
+        }
+        assertNull(ledger.getView("NOPE"));
+        assertFalse(ledger.isEligible("NOPE", today));
+    }
+
+    @Test
+    void testCirculationProducesEvents() {
+        int before = ledger.getEventCount();
+
+        Loan loan = context.getLoanService().borrowBook("U003", HOBBIT, today);
+        assertEquals(1, ledger.getActiveLoanCount("U003"));
+        assertEquals(LedgerEvent.Type.LOAN_CREATED, lastEvent().getType());
+
+        // Returned 30 days late: the loan closes and a fine is assessed
+        assertTrue(context.getLoanService().returnBook(loan.getLoanId(), loan.getDueDate().plusDays(30)));
+        List<LedgerEvent> added = ledger.getEvents().subList(before + 1, ledger.getEventCount());
+        assertEquals(List.of(LedgerEvent.Type.LOAN_RETURNED, LedgerEvent.Type.FINE_ASSESSED),
+                added.stream().map(LedgerEvent::getType).toList());
+        double fine = ledger.getUnpaidBalance("U003");
+        assertTrue(fine > 0);
+        assertFalse(ledger.isEligible("U003", today));
+
+        String fineId = added.get(1).getRecordId();
+        assertTrue(context.getFineService().payFine(fineId, fine / 2));
+        assertEquals(LedgerEvent.Type.FINE_PAID, lastEvent().getType());
+        assertEquals(fine / 2, ledger.getUnpaidBalance("U003"), 0.001);
+        assertTrue(context.getFineService().payFine(fineId, fine / 2));
+        assertEquals(0.0, ledger.getUnpaidBalance("U003"), 0.001);
+        assertTrue(ledger.isEligible("U003", today));
+
+        AuthService auth = new AuthService();
+        auth.login("admin", "admin123");
+        assertTrue(context.getUserManagementService().unregisterUser("U005", auth).isSuccess());
+        assertEquals(LedgerEvent.Type.USER_DEACTIVATED, lastEvent().getType());
+        assertFalse(ledger.isEligible("U005", today));
+    }
+
+    @Test
+    void testDashboardSummaryMatchesServices() {
+        for (User user : context.getUserRepository().getAllUsers()) {
+            String userId = user.getUserId();
+            UserView view = ledger.getView(userId);
+            List<Loan> loans = context.getLoanService().getUserActiveLoans(userId);
+            assertEquals(loans.stream().map(Loan::getLoanId).toList(), new ArrayList<>(view.getActiveLoanIds()));
+            assertEquals(loans.stream().map(Loan::getDueDate).min(LocalDate::compareTo).orElse(null),
+                    view.getEarliestDueDate());
+            assertEquals(loans.stream().filter(loan -> loan.isOverdueAsOf(today)).count(), view.getOverdueCount(today));
+        }
+        assertEquals(1, ledger.getView("U001").getOverdueCount(today));
+        assertEquals(Map.of("BOOK", 40.0), ledger.getView("U002").getUnpaidByMediaType());
+        assertTrue(ledger.getView("U003").getUnpaidByMediaType().isEmpty());
+    }
+
+    @Test
+    void testUnpaidBalanceByMediaTypeFollowsFines() {
+        Loan cd = context.getLoanService().borrowCD("U003", "CD-002", today);
+        Loan book = context.getLoanService().borrowBook("U003", HOBBIT, today);
+        assertEquals(2, ledger.getView("U003").getActiveLoanCount());
+        assertEquals(cd.getDueDate(), ledger.getView("U003").getEarliestDueDate());
+        assertEquals(1, ledger.getView("U003").getOverdueCount(cd.getDueDate().plusDays(1)));
+
+        context.getLoanService().returnBook(cd.getLoanId(), cd.getDueDate().plusDays(10));
+        context.getLoanService().returnBook(book.getLoanId(), book.getDueDate().plusDays(10));
+        UserView view = ledger.getView("U003");
+        Map<String, Double> byType = view.getUnpaidByMediaType();
+        assertEquals(2, byType.size());
+        assertEquals(view.getUnpaidBalance(), byType.get("BOOK") + byType.get("CD"), 0.001);
+
+        for (Fine fine : context.getFineService().getUserUnpaidFines("U003")) {
+            context.getFineService().payFine(fine.getFineId(), fine.getRemainingBalance());
+        }
+        assertTrue(ledger.getView("U003").getUnpaidByMediaType().isEmpty());
+        assertEquals(0, ledger.getView("U003").getActiveLoanCount());
+        assertNull(ledger.getView("U003").getEarliestDueDate());
+
+        // A fine that is not tied to a loan
+        context.getFineRepository().createFine("U005", 5.0);
+        assertEquals(Map.of(UserView.OTHER_MEDIA_TYPE, 5.0), ledger.getView("U005").getUnpaidByMediaType());
+    }
+
+    @Test
+    void testRebuildMatchesIncrementalViews() {
+        Loan first = context.getLoanService().borrowBook("U003", HOBBIT, today);
+        context.getLoanService().borrowCD("U005", "CD-002", today);
+        context.getLoanService().returnBook(first.getLoanId(), today.plusDays(40));
+        context.getLoanService().returnBook("L0003", today);
+
+        Map<String, UserView> incremental = ledger.getViews();
+        assertEquals(incremental, CirculationLedger.rebuildViews(ledger.getEvents(), incremental.keySet()));
+        assertEquals(incremental.size(), ledger.rebuildViews());
+        assertEquals(incremental, ledger.getViews());
+    }
+
+    @Test
+    void testRebuildOfLargeLog() {
+        Random random = new Random(42);
+        List<LedgerEvent> log = new ArrayList<>();
+        Map<String, UserView> expected = new HashMap<>();
+        for (int i = 1; i <= 200_000; i++) {
+            String userId = "U" + random.nextInt(2_000);
+            LedgerEvent.Type type = LedgerEvent.Type.values()[random.nextInt(LedgerEvent.Type.values().length)];
+            LedgerEvent event = new LedgerEvent(i, type, userId, "R" + random.nextInt(10), today.plusDays(random.nextInt(20)),
+                    random.nextInt(20));
+            log.add(event);
+            expected.put(userId, expected.getOrDefault(userId, UserView.empty(userId)).apply(event));
+        }
+
+        assertEquals(expected, CirculationLedger.rebuildViews(log, List.of()));
+
+        // Starting from a baseline folded from the first half gives the same views
+        Map<String, UserView> baseline = CirculationLedger.rebuildViews(log.subList(0, 100_000), List.of());
+        Map<String, UserView> rebuilt = CirculationLedger.rebuildViews(baseline, log.subList(100_000, log.size()),
+                List.of("U-none"));
+        assertEquals(UserView.empty("U-none"), rebuilt.remove("U-none"));
+        assertEquals(expected, rebuilt);
+    }
+
+    @Test
+    void testLogIsCompactedIntoBaseline() {
+        CirculationLedger small = new CirculationLedger(5, 10);
+        for (int i = 1; i <= 12; i++) {
+            Loan loan = new Loan("L" + i, "U" + (i % 3), "M" + i, "BOOK", today, today.plusDays(i));
+            small.recordChanged(loan);
+            if (i % 2 == 0) {
+                loan.setReturnDate(today);
+                small.recordChanged(loan);
+            }
+        }
+        small.recordChanged(new Fine("F1", "U1", 7.5));
+
+        // 19 events: the oldest five are compacted on the 11th and again on the 16th
+        assertEquals(9, small.getEventCount());
+        assertEquals(11, small.getEvents().get(0).getSequence());
+        assertEquals(19, small.getEvents().get(8).getSequence());
+        assertEquals(7.5, small.getUnpaidBalance("U1"), 0.001);
+        assertEquals(2, small.getActiveLoanCount("U0"));
+
+        Map<String, UserView> incremental = small.getViews();
+        assertEquals(3, small.rebuildViews());
+        assertEquals(incremental, small.getViews());
+        assertThrows(IllegalArgumentException.class, () -> new CirculationLedger(5, 1));
+    }
+
+    private LedgerEvent lastEvent() {
+        List<LedgerEvent> events = ledger.getEvents();
+        return events.get(events.size() - 1);
+    }
+}
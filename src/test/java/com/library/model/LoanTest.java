@@ -71,6 +71,11 @@ class LoanTest {
         assertTrue(toStringResult.contains("978-0743273565"));
         assertTrue(toStringResult.contains("BOOK"));
         assertTrue(toStringResult.contains("2025-10-29")); // due date
+        assertTrue(toStringResult.contains("Overdue: Yes")); // derived from the dates, not the stored flag
+
+        Loan current = new Loan("L0002", "U001", "978-0743273565", "BOOK", LocalDate.now(), LocalDate.now().plusDays(28));
+        current.setOverdue(true);
+        assertTrue(current.toString().contains("Overdue: No"));
     }
 
     @Test
@@ -137,4 +142,29 @@ class LoanTest {
         assertNull(loan.getReturnDate());
         assertFalse(loan.isOverdue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIsOverdueAsOfDoesNotChangeLoan() {
+        LocalDate borrowDate = LocalDate.now().minusDays(35);
+        Loan loan = new Loan("L0001", "U001", "978-0743273565", "BOOK", borrowDate, borrowDate.plusDays(28));
+
+        assertTrue(loan.isOverdueAsOf(LocalDate.now()));
+        assertFalse(loan.isOverdueAsOf(borrowDate.plusDays(28)));
+        assertFalse(loan.isOverdue());
+        assertEquals(10.00, loan.calculateFine(LocalDate.now()), 0.001);
+        assertFalse(loan.isOverdue());
+    }
+
+    @Test
+    void testStatusAsOf() {
+        LocalDate borrowDate = LocalDate.now();
+        Loan loan = new Loan("L0002", "U001", "CD-001", "CD", borrowDate, borrowDate.plusDays(7));
+
+        assertEquals(Loan.Status.ACTIVE, loan.getStatusAsOf(borrowDate.plusDays(7)));
+        assertEquals(Loan.Status.OVERDUE, loan.getStatusAsOf(borrowDate.plusDays(8)));
+
+        loan.setReturnDate(borrowDate.plusDays(9));
+        assertEquals(Loan.Status.RETURNED, loan.getStatusAsOf(borrowDate.plusDays(10)));
+        assertFalse(loan.isOverdueAsOf(borrowDate.plusDays(10)));
+    }
+}
@@ -0,0 +1,285 @@
+package com.library.replication;
+
+import com.library.api.Json;
+import com.library.api.LibraryHttpServer;
+import com.library.model.Loan;
+import com.library.repository.Holdings;
+import com.library.service.LibraryContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for journal shipping from a primary to read replicas
+ * @author Library Team
+ * @version 1.0
+ */
+class JournalReplicationTest {
+    private static final String HOBBIT = "978-0547928227";
+
+    private LocalDate today;
+    private LibraryContext primary;
+    private MutationJournal journal;
+    private JournalShipper shipper;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        today = LocalDate.now();
+        primary = new LibraryContext();
+        journal = MutationJournal.attach(primary);
+        shipper = new JournalShipper(journal, 0);
+        shipper.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        shipper.close();
+    }
+
+    @Test
+    void testReplicaConvergesOnPrimaryState() throws Exception {
+        try (JournalReplica replica = new JournalReplica(new LibraryContext(), "127.0.0.1", shipper.getPort())) {
+            replica.start();
+            mutatePrimary();
+            awaitCatchUp(replica);
+
+            assertEquals(loanIds(primary.getLoanService().getOverdueLoans(today)), loanIds(replica.getOverdueLoans(today)));
+            assertTrue(replica.searchMedia("Hobbit", true).isEmpty());
+            assertEquals(1, replica.searchMedia("Replicated Sessions", false).size());
+            assertEquals(primary.getFineService().getFineBreakdownByMediaType("U001"),
+                    replica.getFineBreakdownByMediaType("U001"));
+            assertEquals(primary.getLoanRepository().getIntegratedOverdueReport("U001", today).getTotalFine(),
+                    replica.getIntegratedOverdueReport("U001", today).getTotalFine(), 0.001);
+
+            JournalReplica.ReplicaStatus status = replica.getStatus();
+            assertTrue(status.isConnected());
+            assertEquals(0, status.getLagEntries());
+            assertEquals(0, status.getLagMillis());
+
+            // The replica acknowledges what it applied, so the primary drops those entries
+            long head = journal.getHeadSequence();
+            await(() -> journal.getTruncatedSequence() == head);
+            assertEquals(0, journal.getRetainedCount());
+        }
+    }
+
+    @Test
+    void testReplicaJoinsAfterTruncation() throws Exception {
+        assertEquals(2, primary.getMediaRepository().addCopies(HOBBIT, 2).size());
+        try (JournalReplica first = new JournalReplica(new LibraryContext(), "127.0.0.1", shipper.getPort())) {
+            first.start();
+            mutatePrimary();
+            awaitCatchUp(first);
+            long head = journal.getHeadSequence();
+            await(() -> journal.getTruncatedSequence() == head);
+        }
+        assertTrue(journal.getTruncatedSequence() > 0);
+
+        // A fresh replica asks for entries the journal no longer has and is sent a snapshot
+        try (JournalReplica second = new JournalReplica(new LibraryContext(), "127.0.0.1", shipper.getPort())) {
+            second.start();
+            awaitCatchUp(second);
+            assertEquals(loanIds(primary.getLoanService().getOverdueLoans(today)), loanIds(second.getOverdueLoans(today)));
+            assertEquals(1, second.searchMedia("Replicated Sessions", false).size());
+            assertEquals(primary.getFineService().getFineBreakdownByMediaType("U001"),
+                    second.getFineBreakdownByMediaType("U001"));
+            assertEquals(copyStates(primary.getMediaRepository().getHoldings(HOBBIT)),
+                    second.read(() -> copyStates(second.getContext().getMediaRepository().getHoldings(HOBBIT))));
+
+            // and then follows the log from the snapshot on
+            assertNotNull(primary.getLoanService().borrowCD("U005", "CD-002", today));
+            awaitCatchUp(second);
+            assertTrue(second.searchMedia("Dark Side", true).isEmpty());
+        }
+    }
+
+    @Test
+    void testMultiCopyTitleReplicates() throws Exception {
+        try (JournalReplica replica = new JournalReplica(new LibraryContext(), "127.0.0.1", shipper.getPort())) {
+            replica.start();
+            assertEquals(2, primary.getMediaRepository().addCopies(HOBBIT, 2).size());
+            Loan first = primary.getLoanService().borrowBook("U003", HOBBIT, today);
+            Loan second = primary.getLoanService().borrowBook("U005", HOBBIT, today);
+            assertTrue(primary.getLoanService().returnBook(first.getLoanId(), today));
+            awaitCatchUp(replica);
+
+            Holdings expected = primary.getMediaRepository().getHoldings(HOBBIT);
+            List<String> copied = replica.read(() -> copyStates(replica.getContext().getMediaRepository().getHoldings(HOBBIT)));
+            assertEquals(copyStates(expected), copied);
+            assertTrue(copied.contains(second.getCopyBarcode() + "=on loan"));
+            assertEquals(2, (int) replica.read(() -> replica.getContext().getMediaRepository().getHoldings(HOBBIT).getAvailableCount()));
+            assertEquals(1, replica.searchMedia("Hobbit", true).size());
+
+            // The last copy going out makes the title unavailable on the replica too
+            assertNotNull(primary.getLoanService().borrowBook("U003", HOBBIT, today));
+            assertNotNull(primary.getLoanService().borrowBook("U005", HOBBIT, today));
+            awaitCatchUp(replica);
+            assertEquals(copyStates(expected), replica.read(() -> copyStates(replica.getContext().getMediaRepository().getHoldings(HOBBIT))));
+            assertTrue(replica.searchMedia("Hobbit", true).isEmpty());
+        }
+    }
+
+    @Test
+    void testJournalDropsEntriesEveryReplicaApplied() {
+        mutatePrimary();
+        long head = journal.getHeadSequence();
+        assertTrue(journal.register("a", 0));
+        assertTrue(journal.register("b", 0));
+
+        journal.acknowledge("a", head);
+        assertEquals(0, journal.getTruncatedSequence());
+        journal.acknowledge("b", 2);
+        assertEquals(2, journal.getTruncatedSequence());
+        assertEquals(head - 2, journal.getRetainedCount());
+        assertEquals(head - 2, journal.readAfter(2, 100).size());
+        assertThrows(IllegalArgumentException.class, () -> journal.readAfter(1, 100));
+        assertFalse(journal.register("c", 1));
+
+        journal.release("b");
+        assertEquals(head, journal.getTruncatedSequence());
+        assertEquals(0, journal.getRetainedCount());
+        assertEquals(head, journal.getHeadSequence());
+
+        primary.getMediaRepository().addCD("After Truncation", "The Followers", "CD-901", "Jazz", 6);
+        assertEquals(head + 1, journal.getHeadSequence());
+        assertEquals(1, journal.readAfter(head, 10).size());
+    }
+
+    @Test
+    void testReplicaHttpIsReadOnly() throws Exception {
+        try (JournalReplica replica = new JournalReplica(new LibraryContext(), "127.0.0.1", shipper.getPort())) {
+            replica.start();
+            LibraryHttpServer server = new LibraryHttpServer(0, replica);
+            server.start();
+            try {
+                mutatePrimary();
+                awaitCatchUp(replica);
+                String base = "http://127.0.0.1:" + server.getPort();
+
+                HttpResponse<String> write = client.send(HttpRequest.newBuilder(URI.create(base + "/api/loans"))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":\"U005\",\"mediaId\":\"CD-002\",\"mediaType\":\"CD\"}"))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                assertEquals(403, write.statusCode());
+
+                Map<String, Object> status = getJson(base + "/api/replication/status");
+                assertEquals((double) journal.getHeadSequence(), status.get("appliedSequence"));
+                assertEquals(0.0, status.get("lagEntries"));
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    @Test
+    void testReplicaInSeparateJvm() throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "com.library.Main", "--replica", "127.0.0.1:" + shipper.getPort(), "0")
+                .redirectErrorStream(true)
+                .start();
+        try {
+            int port = awaitReplicaPort(process);
+            String base = "http://127.0.0.1:" + port;
+
+            mutatePrimary();
+            long head = journal.getHeadSequence();
+            await(() -> ((Number) getJson(base + "/api/replication/status").get("appliedSequence")).longValue() == head);
+
+            Map<String, Object> overdue = getJson(base + "/api/reports/overdue");
+            assertEquals((double) primary.getLoanService().getOverdueLoans(today).size(), overdue.get("count"));
+            Map<String, Object> search = getJson(base + "/api/media/search?q=Hobbit&available=true");
+            assertEquals(0.0, search.get("count"));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void mutatePrimary() {
+        assertNotNull(primary.getLoanService().borrowBook("U003", HOBBIT, today));
+        primary.getMediaRepository().addCD("Replicated Sessions", "The Followers", "CD-900", "Jazz", 8);
+        // U001's overdue CD comes back late, which assesses a fine
+        assertTrue(primary.getLoanService().returnBook("L0003", today));
+        assertTrue(journal.getHeadSequence() > 0);
+    }
+
+    private void awaitCatchUp(JournalReplica replica) throws InterruptedException {
+        long head = journal.getHeadSequence();
+        await(() -> replica.getStatus().getAppliedSequence() == head);
+    }
+
+    private Map<String, Object> getJson(String uri) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+            return Json.parseObject(response.body());
+        } catch (Exception e) {
+            throw new AssertionError("GET " + uri + " failed", e);
+        }
+    }
+
+    private static int awaitReplicaPort(Process process) throws Exception {
+        Pattern ready = Pattern.compile("read replica running on port (\\d+)");
+        CompletableFuture<Integer> port = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    Matcher matcher = ready.matcher(line);
+                    if (matcher.find()) {
+                        port.complete(Integer.parseInt(matcher.group(1)));
+                    }
+                }
+            } catch (Exception e) {
+                port.completeExceptionally(e);
+            }
+            port.completeExceptionally(new IllegalStateException("Replica exited"));
+        });
+        reader.setDaemon(true);
+        reader.start();
+        return port.get(60, TimeUnit.SECONDS);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Replica did not catch up in time");
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<String> copyStates(Holdings holdings) {
+        return holdings.getCopies().stream()
+                .map(copy -> copy.getBarcode() + (copy.isOnLoan() ? "=on loan" : "=on shelf"))
+                .toList();
+    }
+
+    private static List<String> loanIds(List<Loan> loans) {
+        return loans.stream().map(Loan::getLoanId).sorted().toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import com.library.model.CD;
+import com.library.model.Media;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CatalogSnapshot and its use by MediaRepository
+ * @author Library Team
+ * @version 1.0
+ */
+class CatalogSnapshotTest {
+
+    @Test
+    void testOlderSnapshotIsUnaffectedByWrites() {
+        MediaRepository repository = new MediaRepository();
+        CatalogSnapshot before = repository.getSnapshot();
+        int size = before.size();
+
+        for (int i = 0; i < 100; i++) {
+            repository.addBook("Book " + i, "Author", "ISBN-" + i);
+        }
+        repository.addCD("Blue", "Joni Mitchell", "CD-100", "Folk", 10);
+
+        assertEquals(size, before.size());
+        assertEquals(size, before.getMedia().size());
+        assertNull(before.findById("ISBN-5"));
+        assertTrue(before.search("Book 5").isEmpty());
+
+        CatalogSnapshot after = repository.getSnapshot();
+        assertEquals(size + 101, after.size());
+        assertEquals("Book 5", after.findById("ISBN-5").getTitle());
+        assertEquals(after.size(), after.getBooks().size() + after.getCDs().size());
+        assertEquals("CD-100", after.getCDs().get(after.getCDs().size() - 1).getIdentifier());
+    }
+
+    @Test
+    void testFirstItemWinsForDuplicateIdentifiers() {
+        MediaRepository repository = new MediaRepository();
+        repository.addBook("Copy", "Someone", "978-0451524935");
+
+        assertEquals("1984", repository.findMediaById("978-0451524935").getTitle());
+        assertNull(repository.findMediaByIdAndType("978-0451524935", "CD"));
+    }
+
+    @Test
+    void testViewsAreReadOnly() {
+        MediaRepository repository = new MediaRepository();
+        List<Media> media = repository.getMediaView();
+        List<Book> books = repository.getAllBooks();
+
+        assertThrows(UnsupportedOperationException.class, () -> media.add(new Book("X", "Y", "Z")));
+        assertThrows(UnsupportedOperationException.class, () -> books.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> media.get(media.size()));
+    }
+
+    @Test
+    void testReadersSeeConsistentSnapshotsDuringImport() throws Exception {
+        MediaRepository repository = new MediaRepository();
+        int baseSize = repository.getSnapshot().size();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int r = 0; r < 4; r++) {
+            results.add(readers.submit(() -> {
+                int checks = 0;
+                int lastSize = 0;
+                while (writing.get() || checks == 0) {
+                    CatalogSnapshot snapshot = repository.getSnapshot();
+                    int size = snapshot.size();
+                    assertTrue(size >= lastSize);
+                    assertEquals(size, snapshot.getBooks().size() + snapshot.getCDs().size());
+                    Media last = snapshot.getMedia().get(size - 1);
+                    assertSame(last, snapshot.findById(last.getIdentifier()));
+                    lastSize = size;
+                    checks++;
+                }
+                return checks;
+            }));
+        }
+
+        for (int batch = 0; batch < 200; batch++) {
+            List<Media> items = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int id = batch * 100 + i;
+                items.add(i % 2 == 0 ? new Book("Book " + id, "Author", "B-" + id)
+                        : new CD("CD " + id, "Artist", "C-" + id, "Rock", 10));
+            }
+            repository.addMediaBatch(items);
+        }
+        writing.set(false);
+
+        for (Future<Integer> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS) > 0);
+        }
+        readers.shutdown();
+        assertEquals(baseSize + 20_000, repository.getAllMedia().size());
+        assertEquals(10_000 + 7, repository.getAllBooks().size());
+    }
+}
@@ -0,0 +1,129 @@
+package com.library.repository;
+
+import com.library.model.Loan;
+import com.library.model.MediaCopy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for multi-copy holdings
+ * @author Library Team
+ * @version 1.0
+ */
+class HoldingsTest {
+    private static final String HOBBIT = "978-0547928227";
+
+    private MediaRepository mediaRepository;
+    private LoanRepository loanRepository;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository = new MediaRepository();
+        loanRepository = new LoanRepository(mediaRepository);
+    }
+
+    @Test
+    void testAddCopiesKeepsOriginalAsFirstCopy() {
+        List<MediaCopy> added = mediaRepository.addCopies(HOBBIT, 2);
+
+        Holdings holdings = mediaRepository.getHoldings(HOBBIT);
+        assertEquals(2, added.size());
+        assertEquals(3, holdings.getCopyCount());
+        assertEquals(3, holdings.getAvailableCount());
+        assertEquals(HOBBIT + "-C001", holdings.getCopies().get(0).getBarcode());
+        assertEquals(HOBBIT + "-C003", added.get(1).getBarcode());
+        assertNull(mediaRepository.getHoldings("978-0451524935"));
+        assertTrue(mediaRepository.addCopies("NOPE", 2).isEmpty());
+        assertTrue(mediaRepository.addCopies(HOBBIT, 0).isEmpty());
+    }
+
+    @Test
+    void testTitleStaysAvailableUntilLastCopyIsOut() {
+        mediaRepository.addCopies(HOBBIT, 1);
+        LocalDate today = LocalDate.now();
+
+        Loan first = loanRepository.createBookLoan("U003", HOBBIT, today);
+        assertTrue(mediaRepository.findMediaById(HOBBIT).isAvailable());
+        Loan second = loanRepository.createBookLoan("U005", HOBBIT, today);
+        assertFalse(mediaRepository.findMediaById(HOBBIT).isAvailable());
+        assertNull(loanRepository.createBookLoan("U001", HOBBIT, today));
+
+        assertNotNull(first.getCopyBarcode());
+        assertNotEquals(first.getCopyBarcode(), second.getCopyBarcode());
+        assertTrue(mediaRepository.getHoldings(HOBBIT).findCopy(second.getCopyBarcode()).isOnLoan());
+
+        assertTrue(loanRepository.returnMedia(second.getLoanId(), today));
+        assertTrue(mediaRepository.findMediaById(HOBBIT).isAvailable());
+        assertFalse(mediaRepository.getHoldings(HOBBIT).findCopy(second.getCopyBarcode()).isOnLoan());
+        assertFalse(mediaRepository.returnCopy(HOBBIT, second.getCopyBarcode()));
+    }
+
+    @Test
+    void testExistingSingleCopyLoanReturnsOriginalCopy() {
+        String gatsby = "978-0743273565"; // on loan as L0001 in the sample data
+        mediaRepository.addCopies(gatsby, 1);
+
+        Holdings holdings = mediaRepository.getHoldings(gatsby);
+        assertTrue(holdings.getCopies().get(0).isOnLoan());
+        assertEquals(1, holdings.getAvailableCount());
+        assertTrue(mediaRepository.findMediaById(gatsby).isAvailable());
+
+        assertTrue(loanRepository.returnMedia("L0001", LocalDate.now()));
+        assertEquals(2, holdings.getAvailableCount());
+    }
+
+    @Test
+    void testConcurrentCheckoutsNeverShareACopy() throws Exception {
+        mediaRepository.addCopies(HOBBIT, 49);
+        int desks = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(desks);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> barcodes = ConcurrentHashMap.newKeySet();
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int d = 0; d < desks; d++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int taken = 0;
+                for (int i = 0; i < 20; i++) {
+                    MediaCopy copy = mediaRepository.checkoutCopy(HOBBIT);
+                    if (copy != null) {
+                        assertTrue(barcodes.add(copy.getBarcode()));
+                        taken++;
+                    }
+                }
+                return taken;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        pool.shutdown();
+
+        assertEquals(50, total);
+        assertEquals(0, mediaRepository.getHoldings(HOBBIT).getAvailableCount());
+        assertFalse(mediaRepository.findMediaById(HOBBIT).isAvailable());
+
+        Set<String> returned = new HashSet<>(barcodes);
+        for (String barcode : returned) {
+            assertTrue(mediaRepository.returnCopy(HOBBIT, barcode));
+        }
+        assertEquals(50, mediaRepository.getHoldings(HOBBIT).getAvailableCount());
+        assertTrue(mediaRepository.findMediaById(HOBBIT).isAvailable());
+    }
+}
@@ -0,0 +1,92 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import com.library.model.Loan;
+import com.library.service.LibraryContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Isbn keys and the ISBN index of MediaRepository
+ * @author Library Team
+ * @version 1.0
+ */
+class IsbnIndexTest {
+
+    @Test
+    void testIsbn13AndIsbn10MapToTheSameKey() {
+        long key = Isbn.toKey("978-0743273565");
+        assertEquals(9780743273565L, key);
+        assertEquals(key, Isbn.toKey("9780743273565"));
+        assertEquals(key, Isbn.toKey("978 0 7432 7356 5"));
+        assertEquals(key, Isbn.toKey("0-7432-7356-7"));
+        assertEquals(key, Isbn.toKey("0743273567"));
+        assertEquals(9780804429573L, Isbn.toKey("0-8044-2957-X"));
+        assertEquals(9780804429573L, Isbn.toKey("080442957x"));
+        assertEquals(9791090636071L, Isbn.toKey("979-10-90636-07-1"));
+        assertEquals("9780743273565", Isbn.toIsbn13(key));
+    }
+
+    @Test
+    void testInvalidIsbns() {
+        assertEquals(Isbn.INVALID, Isbn.toKey("978-0743273566"), "bad ISBN-13 check digit");
+        assertEquals(Isbn.INVALID, Isbn.toKey("0743273568"), "bad ISBN-10 check digit");
+        assertEquals(Isbn.INVALID, Isbn.toKey("977-0743273565"), "unknown prefix");
+        assertEquals(Isbn.INVALID, Isbn.toKey("97807432735"));
+        assertEquals(Isbn.INVALID, Isbn.toKey("97807432735650"));
+        assertEquals(Isbn.INVALID, Isbn.toKey("X804429570"));
+        assertEquals(Isbn.INVALID, Isbn.toKey("080442957X1"));
+        assertEquals(Isbn.INVALID, Isbn.toKey("CD-001"));
+        assertEquals(Isbn.INVALID, Isbn.toKey(""));
+        assertEquals(Isbn.INVALID, Isbn.toKey(null));
+        assertFalse(Isbn.isValid("ISBN"));
+        assertTrue(Isbn.isValid("978-0547928227"));
+        assertThrows(IllegalArgumentException.class, () -> Isbn.toIsbn13(Isbn.INVALID));
+    }
+
+    @Test
+    void testHashIndexGrowsAndKeepsFirstValue() {
+        LongIntHashIndex index = new LongIntHashIndex();
+        for (int i = 1; i <= 100_000; i++) {
+            assertTrue(index.putIfAbsent(9_780_000_000_000L + i * 7L, i));
+        }
+        assertFalse(index.putIfAbsent(9_780_000_000_007L, -5));
+
+        assertEquals(100_000, index.size());
+        for (int i = 1; i <= 100_000; i++) {
+            assertEquals(i, index.get(9_780_000_000_000L + i * 7L));
+        }
+        assertEquals(LongIntHashIndex.MISSING, index.get(9_780_000_000_001L));
+        assertThrows(IllegalArgumentException.class, () -> index.putIfAbsent(0, 1));
+    }
+
+    @Test
+    void testFindBookByIsbnIsFormatInsensitive() {
+        MediaRepository repository = new MediaRepository();
+        Book gatsby = (Book) repository.findMediaById("978-0743273565");
+
+        assertSame(gatsby, repository.findBookByIsbn("9780743273565"));
+        assertSame(gatsby, repository.findBookByIsbn("0-7432-7356-7"));
+        assertSame(gatsby, repository.findBookByIsbn("978-0743273565"));
+        assertNull(repository.findBookByIsbn("CD-001"));
+        assertNull(repository.findBookByIsbn("9780743273566"));
+        assertNull(repository.findBookByIsbn("9780544338012"));
+
+        repository.addBook("The Silmarillion", "J.R.R. Tolkien", "9780544338012");
+        assertEquals("The Silmarillion", repository.findBookByIsbn("978-0-544-33801-2").getTitle());
+    }
+
+    @Test
+    void testBorrowWithScannedIsbnUsesCatalogIdentifier() {
+        LibraryContext context = new LibraryContext();
+
+        Loan loan = context.getLoanService().borrowBook("U003", "9780547928227", LocalDate.now());
+
+        assertNotNull(loan);
+        assertEquals("978-0547928227", loan.getMediaId());
+        assertFalse(context.getMediaRepository().findMediaById("978-0547928227").isAvailable());
+    }
+}
@@ -752,5 +752,15 @@ class LoanRepositoryTest {
         assertFalse(cdsBreakdown.contains("BOOKS")); // Should not have book section
     }
 
+    @Test
+    void testOverdueReadsDoNotChangeLoans() {
+        Loan loan = loanRepository.createBookLoan("U003", "978-0451524935", LocalDate.now());
+        LocalDate later = LocalDate.now().plusDays(40);
 
-}
\ No newline at end of file
+        assertTrue(loanRepository.getOverdueLoans(later).contains(loan));
+        assertEquals(1, loanRepository.getOverdueLoansForUser("U003", later).size());
+        assertEquals(10.00, loanRepository.getOverdueSummaryForUser("U003", later).getTotalFine(), 0.001);
+        assertEquals(10.00, loanRepository.getIntegratedOverdueReport("U003", later).getActiveFinesTotal(), 0.001);
+        assertFalse(loan.isOverdue());
+    }
+}
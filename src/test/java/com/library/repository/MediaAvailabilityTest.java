@@ -0,0 +1,139 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import com.library.model.CD;
+import com.library.model.Media;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for availability bits kept outside the catalog objects
+ * @author Library Team
+ * @version 1.0
+ */
+class MediaAvailabilityTest {
+
+    @Test
+    void testAvailableListingsMatchPerItemFlags() {
+        MediaRepository repository = new MediaRepository();
+        Random random = new Random(11);
+        for (int i = 0; i < 3000; i++) {
+            if (i % 3 == 0) {
+                repository.addCD("CD " + i, "Artist", "C-" + i, "Rock", 10);
+            } else {
+                repository.addBook("Book " + i, "Author", "B-" + i);
+            }
+        }
+        for (Media media : repository.getAllMedia()) {
+            repository.updateMediaAvailability(media.getIdentifier(), random.nextBoolean());
+        }
+
+        List<Media> all = repository.getAllMedia();
+        assertEquals(all.stream().filter(Media::isAvailable).toList(), repository.getAvailableMedia());
+        assertEquals(all.stream().filter(m -> m instanceof Book && m.isAvailable()).toList(),
+                repository.getAvailableBooks());
+        assertEquals(all.stream().filter(m -> m instanceof CD && m.isAvailable()).toList(),
+                repository.getAvailableCDs());
+        assertEquals(repository.getAvailableMedia().size(), repository.countAvailableMedia());
+        assertEquals(repository.searchMedia("Book 1").stream().filter(Media::isAvailable).toList(),
+                repository.searchMedia("Book 1", true));
+    }
+
+    @Test
+    void testFlagSetBeforeAddIsCarriedOver() {
+        MediaRepository repository = new MediaRepository();
+        Book book = new Book("Loaned Out", "Author", "B-1");
+        book.setAvailable(false);
+
+        repository.addMedia(book);
+        assertFalse(repository.findMediaById("B-1").isAvailable());
+        assertFalse(repository.getAvailableBooks().contains(book));
+
+        book.setAvailable(true);
+        assertTrue(repository.getAvailableBooks().contains(book));
+        assertTrue(book.toString().contains("Available: Yes"));
+    }
+
+    @Test
+    void testAtomicBitSetGrowsAndCompareAndSet() {
+        AtomicBitSet bits = new AtomicBitSet();
+        assertFalse(bits.get(1_000_000));
+
+        bits.set(3, true);
+        bits.set(200_000, true);
+        assertTrue(bits.get(200_000));
+        assertFalse(bits.compareAndSet(3, false, true));
+        assertTrue(bits.compareAndSet(3, true, false));
+        assertFalse(bits.get(3));
+        assertFalse(bits.getAndSet(3, true));
+        assertTrue(bits.getAndSet(3, true));
+        assertTrue(bits.getAndSet(3, false));
+
+        long[] words = bits.toWords(200_001);
+        assertEquals(1, Long.bitCount(words[200_000 >>> 6]));
+        assertEquals(0, bits.toWords(200_000)[3124]);
+        assertThrows(IndexOutOfBoundsException.class, () -> bits.set(-1, true));
+    }
+
+    @Test
+    void testConcurrentFlipsOnSharedWordsAreNotLost() throws Exception {
+        MediaRepository repository = new MediaRepository();
+        for (int i = 0; i < 4000; i++) {
+            repository.addBook("Book " + i, "Author", "B-" + i);
+        }
+        List<Media> media = repository.getAllMedia();
+        ExecutorService desks = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Desk d checks out every 8th item, so neighbouring bits are flipped by different threads
+        for (int d = 0; d < 8; d++) {
+            int desk = d;
+            futures.add(desks.submit(() -> {
+                for (int i = desk; i < media.size(); i += 8) {
+                    media.get(i).setAvailable(false);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        desks.shutdown();
+
+        assertEquals(0, repository.countAvailableMedia());
+        assertTrue(repository.getAvailableMedia().isEmpty());
+    }
+
+    @Test
+    void testEachAvailabilityFlipIsReportedOnce() throws Exception {
+        MediaRepository repository = new MediaRepository();
+        Media gatsby = repository.findMediaById("978-0743273565");
+        AtomicInteger reports = new AtomicInteger();
+        repository.setChangeListener(record -> reports.incrementAndGet());
+        ExecutorService desks = Executors.newFixedThreadPool(8);
+
+        // Eight desks race to write the same value; only the write that changes the bit reports
+        for (int round = 0; round < 200; round++) {
+            boolean available = round % 2 == 1;
+            List<Future<?>> futures = new ArrayList<>();
+            for (int d = 0; d < 8; d++) {
+                futures.add(desks.submit(() -> gatsby.setAvailable(available)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        desks.shutdown();
+
+        assertEquals(200, reports.get());
+        assertTrue(gatsby.isAvailable());
+    }
+}
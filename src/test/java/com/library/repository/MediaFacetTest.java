@@ -0,0 +1,97 @@
+package com.library.repository;
+
+import com.library.model.CD;
+import com.library.model.Media;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for faceted browsing in MediaRepository
+ * @author Library Team
+ * @version 1.0
+ */
+class MediaFacetTest {
+    private MediaRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MediaRepository();
+        repository.addCD("Led Zeppelin IV", "Led Zeppelin", "CD-006", "Rock", 8);
+        repository.addCD("Abbey Road", "The Beatles", "CD-007", " rock ", 17);
+    }
+
+    @Test
+    void testCombinedFiltersAndCounts() {
+        assertEquals(14, repository.countMatching(null, null, false));
+        assertEquals(7, repository.countMatching("BOOK", null, false));
+        assertEquals(7, repository.countMatching("cd", null, false));
+        assertEquals(3, repository.countMatching("CD", "ROCK", false));
+        assertEquals(3, repository.countMatching(null, "Rock", false));
+        assertEquals(0, repository.countMatching("BOOK", "Rock", false));
+        assertEquals(0, repository.countMatching(null, "Polka", false));
+        assertEquals(14, repository.countMatching(null, " ", false));
+
+        assertEquals(List.of("The Beatles", "Led Zeppelin IV", "Abbey Road"),
+                titles(repository.browse("CD", "rock", false)));
+        assertThrows(IllegalArgumentException.class, () -> repository.countMatching("DVD", null, false));
+    }
+
+    @Test
+    void testAvailabilityChangesUpdateFacets() {
+        assertEquals(3, repository.countMatching("CD", "Rock", true));
+
+        assertTrue(repository.updateMediaAvailability("CD-006", false));
+        assertEquals(2, repository.countMatching("CD", "Rock", true));
+        assertEquals(List.of("The Beatles", "Abbey Road"), titles(repository.browse(null, "Rock", true)));
+        assertEquals(13, repository.countMatching(null, null, true));
+
+        assertTrue(repository.updateMediaAvailability("CD-006", true));
+        assertEquals(3, repository.countMatching("CD", "Rock", true));
+    }
+
+    @Test
+    void testGenreCountsLargestFirst() {
+        repository.updateMediaAvailability("CD-001", false);
+
+        Map<String, Integer> all = repository.getGenreCounts(false);
+        assertEquals(List.of("Rock", "Hard Rock", "Pop", "Progressive Rock", "Soft Rock"), new ArrayList<>(all.keySet()));
+        assertEquals(3, all.get("Rock"));
+
+        Map<String, Integer> available = repository.getGenreCounts(true);
+        assertFalse(available.containsKey("Pop"));
+        assertEquals(4, available.size());
+    }
+
+    @Test
+    void testFacetsMatchAScanOnALargerCatalog() {
+        String[] genres = {"Jazz", "Rock", "Pop", "Blues"};
+        List<Media> batch = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            batch.add(new CD("Album " + i, "Artist " + i, "X-" + i, genres[i % genres.length], 10));
+        }
+        repository.addMediaBatch(batch);
+        for (int i = 0; i < 5000; i += 3) {
+            repository.updateMediaAvailability("X-" + i, false);
+        }
+
+        for (String genre : genres) {
+            long expected = repository.getAllCDs().stream()
+                    .filter(cd -> cd.getGenre().trim().equalsIgnoreCase(genre) && cd.isAvailable())
+                    .count();
+            assertEquals(expected, repository.countMatching("CD", genre, true), genre);
+            assertEquals(expected, repository.browse("CD", genre, true).size(), genre);
+        }
+        assertEquals(repository.getAvailableMedia().size(), repository.countMatching(null, null, true));
+        assertEquals(repository.getAllCDs().size(), repository.countMatching("CD", null, false));
+    }
+
+    private static List<String> titles(List<? extends Media> media) {
+        return media.stream().map(Media::getTitle).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.library.repository;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.Media;
+import com.library.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for paged and cursor-based repository listings
+ * @author Library Team
+ * @version 1.0
+ */
+class PageTest {
+
+    @Test
+    void testOffsetPagesCoverAllMediaInOrder() {
+        MediaRepository repository = new MediaRepository();
+        List<Media> all = repository.getAllMedia();
+
+        List<Media> collected = new ArrayList<>();
+        for (int offset = 0; offset < all.size(); offset += 3) {
+            Page<Media> page = repository.getMediaPage(offset, 3);
+            assertEquals(all.size(), page.getTotalCount());
+            collected.addAll(page.getItems());
+        }
+        assertEquals(all, collected);
+        assertTrue(repository.getMediaPage(all.size() + 10, 3).getItems().isEmpty());
+    }
+
+    @Test
+    void testCursorWalkMatchesFullListing() {
+        for (int limit = 1; limit <= 4; limit++) {
+            LoanRepository repository = new LoanRepository(new MediaRepository());
+            repository.createBookLoan("U003", "978-0451524935", LocalDate.now());
+
+            List<Loan> collected = new ArrayList<>();
+            String cursor = null;
+            do {
+                Page<Loan> page = repository.getLoansAfter(cursor, limit);
+                collected.addAll(page.getItems());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertEquals(repository.getAllLoans(), collected);
+        }
+    }
+
+    @Test
+    void testCursorSurvivesRemovalOfEarlierItems() throws Exception {
+        UserRepository repository = new UserRepository();
+        Page<User> first = repository.getUsersPage(0, 3);
+        String lastId = first.getItems().get(2).getUserId();
+
+        @SuppressWarnings("unchecked")
+        List<User> users = (List<User>) field(UserRepository.class, "users").get(repository);
+        users.remove(0);
+
+        Page<User> next = repository.getUsersAfter(first.getNextCursor(), 10);
+        List<User> expected = users.subList(users.indexOf(repository.findUserById(lastId)) + 1, users.size());
+        assertEquals(expected, next.getItems());
+        assertFalse(next.hasMore());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        FineRepository repository = new FineRepository();
+
+        assertThrows(IllegalArgumentException.class, () -> repository.getFinesPage(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> repository.getFinesPage(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> repository.getFinesAfter("not a cursor!", 5));
+        assertEquals(repository.getFinesPage(0, 5).getItems(), repository.getFinesAfter(null, 5).getItems());
+    }
+
+    @Test
+    void testViewsAreReadOnlyAndLive() {
+        FineRepository repository = new FineRepository();
+        List<Fine> view = repository.getFinesView();
+        int before = view.size();
+
+        repository.createFine("U003", 5.0, "L0001");
+
+        assertEquals(before + 1, view.size());
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+    }
+
+    private static Field field(Class<?> type, String name) throws NoSuchFieldException {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+}
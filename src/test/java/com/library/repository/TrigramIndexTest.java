@@ -0,0 +1,150 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import com.library.model.CD;
+import com.library.model.Media;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TrigramIndex and fuzzy search in MediaRepository
+ * @author Library Team
+ * @version 1.0
+ */
+class TrigramIndexTest {
+    private MediaRepository mediaRepository;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository = new MediaRepository();
+    }
+
+    @Test
+    void testMisspelledAuthorsAndTitles() {
+        assertEquals("The Hobbit", mediaRepository.fuzzySearch("Tolkein", 5).get(0).getTitle());
+        assertEquals("The Great Gatsby", mediaRepository.fuzzySearch("Gatsbey", 5).get(0).getTitle());
+        assertEquals("Harry Potter and the Sorcerer's Stone",
+                mediaRepository.fuzzySearch("Rowlnig", 5).get(0).getTitle());
+        assertEquals("Harry Potter and the Sorcerer's Stone",
+                mediaRepository.fuzzySearch("sorcerers", 5).get(0).getTitle());
+        assertEquals("Rumours", mediaRepository.fuzzySearch("Fleetwod Mac", 5).get(0).getTitle());
+        assertTrue(mediaRepository.fuzzySearch("Tolkein", 5).get(0) instanceof Book);
+        assertTrue(mediaRepository.fuzzySearch("Thriler", 5).get(0) instanceof CD);
+    }
+
+    @Test
+    void testRankingPrefersMoreMatchedWordsThenFewerEdits() {
+        List<Media> results = mediaRepository.fuzzySearch("great gatsbey", 10);
+        assertEquals("The Great Gatsby", results.get(0).getTitle());
+
+        mediaRepository.addMedia(new Book("Gatsby Revisited", "Someone Else", "978-0000000001"));
+        results = mediaRepository.fuzzySearch("gatsby", 10);
+        assertEquals(2, results.size());
+        assertEquals("The Great Gatsby", results.get(0).getTitle(), "ties keep catalog order");
+
+        results = mediaRepository.fuzzySearch("gatsbey", 1);
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    void testNoMatchesAndLimits() {
+        assertTrue(mediaRepository.fuzzySearch("zzzzqqqq", 5).isEmpty());
+        assertTrue(mediaRepository.fuzzySearch("", 5).isEmpty());
+        assertTrue(mediaRepository.fuzzySearch("   ", 5).isEmpty());
+        assertTrue(mediaRepository.fuzzySearch(null, 5).isEmpty());
+        assertTrue(mediaRepository.fuzzySearch("Tolkein", 0).isEmpty());
+    }
+
+    @Test
+    void testNewMediaIsIndexedIncrementally() {
+        assertTrue(mediaRepository.fuzzySearch("Silmarilion", 5).isEmpty());
+        mediaRepository.addMedia(new Book("The Silmarillion", "J.R.R. Tolkien", "978-0544338012"));
+
+        assertEquals("The Silmarillion", mediaRepository.fuzzySearch("Silmarilion", 5).get(0).getTitle());
+        assertEquals(2, mediaRepository.fuzzySearch("tolkein", 5).size());
+    }
+
+    @Test
+    void testSnapshotBoundIgnoresLaterPositions() {
+        TrigramIndex index = new TrigramIndex();
+        index.addAll(0, List.of(new Book("Dune", "Frank Herbert", "1")));
+        index.addAll(1, List.of(new Book("Dune Messiah", "Frank Herbert", "2")));
+
+        assertArrayEquals(new int[]{0, 1}, index.search("herbrt", 2, 10));
+        assertArrayEquals(new int[]{0}, index.search("herbrt", 1, 10));
+    }
+
+    @Test
+    void testBoundedDistance() {
+        assertEquals(0, TrigramIndex.boundedDistance("gatsby", "gatsby", 1));
+        assertEquals(1, TrigramIndex.boundedDistance("gatsbey", "gatsby", 1));
+        assertEquals(1, TrigramIndex.boundedDistance("tolkein", "tolkien", 1));
+        assertEquals(1, TrigramIndex.boundedDistance("tolkein", "tolkien", 0), "over the bound");
+        assertEquals(2, TrigramIndex.boundedDistance("kitten", "sitting", 1));
+        assertEquals(0, TrigramIndex.boundedDistance("pot", "potter", 0));
+        assertEquals(3, TrigramIndex.boundedDistance("abcdefgh", "a", 2));
+        assertEquals(0, TrigramIndex.maxEdits("the"));
+        assertEquals(1, TrigramIndex.maxEdits("gatsby"));
+        assertEquals(2, TrigramIndex.maxEdits("silmarillion"));
+    }
+
+    @Test
+    void testTokenizeFoldsCaseAccentsAndPunctuation() {
+        assertArrayEquals(new String[]{"harry", "potter", "and", "the", "sorcerers", "stone"},
+                TrigramIndex.tokenize("Harry Potter and the Sorcerer's Stone"));
+        assertArrayEquals(new String[]{"j", "r", "r", "tolkien"}, TrigramIndex.tokenize("J.R.R. Tolkien"));
+        assertArrayEquals(new String[]{"bronte", "ac", "dc"}, TrigramIndex.tokenize("Brontë AC/DC"));
+        assertEquals(7, TrigramIndex.grams("tolkein").length);
+        assertEquals(3, TrigramIndex.grams("aaaa").length);
+    }
+
+    @Test
+    void testParallelBuildMatchesExhaustiveScan() {
+        String[] vocabulary = {"shadow", "river", "kingdom", "silver", "garden", "winter", "stone", "dragon",
+                "forest", "memory", "ocean", "letters", "midnight", "empire", "harbor", "lantern"};
+        Random random = new Random(11);
+        List<Media> batch = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            String title = vocabulary[random.nextInt(vocabulary.length)] + " " + typo(vocabulary[random.nextInt(vocabulary.length)], random);
+            String author = typo(vocabulary[random.nextInt(vocabulary.length)], random) + " " + i;
+            batch.add(new Book(title, author, "SYN-" + i));
+        }
+        mediaRepository.addMediaBatch(batch);
+
+        String query = "lantren";
+        Set<String> expected = new HashSet<>();
+        for (Media item : mediaRepository.getAllMedia()) {
+            String[] words = (String.join(" ", TrigramIndex.tokenize(item.getTitle())) + " "
+                    + String.join(" ", TrigramIndex.tokenize(item.getAuthor()))).split(" ");
+            if (Arrays.stream(words).anyMatch(word -> TrigramIndex.boundedDistance(query, word, 1) <= 1)) {
+                expected.add(item.getIdentifier());
+            }
+        }
+
+        List<Media> results = mediaRepository.fuzzySearch(query, Integer.MAX_VALUE);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, results.stream().map(Media::getIdentifier).collect(Collectors.toSet()));
+        assertEquals(expected.size(), results.size());
+        // Items spelled exactly like the query rank first
+        assertTrue(mediaRepository.fuzzySearch(query, 10).stream()
+                .allMatch(media -> (media.getTitle() + " " + media.getAuthor()).toLowerCase().contains(query)));
+    }
+
+    private static String typo(String word, Random random) {
+        if (random.nextInt(3) != 0) {
+            return word;
+        }
+        int at = 1 + random.nextInt(word.length() - 2);
+        return word.substring(0, at) + word.charAt(at + 1) + word.charAt(at) + word.substring(at + 2);
+    }
+}
@@ -0,0 +1,138 @@
+package com.library.scheduler;
+
+import com.library.model.Loan;
+import com.library.observer.NotificationEvent;
+import com.library.repository.LoanRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for DueDateScheduler and its LoanRepository integration
+ * @author Library Team
+ * @version 1.0
+ */
+class DueDateSchedulerTest {
+    private LocalDate today;
+    private LoanRepository loanRepository;
+    private DueDateScheduler scheduler;
+    private List<NotificationEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        loanRepository = new LoanRepository(new MediaRepository());
+        scheduler = new DueDateScheduler(today, new UserRepository(), 3, 1);
+        events = new ArrayList<>();
+        scheduler.attachObserver(events::add);
+        loanRepository.setDueDateScheduler(scheduler);
+    }
+
+    @Test
+    void testSampleOverdueLoansAreNotScheduled() {
+        assertEquals(0, scheduler.getPendingTimerCount());
+    }
+
+    @Test
+    void testDueSoonAndOverdueEvents() {
+        Loan loan = loanRepository.createCDLoan("U003", "CD-002", today);
+        assertEquals(3, scheduler.getPendingTimerCount());
+
+        scheduler.advanceTo(today.plusDays(4));
+        assertEquals(1, events.size());
+        assertEquals(DueDateScheduler.DUE_SOON, events.get(0).getEventType());
+        assertEquals("U003", events.get(0).getUser().getUserId());
+
+        scheduler.advanceTo(today.plusDays(7));
+        assertEquals(2, events.size());
+        assertFalse(loan.isOverdue());
+
+        scheduler.advanceTo(today.plusDays(8));
+        assertEquals(3, events.size());
+        assertEquals(DueDateScheduler.OVERDUE_DETECTED, events.get(2).getEventType());
+        assertSame(loan, events.get(2).getData());
+        // The event only notifies; overdue status comes from the due date
+        assertFalse(loan.isOverdue());
+        assertTrue(loan.isOverdueAsOf(today.plusDays(8)));
+        assertEquals(0, scheduler.getPendingTimerCount());
+    }
+
+    @Test
+    void testTickWaitsForTheWriteLock() throws Exception {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        scheduler.setWriteLock(lock.writeLock());
+        List<LocalDate> ticks = new ArrayList<>();
+        scheduler.addDailyTask(ticks::add);
+        loanRepository.createCDLoan("U003", "CD-002", today);
+
+        lock.writeLock().lock();
+        Thread ticker = new Thread(() -> scheduler.advanceTo(today.plusDays(8)));
+        try {
+            ticker.start();
+            while (!lock.hasQueuedThread(ticker)) {
+                Thread.sleep(1);
+            }
+            assertTrue(ticks.isEmpty());
+            assertTrue(events.isEmpty());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ticker.join();
+
+        assertEquals(List.of(today.plusDays(8)), ticks);
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    void testReturnCancelsTimers() {
+        Loan loan = loanRepository.createBookLoan("U003", "978-0451524935", today);
+        Loan other = loanRepository.createBookLoan("U005", "978-0547928227", today);
+        assertEquals(6, scheduler.getPendingTimerCount());
+
+        loanRepository.returnMedia(loan.getLoanId(), today.plusDays(1));
+        loanRepository.returnLoans(List.of(other), today.plusDays(1));
+        assertEquals(0, scheduler.getPendingTimerCount());
+
+        scheduler.advanceTo(today.plusDays(60));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testBatchLoansAreRegistered() {
+        Map<String, String> items = new LinkedHashMap<>();
+        items.put("CD-003", "CD");
+        items.put("CD-004", "CD");
+        loanRepository.createLoans("U003", items, today);
+
+        assertEquals(6, scheduler.getPendingTimerCount());
+        assertEquals(6, scheduler.advanceTo(today.plusDays(8)));
+    }
+
+    @Test
+    void testLargeNumberOfPendingTimers() {
+        for (int i = 0; i < 200_000; i++) {
+            Loan loan = new Loan("X" + i, "U003", "M" + i, "BOOK", today, today.plusDays(1 + i % 400));
+            scheduler.register(loan);
+        }
+        assertTrue(scheduler.getPendingTimerCount() >= 200_000);
+
+        for (int i = 0; i < 200_000; i += 2) {
+            scheduler.cancel("X" + i);
+        }
+        scheduler.advanceTo(today.plusDays(500));
+        assertEquals(0, scheduler.getPendingTimerCount());
+        assertEquals(100_000, events.stream()
+                .filter(event -> DueDateScheduler.OVERDUE_DETECTED.equals(event.getEventType()))
+                .count());
+    }
+}
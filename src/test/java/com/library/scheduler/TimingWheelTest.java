@@ -0,0 +1,88 @@
+package com.library.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TimingWheel
+ * @author Library Team
+ * @version 1.0
+ */
+class TimingWheelTest {
+
+    @Test
+    void testTimersFireOnTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000);
+        wheel.schedule(1001, "a");
+        wheel.schedule(1064, "b");
+        wheel.schedule(1000 + 5000, "c");
+
+        assertEquals(List.of("a"), wheel.advanceTo(1001));
+        assertEquals(List.of(), wheel.advanceTo(1063));
+        assertEquals(List.of("b"), wheel.advanceTo(1064));
+        assertEquals(List.of(), wheel.advanceTo(5999));
+        assertEquals(List.of("c"), wheel.advanceTo(6000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testPastDeadlineFiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(50);
+        wheel.schedule(10, "late");
+
+        assertEquals(List.of("late"), wheel.advanceTo(51));
+    }
+
+    @Test
+    void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Timer<String> keep = wheel.schedule(100, "keep");
+        TimingWheel.Timer<String> drop = wheel.schedule(100, "drop");
+
+        assertTrue(wheel.cancel(drop));
+        assertFalse(wheel.cancel(drop));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("keep"), wheel.advanceTo(200));
+        assertFalse(wheel.cancel(keep));
+    }
+
+    @Test
+    void testDeadlineBeyondWheelSpan() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        long far = (1L << 24) + 12345;
+        wheel.schedule(far, "far");
+
+        assertTrue(wheel.advanceTo(far - 1).isEmpty());
+        assertEquals(List.of("far"), wheel.advanceTo(far));
+    }
+
+    @Test
+    void testRandomDeadlinesMatchReference() {
+        Random random = new Random(7);
+        TimingWheel<Long> wheel = new TimingWheel<>(0);
+        List<TimingWheel.Timer<Long>> timers = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long deadline = 1 + random.nextInt(20000);
+            timers.add(wheel.schedule(deadline, deadline));
+        }
+        for (int i = 0; i < timers.size(); i += 3) {
+            wheel.cancel(timers.get(i));
+        }
+
+        int fired = 0;
+        for (long tick = 1; tick <= 20000; tick += 1 + random.nextInt(50)) {
+            for (Long deadline : wheel.advanceTo(tick)) {
+                assertTrue(deadline <= tick && deadline > tick - 51, "deadline " + deadline + " at " + tick);
+                fired++;
+            }
+        }
+        fired += wheel.advanceTo(20001).size();
+        assertEquals(timers.size() - (timers.size() + 2) / 3, fired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,155 @@
+package com.library.service;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AggregationService
+ * @author Library Team
+ * @version 1.0
+ */
+class AggregationServiceTest {
+    private LibraryContext context;
+    private AggregationService aggregationService;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        context = new LibraryContext();
+        aggregationService = new AggregationService(context.getLoanRepository(), context.getFineRepository(),
+                context.getUserRepository(), 4);
+        aggregationService.setChunkSize(1);
+        today = LocalDate.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregationService.close();
+    }
+
+    @Test
+    void testSummaryMatchesRepositories() {
+        AggregationService.AdminSummary summary = aggregationService.summarize(today);
+
+        List<Loan> overdue = context.getLoanRepository().getOverdueLoans(today);
+        assertEquals(overdue.size(), summary.getOverdueCount());
+        assertEquals(overdue.stream().collect(Collectors.groupingBy(Loan::getMediaType, Collectors.summingInt(loan -> 1))),
+                summary.getOverdueCountByMediaType());
+        assertEquals(overdue.stream().mapToDouble(loan -> loan.calculateFine(today)).sum(),
+                summary.getTotalOverdueFines(), 0.001);
+        assertTrue(summary.getOverdueCountByMediaType().containsKey("CD"));
+
+        double outstanding = 0;
+        for (User user : context.getUserRepository().getAllUsers()) {
+            double unpaid = context.getFineRepository().getTotalUnpaidAmount(user.getUserId());
+            outstanding += unpaid;
+            AggregationService.UserTotals totals = summary.getUserTotals(user.getUserId());
+            assertEquals(unpaid, totals == null ? 0.0 : totals.getUnpaidFines(), 0.001);
+        }
+        assertEquals(60.0, outstanding, 0.001);
+        assertEquals(outstanding, summary.getTotalOutstandingFines(), 0.001);
+        assertEquals(context.getUserManagementService().getActiveUsers().size(), summary.getActiveUserCount());
+        assertEquals(1, summary.getUserTotals("U001").getOverdueLoans());
+    }
+
+    @Test
+    void testTopDelinquentUsers() {
+        AggregationService.AdminSummary summary = aggregationService.summarize(today);
+
+        List<AggregationService.UserTotals> top = summary.getTopDelinquentUsers(2);
+        assertEquals(2, top.size());
+        assertEquals("U002", top.get(0).getUserId());
+        assertTrue(top.get(0).getAmountOwed() >= top.get(1).getAmountOwed());
+        assertTrue(summary.getTopDelinquentUsers(10).stream().allMatch(totals -> totals.getAmountOwed() > 0));
+        assertFalse(summary.getTopDelinquentUsers(10).stream().anyMatch(totals -> "U003".equals(totals.getUserId())));
+        assertTrue(summary.getTopDelinquentUsers(0).isEmpty());
+    }
+
+    @Test
+    void testSummaryFollowsCirculation() {
+        context.getLoanService().returnBook("L0003", today);
+
+        AggregationService.AdminSummary summary = aggregationService.summarize(today);
+        assertEquals(0, summary.getUserTotals("U001").getOverdueLoans());
+        assertEquals(context.getFineRepository().getTotalUnpaidAmount("U001"),
+                summary.getUserTotals("U001").getUnpaidFines(), 0.001);
+    }
+
+    @Test
+    void testParallelMatchesSequentialOnLargeTables() {
+        Random random = new Random(7);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            User user = new User("U" + i, "User " + i, "user" + i + "@example.com");
+            user.setActive(i % 10 != 0);
+            users.add(user);
+        }
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            LocalDate borrowed = today.minusDays(random.nextInt(60));
+            String mediaType = random.nextBoolean() ? "BOOK" : "CD";
+            Loan loan = new Loan("L" + i, "U" + random.nextInt(users.size()), "M" + i, mediaType, borrowed,
+                    borrowed.plusDays("BOOK".equals(mediaType) ? 28 : 7));
+            if (random.nextInt(4) == 0) {
+                loan.setReturnDate(today);
+            }
+            loans.add(loan);
+        }
+        List<Fine> fines = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Fine fine = new Fine("F" + i, "U" + random.nextInt(users.size()), 5 + random.nextInt(20));
+            if (random.nextInt(3) == 0) {
+                fine.makePayment(fine.getAmount());
+            }
+            fines.add(fine);
+        }
+
+        AggregationService.AdminSummary parallel = aggregationService.summarize(loans, fines, users, today);
+        AggregationService sequentialService = new AggregationService(context.getLoanRepository(),
+                context.getFineRepository(), context.getUserRepository(), 1);
+        sequentialService.setChunkSize(Integer.MAX_VALUE);
+        AggregationService.AdminSummary sequential = sequentialService.summarize(loans, fines, users, today);
+        sequentialService.close();
+
+        assertEquals(sequential.getOverdueCountByMediaType(), parallel.getOverdueCountByMediaType());
+        assertEquals(sequential.getActiveUserCount(), parallel.getActiveUserCount());
+        assertEquals(4_500, parallel.getActiveUserCount());
+        assertEquals(sequential.getTotalOutstandingFines(), parallel.getTotalOutstandingFines(), 0.001);
+        assertEquals(sequential.getTotalOverdueFines(), parallel.getTotalOverdueFines(), 0.001);
+        assertEquals(loans.stream().filter(loan -> loan.isOverdueAsOf(today)).count(), parallel.getOverdueCount());
+        assertEquals(fines.stream().filter(fine -> !fine.isPaid()).mapToDouble(Fine::getRemainingBalance).sum(),
+                parallel.getTotalOutstandingFines(), 0.001);
+
+        Map<String, AggregationService.UserTotals> expected = sequential.getAllUserTotals();
+        assertEquals(expected.keySet(), parallel.getAllUserTotals().keySet());
+        for (AggregationService.UserTotals totals : parallel.getAllUserTotals().values()) {
+            AggregationService.UserTotals other = expected.get(totals.getUserId());
+            assertEquals(other.getActiveLoans(), totals.getActiveLoans());
+            assertEquals(other.getOverdueLoans(), totals.getOverdueLoans());
+            assertEquals(other.getAmountOwed(), totals.getAmountOwed(), 0.001);
+        }
+        assertEquals(sequential.getTopDelinquentUsers(10).stream().map(AggregationService.UserTotals::getUserId).toList(),
+                parallel.getTopDelinquentUsers(10).stream().map(AggregationService.UserTotals::getUserId).toList());
+    }
+
+    @Test
+    void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> aggregationService.setChunkSize(0));
+        assertThrows(IllegalArgumentException.class, () -> new AggregationService(context.getLoanRepository(),
+                context.getFineRepository(), context.getUserRepository(), 0));
+        assertEquals(4, aggregationService.getParallelism());
+    }
+}
@@ -0,0 +1,150 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Loan;
+import com.library.model.Media;
+import com.library.repository.SuggestionTrie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AutocompleteService and SuggestionTrie
+ * @author Library Team
+ * @version 1.0
+ */
+class AutocompleteServiceTest {
+    private LibraryContext context;
+    private AutocompleteService autocomplete;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        context = new LibraryContext();
+        autocomplete = context.getAutocompleteService();
+        today = LocalDate.now();
+    }
+
+    @Test
+    void testPrefixesOfAnyTitleOrAuthorWord() {
+        // "Harper Lee" also starts with "har"; Mockingbird has a loan, so it comes first
+        assertEquals(List.of("To Kill a Mockingbird", "Harry Potter and the Sorcerer's Stone"),
+                titles(autocomplete.suggest("har")));
+        assertEquals(List.of("Harry Potter and the Sorcerer's Stone"), titles(autocomplete.suggest("harry")));
+        assertEquals(List.of("Harry Potter and the Sorcerer's Stone"), titles(autocomplete.suggest("Pott")));
+        assertEquals(List.of("Harry Potter and the Sorcerer's Stone"), titles(autocomplete.suggest("rowling")));
+        assertEquals(List.of("The Hobbit"), titles(autocomplete.suggest("TOLK")));
+        assertEquals(List.of("The Hobbit"), titles(autocomplete.suggest("the hob")));
+        assertEquals(List.of("Back in Black"), titles(autocomplete.suggest("ac/dc")));
+        assertTrue(autocomplete.suggest("zzz").isEmpty());
+        assertTrue(autocomplete.suggest("").isEmpty());
+        assertTrue(autocomplete.suggest("har", 0).isEmpty());
+    }
+
+    @Test
+    void testSeededLoansRankPopularTitlesFirst() {
+        assertEquals(1, autocomplete.getLoanCount("978-0743273565"));
+        assertEquals(0, autocomplete.getLoanCount("978-0547928227"));
+
+        // Ties keep catalog order
+        assertEquals(List.of("The Great Gatsby", "The Catcher in the Rye", "The Hobbit",
+                        "Harry Potter and the Sorcerer's Stone", "The Dark Side of the Moon"),
+                titles(autocomplete.suggest("the")));
+        assertEquals(2, autocomplete.suggest("the", 2).size());
+    }
+
+    @Test
+    void testNewLoansMoveTitlesUp() {
+        Loan first = context.getLoanService().borrowBook("U003", "978-0547928227", today);
+        assertNotNull(first);
+        assertTrue(context.getLoanService().returnBook(first.getLoanId(), today));
+        assertNotNull(context.getLoanService().borrowBook("U005", "978-0547928227", today));
+
+        assertEquals(2, autocomplete.getLoanCount("978-0547928227"));
+        assertEquals("The Hobbit", autocomplete.suggest("the").get(0).getTitle());
+        assertEquals("The Hobbit", autocomplete.suggest("t").get(0).getTitle());
+    }
+
+    @Test
+    void testNewMediaIsSuggestedImmediately() {
+        context.getMediaRepository().addMedia(new Book("The Silmarillion", "J.R.R. Tolkien", "978-0544338012"));
+
+        assertEquals(List.of("The Silmarillion"), titles(autocomplete.suggest("silm")));
+        assertEquals(2, autocomplete.suggest("tolkien").size());
+    }
+
+    @Test
+    void testLoansSeenBeforeTheirMediaAreCounted() {
+        AutocompleteService service = new AutocompleteService(new SuggestionTrie<>());
+        service.recordChanged(new Loan("L1", "U1", "B1", "BOOK", today, today.plusDays(28)));
+        service.recordChanged(new Loan("L1", "U1", "B1", "BOOK", today, today.plusDays(28)));
+        service.recordChanged(new Book("Dune", "Frank Herbert", "B1"));
+        service.recordChanged(new Book("Dune Messiah", "Frank Herbert", "B2"));
+
+        assertEquals(1, service.getLoanCount("B1"));
+        assertEquals(List.of("Dune", "Dune Messiah"), titles(service.suggest("dune")));
+    }
+
+    @Test
+    void testReturnedLoansAreForgottenAndNotCountedAgain() {
+        AutocompleteService service = new AutocompleteService(new SuggestionTrie<>());
+        service.recordChanged(new Book("Dune", "Frank Herbert", "B1"));
+        Loan loan = new Loan("L1", "U1", "B1", "BOOK", today, today.plusDays(28));
+        service.recordChanged(loan);
+        assertEquals(1, service.getTrackedLoanCount());
+
+        loan.setReturnDate(today);
+        service.recordChanged(loan);
+        service.recordChanged(loan);
+        assertEquals(0, service.getTrackedLoanCount());
+        assertEquals(1, service.getLoanCount("B1"));
+
+        int tracked = autocomplete.getTrackedLoanCount();
+        for (int i = 0; i < 3; i++) {
+            Loan borrowed = context.getLoanService().borrowBook("U003", "978-0547928227", today);
+            assertTrue(context.getLoanService().returnBook(borrowed.getLoanId(), today));
+        }
+        assertEquals(tracked, autocomplete.getTrackedLoanCount());
+        assertEquals(3, autocomplete.getLoanCount("978-0547928227"));
+    }
+
+    @Test
+    void testTrieKeepsExactTopListsAsPopularityGrows() {
+        SuggestionTrie<String> trie = new SuggestionTrie<>(3, 24);
+        int[] ids = new int[6];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = trie.add("item" + i, List.of("common title " + i), 0);
+        }
+        assertEquals(List.of("item0", "item1", "item2"), trie.suggest("common", 5));
+
+        trie.increment(ids[5], 3);
+        trie.increment(ids[4], 2);
+        trie.increment(ids[1], 1);
+        assertEquals(List.of("item5", "item4", "item1"), trie.suggest("comm", 3));
+        assertEquals(List.of("item5", "item4", "item1"), trie.suggest("title", 3));
+        assertEquals(List.of("item4"), trie.suggest("common title 4", 3));
+        assertEquals(3, trie.getPopularity(ids[5]));
+
+        assertThrows(IllegalArgumentException.class, () -> trie.increment(ids[0], -1));
+        assertThrows(IllegalArgumentException.class, () -> new SuggestionTrie<String>(0, 1));
+    }
+
+    @Test
+    void testDepthLimitAndMemoryEstimate() {
+        SuggestionTrie<String> trie = new SuggestionTrie<>(5, 4);
+        trie.add("long", List.of("abcdefgh"), 0);
+
+        assertEquals(5, trie.getNodeCount());
+        assertEquals(List.of("long"), trie.suggest("abcdefgh", 5));
+        assertEquals(1, trie.size());
+        assertTrue(trie.estimateMemoryBytes() >= 5L * (10 + 20));
+    }
+
+    private static List<String> titles(List<Media> media) {
+        return media.stream().map(Media::getTitle).toList();
+    }
+}
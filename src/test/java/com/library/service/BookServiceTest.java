@@ -3,6 +3,7 @@ package com.library.service;
 import com.library.model.Book;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -95,4 +96,25 @@ class BookServiceTest {
         assertFalse(results.isEmpty());
         assertTrue(results.get(0).isAvailable());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSharesBooksAndAvailabilityWithTheMediaCatalog() {
+        LibraryContext context = new LibraryContext();
+        BookService books = context.getBookService();
+        assertEquals(7, books.getAllBooks().size());
+
+        // The Great Gatsby is on loan in the sample data; The Hobbit is not
+        Book gatsby = books.searchBooks("Gatsby").get(0);
+        assertSame(context.getMediaRepository().findMediaById("978-0743273565"), gatsby);
+        assertFalse(gatsby.isAvailable());
+
+        assertNotNull(context.getLoanService().borrowBook("U003", "978-0547928227", LocalDate.now()));
+        assertFalse(books.getBookRepository().findBookByIsbn("978-0547928227").isAvailable());
+
+        // CDs are never returned as books
+        assertTrue(books.searchBooks("Thriller").isEmpty());
+        authService.login("admin", "admin123");
+        assertTrue(books.addBook("The Silmarillion", "J.R.R. Tolkien", "978-0544338012", authService));
+        assertNotNull(context.getMediaRepository().findBookByIsbn("9780544338012"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.library.service;
+
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the eligibility cache in BorrowingRulesService.
+ * Cached decisions are compared against the uncached rule evaluation after every mutation.
+ * @author Library Team
+ * @version 1.0
+ */
+class BorrowingRulesServiceCacheTest {
+    private static final String[] USERS = {"U001", "U002", "U003", "U004", "U005", "NOPE"};
+    private static final String[] BOOKS = {"978-0451524935", "978-0547928227", "978-0743273565",
+            "978-0061120084", "978-0141439518"};
+    private static final String[] CDS = {"CD-001", "CD-002", "CD-003", "CD-004", "CD-005"};
+
+    private UserRepository userRepository;
+    private LoanService loanService;
+    private FineService fineService;
+    private UserManagementService userManagementService;
+    private BorrowingRulesService borrowingRulesService;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+        MediaRepository mediaRepository = new MediaRepository();
+        fineService = new FineService(userRepository);
+        loanService = new LoanService(fineService, userRepository, mediaRepository);
+        fineService.setLoanService(loanService);
+        userManagementService = new UserManagementService(userRepository,
+                loanService.getLoanRepository(), fineService.getFineRepository());
+
+        borrowingRulesService = new BorrowingRulesService(loanService.getLoanRepository(),
+                fineService.getFineRepository(), userRepository);
+        loanService.attachObserver(borrowingRulesService.getCacheInvalidator());
+        fineService.attachObserver(borrowingRulesService.getCacheInvalidator());
+        userManagementService.attachObserver(borrowingRulesService.getCacheInvalidator());
+
+        authService = Mockito.mock(AuthService.class);
+        Mockito.when(authService.isLoggedIn()).thenReturn(true);
+    }
+
+    private void assertCacheMatchesRules(LocalDate date) {
+        for (String userId : USERS) {
+            BorrowingRulesService.ValidationResult cached = borrowingRulesService.canUserBorrow(userId, date);
+            BorrowingRulesService.ValidationResult direct = borrowingRulesService.canUserBorrowUncached(userId, date);
+            assertEquals(direct.isValid(), cached.isValid(), "valid for " + userId + " on " + date);
+            assertEquals(direct.getMessage(), cached.getMessage(), "message for " + userId + " on " + date);
+        }
+    }
+
+    @Test
+    void testCachedDecisionsMatchUncachedUnderRandomMutations() {
+        Random random = new Random(42);
+        LocalDate date = LocalDate.now();
+        List<String> loanIds = new ArrayList<>();
+
+        for (int step = 0; step < 400; step++) {
+            String userId = USERS[random.nextInt(USERS.length - 1)];
+            switch (random.nextInt(8)) {
+                case 0, 1 -> {
+                    Loan loan = random.nextBoolean()
+                            ? loanService.borrowBook(userId, BOOKS[random.nextInt(BOOKS.length)], date)
+                            : loanService.borrowCD(userId, CDS[random.nextInt(CDS.length)], date);
+                    if (loan != null) {
+                        loanIds.add(loan.getLoanId());
+                    }
+                }
+                case 2 -> {
+                    List<String> active = new ArrayList<>();
+                    loanService.getLoanRepository().getActiveLoans().forEach(loan -> active.add(loan.getLoanId()));
+                    if (!active.isEmpty()) {
+                        loanService.returnBook(active.get(random.nextInt(active.size())), date);
+                    }
+                }
+                case 3 -> {
+                    List<Fine> unpaid = fineService.getUserUnpaidFines(userId);
+                    if (!unpaid.isEmpty()) {
+                        Fine fine = unpaid.get(random.nextInt(unpaid.size()));
+                        fineService.payFine(fine.getFineId(), random.nextBoolean() ? 5.0 : fine.getRemainingBalance());
+                    }
+                }
+                case 4 -> fineService.applyFine(userId, 1 + random.nextInt(10), "Damaged item");
+                case 5 -> {
+                    if (random.nextBoolean()) {
+                        userManagementService.unregisterUser(userId, authService);
+                    } else {
+                        userManagementService.reactivateUser(userId, authService, random.nextBoolean());
+                    }
+                }
+                case 6 -> date = date.plusDays(random.nextInt(10));
+                default -> {
+                    var rules = borrowingRulesService.getBorrowingRules();
+                    rules.setMaxBooksPerUser(1 + random.nextInt(5));
+                    rules.setRestrictBorrowingForOverdue(random.nextBoolean());
+                    rules.setRestrictBorrowingForUnpaidFines(random.nextBoolean());
+                }
+            }
+            assertCacheMatchesRules(date);
+        }
+        assertTrue(borrowingRulesService.getCachedUserCount() > 0);
+    }
+
+    @Test
+    void testCacheHitReflectsDateRolloverWithoutInvalidation() {
+        LocalDate today = LocalDate.now();
+        loanService.borrowBook("U003", "978-0451524935", today);
+
+        assertTrue(borrowingRulesService.canUserBorrow("U003", today).isValid());
+        assertEquals(1, borrowingRulesService.getCachedUserCount());
+
+        BorrowingRulesService.ValidationResult later = borrowingRulesService.canUserBorrow("U003", today.plusDays(29));
+        assertFalse(later.isValid());
+        assertTrue(later.getMessage().contains("overdue"));
+    }
+
+    @Test
+    void testEventsInvalidateOnlyAffectedUser() {
+        LocalDate today = LocalDate.now();
+        borrowingRulesService.canUserBorrow("U003", today);
+        borrowingRulesService.canUserBorrow("U005", today);
+        assertEquals(2, borrowingRulesService.getCachedUserCount());
+
+        borrowingRulesService.getBorrowingRules().setMaxBooksPerUser(1);
+        loanService.borrowBook("U003", "978-0451524935", today);
+
+        assertEquals(1, borrowingRulesService.getCachedUserCount());
+        assertTrue(borrowingRulesService.canUserBorrow("U003", today).getMessage().contains("maximum limit of 1"));
+        assertTrue(borrowingRulesService.canUserBorrow("U005", today).isValid());
+    }
+
+    @Test
+    void testUserDeactivationInvalidatesCache() {
+        borrowingRulesService.canUserBorrow("U005");
+        userManagementService.unregisterUser("U005", authService);
+
+        assertEquals(0, borrowingRulesService.getCachedUserCount());
+        assertFalse(borrowingRulesService.canUserBorrow("U005").isValid());
+    }
+
+    @Test
+    void testUnknownUserIsNotCached() {
+        assertEquals("❌ Error: User not found.", borrowingRulesService.canUserBorrow("NOPE").getMessage());
+        assertEquals("❌ Error: User not found.", borrowingRulesService.canUserBorrow(null).getMessage());
+        assertEquals(0, borrowingRulesService.getCachedUserCount());
+    }
+
+    @Test
+    void testDisabledCacheUsesUncachedPath() {
+        borrowingRulesService.canUserBorrow("U003");
+        borrowingRulesService.setCacheEnabled(false);
+
+        assertEquals(0, borrowingRulesService.getCachedUserCount());
+        assertTrue(borrowingRulesService.canUserBorrow("U003").isValid());
+        assertEquals(0, borrowingRulesService.getCachedUserCount());
+    }
+}
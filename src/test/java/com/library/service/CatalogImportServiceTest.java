@@ -0,0 +1,172 @@
+package com.library.service;
+
+import com.library.model.CD;
+import com.library.model.Media;
+import com.library.repository.MediaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CatalogImportService
+ * @author Library Team
+ * @version 1.0
+ */
+class CatalogImportServiceTest {
+    @TempDir
+    Path tempDir;
+
+    private MediaRepository mediaRepository;
+    private CatalogImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository = new MediaRepository();
+        importService = new CatalogImportService(mediaRepository);
+    }
+
+    @Test
+    void testCsvImportWithQuotingValidationAndDuplicates() throws IOException {
+        Path file = tempDir.resolve("catalog.csv");
+        Files.writeString(file, String.join("\n",
+                "type,identifier,title,author,genre,trackCount",
+                "BOOK,978-1000000001,\"Dune, Deluxe Edition\",Frank Herbert,,",
+                "CD,CD-900,\"Say \"\"Hello\"\"\",Some Band,Jazz,12",
+                "BOOK,978-0451524935,1984,George Orwell,,",
+                "BOOK,978-1000000001,Dune Again,Frank Herbert,,",
+                "",
+                "DVD,DVD-1,Movie,Director,,",
+                "CD,CD-901,Bad Tracks,Artist,Rock,many",
+                "BOOK,,No Identifier,Nobody,,"));
+        int before = mediaRepository.getAllMedia().size();
+
+        CatalogImportService.ImportResult result = importService.importFile(file, null);
+
+        assertEquals(7, result.getRowsRead());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(3, result.getInvalid());
+        assertEquals(3, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("Line 7:"));
+        assertEquals(before + 2, mediaRepository.getAllMedia().size());
+        assertEquals("Dune, Deluxe Edition", mediaRepository.findMediaById("978-1000000001").getTitle());
+        CD cd = (CD) mediaRepository.findMediaByIdAndType("CD-900", "CD");
+        assertEquals("Say \"Hello\"", cd.getTitle());
+        assertEquals(12, cd.getTrackCount());
+    }
+
+    @Test
+    void testBooksAreDeduplicatedByIsbnUnderAnySpelling() throws IOException {
+        assertTrue(mediaRepository.containsMediaId("9780743273565"));
+        assertTrue(mediaRepository.containsMediaId("0-7432-7356-7"));
+        assertFalse(mediaRepository.containsMediaId("9780306406157"));
+
+        Path file = tempDir.resolve("isbns.csv");
+        Files.writeString(file, String.join("\n",
+                "type,identifier,title,author,genre,trackCount",
+                "BOOK,9780743273565,The Great Gatsby Again,F. Scott Fitzgerald,,",
+                "BOOK,978-0-306-40615-7,Numerical Analysis,Someone,,",
+                "BOOK,9780306406157,Numerical Analysis Again,Someone,,"));
+        int before = mediaRepository.getAllMedia().size();
+
+        CatalogImportService.ImportResult result = importService.importFile(file, null);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(before + 1, mediaRepository.getAllMedia().size());
+        assertEquals("The Great Gatsby", mediaRepository.findBookByIsbn("9780743273565").getTitle());
+        assertEquals("Numerical Analysis", mediaRepository.findBookByIsbn("9780306406157").getTitle());
+    }
+
+    @Test
+    void testJsonLinesImport() throws IOException {
+        Path file = tempDir.resolve("catalog.jsonl");
+        Files.writeString(file, String.join("\n",
+                "{\"type\":\"cd\",\"identifier\":\"CD-950\",\"title\":\"Kind of Blue\",\"artist\":\"Miles Davis\",\"genre\":\"Jazz\",\"trackCount\":5}",
+                "{\"type\":\"BOOK\",\"identifier\":\"978-2000000002\",\"title\":\"Emma\",\"author\":\"Jane Austen\"}",
+                "not json"));
+
+        CatalogImportService.ImportResult result = importService.importFile(file, null);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getInvalid());
+        CD cd = (CD) mediaRepository.findMediaById("CD-950");
+        assertEquals("Miles Davis", cd.getAuthor());
+        assertEquals(5, cd.getTrackCount());
+    }
+
+    @Test
+    void testLargeFileIsImportedInOrderedBatches() throws IOException {
+        Path file = tempDir.resolve("large.csv");
+        int rows = 50_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("type,identifier,title,author,genre,trackCount\n");
+            for (int i = 0; i < rows; i++) {
+                // Every 10th row repeats an earlier identifier from another chunk
+                int id = i % 10 == 9 && i > 5_000 ? i - 5_001 : i;
+                if (i % 2 == 0) {
+                    writer.write("BOOK,ID-" + id + ",Title " + i + ",Author " + i + ",,\n");
+                } else {
+                    writer.write("CD,ID-" + id + ",Title " + i + ",Artist " + i + ",Rock," + (i % 20) + "\n");
+                }
+            }
+        }
+        importService.setChunkSize(1_000);
+        importService.setParallelism(4);
+        List<CatalogImportService.ImportProgress> progress = new ArrayList<>();
+        int before = mediaRepository.getAllMedia().size();
+
+        CatalogImportService.ImportResult result = importService.importFile(file, progress::add);
+
+        assertEquals(rows, result.getRowsRead());
+        assertEquals(50, progress.size());
+        assertEquals(rows, progress.get(progress.size() - 1).getRowsRead());
+        assertEquals(4_500, result.getDuplicates());
+        assertEquals(rows - 4_500, result.getImported());
+        assertEquals(0, result.getInvalid());
+
+        List<Media> all = mediaRepository.getAllMedia();
+        assertEquals(before + result.getImported(), all.size());
+        assertEquals("Title 0", all.get(before).getTitle());
+        assertEquals("Title " + (rows - 2), all.get(all.size() - 1).getTitle());
+        assertEquals("Title 4", mediaRepository.findMediaById("ID-4").getTitle());
+    }
+
+    @Test
+    void testInvalidInput() throws IOException {
+        Path headerless = tempDir.resolve("bad.csv");
+        Files.writeString(headerless, "BOOK,978-1,Title,Author\n");
+        assertThrows(IllegalArgumentException.class, () -> importService.importFile(headerless, null));
+        assertThrows(IllegalArgumentException.class, () -> importService.importFile(tempDir.resolve("x.xml"), null));
+        assertThrows(IllegalArgumentException.class, () -> importService.setChunkSize(0));
+
+        Path empty = tempDir.resolve("empty.csv");
+        Files.writeString(empty, "");
+        assertEquals(0, importService.importFile(empty, null).getRowsRead());
+    }
+
+    @Test
+    void testMediaServiceImportRequiresLogin() throws IOException {
+        Path file = tempDir.resolve("one.csv");
+        Files.writeString(file, "type,identifier,title,author\nBOOK,978-3000000003,Persuasion,Jane Austen\n");
+        MediaService mediaService = new MediaService(mediaRepository);
+        AuthService authService = new AuthService();
+
+        assertNull(mediaService.importCatalog(file, authService));
+        assertNull(mediaRepository.findMediaById("978-3000000003"));
+
+        authService.login("admin", "admin123");
+        assertEquals(1, mediaService.importCatalog(file, authService).getImported());
+        assertNotNull(mediaRepository.findMediaById("978-3000000003"));
+        assertNull(mediaService.importCatalog(tempDir.resolve("missing.csv"), authService));
+    }
+}
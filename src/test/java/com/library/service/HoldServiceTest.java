@@ -0,0 +1,203 @@
+package com.library.service;
+
+import com.library.model.Fine;
+import com.library.model.Hold;
+import com.library.model.Loan;
+import com.library.observer.NotificationEvent;
+import com.library.repository.FineRepository;
+import com.library.repository.HoldRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HoldService and its LoanService integration
+ * @author Library Team
+ * @version 1.0
+ */
+class HoldServiceTest {
+    private static final String HOBBIT = "978-0547928227";
+
+    private LocalDate today;
+    private MediaRepository mediaRepository;
+    private LoanService loanService;
+    private HoldRepository holdRepository;
+    private HoldService holdService;
+    private List<NotificationEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        UserRepository userRepository = new UserRepository();
+        mediaRepository = new MediaRepository();
+        LoanRepository loanRepository = new LoanRepository(mediaRepository);
+        FineService fineService = new FineService(userRepository, new FineRepository());
+        loanService = new LoanService(fineService, userRepository, mediaRepository, loanRepository);
+        fineService.setLoanService(loanService);
+
+        holdRepository = new HoldRepository();
+        holdService = new HoldService(holdRepository, mediaRepository, userRepository, today, 3);
+        loanService.setHoldService(holdService);
+        events = new ArrayList<>();
+        holdService.attachObserver(events::add);
+    }
+
+    @Test
+    void testHoldsOnlyForUnavailableMediaAndOncePerPatron() {
+        assertNull(holdService.placeHold("U005", HOBBIT, "BOOK", today));
+
+        loanService.borrowBook("U003", HOBBIT, today);
+        assertNotNull(holdService.placeHold("U005", HOBBIT, "BOOK", today));
+        assertNull(holdService.placeHold("U005", HOBBIT, "BOOK", today));
+        assertNull(holdService.placeHold("NOPE", HOBBIT, "BOOK", today));
+        assertNull(holdService.placeHold("U005", "NOPE", "BOOK", today));
+        assertEquals(1, holdRepository.getQueueLength(HOBBIT));
+    }
+
+    @Test
+    void testReturnedItemGoesToFirstPatronInQueue() {
+        Loan loan = loanService.borrowBook("U003", HOBBIT, today);
+        Hold first = holdService.placeHold("U005", HOBBIT, "BOOK", today);
+        Hold second = holdService.placeHold("U001", HOBBIT, "BOOK", today);
+
+        assertTrue(loanService.returnBook(loan.getLoanId(), today));
+
+        assertEquals(Hold.Status.READY, first.getStatus());
+        assertEquals(today.plusDays(3), first.getPickupDeadline());
+        assertEquals(Hold.Status.WAITING, second.getStatus());
+        assertFalse(mediaRepository.findMediaById(HOBBIT).isAvailable());
+        assertEquals(1, events.size());
+        assertEquals(HoldService.HOLD_READY, events.get(0).getEventType());
+        assertEquals("U005", events.get(0).getUser().getUserId());
+
+        assertNull(loanService.borrowBook("U001", HOBBIT, today));
+        Loan pickup = loanService.borrowBook("U005", HOBBIT, today);
+        assertNotNull(pickup);
+        assertEquals(Hold.Status.FULFILLED, first.getStatus());
+        assertNull(holdRepository.findOpenHold("U005", HOBBIT));
+    }
+
+    @Test
+    void testUnclaimedHoldExpiresAndPassesOn() {
+        Loan loan = loanService.borrowBook("U003", HOBBIT, today);
+        Hold first = holdService.placeHold("U005", HOBBIT, "BOOK", today);
+        Hold second = holdService.placeHold("U003", HOBBIT, "BOOK", today);
+        loanService.returnBook(loan.getLoanId(), today);
+
+        assertEquals(0, holdService.advanceTo(today.plusDays(3)));
+        assertEquals(1, holdService.advanceTo(today.plusDays(4)));
+
+        assertEquals(Hold.Status.EXPIRED, first.getStatus());
+        assertEquals(Hold.Status.READY, second.getStatus());
+        assertEquals(today.plusDays(7), second.getPickupDeadline());
+        assertEquals(List.of(HoldService.HOLD_READY, HoldService.HOLD_EXPIRED, HoldService.HOLD_READY),
+                events.stream().map(NotificationEvent::getEventType).toList());
+
+        assertTrue(holdService.cancelHold(second.getHoldId(), today.plusDays(5)));
+        assertTrue(mediaRepository.findMediaById(HOBBIT).isAvailable());
+        assertEquals(0, holdService.advanceTo(today.plusDays(30)));
+    }
+
+    @Test
+    void testIneligiblePatronKeepsPlaceButIsSkipped() {
+        Loan loan = loanService.borrowBook("U003", HOBBIT, today);
+        Hold blocked = holdService.placeHold("U002", HOBBIT, "BOOK", today); // unpaid fines
+        Hold next = holdService.placeHold("U005", HOBBIT, "BOOK", today);
+
+        loanService.returnBook(loan.getLoanId(), today);
+
+        assertEquals(Hold.Status.WAITING, blocked.getStatus());
+        assertEquals(Hold.Status.READY, next.getStatus());
+        assertEquals(List.of(blocked), holdRepository.getQueue(HOBBIT));
+    }
+
+    @Test
+    void testPatronWithOverdueLoanIsSkippedDespiteBorrowFlag() {
+        // U001's account flag still allows borrowing, but their CD loan is overdue
+        assertTrue(loanService.getUserRepository().findUserById("U001").canBorrow());
+        Loan loan = loanService.borrowBook("U003", HOBBIT, today);
+        Hold overdue = holdService.placeHold("U001", HOBBIT, "BOOK", today);
+        Hold next = holdService.placeHold("U005", HOBBIT, "BOOK", today);
+
+        loanService.returnBook(loan.getLoanId(), today);
+
+        assertEquals(Hold.Status.WAITING, overdue.getStatus());
+        assertEquals(Hold.Status.READY, next.getStatus());
+    }
+
+    @Test
+    void testSkippedPatronIsServedOnceTheyClearTheirAccount() {
+        Loan loan = loanService.borrowBook("U003", HOBBIT, today);
+        Hold hold = holdService.placeHold("U001", HOBBIT, "BOOK", today);
+        loanService.returnBook(loan.getLoanId(), today);
+        assertEquals(Hold.Status.WAITING, hold.getStatus());
+
+        // U001 returns the overdue CD and pays the fine it earned
+        assertTrue(loanService.returnBook("L0003", today));
+        FineService fineService = loanService.getFineService();
+        for (Fine fine : fineService.getUserUnpaidFines("U001")) {
+            assertTrue(fineService.payFine(fine.getFineId(), fine.getRemainingBalance()));
+        }
+
+        loan = loanService.borrowBook("U003", HOBBIT, today);
+        holdService.placeHold("U005", HOBBIT, "BOOK", today);
+        loanService.returnBook(loan.getLoanId(), today);
+
+        assertEquals(Hold.Status.READY, hold.getStatus());
+    }
+
+    @Test
+    void testMultiCopyTitleReservesACopy() {
+        mediaRepository.addCopies(HOBBIT, 1);
+        Loan first = loanService.borrowBook("U003", HOBBIT, today);
+        assertNotNull(loanService.borrowBook("U003", HOBBIT, today));
+        Hold hold = holdService.placeHold("U005", HOBBIT, "BOOK", today);
+
+        loanService.returnBook(first.getLoanId(), today);
+
+        assertEquals(Hold.Status.READY, hold.getStatus());
+        assertEquals(0, mediaRepository.getHoldings(HOBBIT).getAvailableCount());
+        Loan pickup = loanService.borrowBook("U005", HOBBIT, today);
+        assertNotNull(pickup.getCopyBarcode());
+        assertEquals(0, mediaRepository.getHoldings(HOBBIT).getAvailableCount());
+    }
+
+    @Test
+    void testBatchCheckoutCollectsReadyHold() {
+        Loan loan = loanService.borrowBook("U003", HOBBIT, today);
+        Hold hold = holdService.placeHold("U005", HOBBIT, "BOOK", today);
+        loanService.returnBook(loan.getLoanId(), today);
+        assertEquals(Hold.Status.READY, hold.getStatus());
+
+        List<LoanService.BatchItem> items = List.of(new LoanService.BatchItem(HOBBIT, "BOOK"),
+                new LoanService.BatchItem("978-0451524935", "BOOK"));
+        // The reserved copy is not released to another patron, and a rejected batch keeps the hold
+        LoanService.BatchResult rejected = loanService.borrowBatch("U003", items, today, true);
+        assertTrue(rejected.getLoans().isEmpty());
+        assertEquals(Hold.Status.READY, hold.getStatus());
+
+        LoanService.BatchResult pickup = loanService.borrowBatch("U005", items, today, true);
+        assertEquals(2, pickup.getLoans().size());
+        assertTrue(pickup.getFailures().isEmpty());
+        assertEquals(Hold.Status.FULFILLED, hold.getStatus());
+        assertFalse(mediaRepository.findMediaById(HOBBIT).isAvailable());
+    }
+
+    @Test
+    void testBatchReturnServesQueue() {
+        Loan loan = loanService.borrowBook("U003", HOBBIT, today);
+        Hold hold = holdService.placeHold("U005", HOBBIT, "BOOK", today);
+
+        loanService.returnBatch(List.of(loan.getLoanId()), today);
+
+        assertEquals(Hold.Status.READY, hold.getStatus());
+    }
+}
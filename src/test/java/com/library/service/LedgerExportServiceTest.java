@@ -0,0 +1,139 @@
+package com.library.service;
+
+import com.library.api.Json;
+import com.library.model.Fine;
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.repository.FineRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LedgerExportService
+ * @author Library Team
+ * @version 1.0
+ */
+class LedgerExportServiceTest {
+    @TempDir
+    Path tempDir;
+
+    private UserRepository userRepository;
+    private LoanRepository loanRepository;
+    private FineRepository fineRepository;
+    private LedgerExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+        loanRepository = new LoanRepository(new MediaRepository());
+        fineRepository = new FineRepository();
+        exportService = new LedgerExportService(userRepository, loanRepository, fineRepository);
+    }
+
+    @Test
+    void testCsvLoanExportWithUserFilter() throws IOException {
+        Path file = tempDir.resolve("loans.csv");
+
+        LedgerExportService.ExportResult result = exportService.exportLoans(file, LedgerExportService.Format.CSV,
+                LedgerExportService.ExportFilter.all().forUser("U002"), false);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals("loanId,userId,mediaId,mediaType,borrowDate,dueDate,returnDate,status", lines.get(0));
+        assertEquals(loanRepository.findLoansByUser("U002").size(), result.getRowsWritten());
+        assertEquals(result.getRowsWritten() + 1, lines.size());
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.contains(",U002,") && line.endsWith(",OVERDUE")));
+        assertEquals(Files.size(file), result.getBytesWritten());
+    }
+
+    @Test
+    void testGzipJsonLinesRoundTrip() throws Exception {
+        @SuppressWarnings("unchecked")
+        List<User> users = (List<User>) field(UserRepository.class, "users").get(userRepository);
+        users.add(new User("U900", "Smith, \"Jr\"", "smith@example.com"));
+        Path file = tempDir.resolve("users.jsonl.gz");
+
+        LedgerExportService.ExportResult result = exportService.exportUsers(file, LedgerExportService.Format.JSONL,
+                LedgerExportService.ExportFilter.all(), true);
+
+        List<String> lines = readGzip(file);
+        assertEquals(userRepository.getAllUsers().size(), lines.size());
+        assertEquals(lines.size(), result.getRowsWritten());
+        Map<String, Object> last = Json.parseObject(lines.get(lines.size() - 1));
+        assertEquals("U900", last.get("userId"));
+        assertEquals("Smith, \"Jr\"", last.get("name"));
+        assertEquals(Boolean.TRUE, last.get("active"));
+    }
+
+    @Test
+    void testFineDateRangeUsesLoanReturnDate() throws IOException {
+        Loan loan = loanRepository.createBookLoan("U003", "978-0451524935", LocalDate.of(2026, 1, 1));
+        loanRepository.returnMedia(loan.getLoanId(), LocalDate.of(2026, 3, 1));
+        Fine fine = fineRepository.createFine("U003", 10.0, loan.getLoanId());
+        Path file = tempDir.resolve("fines.csv");
+
+        LedgerExportService.ExportResult result = exportService.exportFines(file, LedgerExportService.Format.CSV,
+                LedgerExportService.ExportFilter.all().between(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1)), false);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, result.getRowsWritten());
+        assertEquals(fine.getFineId() + ",U003," + loan.getLoanId() + ",10.00,0.00,10.00,false", lines.get(1));
+
+        LedgerExportService.ExportResult all = exportService.exportFines(file, LedgerExportService.Format.CSV,
+                LedgerExportService.ExportFilter.all(), false);
+        assertEquals(fineRepository.getAllFines().size(), all.getRowsWritten());
+        assertThrows(IllegalArgumentException.class, () -> LedgerExportService.ExportFilter.all()
+                .between(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 1)));
+    }
+
+    @Test
+    void testLargeLoanTableIsStreamed() throws Exception {
+        @SuppressWarnings("unchecked")
+        List<Loan> loans = (List<Loan>) field(LoanRepository.class, "loans").get(loanRepository);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 200_000; i++) {
+            LocalDate borrowed = start.plusDays(i % 365);
+            loans.add(new Loan("X" + i, "U00" + (1 + i % 5), "M" + i, "BOOK", borrowed, borrowed.plusDays(28)));
+        }
+        Path file = tempDir.resolve("loans.jsonl.gz");
+
+        LedgerExportService.ExportResult result = exportService.exportLoans(file, LedgerExportService.Format.JSONL,
+                LedgerExportService.ExportFilter.all().between(start, start.plusDays(99)), true);
+
+        long expected = loans.stream().filter(loan -> !loan.getBorrowDate().isBefore(start)
+                && !loan.getBorrowDate().isAfter(start.plusDays(99))).count();
+        assertEquals(expected, result.getRowsWritten());
+        assertEquals(expected, readGzip(file).size());
+        assertTrue(result.getRowsPerSecond() > 0);
+    }
+
+    private static List<String> readGzip(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private static Field field(Class<?> type, String name) throws NoSuchFieldException {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+}
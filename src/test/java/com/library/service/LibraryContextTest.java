@@ -0,0 +1,116 @@
+package com.library.service;
+
+import com.library.model.Loan;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LibraryContext
+ * @author Library Team
+ * @version 1.0
+ */
+class LibraryContextTest {
+    private LibraryContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new LibraryContext(new UserRepository());
+    }
+
+    @Test
+    void testServicesShareRepositories() {
+        assertSame(context.getLoanRepository(), context.getLoanService().getLoanRepository());
+        assertSame(context.getFineRepository(), context.getFineService().getFineRepository());
+        assertSame(context.getUserRepository(), context.getLoanService().getUserRepository());
+        assertSame(context.getMediaRepository(), context.getLoanService().getMediaRepository());
+        assertSame(context.getUserRepository(), context.getUserManagementService().getUserRepository());
+    }
+
+    @Test
+    void testUnregistrationSeesLoansCreatedAtTheDesk() {
+        Loan loan = context.getLoanService().borrowBook("U005", "978-0451524935", LocalDate.now());
+        assertNotNull(loan);
+
+        AuthService authService = Mockito.mock(AuthService.class);
+        Mockito.when(authService.isLoggedIn()).thenReturn(true);
+
+        UserManagementService.UnregistrationResult result =
+                context.getUserManagementService().unregisterUser("U005", authService);
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().contains("active loans"));
+    }
+
+    @Test
+    void testSampleLoansSeededOnce() {
+        long sampleLoans = context.getLoanRepository().getAllLoans().size();
+        context.getLoanService().borrowCD("U003", "CD-002", LocalDate.now());
+
+        assertEquals(sampleLoans + 1, context.getLoanRepository().getAllLoans().size());
+        assertFalse(context.getMediaRepository().findMediaById("CD-002").isAvailable());
+    }
+
+    @Test
+    void testLibraryServiceUsesContextServices() {
+        LibraryService libraryService = new LibraryService(new AuthService(), context, new Scanner(""));
+
+        assertSame(context, libraryService.getContext());
+        assertSame(context.getLoanService(), libraryService.getLoanService());
+        assertSame(context.getReminderService(), libraryService.getReminderService());
+    }
+
+    @Test
+    void testStartupDoesNotWaitForSlowEmail() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+
+        long start = System.nanoTime();
+        LibraryContext slowContext = new LibraryContext(new UserRepository(), () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created.incrementAndGet();
+            return new EmailService("library@example.com", "secret");
+        });
+        slowContext.warmUpAsync();
+
+        assertNotNull(slowContext.getMediaService().searchMedia("gatsby"));
+        assertNotNull(slowContext.getLoanService().borrowBook("U003", "978-0451524935", LocalDate.now()));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals("PENDING", slowContext.getReadiness().get("email"));
+
+        release.countDown();
+        assertNotNull(slowContext.getReminderService());
+        assertEquals("READY", slowContext.getReadiness().get("email"));
+        assertEquals("READY", slowContext.getReadiness().get("reminders"));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void testMissingEmailConfigurationIsReportedNotThrown() {
+        LibraryContext noEmail = new LibraryContext(new UserRepository(), () -> {
+            throw new RuntimeException("Email credentials not found in .env file");
+        });
+
+        assertNotNull(noEmail.getLoanService().borrowCD("U003", "CD-002", LocalDate.now()));
+        noEmail.warmUpAsync().join();
+
+        assertNull(noEmail.getEmailService());
+        assertNull(noEmail.getReminderService());
+        assertEquals("UNAVAILABLE", noEmail.getReadiness().get("email"));
+        assertEquals("UNAVAILABLE", noEmail.getReadiness().get("reminders"));
+        assertEquals("READY", noEmail.getReadiness().get("circulation"));
+        assertNull(new LibraryService(new AuthService(), noEmail, new Scanner("")).getReminderService());
+    }
+}
@@ -183,6 +183,36 @@ class LibraryServiceTest {
         assertTrue(output.contains("MIXED MEDIA OVERDUE REPORT") || output.contains("Error") || output.contains("USER"));
     }
 
+    @Test
+    void testDisplayMixedMediaOverdueReportFromLedgerView() {
+        LibraryService service = new LibraryService(new Scanner(new ByteArrayInputStream("U003\n".getBytes())));
+
+        service.displayMixedMediaOverdueReport();
+        String output = getOutput();
+        assertTrue(output.contains("Michael Brown (U003)"));
+        assertTrue(output.contains("No unpaid fines found"));
+        assertFalse(output.contains("Overdue items"));
+    }
+
+    @Test
+    void testDisplayMixedMediaOverdueReportAssessesLoansStillOut() {
+        // U001's CD is overdue and still out, so it has no fine until the report assesses it
+        LibraryService service = new LibraryService(new Scanner(new ByteArrayInputStream("U001\n".getBytes())));
+
+        service.displayMixedMediaOverdueReport();
+        String output = getOutput();
+        assertTrue(output.contains("💿 CDs: $"));
+        assertTrue(output.contains("⚠ Overdue items still on loan: 1"));
+
+        // U002's two overdue books are re-assessed at the flat book fine
+        service = new LibraryService(new Scanner(new ByteArrayInputStream("U002\n".getBytes())));
+        service.displayMixedMediaOverdueReport();
+        output = getOutput();
+        assertTrue(output.contains("📚 BOOKS: $20.00"));
+        assertTrue(output.contains("💰 TOTAL UNPAID FINES: $20.00"));
+        assertFalse(output.contains("💿 CDs"));
+    }
+
     @Test
     void testPayFineEmptyUserId() {
         String input = "\n";
@@ -254,6 +284,18 @@ class LibraryServiceTest {
                 output.contains("ACTIVE LOANS") || output.contains("USER"));
     }
 
+    @Test
+    void testDisplayUserLoansFromLedgerView() {
+        LibraryService service = new LibraryService(new Scanner(new ByteArrayInputStream("U002\n".getBytes())));
+
+        service.displayUserLoans();
+        String output = getOutput();
+        assertTrue(output.contains("Loan ID: L0001"));
+        assertTrue(output.contains("Loan ID: L0004"));
+        assertFalse(output.contains("L0002"));
+        assertFalse(output.contains("No active loans"));
+    }
+
     @Test
     void testSendOverdueRemindersWithoutAdmin() {
         libraryService.sendOverdueReminders();
@@ -0,0 +1,195 @@
+package com.library.service;
+
+import com.library.model.Fine;
+import com.library.model.Hold;
+import com.library.model.Loan;
+import com.library.observer.NotificationEvent;
+import com.library.observer.Observer;
+import com.library.repository.HoldRepository;
+import com.library.repository.Holdings;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for batch checkout and batch return in LoanService
+ * @author Library Team
+ * @version 1.0
+ */
+class LoanServiceBatchTest {
+    private LoanService loanService;
+    private FineService fineService;
+    private MediaRepository mediaRepository;
+    private UserRepository userRepository;
+    private List<NotificationEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+        mediaRepository = new MediaRepository();
+        fineService = new FineService(userRepository);
+        loanService = new LoanService(fineService, userRepository, mediaRepository);
+        fineService.setLoanService(loanService);
+
+        events = new ArrayList<>();
+        Observer recorder = events::add;
+        loanService.attachObserver(recorder);
+    }
+
+    private static List<LoanService.BatchItem> items(String... mediaIds) {
+        List<LoanService.BatchItem> items = new ArrayList<>();
+        for (String mediaId : mediaIds) {
+            items.add(new LoanService.BatchItem(mediaId, mediaId.startsWith("CD") ? "CD" : "BOOK"));
+        }
+        return items;
+    }
+
+    @Test
+    void testBorrowBatchCreatesAllLoans() {
+        LoanService.BatchResult result = loanService.borrowBatch("U003",
+                items("978-0451524935", "978-0547928227", "CD-002"), LocalDate.now(), true);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getLoans().size());
+        assertFalse(mediaRepository.findMediaById("978-0451524935").isAvailable());
+        assertFalse(mediaRepository.findMediaById("CD-002").isAvailable());
+        assertEquals(LocalDate.now().plusDays(7), result.getLoans().get(2).getDueDate());
+        assertEquals(3, userRepository.findUserById("U003").getCurrentLoans().size());
+
+        assertEquals(1, events.size());
+        assertEquals("LOANS_BORROWED", events.get(0).getEventType());
+    }
+
+    @Test
+    void testBorrowBatchResolvesScannedIsbns() {
+        LoanService.BatchResult result = loanService.borrowBatch("U003",
+                items("9780547928227", "0-451-52493-4", "978-0547928227"), LocalDate.now(), false);
+
+        assertEquals(List.of("978-0547928227", "978-0451524935"),
+                result.getLoans().stream().map(Loan::getMediaId).toList());
+        assertEquals("Duplicate item in checkout.", result.getFailures().get("978-0547928227"));
+        assertFalse(mediaRepository.findMediaById("978-0451524935").isAvailable());
+    }
+
+    @Test
+    void testBorrowBatchAllOrNothingRejectsWholeCheckout() {
+        // 978-0743273565 is on loan in the sample data
+        LoanService.BatchResult result = loanService.borrowBatch("U003",
+                items("978-0451524935", "978-0743273565"), LocalDate.now(), true);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getLoans().isEmpty());
+        assertTrue(result.getFailures().containsKey("978-0743273565"));
+        assertTrue(mediaRepository.findMediaById("978-0451524935").isAvailable());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testBorrowBatchAllOrNothingWhenLastCopyGoesAfterValidation() {
+        String hobbit = "978-0547928227";
+        String orwell = "978-0451524935";
+        LocalDate today = LocalDate.now();
+        mediaRepository.addCopies(hobbit, 1);
+        mediaRepository.addCopies(orwell, 1);
+        assertNotNull(loanService.borrowBook("U005", orwell, today));
+
+        HoldService holdService = new HoldService(new HoldRepository(), mediaRepository, userRepository);
+        loanService.setHoldService(holdService);
+        Loan cd = loanService.borrowCD("U005", "CD-002", today);
+        Hold hold = holdService.placeHold("U003", "CD-002", "CD", today);
+        loanService.returnBook(cd.getLoanId(), today);
+        assertEquals(Hold.Status.READY, hold.getStatus());
+
+        // Another desk takes the last copy of 1984 once the batch has started taking copies
+        boolean[] taken = {false};
+        mediaRepository.setChangeListener(record -> {
+            if (record instanceof Holdings holdings && holdings.getMediaId().equals(hobbit) && !taken[0]) {
+                taken[0] = true;
+                assertNotNull(mediaRepository.checkoutCopy(orwell));
+            }
+        });
+
+        LoanService.BatchResult result = loanService.borrowBatch("U003", items("CD-002", hobbit, orwell), today, true);
+
+        assertTrue(taken[0]);
+        assertFalse(result.isSuccess());
+        assertTrue(result.getLoans().isEmpty());
+        assertEquals("No copy is available.", result.getFailures().get(orwell));
+        assertTrue(loanService.getUserActiveLoans("U003").isEmpty());
+        assertEquals(2, mediaRepository.getHoldings(hobbit).getAvailableCount());
+        assertEquals(Hold.Status.READY, hold.getStatus());
+        assertFalse(mediaRepository.findMediaById("CD-002").isAvailable());
+    }
+
+    @Test
+    void testBorrowBatchBestEffortBorrowsValidItems() {
+        LoanService.BatchResult result = loanService.borrowBatch("U003",
+                items("978-0451524935", "978-0743273565", "UNKNOWN-ID", "978-0451524935"), LocalDate.now(), false);
+
+        assertEquals(1, result.getLoans().size());
+        assertEquals(3, result.getFailures().size());
+        assertEquals("Duplicate item in checkout.", result.getFailures().get("978-0451524935"));
+        assertFalse(result.isSuccess());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void testBorrowBatchRejectsPatronWithFines() {
+        LoanService.BatchResult result = loanService.borrowBatch("U002",
+                items("978-0451524935", "978-0547928227"), LocalDate.now(), false);
+
+        assertTrue(result.getLoans().isEmpty());
+        assertEquals(2, result.getFailures().size());
+        assertTrue(result.getMessage().contains("Unpaid fines"));
+    }
+
+    @Test
+    void testBorrowBatchUnknownUserAndEmptyItems() {
+        assertTrue(loanService.borrowBatch("NOPE", items("978-0451524935"), LocalDate.now(), true)
+                .getMessage().contains("User not found"));
+        assertTrue(loanService.borrowBatch("U003", List.of(), LocalDate.now(), true).getLoans().isEmpty());
+    }
+
+    @Test
+    void testReturnBatch() {
+        List<Loan> loans = loanService.borrowBatch("U003",
+                items("978-0451524935", "978-0547928227"), LocalDate.now(), true).getLoans();
+        events.clear();
+
+        List<String> loanIds = new ArrayList<>();
+        loans.forEach(loan -> loanIds.add(loan.getLoanId()));
+        loanIds.add("L9999");
+
+        LoanService.BatchResult result = loanService.returnBatch(loanIds, LocalDate.now());
+
+        assertEquals(2, result.getLoans().size());
+        assertEquals("Loan not found.", result.getFailures().get("L9999"));
+        assertTrue(mediaRepository.findMediaById("978-0451524935").isAvailable());
+        assertTrue(userRepository.findUserById("U003").getCurrentLoans().isEmpty());
+        assertEquals(1, events.size());
+        assertEquals("LOANS_RETURNED", events.get(0).getEventType());
+
+        LoanService.BatchResult again = loanService.returnBatch(loanIds.subList(0, 1), LocalDate.now());
+        assertTrue(again.getLoans().isEmpty());
+        assertEquals("Media already returned.", again.getFailures().get(loanIds.get(0)));
+    }
+
+    @Test
+    void testReturnBatchAppliesOverdueFines() {
+        LocalDate borrowDate = LocalDate.now().minusDays(40);
+        Loan loan = loanService.borrowBatch("U003", items("978-0451524935"), borrowDate, true).getLoans().get(0);
+
+        loanService.returnBatch(List.of(loan.getLoanId()), LocalDate.now());
+
+        Fine fine = fineService.getFineRepository().findFineByLoanId(loan.getLoanId());
+        assertNotNull(fine);
+        assertEquals(10.0, fine.getAmount(), 0.001);
+    }
+}
@@ -0,0 +1,157 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Media;
+import com.library.repository.MediaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SearchResultCache and cached search in MediaService
+ * @author Library Team
+ * @version 1.0
+ */
+class SearchResultCacheTest {
+    private MediaRepository mediaRepository;
+    private MediaService mediaService;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository = new MediaRepository();
+        mediaService = new MediaService(mediaRepository);
+    }
+
+    @Test
+    void testRepeatedQueriesHitTheCache() {
+        List<Media> first = mediaService.searchMedia("Harry Potter");
+        List<Media> second = mediaService.searchMedia("harry potter");
+
+        assertEquals(1, first.size());
+        assertSame(first, second);
+        SearchResultCache.CacheStats stats = mediaService.getSearchCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRatio(), 0.0001);
+        assertEquals(0.5, stats.getMissRatio(), 0.0001);
+        assertEquals(1, stats.getEntryCount());
+        assertTrue(stats.getEstimatedBytes() > 0);
+    }
+
+    @Test
+    void testAddMediaInvalidatesCachedResults() {
+        assertEquals(1, mediaService.searchMedia("tolkien").size());
+
+        mediaRepository.addMedia(new Book("The Silmarillion", "J.R.R. Tolkien", "978-0544338012"));
+
+        assertEquals(2, mediaService.searchMedia("tolkien").size());
+        assertEquals(1, mediaService.getSearchCacheStats().getInvalidations());
+        assertEquals(2, mediaService.getSearchCacheStats().getMisses());
+    }
+
+    @Test
+    void testAvailableOnlyFollowsCheckoutsAndReturns() {
+        assertEquals(1, mediaService.searchMedia("hobbit", true).size());
+
+        mediaRepository.updateMediaAvailability("978-0547928227", false);
+        assertTrue(mediaService.searchMedia("hobbit", true).isEmpty());
+        assertEquals(1, mediaService.searchMedia("hobbit", false).size());
+
+        mediaRepository.updateMediaAvailability("978-0547928227", true);
+        assertEquals(1, mediaService.searchMedia("hobbit", true).size());
+        assertEquals(1, mediaService.getSearchCacheStats().getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedWhenOverBudget() {
+        SearchResultCache cache = new SearchResultCache(400, 100, 60_000, System::nanoTime);
+        List<Media> results = mediaRepository.getAllMedia();
+        cache.put("a", 12, results);
+        cache.put("b", 12, results);
+        assertNotNull(cache.get("a", 12));
+
+        cache.put("c", 12, results);
+
+        assertNotNull(cache.get("a", 12));
+        assertNull(cache.get("b", 12));
+        assertNotNull(cache.get("c", 12));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertTrue(cache.getStats().getEstimatedBytes() <= 400);
+    }
+
+    @Test
+    void testEntryLimitAndOversizedResults() {
+        SearchResultCache cache = new SearchResultCache(199, 2, 60_000, System::nanoTime);
+        cache.put("a", 1, List.of());
+        cache.put("b", 1, List.of());
+        cache.put("c", 1, List.of());
+        assertEquals(2, cache.getStats().getEntryCount());
+        assertNull(cache.get("a", 1));
+
+        cache.put("huge", 1, mediaRepository.getAllMedia());
+        assertNull(cache.get("huge", 1));
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        SearchResultCache cache = new SearchResultCache(1_000_000, 100, 1_000, now::get);
+        cache.put("gatsby", 12, List.of());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertNotNull(cache.get("gatsby", 12));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertNull(cache.get("gatsby", 12));
+        assertEquals(0, cache.getStats().getEntryCount());
+    }
+
+    @Test
+    void testClearAndInvalidLimits() {
+        mediaService.searchMedia("rock");
+        SearchResultCache cache = new SearchResultCache();
+        cache.put("x", 1, List.of());
+        cache.clear();
+        assertEquals(0, cache.getStats().getEntryCount());
+        assertEquals(0, cache.getStats().getEstimatedBytes());
+        assertThrows(IllegalArgumentException.class, () -> new SearchResultCache(0, 1, 1, System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () -> new SearchResultCache(1, 0, 1, System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () -> new SearchResultCache(1, 1, 0, System::nanoTime));
+    }
+
+    @Test
+    void testConcurrentKioskTraffic() throws Exception {
+        String[] queries = {"harry potter", "tolkien", "rock", "the", "orwell", "jackson"};
+        ExecutorService kiosks = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int k = 0; k < 8; k++) {
+                int offset = k;
+                futures.add(kiosks.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        String query = queries[(i + offset) % queries.length];
+                        assertEquals(mediaRepository.searchMedia(query), mediaService.searchMedia(query));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            kiosks.shutdownNow();
+        }
+
+        SearchResultCache.CacheStats stats = mediaService.getSearchCacheStats();
+        assertEquals(16_000, stats.getHits() + stats.getMisses());
+        assertEquals(queries.length, stats.getEntryCount());
+        assertTrue(stats.getHitRatio() > 0.99);
+    }
+}
@@ -475,4 +475,17 @@ class UserManagementServiceTest {
         boolean result = failingService.reactivateUser("FAILURE_USER", authService);
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRegisterUser() {
+        User newcomer = new User("U100", "New Patron", "new.patron@email.com");
+        assertFalse(userManagementService.registerUser(newcomer, authService));
+        assertNull(userRepository.findUserById("U100"));
+
+        authService.login("admin", "admin123");
+        assertTrue(userManagementService.registerUser(newcomer, authService));
+        assertSame(newcomer, userRepository.findUserById("U100"));
+        assertFalse(userManagementService.registerUser(new User("U100", "Duplicate", "dup@email.com"), authService));
+        assertEquals("New Patron", userRepository.findUserById("U100").getName());
+    }
+}
@@ -0,0 +1,81 @@
+package com.library.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ConsistentHashRing
+ * @author Library Team
+ * @version 1.0
+ */
+class ConsistentHashRingTest {
+    private static final int KEYS = 10_000;
+
+    @Test
+    void testKeysSpreadEvenlyAndDeterministically() {
+        ConsistentHashRing<String> ring = ringOf(4);
+        ConsistentHashRing<String> same = ringOf(4);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            String key = String.format("U%05d", i);
+            String node = ring.nodeFor(key);
+            assertEquals(node, same.nodeFor(key));
+            counts.merge(node, 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > KEYS / 4 * 0.7 && count < KEYS / 4 * 1.3, "Unbalanced ring: " + counts);
+        }
+    }
+
+    @Test
+    void testAddingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing<String> ring = ringOf(4);
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            before.put("U" + i, ring.nodeFor("U" + i));
+        }
+
+        ring.addNode("shard-4", "shard-4");
+        int moved = 0;
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            String now = ring.nodeFor(entry.getKey());
+            if (!now.equals(entry.getValue())) {
+                assertEquals("shard-4", now);
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < KEYS / 3, "Moved " + moved + " keys");
+
+        assertTrue(ring.removeNode("shard-4"));
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            assertEquals(entry.getValue(), ring.nodeFor(entry.getKey()));
+        }
+    }
+
+    @Test
+    void testInvalidUse() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>();
+        assertThrows(IllegalStateException.class, () -> ring.nodeFor("U001"));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing<String>(0));
+
+        ring.addNode("a", "a");
+        assertThrows(IllegalArgumentException.class, () -> ring.addNode("a", "other"));
+        assertFalse(ring.removeNode("missing"));
+        assertEquals(1, ring.size());
+    }
+
+    private static ConsistentHashRing<String> ringOf(int nodes) {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>();
+        for (int i = 0; i < nodes; i++) {
+            ring.addNode("shard-" + i, "shard-" + i);
+        }
+        return ring;
+    }
+}
@@ -0,0 +1,169 @@
+package com.library.shard;
+
+import com.library.model.Loan;
+import com.library.model.User;
+import com.library.repository.LoanRepository;
+import com.library.repository.MediaRepository;
+import com.library.repository.UserRepository;
+import com.library.service.AuthService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the sharded router, in process and across loopback shard processes
+ * @author Library Team
+ * @version 1.0
+ */
+class ShardedLibraryTest {
+    private static final String HOBBIT = "978-0547928227";
+    private static final String NINETEEN_EIGHTY_FOUR = "978-0451524935";
+
+    private LocalDate today;
+    private MediaRepository catalog;
+    private List<LocalShard> shards;
+    private ShardedLibrary library;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        catalog = new MediaRepository();
+        shards = LocalShard.createAll(List.of("shard-0", "shard-1", "shard-2"), catalog);
+        library = new ShardedLibrary(shards);
+    }
+
+    @AfterEach
+    void tearDown() {
+        library.close();
+    }
+
+    @Test
+    void testScatterGatherMatchesSingleNode() {
+        List<Loan> expected = new LoanRepository(new MediaRepository()).getOverdueLoans(today);
+        List<Loan> gathered = library.getOverdueLoans(today);
+
+        assertEquals(expected.size(), gathered.size());
+        assertEquals(expected.stream().map(Loan::getLoanId).sorted().toList(),
+                gathered.stream().map(Loan::getLoanId).sorted().toList());
+        for (Loan loan : gathered) {
+            assertSame(library.shardFor(loan.getUserId()), shardHolding(loan));
+        }
+        assertEquals(40.0, library.getTotalUnpaidAmount("U002"), 0.001);
+    }
+
+    @Test
+    void testEachUserIsSeededOnItsOwningShardOnly() {
+        for (User user : new UserRepository().getAllUsers()) {
+            for (LocalShard shard : shards) {
+                boolean holds = shard.getLoanService().getUserRepository().findUserById(user.getUserId()) != null;
+                assertEquals(library.shardFor(user.getUserId()) == shard, holds, user.getUserId());
+            }
+        }
+        int loanCount = 0;
+        for (LocalShard shard : shards) {
+            loanCount += shard.getLoanService().getLoanRepository().getAllLoans().size();
+        }
+        assertEquals(new LoanRepository(new MediaRepository()).getAllLoans().size(), loanCount);
+    }
+
+    @Test
+    void testUserAccountsAreRoutedToOwningShard() {
+        AuthService admin = new AuthService();
+        admin.login("admin", "admin123");
+        User newcomer = new User("U100", "New Patron", "new.patron@email.com");
+
+        assertTrue(library.registerUser(newcomer, admin));
+        assertFalse(library.registerUser(new User("U100", "Duplicate", "dup@email.com"), admin));
+        LocalShard owner = (LocalShard) library.shardFor("U100");
+        for (LocalShard shard : shards) {
+            assertEquals(shard == owner, shard.getLoanService().getUserRepository().findUserById("U100") != null);
+        }
+        assertNotNull(library.borrowBook("U100", HOBBIT, today));
+
+        // Active loans block deactivation until they are returned
+        assertFalse(library.unregisterUser("U100", admin).isSuccess());
+        assertTrue(library.returnLoan("U100", library.getUserActiveLoans("U100").get(0).getLoanId(), today));
+        assertTrue(library.unregisterUser("U100", admin).isSuccess());
+        assertNull(library.borrowBook("U100", HOBBIT, today));
+
+        assertTrue(library.reactivateUser("U100", admin));
+        assertNotNull(library.borrowBook("U100", HOBBIT, today));
+    }
+
+    @Test
+    void testBorrowAndReturnRouteToOwningShard() {
+        Loan loan = library.borrowBook("U003", HOBBIT, today);
+        assertNotNull(loan);
+
+        LocalShard owner = (LocalShard) library.shardFor("U003");
+        for (LocalShard shard : shards) {
+            assertEquals(shard == owner, shard.getActiveLoans("U003").contains(loan));
+        }
+        assertEquals(List.of(loan), library.getUserActiveLoans("U003"));
+
+        // The catalog is shared, so another shard's user cannot take the same item
+        assertNull(library.borrowBook("U005", HOBBIT, today));
+
+        assertTrue(library.returnLoan("U003", loan.getLoanId(), today));
+        assertTrue(library.getUserActiveLoans("U003").isEmpty());
+        assertNotNull(library.borrowBook("U005", HOBBIT, today));
+    }
+
+    @Test
+    void testConcurrentBorrowsOfOneItemAcrossShards() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Loan> first = pool.submit(() -> library.borrowBook("U003", NINETEEN_EIGHTY_FOUR, today));
+            Future<Loan> second = pool.submit(() -> library.borrowBook("U005", NINETEEN_EIGHTY_FOUR, today));
+            int borrowed = (first.get() != null ? 1 : 0) + (second.get() != null ? 1 : 0);
+            assertEquals(1, borrowed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFinesAreRoutedByUser() {
+        // Fines can only be paid once the loan is back
+        assertTrue(library.returnLoan("U004", "L0002", today));
+        for (var fine : library.getUserUnpaidFines("U004")) {
+            assertTrue(library.payFine("U004", fine.getFineId(), fine.getRemainingBalance()));
+        }
+        assertEquals(0.0, library.getTotalUnpaidAmount("U004"), 0.001);
+        // Another user's fines are untouched
+        assertEquals(40.0, library.getTotalUnpaidAmount("U002"), 0.001);
+    }
+
+    @Test
+    void testLoopbackShardProcesses() throws Exception {
+        try (LoopbackShardCluster cluster = LoopbackShardCluster.start(2, Duration.ofSeconds(60));
+             ShardedLibrary remote = new ShardedLibrary(cluster.getShards())) {
+            List<Loan> overdue = remote.getOverdueLoans(today);
+            assertEquals(4, overdue.size());
+            assertEquals(4, overdue.stream().map(Loan::getLoanId).distinct().count());
+
+            Loan loan = remote.borrowBook("U003", HOBBIT, today);
+            assertNotNull(loan);
+            assertEquals(1, remote.getUserActiveLoans("U003").size());
+            assertTrue(remote.returnLoan("U003", loan.getLoanId(), today));
+            assertTrue(remote.getUserActiveLoans("U003").isEmpty());
+            assertEquals(40.0, remote.getTotalUnpaidAmount("U002"), 0.001);
+        }
+    }
+
+    private LocalShard shardHolding(Loan loan) {
+        return shards.stream()
+                .filter(shard -> shard.getOverdueLoans(today).contains(loan))
+                .findFirst()
+                .orElse(null);
+    }
+}